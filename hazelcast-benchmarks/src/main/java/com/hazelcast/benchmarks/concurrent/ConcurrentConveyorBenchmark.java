@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.concurrent;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
+
+/**
+ * Measures the throughput of a {@link ConcurrentConveyor} with a single
+ * submitter and a single drainer thread. The {@code offered} and {@code
+ * drained} counters report the items that actually went through the
+ * conveyor; failed offers on a full queue are not counted.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentConveyorBenchmark {
+
+    private static final Object DONE_ITEM = new Object();
+    private static final Object ITEM = new Object();
+
+    @Param({"1024", "65536"})
+    private int queueCapacity;
+
+    @Param("128")
+    private int drainLimit;
+
+    private ConcurrentConveyor<Object> conveyor;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        @SuppressWarnings("unchecked")
+        QueuedPipe<Object>[] queues = new QueuedPipe[] {new OneToOneConcurrentArrayQueue<>(queueCapacity)};
+        conveyor = concurrentConveyor(DONE_ITEM, queues);
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(1)
+    public void offer(Counters counters) {
+        if (conveyor.offer(0, ITEM)) {
+            counters.offered++;
+        }
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(1)
+    public void drain(DrainerState drainer, Counters counters) {
+        counters.drained += conveyor.drainTo(0, drainer.sink, drainLimit);
+        drainer.sink.clear();
+    }
+
+    /**
+     * Per-thread sink the drainer empties the queue into.
+     */
+    @State(Scope.Thread)
+    public static class DrainerState {
+        final List<Object> sink = new ArrayList<>();
+    }
+
+    /**
+     * Counts items moved through the conveyor. JMH reports the values of
+     * the public getters.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        private long offered;
+        private long drained;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offered = 0;
+            drained = 0;
+        }
+
+        public long offered() {
+            return offered;
+        }
+
+        public long drained() {
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.hashslot;
+
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * Measures lookups and updates of a pre-populated {@link
+ * HashSlotArray8byteKeyImpl}. Keys are visited in random order so that the
+ * larger sizes exercise cache misses rather than a hot working set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashSlotArrayBenchmark {
+
+    private static final long UNASSIGNED_SENTINEL = 0;
+    private static final long SEED = 42;
+
+    /**
+     * Number of keys in the array, must be a power of two.
+     */
+    @Param({"1024", "1048576"})
+    private int size;
+
+    private MemoryManager memoryManager;
+    private HashSlotArray8byteKey hsa;
+    private long[] keys;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        memoryManager = new UnsafeMallocMemoryManager();
+        hsa = new HashSlotArray8byteKeyImpl(UNASSIGNED_SENTINEL, memoryManager, LONG_SIZE_IN_BYTES);
+        hsa.gotoNew();
+        SplittableRandom random = new SplittableRandom(SEED);
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            long key;
+            do {
+                key = random.nextLong();
+            } while (key == UNASSIGNED_SENTINEL || !hsa.ensure(key).isNew());
+            keys[i] = key;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        hsa.dispose();
+        memoryManager.dispose();
+    }
+
+    @Benchmark
+    public long get() {
+        return hsa.get(nextKey());
+    }
+
+    @Benchmark
+    public long ensureExisting() {
+        return hsa.ensure(nextKey()).address();
+    }
+
+    @Benchmark
+    public long removeAndEnsure() {
+        long key = nextKey();
+        hsa.remove(key);
+        return hsa.ensure(key).address();
+    }
+
+    private long nextKey() {
+        return keys[cursor++ & (size - 1)];
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IMap#get} and {@link IMap#set} against a single member
+ * bound to the loopback interface. With {@code access=member} the calls are
+ * made on the member's own proxy (local invocations), with {@code
+ * access=client} through a client connected over loopback TCP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapGetPutBenchmark {
+
+    private static final String LOOPBACK = "127.0.0.1";
+    private static final String CLUSTER_NAME = "jmh-benchmark";
+
+    @Param({"member", "client"})
+    private String access;
+
+    @Param("10000")
+    private int keyCount;
+
+    @Param("100")
+    private int valueSize;
+
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+    private IMap<Integer, byte[]> map;
+    private byte[] value;
+
+    @Setup
+    public void setup() {
+        Config config = new Config().setClusterName(CLUSTER_NAME);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface(LOOPBACK);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember(LOOPBACK);
+        member = Hazelcast.newHazelcastInstance(config);
+
+        HazelcastInstance instance = member;
+        if ("client".equals(access)) {
+            ClientConfig clientConfig = new ClientConfig().setClusterName(CLUSTER_NAME);
+            clientConfig.getNetworkConfig().addAddress(LOOPBACK + ":" + member.getCluster().getLocalMember()
+                                                                               .getAddress().getPort());
+            client = HazelcastClient.newHazelcastClient(clientConfig);
+            instance = client;
+        }
+
+        map = instance.getMap("benchmark");
+        value = new byte[valueSize];
+        for (int i = 0; i < keyCount; i++) {
+            map.set(i, value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        member.shutdown();
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return map.get(ThreadLocalRandom.current().nextInt(keyCount));
+    }
+
+    @Benchmark
+    public void set() {
+        map.set(ThreadLocalRandom.current().nextInt(keyCount), value);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.IndexUtils;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures equality and range lookups of an {@link IndexImpl} over integer
+ * values, without the query engine and partition scanning around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int PARTITION_COUNT = 271;
+    /** Number of distinct values matched by the range queries */
+    private static final int RANGE_WIDTH = 10;
+
+    @Param({"HASH", "SORTED"})
+    private IndexType indexType;
+
+    @Param("100000")
+    private int entryCount;
+
+    /**
+     * Number of distinct indexed values, each matches {@code
+     * entryCount / distinctValues} entries.
+     */
+    @Param({"1000", "100000"})
+    private int distinctValues;
+
+    private InternalSerializationService serializationService;
+    private IndexImpl index;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+        index = new IndexImpl(IndexUtils.createTestIndexConfig(indexType, "this"), serializationService, extractors,
+                IndexCopyBehavior.NEVER, PerIndexStats.EMPTY, PARTITION_COUNT);
+        for (int i = 0; i < entryCount; i++) {
+            CachedQueryEntry<Object, Object> entry = new CachedQueryEntry<>(serializationService,
+                    serializationService.toData(i), i % distinctValues, extractors);
+            index.putEntry(entry, null, entry, Index.OperationSource.USER);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.destroy();
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> equality() {
+        return index.getRecords(nextValue());
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> range() {
+        int from = nextValue();
+        return index.getRecords(from, true, from + RANGE_WIDTH, false);
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> lessThan() {
+        return index.getRecords(Comparison.LESS, RANGE_WIDTH);
+    }
+
+    private int nextValue() {
+        cursor = (cursor + 1) % distinctValues;
+        return cursor;
+    }
+}
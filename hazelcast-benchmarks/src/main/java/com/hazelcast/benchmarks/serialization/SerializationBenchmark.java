@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code toData()} and {@code toObject()} of the same object
+ * serialized as {@link IdentifiedDataSerializable}, {@link Portable} and
+ * Compact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int CLASS_ID = 1;
+    private static final long ID = 42;
+    private static final String NAME = "John Doe";
+    private static final int AGE = 35;
+    private static final double BALANCE = 1234.5;
+
+    @Param({"IDENTIFIED", "PORTABLE", "COMPACT"})
+    private String format;
+
+    private InternalSerializationService serializationService;
+    private Object object;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().setEnabled(true);
+        serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new LocalSchemaService())
+                .addDataSerializableFactory(FACTORY_ID, classId -> new IdentifiedPerson())
+                .addPortableFactory(FACTORY_ID, classId -> new PortablePerson())
+                .build();
+        switch (format) {
+            case "IDENTIFIED":
+                object = new IdentifiedPerson(ID, NAME, AGE, BALANCE);
+                break;
+            case "PORTABLE":
+                object = new PortablePerson(ID, NAME, AGE, BALANCE);
+                break;
+            case "COMPACT":
+                object = new CompactPerson(ID, NAME, AGE, BALANCE);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        data = serializationService.toData(object);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+
+    /**
+     * Schema service of a single process, there is no cluster to replicate
+     * the schemas to.
+     */
+    private static final class LocalSchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+        @Override
+        public Schema get(long schemaId) {
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            putLocal(schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+    }
+
+    public static class IdentifiedPerson implements IdentifiedDataSerializable {
+
+        private long id;
+        private String name;
+        private int age;
+        private double balance;
+
+        public IdentifiedPerson() {
+        }
+
+        IdentifiedPerson(long id, String name, int age, double balance) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.balance = balance;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeString(name);
+            out.writeInt(age);
+            out.writeDouble(balance);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            name = in.readString();
+            age = in.readInt();
+            balance = in.readDouble();
+        }
+    }
+
+    public static class PortablePerson implements Portable {
+
+        private long id;
+        private String name;
+        private int age;
+        private double balance;
+
+        public PortablePerson() {
+        }
+
+        PortablePerson(long id, String name, int age, double balance) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.balance = balance;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeString("name", name);
+            writer.writeInt("age", age);
+            writer.writeDouble("balance", balance);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            name = reader.readString("name");
+            age = reader.readInt("age");
+            balance = reader.readDouble("balance");
+        }
+    }
+
+    /**
+     * Serialized with the reflective Compact serializer.
+     */
+    public static class CompactPerson {
+
+        private long id;
+        private String name;
+        private int age;
+        private double balance;
+
+        public CompactPerson() {
+        }
+
+        CompactPerson(long id, String name, int age, double balance) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.balance = balance;
+        }
+    }
+}
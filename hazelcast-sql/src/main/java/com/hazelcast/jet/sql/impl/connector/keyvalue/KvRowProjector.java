@@ -25,6 +25,7 @@ import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.sql.impl.expression.ConstantExpression;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.compiled.ExpressionCompiler;
 import com.hazelcast.sql.impl.extract.QueryExtractor;
 import com.hazelcast.sql.impl.extract.QueryPath;
 import com.hazelcast.sql.impl.extract.QueryTarget;
@@ -72,9 +73,9 @@ public class KvRowProjector implements Row {
         this.valueTarget = valueTarget;
         this.extractors = createExtractors(paths, types, keyTarget, valueTarget);
 
-        this.predicate = predicate != null ? predicate
+        this.predicate = predicate != null ? ExpressionCompiler.compileIfEnabled(predicate)
                 : (Expression<Boolean>) ConstantExpression.create(true, QueryDataType.BOOLEAN);
-        this.projections = projections;
+        this.projections = ExpressionCompiler.compileIfEnabled(projections);
         this.evalContext = evalContext;
     }
 
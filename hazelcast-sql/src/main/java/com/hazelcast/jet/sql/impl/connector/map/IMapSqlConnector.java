@@ -160,6 +160,24 @@ public class IMapSqlConnector implements SqlConnector {
             @Nullable Expression<Boolean> filter,
             @Nonnull List<Expression<?>> projection,
             @Nullable FunctionEx<ExpressionEvalContext, EventTimePolicy<JetSqlRow>> eventTimePolicyProvider
+    ) {
+        return fullScanReader(dag, table0, filter, projection, eventTimePolicyProvider, 0);
+    }
+
+    /**
+     * Like {@link #fullScanReader(DAG, Table, Expression, List, FunctionEx)},
+     * but if {@code columnarBatchSize} is positive, the returned vertex emits
+     * {@link com.hazelcast.sql.impl.row.ColumnarBatch}es of up to that many
+     * rows.
+     */
+    @Nonnull
+    public Vertex fullScanReader(
+            @Nonnull DAG dag,
+            @Nonnull Table table0,
+            @Nullable Expression<Boolean> filter,
+            @Nonnull List<Expression<?>> projection,
+            @Nullable FunctionEx<ExpressionEvalContext, EventTimePolicy<JetSqlRow>> eventTimePolicyProvider,
+            int columnarBatchSize
     ) {
         if (eventTimePolicyProvider != null) {
             throw QueryException.error("Ordering functions are not supported on top of " + TYPE_NAME + " mappings");
@@ -180,7 +198,8 @@ public class IMapSqlConnector implements SqlConnector {
                         table.getKeyDescriptor(),
                         table.getValueDescriptor(),
                         filter,
-                        projection
+                        projection,
+                        columnarBatchSize
                 )
         );
 
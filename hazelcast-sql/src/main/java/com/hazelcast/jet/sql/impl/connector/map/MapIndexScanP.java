@@ -49,7 +49,9 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.sql.impl.exec.scan.MapIndexScanMetadata;
 import com.hazelcast.sql.impl.exec.scan.MapScanRow;
 import com.hazelcast.sql.impl.exec.scan.index.IndexFilter;
+import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.compiled.ExpressionCompiler;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -99,6 +101,8 @@ final class MapIndexScanP extends AbstractProcessor {
 
     private final ArrayList<Split> splits = new ArrayList<>();
     private MapScanRow row;
+    private Expression<Boolean> remainingFilter;
+    private List<Expression<?>> projection;
     private JetSqlRow pendingItem;
     private boolean isIndexSorted;
 
@@ -127,6 +131,8 @@ final class MapIndexScanP extends AbstractProcessor {
                 Extractors.newBuilder(evalContext.getSerializationService()).build(),
                 evalContext.getSerializationService()
         );
+        remainingFilter = ExpressionCompiler.compileIfEnabled(metadata.getRemainingFilter());
+        projection = ExpressionCompiler.compileIfEnabled(metadata.getProjection());
         isIndexSorted = metadata.getComparator() != null;
     }
 
@@ -351,7 +357,7 @@ final class MapIndexScanP extends AbstractProcessor {
                     entry.getKeyIfPresent(), entry.getKeyDataIfPresent(),
                     entry.getValueIfPresent(), entry.getValueDataIfPresent()
             );
-            return ExpressionUtil.evaluate(metadata.getRemainingFilter(), metadata.getProjection(), row, evalContext);
+            return ExpressionUtil.evaluate(remainingFilter, projection, row, evalContext);
         }
 
         private void remove() {
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.sql.impl.connector.map;
 
+import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.ResettableSingletonTraverser;
@@ -31,6 +32,8 @@ import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
 import com.hazelcast.sql.impl.extract.QueryPath;
 import com.hazelcast.sql.impl.extract.QueryTargetDescriptor;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
+import com.hazelcast.sql.impl.row.ColumnarBatchBuilder;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 import com.hazelcast.sql.impl.type.QueryDataType;
 
@@ -43,6 +46,8 @@ import java.util.List;
 public final class RowProjectorProcessorSupplier implements ProcessorSupplier, IdentifiedDataSerializable {
 
     private KvRowProjector.Supplier projectorSupplier;
+    private int batchSize;
+    private QueryDataType[] batchTypes;
 
     private transient ExpressionEvalContext evalContext;
     private transient Extractors extractors;
@@ -52,7 +57,23 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
     }
 
     public RowProjectorProcessorSupplier(KvRowProjector.Supplier projectorSupplier) {
+        this(projectorSupplier, 0, null);
+    }
+
+    /**
+     * @param batchSize  if positive, the processors emit {@link ColumnarBatch}es
+     *                   of up to this many rows instead of {@link JetSqlRow}s
+     * @param batchTypes the types of the projected fields, used if {@code
+     *                   batchSize} is positive
+     */
+    public RowProjectorProcessorSupplier(
+            KvRowProjector.Supplier projectorSupplier,
+            int batchSize,
+            QueryDataType[] batchTypes
+    ) {
         this.projectorSupplier = projectorSupplier;
+        this.batchSize = batchSize;
+        this.batchTypes = batchTypes;
     }
 
     @Override
@@ -68,6 +89,11 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
         for (int i = 0; i < count; i++) {
             ResettableSingletonTraverser<JetSqlRow> traverser = new ResettableSingletonTraverser<>();
             KvRowProjector projector = projectorSupplier.get(evalContext, extractors);
+            if (batchSize > 0) {
+                processors.add(new ColumnarBatchP(projector,
+                        new ColumnarBatchBuilder(evalContext.getSerializationService(), batchTypes, batchSize)));
+                continue;
+            }
             Processor processor = new TransformP<LazyMapEntry<Object, Object>, JetSqlRow>(entry -> {
                 traverser.accept(projector.project(entry.getKeyData(), entry.getValueData()));
                 return traverser;
@@ -80,11 +106,15 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeObject(projectorSupplier);
+        out.writeInt(batchSize);
+        out.writeObject(batchTypes);
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         projectorSupplier = in.readObject();
+        batchSize = in.readInt();
+        batchTypes = in.readObject();
     }
 
     @Override
@@ -105,7 +135,87 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
             Expression<Boolean> predicate,
             List<Expression<?>> projection
     ) {
+        return rowProjector(paths, types, keyDescriptor, valueDescriptor, predicate, projection, 0);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public static ProcessorSupplier rowProjector(
+            QueryPath[] paths,
+            QueryDataType[] types,
+            QueryTargetDescriptor keyDescriptor,
+            QueryTargetDescriptor valueDescriptor,
+            Expression<Boolean> predicate,
+            List<Expression<?>> projection,
+            int batchSize
+    ) {
+        QueryDataType[] batchTypes = null;
+        if (batchSize > 0) {
+            batchTypes = new QueryDataType[projection.size()];
+            for (int i = 0; i < batchTypes.length; i++) {
+                batchTypes[i] = projection.get(i).getType();
+            }
+        }
         return new RowProjectorProcessorSupplier(
-                KvRowProjector.supplier(paths, types, keyDescriptor, valueDescriptor, predicate, projection));
+                KvRowProjector.supplier(paths, types, keyDescriptor, valueDescriptor, predicate, projection),
+                batchSize,
+                batchTypes);
+    }
+
+    /**
+     * Projects the entries and collects the rows into {@link ColumnarBatch}es.
+     * A batch is emitted when it's full, the remaining rows on completion.
+     */
+    private static final class ColumnarBatchP extends AbstractProcessor {
+
+        private final KvRowProjector projector;
+        private final ColumnarBatchBuilder builder;
+
+        private ColumnarBatch pendingBatch;
+
+        private ColumnarBatchP(KvRowProjector projector, ColumnarBatchBuilder builder) {
+            this.projector = projector;
+            this.builder = builder;
+        }
+
+        @Override
+        protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+            if (!emitPendingBatch()) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            LazyMapEntry<Object, Object> entry = (LazyMapEntry<Object, Object>) item;
+            JetSqlRow row = projector.project(entry.getKeyData(), entry.getValueData());
+            if (row != null) {
+                builder.add(row);
+                if (builder.isFull()) {
+                    pendingBatch = builder.build();
+                    emitPendingBatch();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean complete() {
+            if (!emitPendingBatch()) {
+                return false;
+            }
+            if (!builder.isEmpty()) {
+                pendingBatch = builder.build();
+                return emitPendingBatch();
+            }
+            return true;
+        }
+
+        private boolean emitPendingBatch() {
+            if (pendingBatch == null) {
+                return true;
+            }
+            if (!tryEmit(pendingBatch)) {
+                return false;
+            }
+            pendingBatch = null;
+            return true;
+        }
     }
 }
@@ -50,9 +50,13 @@ import com.hazelcast.sql.impl.QueryParameterMetadata;
 import com.hazelcast.sql.impl.expression.ConstantExpression;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.columnar.ColumnarFilter;
+import com.hazelcast.sql.impl.expression.columnar.ColumnarProjection;
 import com.hazelcast.sql.impl.optimizer.PlanObjectKey;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 import com.hazelcast.sql.impl.schema.Table;
+import com.hazelcast.sql.impl.schema.map.PartitionedMapTable;
 import com.hazelcast.sql.impl.type.QueryDataType;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.SingleRel;
@@ -66,9 +70,11 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static com.hazelcast.function.Functions.entryKey;
+import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.processor.Processors.filterUsingServiceP;
+import static com.hazelcast.jet.core.processor.Processors.flatMapP;
 import static com.hazelcast.jet.core.processor.Processors.flatMapUsingServiceP;
 import static com.hazelcast.jet.core.processor.Processors.mapP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingServiceP;
@@ -76,6 +82,7 @@ import static com.hazelcast.jet.core.processor.Processors.sortP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.convenientSourceP;
 import static com.hazelcast.jet.sql.impl.connector.SqlConnectorUtil.getJetSqlConnector;
 import static com.hazelcast.jet.sql.impl.processors.RootResultConsumerSink.rootResultConsumerSink;
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_COLUMNAR_BATCH_SIZE;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
@@ -93,11 +100,15 @@ public class CreateDagVisitor {
     private final NodeEngine nodeEngine;
     private final Address localMemberAddress;
     private final QueryParameterMetadata parameterMetadata;
+    private final int columnarBatchSize;
+    // vertices which accept ColumnarBatches from a batched input
+    private final Set<Vertex> batchConsumers = new HashSet<>();
 
     public CreateDagVisitor(NodeEngine nodeEngine, QueryParameterMetadata parameterMetadata) {
         this.nodeEngine = nodeEngine;
         this.localMemberAddress = nodeEngine.getThisAddress();
         this.parameterMetadata = parameterMetadata;
+        this.columnarBatchSize = nodeEngine.getProperties().getInteger(SQL_COLUMNAR_BATCH_SIZE);
     }
 
     public Vertex onValues(ValuesPhysicalRel rel) {
@@ -158,6 +169,16 @@ public class CreateDagVisitor {
         Table table = rel.getTable().unwrap(HazelcastTable.class).getTarget();
         collectObjectKeys(table);
 
+        if (isBatched(rel)) {
+            return SqlConnectorUtil.<IMapSqlConnector>getJetSqlConnector(table).fullScanReader(
+                    dag,
+                    table,
+                    rel.filter(parameterMetadata),
+                    rel.projection(parameterMetadata),
+                    rel.eventTimePolicyProvider(),
+                    columnarBatchSize
+            );
+        }
         return getJetSqlConnector(table).fullScanReader(
                 dag,
                 table,
@@ -188,6 +209,16 @@ public class CreateDagVisitor {
     public Vertex onFilter(FilterPhysicalRel rel) {
         Expression<Boolean> filter = rel.filter(parameterMetadata);
 
+        if (isBatched(rel)) {
+            Vertex vertex = dag.newUniqueVertex("Filter", mapUsingServiceP(
+                    ServiceFactories.nonSharedService(ctx ->
+                            new ColumnarFilter(filter, ExpressionEvalContext.from(ctx))),
+                    (ColumnarFilter filterFn, ColumnarBatch batch) -> filterFn.apply(batch)));
+            batchConsumers.add(vertex);
+            connectInputPreserveCollation(rel, vertex);
+            return vertex;
+        }
+
         Vertex vertex = dag.newUniqueVertex("Filter", filterUsingServiceP(
                 ServiceFactories.nonSharedService(ctx ->
                         ExpressionUtil.filterFn(filter, ExpressionEvalContext.from(ctx))),
@@ -199,6 +230,16 @@ public class CreateDagVisitor {
     public Vertex onProject(ProjectPhysicalRel rel) {
         List<Expression<?>> projection = rel.projection(parameterMetadata);
 
+        if (isBatched(rel)) {
+            Vertex vertex = dag.newUniqueVertex("Project", mapUsingServiceP(
+                    ServiceFactories.nonSharedService(ctx ->
+                            new ColumnarProjection(projection, ExpressionEvalContext.from(ctx))),
+                    (ColumnarProjection projectionFn, ColumnarBatch batch) -> projectionFn.apply(batch)));
+            batchConsumers.add(vertex);
+            connectInputPreserveCollation(rel, vertex);
+            return vertex;
+        }
+
         Vertex vertex = dag.newUniqueVertex("Project", mapUsingServiceP(
                 ServiceFactories.nonSharedService(ctx ->
                         ExpressionUtil.projectionFn(projection, ExpressionEvalContext.from(ctx))),
@@ -234,7 +275,9 @@ public class CreateDagVisitor {
     }
 
     public Vertex onAggregate(AggregatePhysicalRel rel) {
-        AggregateOperation<?, JetSqlRow> aggregateOperation = rel.aggrOp();
+        AggregateOperation<?, JetSqlRow> aggregateOperation = isBatched(rel.getInput())
+                ? acceptingBatches(rel.aggrOp())
+                : rel.aggrOp();
 
         Vertex vertex = dag.newUniqueVertex(
                 "Aggregate",
@@ -243,17 +286,21 @@ public class CreateDagVisitor {
                         localMemberAddress
                 )
         );
+        batchConsumers.add(vertex);
         connectInput(rel.getInput(), vertex, edge -> edge.distributeTo(localMemberAddress).allToOne(""));
         return vertex;
     }
 
     public Vertex onAccumulate(AggregateAccumulatePhysicalRel rel) {
-        AggregateOperation<?, JetSqlRow> aggregateOperation = rel.aggrOp();
+        AggregateOperation<?, JetSqlRow> aggregateOperation = isBatched(rel.getInput())
+                ? acceptingBatches(rel.aggrOp())
+                : rel.aggrOp();
 
         Vertex vertex = dag.newUniqueVertex(
                 "Accumulate",
                 Processors.accumulateP(aggregateOperation)
         );
+        batchConsumers.add(vertex);
         connectInput(rel.getInput(), vertex, null);
         return vertex;
     }
@@ -422,7 +469,7 @@ public class CreateDagVisitor {
 
         int ordinal = 0;
         for (RelNode input : rel.getInputs()) {
-            Vertex inputVertex = ((PhysicalRel) input).accept(this);
+            Vertex inputVertex = unbatchIfNeeded(input, ((PhysicalRel) input).accept(this), merger);
             Edge edge = Edge.from(inputVertex).to(merger, ordinal++);
             dag.edge(edge);
         }
@@ -463,6 +510,7 @@ public class CreateDagVisitor {
                 "ClientSink",
                 rootResultConsumerSink(localMemberAddress, fetch, offset)
         );
+        batchConsumers.add(vertex);
 
         // We use distribute-to-one edge to send all the items to the initiator member.
         // Such edge has to be partitioned, but the sink is LP=1 anyway, so we can use
@@ -491,7 +539,7 @@ public class CreateDagVisitor {
             Vertex thisVertex,
             @Nullable Consumer<Edge> configureEdgeFn
     ) {
-        Vertex inputVertex = ((PhysicalRel) inputRel).accept(this);
+        Vertex inputVertex = unbatchIfNeeded(inputRel, ((PhysicalRel) inputRel).accept(this), thisVertex);
         Edge edge = between(inputVertex, thisVertex);
         if (configureEdgeFn != null) {
             configureEdgeFn.accept(edge);
@@ -506,8 +554,8 @@ public class CreateDagVisitor {
             RelNode rightInputRel,
             Vertex joinVertex
     ) {
-        Vertex leftInput = ((PhysicalRel) leftInputRel).accept(this);
-        Vertex rightInput = ((PhysicalRel) rightInputRel).accept(this);
+        Vertex leftInput = unbatchIfNeeded(leftInputRel, ((PhysicalRel) leftInputRel).accept(this), joinVertex);
+        Vertex rightInput = unbatchIfNeeded(rightInputRel, ((PhysicalRel) rightInputRel).accept(this), joinVertex);
 
         Edge left = between(leftInput, joinVertex).priority(LOW_PRIORITY).broadcast().distributed();
         Edge right = from(rightInput).to(joinVertex, 1).priority(HIGH_PRIORITY).unicast().local();
@@ -546,6 +594,47 @@ public class CreateDagVisitor {
         }
     }
 
+    /**
+     * Returns true if the vertex for the {@code rel} emits {@link
+     * ColumnarBatch}es. That's the case for a scan of an IMap and the filters
+     * and projections on top of it if columnar batches are enabled.
+     */
+    private boolean isBatched(RelNode rel) {
+        if (columnarBatchSize <= 0) {
+            return false;
+        }
+        if (rel instanceof FullScanPhysicalRel) {
+            FullScanPhysicalRel scan = (FullScanPhysicalRel) rel;
+            return scan.eventTimePolicyProvider() == null
+                    && scan.getTable().unwrap(HazelcastTable.class).getTarget() instanceof PartitionedMapTable;
+        }
+        if (rel instanceof FilterPhysicalRel || rel instanceof ProjectPhysicalRel) {
+            return isBatched(((SingleRel) rel).getInput());
+        }
+        return false;
+    }
+
+    /**
+     * If the {@code inputRel} is batched and {@code thisVertex} doesn't accept
+     * batches, adds a vertex converting the batches from the {@code
+     * inputVertex} back to rows and returns it. Otherwise returns the {@code
+     * inputVertex}.
+     */
+    private Vertex unbatchIfNeeded(RelNode inputRel, Vertex inputVertex, Vertex thisVertex) {
+        if (!isBatched(inputRel) || batchConsumers.contains(thisVertex)) {
+            return inputVertex;
+        }
+        Vertex unbatchVertex = dag.newUniqueVertex("Unbatch",
+                flatMapP((ColumnarBatch batch) -> traverseIterable(batch.toJetSqlRows())));
+        unbatchVertex.localParallelism(inputVertex.getLocalParallelism());
+        dag.edge(between(inputVertex, unbatchVertex).isolated());
+        return unbatchVertex;
+    }
+
+    private static <A> AggregateOperation<A, JetSqlRow> acceptingBatches(AggregateOperation<A, JetSqlRow> aggrOp) {
+        return aggrOp.withAccumulateFns(ColumnarBatch.<A>accumulateFn(aggrOp.accumulateFn(0)));
+    }
+
     private void collectObjectKeys(Table table) {
         PlanObjectKey objectKey = table.getObjectKey();
         if (objectKey != null) {
@@ -24,6 +24,8 @@ import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.util.ArrayDequeInbox;
+import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
 import com.hazelcast.jet.sql.impl.QueryResultProducerImpl;
 import com.hazelcast.nio.ObjectDataInput;
@@ -32,6 +34,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
 import com.hazelcast.sql.impl.row.EmptyRow;
 
 import javax.annotation.Nonnull;
@@ -47,6 +50,9 @@ public final class RootResultConsumerSink implements Processor {
     private final Expression<?> limitExpression;
     private final Expression<?> offsetExpression;
 
+    // rows of a ColumnarBatch not yet consumed
+    private final ArrayDequeInbox batchRows = new ArrayDequeInbox(new ProgressTracker());
+
     private QueryResultProducerImpl rootResultConsumer;
 
     private RootResultConsumerSink(Expression<?> limitExpression, Expression<?> offsetExpression) {
@@ -98,11 +104,33 @@ public final class RootResultConsumerSink implements Processor {
             }
             throw e;
         }
+        if (!batchRows.isEmpty()) {
+            consume(batchRows);
+        }
         return true;
     }
 
     @Override
     public void process(int ordinal, @Nonnull Inbox inbox) {
+        if (batchRows.isEmpty() && !(inbox.peek() instanceof ColumnarBatch)) {
+            consume(inbox);
+            return;
+        }
+
+        // the input is columnar, expand one batch at a time
+        do {
+            if (batchRows.isEmpty()) {
+                ColumnarBatch batch = (ColumnarBatch) inbox.poll();
+                if (batch == null) {
+                    return;
+                }
+                batch.forEachRow(batchRows.queue()::add);
+            }
+            consume(batchRows);
+        } while (batchRows.isEmpty());
+    }
+
+    private void consume(Inbox inbox) {
         try {
             rootResultConsumer.consume(inbox);
         } catch (QueryException e) {
@@ -115,6 +143,12 @@ public final class RootResultConsumerSink implements Processor {
 
     @Override
     public boolean complete() {
+        if (!batchRows.isEmpty()) {
+            consume(batchRows);
+            if (!batchRows.isEmpty()) {
+                return false;
+            }
+        }
         rootResultConsumer.done();
         return true;
     }
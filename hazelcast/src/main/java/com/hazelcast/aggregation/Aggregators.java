@@ -21,6 +21,7 @@ import com.hazelcast.aggregation.impl.BigDecimalSumAggregator;
 import com.hazelcast.aggregation.impl.BigIntegerAverageAggregator;
 import com.hazelcast.aggregation.impl.BigIntegerSumAggregator;
 import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.CountByValueAggregator;
 import com.hazelcast.aggregation.impl.DistinctValuesAggregator;
 import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
 import com.hazelcast.aggregation.impl.DoubleSumAggregator;
@@ -38,6 +39,7 @@ import com.hazelcast.aggregation.impl.NumberAverageAggregator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -113,6 +115,20 @@ public final class Aggregators {
         return new DistinctValuesAggregator<>(attributePath);
     }
 
+    /**
+     * @param attributePath the attribute path
+     * @param <I> type of the input object.
+     * @param <R> type of the counted values.
+     * @return an aggregator that counts the occurrences of each distinct input value extracted from the given
+     * attributePath, the group-by count of the values.
+     * Accepts null input values and null extracted values. The values are compared with equals.
+     * Aggregation result type is a Map from R to the Long count.
+     * @since 5.2
+     */
+    public static <I, R> Aggregator<I, Map<R, Long>> countByValue(String attributePath) {
+        return new CountByValueAggregator<>(attributePath);
+    }
+
     // ---------------------------------------------------------------------------------------------------------
     // average aggregators
     // ---------------------------------------------------------------------------------------------------------
@@ -40,6 +40,22 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    /**
+     * Accumulates the given number of entries at once, used when the
+     * number of matching entries is known without visiting them.
+     */
+    public void accumulateCount(long count) {
+        this.count += count;
+    }
+
+    /**
+     * Returns the attribute path of this aggregator or {@code null}
+     * if the entries themselves are counted.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.internal.util.MapUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@SuppressFBWarnings("SE_BAD_FIELD")
+public final class CountByValueAggregator<I, R>
+        extends AbstractAggregator<I, R, Map<R, Long>>
+        implements IdentifiedDataSerializable {
+
+    private Map<R, Long> counts = new HashMap<>();
+
+    public CountByValueAggregator() {
+        super();
+    }
+
+    public CountByValueAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    public void accumulateExtracted(I entry, R value) {
+        counts.merge(value, 1L, Long::sum);
+    }
+
+    /**
+     * Accumulates the given number of occurrences of the value at once, used
+     * when the number of matching entries is known without visiting them.
+     */
+    public void accumulateCount(R value, long count) {
+        counts.merge(value, count, Long::sum);
+    }
+
+    /**
+     * Returns the attribute path of this aggregator or {@code null}
+     * if the entry values themselves are counted.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void combine(Aggregator aggregator) {
+        CountByValueAggregator<I, R> countByValueAggregator = (CountByValueAggregator<I, R>) aggregator;
+        for (Map.Entry<R, Long> entry : countByValueAggregator.counts.entrySet()) {
+            counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+    }
+
+    @Override
+    public Map<R, Long> aggregate() {
+        return counts;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregatorDataSerializerHook.COUNT_BY_VALUE;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(attributePath);
+        out.writeInt(counts.size());
+        for (Map.Entry<R, Long> entry : counts.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        this.attributePath = in.readString();
+        int count = in.readInt();
+        this.counts = new HashMap<>(MapUtil.calculateInitialCapacity(count));
+        for (int i = 0; i < count; i++) {
+            R value = in.readObject();
+            counts.put(value, in.readLong());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        CountByValueAggregator<?, ?> that = (CountByValueAggregator<?, ?>) o;
+        return counts.equals(that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), counts);
+    }
+}
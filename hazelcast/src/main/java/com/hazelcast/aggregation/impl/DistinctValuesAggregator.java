@@ -47,6 +47,14 @@ public final class DistinctValuesAggregator<I, R>
         values.addInternal(value);
     }
 
+    /**
+     * Returns the attribute path of this aggregator or {@code null}
+     * if the entry values themselves are collected.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
@@ -19,10 +19,14 @@ package com.hazelcast.cardinality;
 import com.hazelcast.config.SplitBrainProtectionConfig;
 import com.hazelcast.core.DistributedObject;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import javax.annotation.Nonnull;
 
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+
 /**
  * CardinalityEstimator is a redundant and highly available distributed
  * data-structure used for probabilistic cardinality estimation purposes,
@@ -134,4 +138,50 @@ public interface CardinalityEstimator extends DistributedObject {
      * @since 3.8
      */
     CompletionStage<Long> estimateAsync();
+
+    /**
+     * Adds all the objects of the given collection to the estimation set.
+     * On a member, all of them are aggregated with a single operation, which
+     * is considerably cheaper than calling {@link #add(Object)} for each.
+     * <p>
+     * Objects are considered identical if they are serialized into the same
+     * binary blob.
+     * In other words: It does <strong>not</strong> use Java equality.
+     * <p>
+     * The default implementation calls {@link #add(Object)} for each object.
+     *
+     * @param objects objects to add in the estimation set.
+     * @throws NullPointerException if the collection or any of its objects is null
+     * @since 5.2
+     */
+    default void addAll(@Nonnull Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+        for (Object obj : objects) {
+            add(obj);
+        }
+    }
+
+    /**
+     * Adds all the objects of the given collection to the estimation set.
+     * <p>
+     * This method will dispatch a request and return immediately a {@link CompletionStage},
+     * see {@link #addAll(Collection)} and {@link #addAsync(Object)}.
+     * <p>
+     * The default implementation calls {@link #addAsync(Object)} for each
+     * object and completes when all of them complete.
+     *
+     * @param objects objects to add in the estimation set.
+     * @return a {@link CompletionStage} API consumers can use to chain further computation stages
+     * @throws NullPointerException if the collection or any of its objects is null
+     * @since 5.2
+     */
+    default CompletionStage<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+        CompletableFuture<?>[] futures = new CompletableFuture[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            futures[i++] = addAsync(obj).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(futures);
+    }
 }
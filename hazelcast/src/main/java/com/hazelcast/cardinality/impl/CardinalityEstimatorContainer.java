@@ -53,6 +53,10 @@ public class CardinalityEstimatorContainer
         hll.add(hash);
     }
 
+    public void addAll(long[] hashes) {
+        hll.addAll(hashes);
+    }
+
     public long estimate() {
         return hll.estimate();
     }
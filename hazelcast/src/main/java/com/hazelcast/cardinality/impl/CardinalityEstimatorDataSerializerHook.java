@@ -19,6 +19,8 @@ package com.hazelcast.cardinality.impl;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.DenseHyperLogLogEncoder;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogImpl;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.SparseHyperLogLogEncoder;
+import com.hazelcast.cardinality.impl.operations.AggregateAllBackupOperation;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateBackupOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateOperation;
 import com.hazelcast.cardinality.impl.operations.EstimateOperation;
@@ -49,6 +51,8 @@ public final class CardinalityEstimatorDataSerializerHook
     public static final int HLL_SPARSE_ENC = 7;
     public static final int MERGE = 8;
     public static final int MERGE_BACKUP = 9;
+    public static final int ADD_ALL = 10;
+    public static final int AGGREGATE_ALL_BACKUP = 11;
 
     @Override
     public int getFactoryId() {
@@ -81,6 +85,10 @@ public final class CardinalityEstimatorDataSerializerHook
                         return new MergeOperation();
                     case MERGE_BACKUP:
                         return new MergeBackupOperation();
+                    case ADD_ALL:
+                        return new AggregateAllOperation();
+                    case AGGREGATE_ALL_BACKUP:
+                        return new AggregateAllBackupOperation();
                     default:
                         return null;
                 }
@@ -17,15 +17,21 @@
 package com.hazelcast.cardinality.impl;
 
 import com.hazelcast.cardinality.CardinalityEstimator;
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateOperation;
 import com.hazelcast.cardinality.impl.operations.EstimateOperation;
+import com.hazelcast.cardinality.impl.operations.MergeOperation;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.spi.impl.AbstractDistributedObject;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.InvocationFuture;
+import com.hazelcast.spi.merge.HyperLogLogMergePolicy;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
@@ -82,6 +88,43 @@ public class CardinalityEstimatorProxy
         return invokeOnPartition(operation);
     }
 
+    @Override
+    public void addAll(@Nonnull Collection<?> objects) {
+        addAllAsync(objects).joinInternal();
+    }
+
+    @Override
+    public InvocationFuture<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        long[] hashes = new long[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            checkNotNull(obj, "Object must not be null");
+            hashes[i++] = serializationService.toData(obj).hash64();
+        }
+        Operation operation = new AggregateAllOperation(name, hashes)
+                .setPartitionId(partitionId);
+        return invokeOnPartition(operation);
+    }
+
+    /**
+     * Merges the given sketch into the estimator, so that it estimates the
+     * union of both sets. The sketch must be built from the same hashes as
+     * the estimator uses, the {@link Data#hash64()} of the serialized
+     * objects.
+     */
+    public InvocationFuture<Void> mergeAsync(@Nonnull HyperLogLog sketch) {
+        checkNotNull(sketch, "Sketch must not be null");
+        // the merge policy merges the existing sketch into the given one and
+        // keeps it, the caller's instance must not end up in the container
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        HyperLogLog copy = serializationService.toObject(serializationService.toData(sketch));
+        Operation operation = new MergeOperation(name, new HyperLogLogMergePolicy(), copy)
+                .setPartitionId(partitionId);
+        return invokeOnPartition(operation);
+    }
+
     @Override
     public String toString() {
         return "CardinalityEstimator{" + "name='" + name + '\'' + '}';
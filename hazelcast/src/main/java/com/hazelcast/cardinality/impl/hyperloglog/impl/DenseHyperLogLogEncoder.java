@@ -80,6 +80,30 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
         return false;
     }
 
+    /**
+     * Aggregates the hash values starting at the given offset in the registers.
+     * Unlike calling {@link #add(long)} for every hash, the register updates
+     * run in a single loop without any per-hash bookkeeping.
+     *
+     * @param hashes the hash values to aggregate
+     * @param from   the index of the first hash to aggregate
+     * @return {@code true} if any of the registers changed
+     */
+    boolean addAll(long[] hashes, int from) {
+        final int indexMask = register.length - 1;
+        boolean changed = false;
+        for (int i = from; i < hashes.length; i++) {
+            final long hash = hashes[i];
+            final int index = (int) hash & indexMask;
+            final byte value = (byte) (Long.numberOfTrailingZeros((hash >>> p) | pFenseMask) + 1);
+            if (value > register[index]) {
+                register[index] = value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public long estimate() {
         final double raw = (1 / computeE()) * alpha() * m * m;
@@ -88,13 +112,13 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
 
     @Override
     public HyperLogLogEncoder merge(HyperLogLogEncoder encoder) {
-        DenseHyperLogLogEncoder otherDense;
         if (SPARSE.equals(encoder.getEncodingType())) {
-            otherDense = (DenseHyperLogLogEncoder) ((SparseHyperLogLogEncoder) encoder).asDense();
-        } else {
-            otherDense = (DenseHyperLogLogEncoder) encoder;
+            // no need to materialize the sparse registers as a dense copy first
+            ((SparseHyperLogLogEncoder) encoder).mergeInto(register);
+            return this;
         }
 
+        DenseHyperLogLogEncoder otherDense = (DenseHyperLogLogEncoder) encoder;
         for (int i = 0; i < register.length; i++) {
             register[i] = (byte) Math.max(register[i], otherDense.register[i]);
         }
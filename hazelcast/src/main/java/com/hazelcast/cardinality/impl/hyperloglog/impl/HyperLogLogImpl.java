@@ -70,8 +70,18 @@ public class HyperLogLogImpl
 
     @Override
     public void addAll(long[] hashes) {
-        for (long hash : hashes) {
-            add(hash);
+        boolean changed = false;
+        int i = 0;
+        // the sparse encoder may turn dense after any of the hashes
+        while (i < hashes.length && SPARSE.equals(encoder.getEncodingType())) {
+            convertToDenseIfNeeded();
+            changed |= encoder.add(hashes[i++]);
+        }
+        if (i < hashes.length) {
+            changed |= ((DenseHyperLogLogEncoder) encoder).addAll(hashes, i);
+        }
+        if (changed) {
+            cachedEstimate = null;
         }
     }
 
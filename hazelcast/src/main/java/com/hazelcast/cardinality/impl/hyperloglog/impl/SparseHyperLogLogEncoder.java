@@ -132,15 +132,23 @@ public class SparseHyperLogLogEncoder
     }
 
     HyperLogLogEncoder asDense() {
+        byte[] dense = new byte[1 << this.p];
+        mergeInto(dense);
+        return new DenseHyperLogLogEncoder(p, dense);
+    }
+
+    /**
+     * Merges the registers of this encoder into the given dense registers
+     * of the same precision.
+     */
+    void mergeInto(byte[] dense) {
+        assert dense.length == 1 << p;
         mergeAndResetTmp();
 
-        byte[] dense = new byte[1 << this.p];
         for (int hash : register.explode()) {
             int index = decodeHashPIndex(hash);
             dense[index] = (byte) Math.max(dense[index], decodeHashRunOfZeros(hash));
         }
-
-        return new DenseHyperLogLogEncoder(p, dense);
     }
 
     private int encodeHash(long hash) {
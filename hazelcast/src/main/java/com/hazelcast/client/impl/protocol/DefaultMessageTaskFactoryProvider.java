@@ -71,6 +71,7 @@ import com.hazelcast.client.impl.protocol.codec.CacheRemovePartitionLostListener
 import com.hazelcast.client.impl.protocol.codec.CacheReplaceCodec;
 import com.hazelcast.client.impl.protocol.codec.CacheSetExpiryPolicyCodec;
 import com.hazelcast.client.impl.protocol.codec.CacheSizeCodec;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddAllCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorEstimateCodec;
 import com.hazelcast.client.impl.protocol.codec.ClientAddClusterViewListenerCodec;
@@ -477,6 +478,7 @@ import com.hazelcast.client.impl.protocol.task.cache.CacheRemovePartitionLostLis
 import com.hazelcast.client.impl.protocol.task.cache.CacheReplaceMessageTask;
 import com.hazelcast.client.impl.protocol.task.cache.CacheSetExpiryPolicyMessageTask;
 import com.hazelcast.client.impl.protocol.task.cache.CacheSizeMessageTask;
+import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorAddAllMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorAddMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorEstimateMessageTask;
 import com.hazelcast.client.impl.protocol.task.crdt.pncounter.PNCounterAddMessageTask;
@@ -1567,6 +1569,8 @@ public class DefaultMessageTaskFactoryProvider implements MessageTaskFactoryProv
     private void initializeCardinalityTaskFactories() {
         factories.put(CardinalityEstimatorAddCodec.REQUEST_MESSAGE_TYPE,
                 (cm, con) -> new CardinalityEstimatorAddMessageTask(cm, node, con));
+        factories.put(CardinalityEstimatorAddAllCodec.REQUEST_MESSAGE_TYPE,
+                (cm, con) -> new CardinalityEstimatorAddAllMessageTask(cm, node, con));
         factories.put(CardinalityEstimatorEstimateCodec.REQUEST_MESSAGE_TYPE,
                 (cm, con) -> new CardinalityEstimatorEstimateMessageTask(cm, node, con));
     }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.task.cardinality;
+
+import com.hazelcast.cardinality.impl.CardinalityEstimatorService;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddAllCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractPartitionMessageTask;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.CardinalityEstimatorPermission;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.security.Permission;
+
+public class CardinalityEstimatorAddAllMessageTask
+        extends AbstractPartitionMessageTask<CardinalityEstimatorAddAllCodec.RequestParameters> {
+
+    public CardinalityEstimatorAddAllMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        return new AggregateAllOperation(parameters.name, parameters.hashes);
+    }
+
+    @Override
+    protected CardinalityEstimatorAddAllCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return CardinalityEstimatorAddAllCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        return CardinalityEstimatorAddAllCodec.encodeResponse();
+    }
+
+    @Override
+    public String getServiceName() {
+        return CardinalityEstimatorService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new CardinalityEstimatorPermission(parameters.name, ActionConstants.ACTION_MODIFY);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "addAll";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[] { parameters.name, parameters.hashes };
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.client.impl.proxy;
 
 import com.hazelcast.cardinality.CardinalityEstimator;
 import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddAllCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorEstimateCodec;
 import com.hazelcast.client.impl.spi.ClientContext;
@@ -25,6 +26,7 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 
@@ -62,6 +64,24 @@ public class ClientCardinalityEstimatorProxy
         return invokeOnPartitionAsync(request, clientMessage -> null);
     }
 
+    @Override
+    public void addAll(@Nonnull Collection<?> objects) {
+        addAllAsync(objects).joinInternal();
+    }
+
+    @Override
+    public InternalCompletableFuture<Void> addAllAsync(@Nonnull Collection<?> objects) {
+        checkNotNull(objects, "Objects must not be null");
+        long[] hashes = new long[objects.size()];
+        int i = 0;
+        for (Object obj : objects) {
+            checkNotNull(obj, "Object must not be null");
+            hashes[i++] = toData(obj).hash64();
+        }
+        ClientMessage request = CardinalityEstimatorAddAllCodec.encodeRequest(name, hashes);
+        return invokeOnPartitionAsync(request, clientMessage -> null);
+    }
+
     @Override
     public InternalCompletableFuture<Long> estimateAsync() {
         ClientMessage request = CardinalityEstimatorEstimateCodec.encodeRequest(name);
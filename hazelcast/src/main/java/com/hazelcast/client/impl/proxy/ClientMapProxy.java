@@ -96,6 +96,7 @@ import com.hazelcast.client.impl.spi.EventHandler;
 import com.hazelcast.client.impl.spi.impl.ClientInvocation;
 import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
 import com.hazelcast.client.impl.spi.impl.ListenerMessageCodec;
+import com.hazelcast.client.map.impl.ClientMapGetCoalescer;
 import com.hazelcast.client.map.impl.iterator.ClientMapIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapIterator;
 import com.hazelcast.client.map.impl.iterator.ClientMapPartitionIterable;
@@ -103,6 +104,7 @@ import com.hazelcast.client.map.impl.iterator.ClientMapPartitionIterator;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterator;
+import com.hazelcast.client.map.impl.iterator.ClientMapSpliterator;
 import com.hazelcast.client.map.impl.querycache.ClientQueryCacheContext;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.IndexConfig;
@@ -146,6 +148,7 @@ import com.hazelcast.ringbuffer.impl.ReadResultSetImpl;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.UnmodifiableLazyList;
 import com.hazelcast.spi.impl.UnmodifiableLazySet;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -165,7 +168,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static com.hazelcast.client.properties.ClientProperty.MAP_GET_COALESCING_ENABLED;
+import static com.hazelcast.client.properties.ClientProperty.MAP_GET_COALESCING_MAX_BATCH_SIZE;
 import static com.hazelcast.internal.util.CollectionUtil.objectToDataCollection;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
@@ -210,6 +217,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
     private boolean useDefaultReplaceAllOperation;
+    private ClientMapGetCoalescer getCoalescer;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
         super(serviceName, name, context);
@@ -221,6 +229,11 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         lockReferenceIdGenerator = getClient().getLockReferenceIdGenerator();
         queryCacheContext = getContext().getQueryCacheContext();
+        HazelcastProperties properties = getClient().getProperties();
+        if (properties.getBoolean(MAP_GET_COALESCING_ENABLED)) {
+            getCoalescer = new ClientMapGetCoalescer(getClient(), name,
+                    properties.getInteger(MAP_GET_COALESCING_MAX_BATCH_SIZE));
+        }
     }
 
     @Override
@@ -256,6 +269,10 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     protected Object getInternal(Object key) {
         Data keyData = toData(key);
+        if (getCoalescer != null) {
+            int partitionId = getContext().getPartitionService().getPartitionId(keyData);
+            return getCoalescer.get(keyData, partitionId);
+        }
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
         ClientMessage response = invoke(request, keyData);
         return MapGetCodec.decodeResponse(response);
@@ -1838,6 +1855,62 @@ public class ClientMapProxy<K, V> extends ClientProxy
         return new ClientMapIterable<>(this, fetchSize, partitionCount, prefetchValues);
     }
 
+    /**
+     * Returns a parallel stream over the entries in all of the partitions.
+     * If {@code prefetchValues} is {@code true}, values will be sent along
+     * with the keys and no additional data will be fetched when iterating.
+     * If {@code false}, only keys will be sent and values will be fetched
+     * when calling {@code Map.Entry.getValue()} lazily.
+     * <p>
+     * The partitions are grouped by their owner member when the stream is
+     * created and the stream splits along these groups, so the entries are
+     * fetched from all members in parallel. Within a group the partitions
+     * are read one after the other in batches of {@code fetchSize} entries,
+     * and the next batch is only requested after the current one has been
+     * consumed. The same guarantees as for
+     * {@link #iterator(int, int, boolean)} apply.
+     * <p>
+     * The splits of a parallel stream block while waiting for a batch, so
+     * the parallelism is bounded by the {@link java.util.concurrent.ForkJoinPool}
+     * which executes the terminal operation of the stream.
+     *
+     * @param fetchSize      the size of the batches which will be sent when iterating the data
+     * @param prefetchValues whether to send values along with keys (if true) or to fetch them lazily when iterating (if false)
+     * @return a parallel stream over the entries
+     */
+    @Nonnull
+    public Stream<Entry<K, V>> stream(int fetchSize, boolean prefetchValues) {
+        ClientMapSpliterator<Entry<K, V>> spliterator = new ClientMapSpliterator<>(
+                partitionId -> iterator(fetchSize, partitionId, prefetchValues), getContext().getPartitionService());
+        return StreamSupport.stream(spliterator, true);
+    }
+
+    /**
+     * Returns a parallel stream over the result of the projection on
+     * entries in all of the partitions which satisfy the {@code predicate}.
+     * The entries are fetched from all members in parallel, the same way
+     * as for {@link #stream(int, boolean)}.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. null value is not allowed
+     * @param predicate  the predicate which the entries must match. null value is not allowed
+     * @param <R>        the return type
+     * @return a parallel stream over the projected entries
+     * @throws IllegalArgumentException if the predicate is of type {@link PagingPredicate}
+     */
+    @Nonnull
+    public <R> Stream<R> stream(int fetchSize,
+                                @Nonnull Projection<? super Map.Entry<K, V>, R> projection,
+                                @Nonnull Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "stream");
+        ClientMapSpliterator<R> spliterator = new ClientMapSpliterator<>(
+                partitionId -> iterator(fetchSize, partitionId, projection, predicate), getContext().getPartitionService());
+        return StreamSupport.stream(spliterator, true);
+    }
+
     @Override
     public InternalCompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.client.impl.spi.impl.ClientInvocationServiceImpl;
+import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.ExceptionUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coalesces concurrent {@code IMap.get} calls targeting the same partition
+ * into {@link MapGetAllCodec} requests.
+ * <p>
+ * A get for a partition without an outstanding request is sent right away.
+ * Gets issued while a request for their partition is in flight are queued
+ * and sent together as a single request when it completes. Batches
+ * therefore only form when several threads read from the same partition
+ * concurrently, and a get issued on an idle partition is never delayed.
+ * <p>
+ * All requests, including the single-key ones, are getAll requests, so all
+ * coalesced gets have the same semantics. Unlike a {@link MapGetCodec}
+ * request, a getAll request doesn't wait for a key locked by a transaction,
+ * so a queued get can't be stalled by a get blocked on such a lock.
+ * <p>
+ * The responses of a getAll request are fanned back out to the waiting
+ * callers. A failed request fails all the gets it carried. A caller waits
+ * at most the client invocation timeout.
+ */
+public class ClientMapGetCoalescer {
+
+    private final HazelcastClientInstanceImpl client;
+    private final String name;
+    private final int maxBatchSize;
+    private final long invocationTimeoutMillis;
+    private final ConcurrentMap<Integer, PartitionBatch> batches = new ConcurrentHashMap<>();
+
+    public ClientMapGetCoalescer(HazelcastClientInstanceImpl client, String name, int maxBatchSize) {
+        this.client = client;
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.invocationTimeoutMillis =
+                ((ClientInvocationServiceImpl) client.getInvocationService()).getInvocationTimeoutMillis();
+    }
+
+    /**
+     * Returns the value for the given key, or {@code null} if the map does
+     * not contain it. Blocks until the response for the request carrying the
+     * key is received, at most for the client invocation timeout.
+     *
+     * @throws OperationTimeoutException if the response wasn't received in time
+     */
+    public Data get(Data keyData, int partitionId) {
+        PendingGet pendingGet = new PendingGet(keyData);
+        PartitionBatch batch = batches.computeIfAbsent(partitionId, PartitionBatch::new);
+        if (batch.offer(pendingGet)) {
+            List<PendingGet> gets = new ArrayList<>(1);
+            gets.add(pendingGet);
+            send(batch, gets);
+        }
+        try {
+            return pendingGet.future.get(invocationTimeoutMillis, MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new OperationTimeoutException("Get on map " + name + " timed out after "
+                    + invocationTimeoutMillis + " ms while coalesced with other gets on partition " + partitionId);
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
+    private void send(PartitionBatch batch, List<PendingGet> gets) {
+        try {
+            Set<Data> keys = new LinkedHashSet<>();
+            for (PendingGet get : gets) {
+                keys.add(get.keyData);
+            }
+            ClientMessage request = MapGetAllCodec.encodeRequest(name, keys);
+            new ClientInvocation(client, request, name, batch.partitionId).invoke()
+                    .whenCompleteAsync((response, throwable) -> {
+                        if (throwable == null) {
+                            complete(response, gets);
+                        } else {
+                            fail(gets, throwable);
+                        }
+                        sendNext(batch);
+                    }, CALLER_RUNS);
+        } catch (Throwable t) {
+            fail(gets, t);
+            sendNext(batch);
+        }
+    }
+
+    private void sendNext(PartitionBatch batch) {
+        List<PendingGet> gets = batch.drain(maxBatchSize);
+        if (gets != null) {
+            send(batch, gets);
+        }
+    }
+
+    private static void complete(ClientMessage response, List<PendingGet> gets) {
+        try {
+            List<Map.Entry<Data, Data>> entries = MapGetAllCodec.decodeResponse(response);
+            Map<Data, Data> values = createHashMap(entries.size());
+            for (Map.Entry<Data, Data> entry : entries) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+            for (PendingGet get : gets) {
+                get.future.complete(values.get(get.keyData));
+            }
+        } catch (Throwable t) {
+            fail(gets, t);
+        }
+    }
+
+    private static void fail(List<PendingGet> gets, Throwable throwable) {
+        for (PendingGet get : gets) {
+            get.future.completeExceptionally(throwable);
+        }
+    }
+
+    private static final class PendingGet {
+
+        private final Data keyData;
+        private final CompletableFuture<Data> future = new CompletableFuture<>();
+
+        private PendingGet(Data keyData) {
+            this.keyData = keyData;
+        }
+    }
+
+    /**
+     * Gets queued for a single partition while a request for it is in flight.
+     */
+    private static final class PartitionBatch {
+
+        private final int partitionId;
+        private List<PendingGet> queued = new ArrayList<>();
+        private boolean inFlight;
+
+        private PartitionBatch(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        /**
+         * Queues the get if a request is in flight for the partition.
+         *
+         * @return {@code true} if no request was in flight and the caller
+         * should send the get itself
+         */
+        synchronized boolean offer(PendingGet get) {
+            if (inFlight) {
+                queued.add(get);
+                return false;
+            }
+            inFlight = true;
+            return true;
+        }
+
+        /**
+         * Takes up to {@code maxBatchSize} queued gets to be sent as the next
+         * request, or marks the partition idle and returns {@code null} if
+         * nothing is queued.
+         */
+        synchronized List<PendingGet> drain(int maxBatchSize) {
+            if (queued.isEmpty()) {
+                inFlight = false;
+                return null;
+            }
+            if (queued.size() <= maxBatchSize) {
+                List<PendingGet> gets = queued;
+                queued = new ArrayList<>();
+                return gets;
+            }
+            List<PendingGet> gets = new ArrayList<>(queued.subList(0, maxBatchSize));
+            queued.subList(0, maxBatchSize).clear();
+            return gets;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl.iterator;
+
+import com.hazelcast.client.impl.spi.ClientPartitionService;
+import com.hazelcast.internal.util.ConstructorFunction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Client-side {@link Spliterator} for iterating map entries in the whole
+ * cluster. The partitions are grouped by their owner member and the
+ * spliterator splits along these groups, so a parallel stream reads from
+ * all members at the same time, with one split per member.
+ * <p>
+ * Within a group the partitions are iterated one after the other with
+ * the supplied partition iterators, which fetch the entries in batches.
+ * A new batch is only fetched once the current one has been consumed,
+ * so a slow consumer is never ahead of more than one batch per split.
+ * The ownership of the partitions is only used for the grouping, the
+ * batches are always fetched from the current owner of a partition.
+ *
+ * @param <T> the type of the elements
+ * @see ClientMapPartitionIterator
+ * @see ClientMapQueryPartitionIterator
+ */
+public class ClientMapSpliterator<T> implements Spliterator<T> {
+
+    private final ConstructorFunction<Integer, Iterator<T>> createPartitionIterator;
+    private final List<int[]> partitionGroups;
+
+    private int lo;
+    private int hi;
+    private int partitionIndex;
+    private Iterator<T> it;
+
+    public ClientMapSpliterator(ConstructorFunction<Integer, Iterator<T>> createPartitionIterator,
+                                ClientPartitionService partitionService) {
+        this(createPartitionIterator, groupByOwner(partitionService));
+    }
+
+    ClientMapSpliterator(ConstructorFunction<Integer, Iterator<T>> createPartitionIterator, List<int[]> partitionGroups) {
+        this(createPartitionIterator, partitionGroups, 0, partitionGroups.size());
+    }
+
+    private ClientMapSpliterator(ConstructorFunction<Integer, Iterator<T>> createPartitionIterator,
+                                 List<int[]> partitionGroups, int lo, int hi) {
+        this.createPartitionIterator = createPartitionIterator;
+        this.partitionGroups = partitionGroups;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (it == null || !it.hasNext()) {
+            if (!nextPartition()) {
+                return false;
+            }
+        }
+        action.accept(it.next());
+        return true;
+    }
+
+    private boolean nextPartition() {
+        while (lo < hi) {
+            int[] partitionIds = partitionGroups.get(lo);
+            if (partitionIndex < partitionIds.length) {
+                it = createPartitionIterator.createNew(partitionIds[partitionIndex++]);
+                return true;
+            }
+            lo++;
+            partitionIndex = 0;
+        }
+        it = null;
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (hi - lo < 2) {
+            return null;
+        }
+        // the current group stays with this spliterator, even if it has been started already
+        int mid = (lo + hi) >>> 1;
+        Spliterator<T> split = new ClientMapSpliterator<>(createPartitionIterator, partitionGroups, mid, hi);
+        hi = mid;
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return 0;
+    }
+
+    private static List<int[]> groupByOwner(ClientPartitionService partitionService) {
+        int partitionCount = partitionService.getPartitionCount();
+        Map<UUID, List<Integer>> partitionsByOwner = new LinkedHashMap<>();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            UUID owner = partitionService.getPartitionOwner(partitionId);
+            partitionsByOwner.computeIfAbsent(owner, k -> new ArrayList<>()).add(partitionId);
+        }
+
+        List<int[]> partitionGroups = new ArrayList<>(partitionsByOwner.size());
+        for (List<Integer> partitionIds : partitionsByOwner.values()) {
+            partitionGroups.add(partitionIds.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return partitionGroups;
+    }
+}
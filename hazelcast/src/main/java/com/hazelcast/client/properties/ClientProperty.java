@@ -310,6 +310,32 @@ public final class ClientProperty {
     public static final HazelcastProperty METRICS_COLLECTION_FREQUENCY
             = new HazelcastProperty("hazelcast.client.metrics.collection.frequency", 5);
 
+    /**
+     * Enables coalescing of concurrent {@code IMap.get} calls.
+     * <p>
+     * When enabled, gets issued while another get request for the same
+     * partition is still outstanding are queued and sent together as a single
+     * getAll request once the outstanding one completes. A get on a partition
+     * without an outstanding request is sent immediately. This reduces the
+     * number of messages when many threads read small entries concurrently,
+     * at the cost of gets on a busy partition waiting for the previous
+     * request to complete.
+     * <p>
+     * All gets are then sent as getAll requests and, like {@code
+     * IMap.getAll}, don't wait for keys locked by a transaction.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty MAP_GET_COALESCING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.get.coalescing.enabled", false);
+
+    /**
+     * The maximum number of keys sent in a single coalesced getAll request
+     * when {@link #MAP_GET_COALESCING_ENABLED} is set.
+     */
+    public static final HazelcastProperty MAP_GET_COALESCING_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.client.map.get.coalescing.max.batch.size", 100);
+
 
     private ClientProperty() {
     }
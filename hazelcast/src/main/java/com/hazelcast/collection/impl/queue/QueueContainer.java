@@ -27,6 +27,7 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.CollectionUtil;
 import com.hazelcast.internal.util.MapUtil;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -35,16 +36,15 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.transaction.TransactionException;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
@@ -77,8 +77,8 @@ public class QueueContainer implements IdentifiedDataSerializable {
     /**
      * Contains item ID to queue item mappings for current transactions
      */
-    private final Map<Long, TxQueueItem> txMap = new HashMap<>();
-    private final Map<Long, Data> dataMap = new HashMap<>();
+    private final Long2ObjectHashMap<TxQueueItem> txMap = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<Data> dataMap = new Long2ObjectHashMap<>();
     private QueueWaitNotifyKey pollWaitNotifyKey;
     private QueueWaitNotifyKey offerWaitNotifyKey;
     private Queue<QueueItem> itemQueue;
@@ -301,16 +301,24 @@ public class QueueContainer implements IdentifiedDataSerializable {
     private void addTxItemOrdered(TxQueueItem txQueueItem) {
         if (isPriorityQueue) {
             getItemQueue().add(txQueueItem);
+            return;
+        }
+        Deque<QueueItem> deque = (Deque<QueueItem>) getItemQueue();
+        if (deque.isEmpty() || txQueueItem.itemId < deque.peekFirst().itemId) {
+            deque.addFirst(txQueueItem);
+        } else if (txQueueItem.itemId >= deque.peekLast().itemId) {
+            deque.addLast(txQueueItem);
         } else {
-            ListIterator<QueueItem> iterator = ((List<QueueItem>) getItemQueue()).listIterator();
-            while (iterator.hasNext()) {
-                QueueItem queueItem = iterator.next();
-                if (txQueueItem.itemId < queueItem.itemId) {
-                    iterator.previous();
-                    break;
-                }
+            // the item belongs somewhere in the middle, move the items
+            // preceding it aside and put them back in front of it
+            Deque<QueueItem> preceding = new ArrayDeque<>();
+            while (deque.peekFirst().itemId <= txQueueItem.itemId) {
+                preceding.push(deque.pollFirst());
+            }
+            deque.addFirst(txQueueItem);
+            while (!preceding.isEmpty()) {
+                deque.addFirst(preceding.pop());
             }
-            iterator.add(txQueueItem);
         }
     }
 
@@ -918,7 +926,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
      */
     public Queue<QueueItem> getItemQueue() {
         if (itemQueue == null) {
-            itemQueue = isPriorityQueue ? createPriorityQueue() : createLinkedList();
+            itemQueue = isPriorityQueue ? createPriorityQueue() : createArrayDeque();
             if (!txMap.isEmpty()) {
                 long maxItemId = Long.MIN_VALUE;
                 for (TxQueueItem item : txMap.values()) {
@@ -930,8 +938,8 @@ public class QueueContainer implements IdentifiedDataSerializable {
         return itemQueue;
     }
 
-    private Queue<QueueItem> createLinkedList() {
-        Queue<QueueItem> queue = new LinkedList<>();
+    private Queue<QueueItem> createArrayDeque() {
+        Deque<QueueItem> queue = new ArrayDeque<>();
         ConcurrentMap<Long, QueueItem> backupMap = this.backupMap;
         if (MapUtil.isNullOrEmpty(backupMap)) {
             return queue;
@@ -940,7 +948,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
         List<QueueItem> values = new ArrayList<>(backupMap.values());
         Collections.sort(values);
         queue.addAll(values);
-        QueueItem lastItem = ((LinkedList<QueueItem>) queue).peekLast();
+        QueueItem lastItem = queue.peekLast();
         if (lastItem != null) {
             setId(lastItem.itemId + ID_PROMOTION_OFFSET);
         }
@@ -1060,7 +1068,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
         ClassLoader classLoader = nodeEngine.getConfigClassLoader();
 
         // in case we need to create a priority queue
-        // we recreate the queue using the items that are currently a LinkedList
+        // we recreate the queue using the items that are currently in an ArrayDeque
         // otherwise, no change is needed
         if (itemQueue != null && isPriorityQueue) {
             Queue<QueueItem> copy = createPriorityQueue();
@@ -1157,11 +1165,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
             if (transactionId.equals(item.getTransactionId())) {
                 iterator.remove();
                 if (item.isPollOperation()) {
-                    if (isPriorityQueue) {
-                        getItemQueue().offer(item);
-                    } else {
-                        ((LinkedList) getItemQueue()).offerFirst(item);
-                    }
+                    addTxItemOrdered(item);
                     cancelEvictionIfExists();
                 }
             }
@@ -1189,7 +1193,7 @@ public class QueueContainer implements IdentifiedDataSerializable {
         int size = in.readInt();
         // on cluster migration queue data are stored temporary to a default priority queue.
         // those data are copied at a later point
-        itemQueue = new LinkedList<>();
+        itemQueue = new ArrayDeque<>();
         for (int j = 0; j < size; j++) {
             QueueItem item = in.readObject();
             item.setContainer(this);
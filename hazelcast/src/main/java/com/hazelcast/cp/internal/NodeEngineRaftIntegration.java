@@ -79,6 +79,34 @@ final class NodeEngineRaftIntegration implements RaftIntegration {
     public static final HazelcastProperty RAFT_LINEARIZABLE_READ_OPTIMIZATION_ENABLED
             = new HazelcastProperty("raft.linearizable.read.optimization.enabled", true);
 
+    /**
+     * Enables / disables the leader lease for linearizable reads described
+     * in the Raft Dissertation Section 6.4.1. When enabled, the Raft leader
+     * runs linearizable queries, such as {@code IAtomicLong.get()}, locally
+     * without a heartbeat round while the majority has acked its append
+     * requests within the lease duration. Safety of the lease depends on
+     * bounded clock drift between CP members.
+     */
+    public static final HazelcastProperty RAFT_LEADER_LEASE_READ_ENABLED
+            = new HazelcastProperty("raft.leader.lease.read.enabled", false);
+
+    /**
+     * Percentage of the leader election timeout cut from the leader lease
+     * to tolerate the clock drift between CP members.
+     */
+    public static final HazelcastProperty RAFT_LEADER_LEASE_CLOCK_DRIFT_PERCENTAGE
+            = new HazelcastProperty("raft.leader.lease.clock.drift.percentage", 10);
+
+    /**
+     * Maximum number of append requests the Raft leader sends to a follower
+     * without waiting for their responses. The default value {@code 1} makes
+     * the leader wait for the response of an append request before sending
+     * the next one. Higher values pipeline the replication, so that the
+     * throughput of CP writes is not bounded by one append request per round
+     * trip per follower.
+     */
+    public static final HazelcastProperty RAFT_APPEND_REQUEST_MAX_IN_FLIGHT_COUNT
+            = new HazelcastProperty("raft.append.request.max.in.flight.count", 1);
 
     private final NodeEngineImpl nodeEngine;
     private final CPGroupId groupId;
@@ -90,6 +118,9 @@ final class NodeEngineRaftIntegration implements RaftIntegration {
     private final int partitionId;
     private final int threadId;
     private final boolean linearizableReadOptimizationEnabled;
+    private final boolean leaderLeaseReadEnabled;
+    private final int leaderLeaseClockDriftPercentage;
+    private final int maxInFlightAppendRequestCount;
 
     NodeEngineRaftIntegration(NodeEngineImpl nodeEngine, CPGroupId groupId, RaftEndpoint localCPMember, int partitionId) {
         this.nodeEngine = nodeEngine;
@@ -104,6 +135,9 @@ final class NodeEngineRaftIntegration implements RaftIntegration {
         this.taskScheduler = nodeEngine.getExecutionService().getGlobalTaskScheduler();
         this.linearizableReadOptimizationEnabled = nodeEngine.getProperties()
                                                              .getBoolean(RAFT_LINEARIZABLE_READ_OPTIMIZATION_ENABLED);
+        this.leaderLeaseReadEnabled = nodeEngine.getProperties().getBoolean(RAFT_LEADER_LEASE_READ_ENABLED);
+        this.leaderLeaseClockDriftPercentage = nodeEngine.getProperties().getInteger(RAFT_LEADER_LEASE_CLOCK_DRIFT_PERCENTAGE);
+        this.maxInFlightAppendRequestCount = nodeEngine.getProperties().getInteger(RAFT_APPEND_REQUEST_MAX_IN_FLIGHT_COUNT);
     }
 
     @Override
@@ -142,6 +176,21 @@ final class NodeEngineRaftIntegration implements RaftIntegration {
         return linearizableReadOptimizationEnabled;
     }
 
+    @Override
+    public boolean isLeaderLeaseReadEnabled() {
+        return leaderLeaseReadEnabled;
+    }
+
+    @Override
+    public int getLeaderLeaseClockDriftPercentage() {
+        return leaderLeaseClockDriftPercentage;
+    }
+
+    @Override
+    public int getMaxInFlightAppendRequestCount() {
+        return maxInFlightAppendRequestCount;
+    }
+
     @Override
     public ILogger getLogger(String name) {
         return nodeEngine.getLogger(name);
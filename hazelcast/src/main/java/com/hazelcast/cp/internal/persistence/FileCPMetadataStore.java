@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cp.CPMember;
+import com.hazelcast.cp.internal.RaftGroupId;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readFile;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.writeAtomically;
+
+/**
+ * {@link CPMetadataStore} that keeps each piece of the CP member metadata
+ * in its own file in a local directory. The files are replaced atomically.
+ */
+class FileCPMetadataStore implements CPMetadataStore {
+
+    static final String AP_MEMBER_FILE = "ap-member";
+    static final String CP_MEMBER_FILE = "cp-member";
+    static final String ACTIVE_MEMBERS_FILE = "active-members";
+    static final String METADATA_GROUP_ID_FILE = "metadata-group-id";
+    static final String MEMBER_UUID_FILE = "member-uuid";
+
+    private final File dir;
+    private final Supplier<InternalSerializationService> serializationService;
+
+    FileCPMetadataStore(@Nonnull File dir, @Nonnull Supplier<InternalSerializationService> serializationService) {
+        this.dir = dir;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public boolean isMarkedAPMember() {
+        return new File(dir, AP_MEMBER_FILE).exists();
+    }
+
+    @Override
+    public synchronized boolean tryMarkAPMember() throws IOException {
+        if (containsLocalMemberFile()) {
+            return false;
+        }
+        writeAtomically(createDir(), AP_MEMBER_FILE, new byte[0]);
+        return true;
+    }
+
+    @Override
+    public boolean containsLocalMemberFile() {
+        return new File(dir, CP_MEMBER_FILE).exists();
+    }
+
+    @Override
+    public synchronized void persistLocalCPMember(CPMember member) throws IOException {
+        BufferObjectDataOutput out = serializationService.get().createObjectDataOutput();
+        out.writeObject(member);
+        // written first, the member must come back with the same UUID once the CP member file exists
+        writeAtomically(createDir(), MEMBER_UUID_FILE, member.getUuid().toString().getBytes(StandardCharsets.UTF_8));
+        writeAtomically(dir, CP_MEMBER_FILE, out.toByteArray());
+    }
+
+    /**
+     * Returns the UUID of the persisted local CP member or {@code null}.
+     * Unlike {@link #readLocalCPMember()}, it does not need the
+     * serialization service, so it can be called while the node is created.
+     */
+    UUID readLocalMemberUuid() throws IOException {
+        File file = new File(dir, MEMBER_UUID_FILE);
+        if (!containsLocalMemberFile() || !file.exists()) {
+            return null;
+        }
+        return UUID.fromString(new String(readFile(file), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public CPMember readLocalCPMember() throws IOException {
+        File file = new File(dir, CP_MEMBER_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        return serializationService.get().createObjectDataInput(readFile(file)).readObject();
+    }
+
+    @Override
+    public synchronized void persistActiveCPMembers(Collection<? extends CPMember> members, long commitIndex)
+            throws IOException {
+        BufferObjectDataOutput out = serializationService.get().createObjectDataOutput();
+        out.writeLong(commitIndex);
+        out.writeInt(members.size());
+        for (CPMember member : members) {
+            out.writeObject(member);
+        }
+        writeAtomically(createDir(), ACTIVE_MEMBERS_FILE, out.toByteArray());
+    }
+
+    @Override
+    public long readActiveCPMembers(Collection<CPMember> members) throws IOException {
+        File file = new File(dir, ACTIVE_MEMBERS_FILE);
+        if (!file.exists()) {
+            return 0;
+        }
+        BufferObjectDataInput in = serializationService.get().createObjectDataInput(readFile(file));
+        long commitIndex = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            members.add(in.readObject());
+        }
+        return commitIndex;
+    }
+
+    @Override
+    public synchronized void persistMetadataGroupId(RaftGroupId groupId) throws IOException {
+        BufferObjectDataOutput out = serializationService.get().createObjectDataOutput();
+        out.writeObject(groupId);
+        writeAtomically(createDir(), METADATA_GROUP_ID_FILE, out.toByteArray());
+    }
+
+    @Override
+    public RaftGroupId readMetadataGroupId() throws IOException {
+        File file = new File(dir, METADATA_GROUP_ID_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        return serializationService.get().createObjectDataInput(readFile(file)).readObject();
+    }
+
+    private File createDir() throws IOException {
+        Files.createDirectories(dir.toPath());
+        return dir;
+    }
+}
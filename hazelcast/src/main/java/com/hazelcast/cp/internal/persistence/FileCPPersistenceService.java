@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cp.CPMember;
+import com.hazelcast.cp.internal.CPMemberInfo;
+import com.hazelcast.cp.internal.MetadataRaftGroupManager;
+import com.hazelcast.cp.internal.RaftGroupId;
+import com.hazelcast.cp.internal.RaftService;
+import com.hazelcast.cp.internal.raft.impl.persistence.FileRaftStateLoader;
+import com.hazelcast.cp.internal.raft.impl.persistence.FileRaftStateStore;
+import com.hazelcast.cp.internal.raft.impl.persistence.LogFileStructure;
+import com.hazelcast.cp.internal.raft.impl.persistence.RaftStateStore;
+import com.hazelcast.cp.internal.raft.impl.persistence.RestoredRaftState;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.DirectoryLock;
+import com.hazelcast.logging.ILogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.UUID;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readFile;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.writeAtomically;
+import static com.hazelcast.internal.nio.IOUtil.delete;
+
+/**
+ * {@link CPPersistenceService} that keeps the CP member metadata and the
+ * state of the local Raft nodes in a local directory, so that a CP member
+ * restarted with the same address and directory rejoins its CP groups.
+ * <p>
+ * The directory contains a {@value #METADATA_DIR} directory handled by
+ * {@link FileCPMetadataStore} and a {@value #GROUPS_DIR} directory with
+ * one {@link FileRaftStateStore} directory per CP group. The directory is
+ * locked while the member is running.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#CP_PERSISTENCE_DIRECTORY
+ */
+public class FileCPPersistenceService implements CPPersistenceService {
+
+    static final String METADATA_DIR = "metadata";
+    static final String GROUPS_DIR = "groups";
+    static final String GROUP_ID_FILE = "group-id";
+
+    private final Node node;
+    private final ILogger logger;
+    private final File groupsDir;
+    private final DirectoryLock directoryLock;
+    private final FileCPMetadataStore metadataStore;
+
+    public FileCPPersistenceService(@Nonnull Node node, @Nonnull File dir) {
+        this.node = node;
+        this.logger = node.getLogger(getClass());
+        try {
+            Files.createDirectories(dir.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create CP persistence directory " + dir.getAbsolutePath(), e);
+        }
+        this.directoryLock = DirectoryLock.lockForDirectory(dir, logger);
+        this.groupsDir = new File(dir, GROUPS_DIR);
+        this.metadataStore = new FileCPMetadataStore(new File(dir, METADATA_DIR), this::serializationService);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public CPMetadataStore getCPMetadataStore() {
+        return metadataStore;
+    }
+
+    @Override
+    public RaftStateStore createRaftStateStore(@Nonnull RaftGroupId groupId, @Nullable LogFileStructure logFileStructure) {
+        File groupDir = groupDir(groupId);
+        try {
+            if (logFileStructure == null) {
+                // a new Raft node, drop whatever a previous incarnation of the group left behind
+                delete(groupDir);
+            }
+            Files.createDirectories(groupDir.toPath());
+            BufferObjectDataOutput out = serializationService().createObjectDataOutput();
+            out.writeObject(groupId);
+            writeAtomically(groupDir, GROUP_ID_FILE, out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create Raft state directory " + groupDir.getAbsolutePath(), e);
+        }
+        return new FileRaftStateStore(groupDir, serializationService(), logFileStructure);
+    }
+
+    @Override
+    public void removeRaftStateStore(@Nonnull RaftGroupId groupId) {
+        delete(groupDir(groupId));
+    }
+
+    @Override
+    public void reset() {
+        delete(groupsDir);
+        delete(new File(directoryLock.getDir(), METADATA_DIR));
+    }
+
+    /**
+     * Returns the UUID of the persisted local CP member, or {@code null} if
+     * this member was not a CP member before. A restored CP member must
+     * join with its former UUID, since its CP identity is bound to it.
+     */
+    @Nullable
+    public UUID localMemberUuid() {
+        try {
+            return metadataStore.readLocalMemberUuid();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the local CP member from "
+                    + directoryLock.getDir().getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Restores the local CP member, the METADATA group id and the local Raft
+     * nodes from the directory. Must be called before the member joins the
+     * cluster. Does nothing if this member was not a CP member before.
+     */
+    public void restore() {
+        try {
+            CPMember localMember = metadataStore.readLocalCPMember();
+            if (localMember == null) {
+                return;
+            }
+            RaftService raftService = node.getNodeEngine().getService(RaftService.SERVICE_NAME);
+            MetadataRaftGroupManager metadataGroupManager = raftService.getMetadataGroupManager();
+
+            // the METADATA group id is persisted only when it differs from the initial one
+            RaftGroupId metadataGroupId = metadataStore.readMetadataGroupId();
+            if (metadataGroupId != null) {
+                metadataGroupManager.restoreMetadataGroupId(metadataGroupId);
+            }
+            // Raft nodes resolve the addresses of their peers from these members
+            Collection<CPMember> activeMembers = new ArrayList<>();
+            long commitIndex = metadataStore.readActiveCPMembers(activeMembers);
+            raftService.updateInvocationManagerMembers(metadataGroupManager.getMetadataGroupId().getSeed(), commitIndex,
+                    activeMembers);
+
+            File[] groupDirs = groupsDir.listFiles(File::isDirectory);
+            if (groupDirs != null) {
+                for (File groupDir : groupDirs) {
+                    restoreRaftNode(raftService, groupDir);
+                }
+            }
+
+            metadataGroupManager.restoreLocalCPMember((CPMemberInfo) localMember);
+            logger.info("Restored local CP member " + localMember + " from " + directoryLock.getDir().getAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot restore CP state from " + directoryLock.getDir().getAbsolutePath(), e);
+        }
+    }
+
+    private void restoreRaftNode(RaftService raftService, File groupDir) throws IOException {
+        File groupIdFile = new File(groupDir, GROUP_ID_FILE);
+        if (!groupIdFile.exists()) {
+            logger.warning("Skipping " + groupDir.getAbsolutePath() + " since it does not contain a CP group id");
+            return;
+        }
+        RaftGroupId groupId = serializationService().createObjectDataInput(readFile(groupIdFile)).readObject();
+        FileRaftStateLoader loader = new FileRaftStateLoader(groupDir, serializationService());
+        RestoredRaftState restoredState;
+        try {
+            restoredState = loader.load();
+        } catch (FileNotFoundException e) {
+            // the member stopped before the Raft node persisted its initial members
+            logger.warning("Skipping " + groupId + " since its Raft state was not persisted: " + e.getMessage());
+            delete(groupDir);
+            return;
+        }
+        raftService.restoreRaftNode(groupId, restoredState, loader.logFileStructure());
+    }
+
+    /**
+     * Releases the lock on the directory.
+     */
+    public void shutdown() {
+        directoryLock.release();
+    }
+
+    private File groupDir(RaftGroupId groupId) {
+        return new File(groupsDir, groupId.getSeed() + "-" + groupId.getId());
+    }
+
+    private InternalSerializationService serializationService() {
+        return node.getSerializationService();
+    }
+}
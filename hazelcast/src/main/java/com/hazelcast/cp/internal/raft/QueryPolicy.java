@@ -48,7 +48,10 @@ public enum QueryPolicy {
      * Query Raft state in a linearizable manner, either by appending
      * a log entry to Raft log or using the algorithm defined in
      * <i>6.4 Processing read-only queries more efficiently</i>
-     * section of Raft dissertation.
+     * section of Raft dissertation. When the leader lease is enabled, the
+     * leader runs the query locally while the majority has acked its append
+     * requests recently, as described in <i>6.4.1 Using clocks to reduce
+     * messaging for read-only queries</i>.
      */
     LINEARIZABLE
 }
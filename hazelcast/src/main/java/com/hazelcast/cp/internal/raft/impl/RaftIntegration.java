@@ -237,6 +237,34 @@ public interface RaftIntegration {
      */
     boolean isLinearizableReadOptimizationEnabled();
 
+    /**
+     * Returns true if the leader runs linearizable queries locally while
+     * it holds a lease granted by the majority.
+     * <p>
+     * A follower rejects vote requests for a leader election timeout after
+     * it receives an append request from the leader (see Section 4.2.3 of
+     * the Raft Dissertation). Hence, once the majority acks append requests
+     * of the leader, no other leader can be elected within a leader election
+     * timeout after those append requests were sent, and the leader can skip
+     * the heartbeat round of the linearizable read optimization. See Section
+     * 6.4.1 of the Raft Dissertation for more information.
+     */
+    boolean isLeaderLeaseReadEnabled();
+
+    /**
+     * Returns the percentage of the leader election timeout that is cut
+     * from the leader lease to tolerate the clock drift between CP members.
+     */
+    int getLeaderLeaseClockDriftPercentage();
+
+    /**
+     * Returns the maximum number of append requests the leader sends to
+     * a follower without waiting for their responses. If it is greater than
+     * {@code 1}, the leader pipelines append requests, and entries appended
+     * back to back are batched into a single append request.
+     */
+    int getMaxInFlightAppendRequestCount();
+
     /**
      * Returns the CP member instance of the given Raft endpoint
      */
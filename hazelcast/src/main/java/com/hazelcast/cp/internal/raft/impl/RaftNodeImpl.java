@@ -50,11 +50,14 @@ import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
 import com.hazelcast.cp.internal.raft.impl.persistence.NopRaftStateStore;
 import com.hazelcast.cp.internal.raft.impl.persistence.RaftStateStore;
 import com.hazelcast.cp.internal.raft.impl.persistence.RestoredRaftState;
+import com.hazelcast.cp.internal.raft.impl.state.AppendRequestPipeline;
 import com.hazelcast.cp.internal.raft.impl.state.FollowerState;
 import com.hazelcast.cp.internal.raft.impl.state.LeaderState;
 import com.hazelcast.cp.internal.raft.impl.state.QueryState;
 import com.hazelcast.cp.internal.raft.impl.state.RaftGroupMembers;
 import com.hazelcast.cp.internal.raft.impl.state.RaftState;
+import com.hazelcast.cp.internal.raft.impl.task.AppendRequestBackoffResetTask;
+import com.hazelcast.cp.internal.raft.impl.task.BroadcastAppendRequestTask;
 import com.hazelcast.cp.internal.raft.impl.task.InitLeadershipTransferTask;
 import com.hazelcast.cp.internal.raft.impl.task.MembershipChangeTask;
 import com.hazelcast.cp.internal.raft.impl.task.PreVoteTask;
@@ -73,7 +76,6 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -87,6 +89,7 @@ import static com.hazelcast.cp.internal.raft.impl.RaftNodeStatus.UPDATING_GROUP_
 import static com.hazelcast.cp.internal.raft.impl.RaftRole.FOLLOWER;
 import static com.hazelcast.cp.internal.raft.impl.RaftRole.LEADER;
 import static com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry.isNonInitial;
+import static com.hazelcast.cp.internal.raft.impl.state.LeaderState.leaseDurationNanos;
 import static com.hazelcast.cp.internal.raft.impl.state.RaftState.newRaftState;
 import static com.hazelcast.cp.internal.raft.impl.state.RaftState.restoreRaftState;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
@@ -103,6 +106,7 @@ public final class RaftNodeImpl implements RaftNode {
     private static final int LEADER_ELECTION_TIMEOUT_RANGE = 1000;
     private static final long RAFT_NODE_INIT_DELAY_MILLIS = 500;
     private static final float RATIO_TO_KEEP_LOGS_AFTER_SNAPSHOT = 0.1f;
+    private static final int LEADER_LEASE_RENEWAL_ROUNDS = 4;
 
     private final CPGroupId groupId;
     private final ILogger logger;
@@ -118,11 +122,13 @@ public final class RaftNodeImpl implements RaftNode {
     private final int maxMissedLeaderHeartbeatCount;
     private final long appendRequestBackoffTimeoutInMillis;
     private final int maxNumberOfLogsToKeepAfterSnapshot;
-    private final Runnable appendRequestBackoffResetTask;
+    private final long leaderLeaseDurationNanos;
+    private final AppendRequestPipeline appendRequestPipeline;
+    private final AppendRequestBackoffResetTask appendRequestBackoffResetTask;
     private final Runnable flushTask;
+    private final BroadcastAppendRequestTask broadcastAppendRequestTask;
 
     private long lastAppendEntriesTimestamp;
-    private boolean appendRequestBackoffResetTaskScheduled;
     private boolean flushTaskSubmitted;
     private volatile RaftNodeStatus status = INITIAL;
 
@@ -145,10 +151,14 @@ public final class RaftNodeImpl implements RaftNode {
         this.maxMissedLeaderHeartbeatCount = raftAlgorithmConfig.getMaxMissedLeaderHeartbeatCount();
         this.maxNumberOfLogsToKeepAfterSnapshot = (int) (commitIndexAdvanceCountToSnapshot * RATIO_TO_KEEP_LOGS_AFTER_SNAPSHOT);
         this.appendRequestBackoffTimeoutInMillis = raftAlgorithmConfig.getAppendRequestBackoffTimeoutInMillis();
+        this.leaderLeaseDurationNanos = leaseDurationNanos(leaderElectionTimeout, raftIntegration);
+        this.appendRequestPipeline = new AppendRequestPipeline(raftIntegration.getMaxInFlightAppendRequestCount(),
+                appendRequestMaxEntryCount, appendRequestBackoffTimeoutInMillis);
         int logCapacity = commitIndexAdvanceCountToSnapshot + maxUncommittedEntryCount + maxNumberOfLogsToKeepAfterSnapshot;
         this.state = newRaftState(groupId, localMember, members, logCapacity, stateStore);
         this.logger = getLogger(RaftNode.class);
-        this.appendRequestBackoffResetTask = new AppendRequestBackoffResetTask();
+        this.appendRequestBackoffResetTask = new AppendRequestBackoffResetTask(this, appendRequestBackoffTimeoutInMillis);
+        this.broadcastAppendRequestTask = new BroadcastAppendRequestTask(this, raftIntegration);
         if (stateStore instanceof NopRaftStateStore) {
            this.flushTask = null;
            this.flushTaskSubmitted = true;
@@ -174,10 +184,14 @@ public final class RaftNodeImpl implements RaftNode {
         this.maxMissedLeaderHeartbeatCount = config.getMaxMissedLeaderHeartbeatCount();
         this.maxNumberOfLogsToKeepAfterSnapshot = (int) (commitIndexAdvanceCountToSnapshot * RATIO_TO_KEEP_LOGS_AFTER_SNAPSHOT);
         this.appendRequestBackoffTimeoutInMillis = config.getAppendRequestBackoffTimeoutInMillis();
+        this.leaderLeaseDurationNanos = leaseDurationNanos(leaderElectionTimeout, raftIntegration);
+        this.appendRequestPipeline = new AppendRequestPipeline(raftIntegration.getMaxInFlightAppendRequestCount(),
+                appendRequestMaxEntryCount, appendRequestBackoffTimeoutInMillis);
         int logCapacity = commitIndexAdvanceCountToSnapshot + maxUncommittedEntryCount + maxNumberOfLogsToKeepAfterSnapshot;
         this.state = restoreRaftState(groupId, restoredState, logCapacity, stateStore);
         this.logger = getLogger(RaftNode.class);
-        this.appendRequestBackoffResetTask = new AppendRequestBackoffResetTask();
+        this.appendRequestBackoffResetTask = new AppendRequestBackoffResetTask(this, appendRequestBackoffTimeoutInMillis);
+        this.broadcastAppendRequestTask = new BroadcastAppendRequestTask(this, raftIntegration);
         if (stateStore instanceof NopRaftStateStore) {
             this.flushTask = null;
             this.flushTaskSubmitted = true;
@@ -570,15 +584,8 @@ public final class RaftNodeImpl implements RaftNode {
             return false;
         }
 
-        long commitIndex = state.commitIndex();
-        RaftLog log = state.log();
-
         // If the leader has not yet marked an entry from its current term committed, it waits until it has done so. (§6.4)
-        // last committed entry is either in the last snapshot or still in the log
-        LogEntry lastCommittedEntry = commitIndex == log.snapshotIndex() ? log.snapshot() : log.getLogEntry(commitIndex);
-        assert lastCommittedEntry != null;
-
-        if (lastCommittedEntry.term() != state.term()) {
+        if (!state.isLastCommittedEntryFromCurrentTerm()) {
             return false;
         }
 
@@ -596,6 +603,16 @@ public final class RaftNodeImpl implements RaftNode {
         return raftIntegration.isLinearizableReadOptimizationEnabled();
     }
 
+    /**
+     * Returns true if the local Raft node is the leader and holds a lease granted by the majority, hence it can
+     * run a linearizable query locally. The lease is not used while a leadership transfer is in progress.
+     */
+    public boolean canQueryWithLeaderLease() {
+        return raftIntegration.isLeaderLeaseReadEnabled() && state.role() == LEADER && state.leadershipTransferState() == null
+                && state.isLastCommittedEntryFromCurrentTerm()
+                && state.leaderState().isMajorityLeaseValid(state.majority(), leaderLeaseDurationNanos, System.nanoTime());
+    }
+
     /**
      * Schedules periodic leader failure detection task.
      */
@@ -643,12 +660,34 @@ public final class RaftNodeImpl implements RaftNode {
      * Broadcasts append-entries request to all group members according to their nextIndex parameters.
      */
     public void broadcastAppendRequest() {
+        if (raftIntegration.isLeaderLeaseReadEnabled()) {
+            state.leaderState().queryState().tryStartQueryRound(leaderLeaseDurationNanos / LEADER_LEASE_RENEWAL_ROUNDS);
+        }
         for (RaftEndpoint follower : state.remoteMembers()) {
             sendAppendRequest(follower);
         }
         updateLastAppendEntriesTimestamp();
     }
 
+    /**
+     * Broadcasts append-entries requests for the entries appended to the Raft
+     * log. If append request pipelining is enabled, the broadcast is deferred
+     * to a task submitted to the Raft thread, so that the entries appended by
+     * the replicate tasks running back to back are sent in a single append
+     * request instead of one append request per entry.
+     */
+    public void broadcastAppendedEntries() {
+        if (appendRequestPipeline.isEnabled()) {
+            broadcastAppendRequestTask.submit();
+        } else {
+            broadcastAppendRequest();
+        }
+    }
+
+    public AppendRequestPipeline appendRequestPipeline() {
+        return appendRequestPipeline;
+    }
+
     /**
      * Sends an append-entries request to the follower member.
      * <p>
@@ -693,7 +732,7 @@ public final class RaftNodeImpl implements RaftNode {
             // no need to submit the flush task here because we send committed state...
             raftIntegration.send(installSnapshot, follower);
             followerState.setMaxAppendRequestBackoff();
-            scheduleAppendAckResetTask();
+            appendRequestBackoffResetTask.schedule();
             return;
         }
 
@@ -701,6 +740,7 @@ public final class RaftNodeImpl implements RaftNode {
         long prevEntryIndex = 0;
         LogEntry[] entries;
         boolean shouldBackoff = true;
+        boolean pipelined = false;
 
         if (nextIndex > 1) {
             prevEntryIndex = nextIndex - 1;
@@ -719,6 +759,13 @@ public final class RaftNodeImpl implements RaftNode {
             } else if (nextIndex <= raftLog.lastLogOrSnapshotIndex()) {
                 // Then, once the matchIndex immediately precedes the nextIndex,
                 // the leader should begin to send the actual entries
+                pipelined = appendRequestPipeline.isEnabled();
+                if (pipelined && appendRequestPipeline.isWindowFull(followerState)) {
+                    // We will continue either when the follower acks the in-flight entries or a back-off timeout occurs.
+                    followerState.setAppendRequestBackoff();
+                    appendRequestBackoffResetTask.schedule();
+                    return;
+                }
                 long end = min(nextIndex + appendRequestMaxEntryCount, raftLog.lastLogOrSnapshotIndex());
                 entries = raftLog.getEntriesBetween(nextIndex, end);
             } else {
@@ -753,9 +800,15 @@ public final class RaftNodeImpl implements RaftNode {
             submitFlushTask();
         }
 
+        if (pipelined) {
+            // The next append request continues after these entries without waiting for the response.
+            shouldBackoff = appendRequestPipeline.onEntriesSent(followerState, entries[entries.length - 1].index());
+            appendRequestBackoffResetTask.schedule();
+        }
+
         if (shouldBackoff) {
             followerState.setAppendRequestBackoff();
-            scheduleAppendAckResetTask();
+            appendRequestBackoffResetTask.schedule();
         }
     }
 
@@ -1166,21 +1219,6 @@ public final class RaftNodeImpl implements RaftNode {
         printMemberState();
     }
 
-    /**
-     * Schedules a task to reset append request backoff flags,
-     * if not scheduled already.
-     *
-     * @see RaftAlgorithmConfig#getAppendRequestBackoffTimeoutInMillis()
-     */
-    private void scheduleAppendAckResetTask() {
-        if (appendRequestBackoffResetTaskScheduled) {
-            return;
-        }
-
-        appendRequestBackoffResetTaskScheduled = true;
-        schedule(appendRequestBackoffResetTask, appendRequestBackoffTimeoutInMillis);
-    }
-
     private void submitFlushTask() {
         if (flushTaskSubmitted) {
             return;
@@ -1396,6 +1434,10 @@ public final class RaftNodeImpl implements RaftNode {
                         logger.warning("We are FOLLOWER and there is no current leader. Will start new election round...");
                         runPreVoteTask();
                     }
+                } else if (isLeaderLeaseGranted()) {
+                    // If we granted a lease to the leader, we do not break it by voting for ourselves,
+                    // even if the leader is not reachable or its heartbeats are timed-out.
+                    return;
                 } else if (!raftIntegration.isReachable(leader)) {
                     logger.warning("Current leader " + leader + " is not reachable. Will start new election round...");
                     resetLeaderAndStartElection();
@@ -1413,6 +1455,11 @@ public final class RaftNodeImpl implements RaftNode {
             }
         }
 
+        private boolean isLeaderLeaseGranted() {
+            return raftIntegration.isLeaderLeaseReadEnabled()
+                    && lastAppendEntriesTimestamp > Clock.currentTimeMillis() - leaderElectionTimeout;
+        }
+
         final void resetLeaderAndStartElection() {
             leader(null);
             runPreVoteTask();
@@ -1425,39 +1472,6 @@ public final class RaftNodeImpl implements RaftNode {
         }
     }
 
-    /**
-     * If the append request backoff flag is set for any follower, this task resets
-     * the flag, sends a new append request, and schedules itself again.
-     */
-    private class AppendRequestBackoffResetTask extends RaftNodeStatusAwareTask {
-        AppendRequestBackoffResetTask() {
-            super(RaftNodeImpl.this);
-        }
-
-        @Override
-        protected void innerRun() {
-            appendRequestBackoffResetTaskScheduled = false;
-            LeaderState leaderState = state.leaderState();
-
-            if (leaderState != null) {
-                Map<RaftEndpoint, FollowerState> followerStates = leaderState.getFollowerStates();
-                for (Entry<RaftEndpoint, FollowerState> entry : followerStates.entrySet()) {
-                    FollowerState followerState = entry.getValue();
-                    if (!followerState.isAppendRequestBackoffSet()) {
-                        continue;
-                    }
-                    if (followerState.completeAppendRequestBackoffRound()) {
-                        // This follower has not sent a response to the last append request.
-                        // Send another append request
-                        sendAppendRequest(entry.getKey());
-                    }
-                    // Schedule the task again, we still have backoff flag set followers
-                    scheduleAppendAckResetTask();
-                }
-            }
-        }
-    }
-
     private class FlushTask extends RaftNodeStatusAwareTask {
         FlushTask() {
             super(RaftNodeImpl.this);
@@ -21,6 +21,7 @@ import com.hazelcast.cp.internal.raft.impl.RaftNodeImpl;
 import com.hazelcast.cp.internal.raft.impl.dto.AppendFailureResponse;
 import com.hazelcast.cp.internal.raft.impl.dto.AppendRequest;
 import com.hazelcast.cp.internal.raft.impl.dto.AppendSuccessResponse;
+import com.hazelcast.cp.internal.raft.impl.state.AppendRequestPipeline;
 import com.hazelcast.cp.internal.raft.impl.state.FollowerState;
 import com.hazelcast.cp.internal.raft.impl.state.LeaderState;
 import com.hazelcast.cp.internal.raft.impl.state.RaftState;
@@ -83,6 +84,18 @@ public class AppendFailureResponseHandlerTask extends AbstractResponseHandlerTas
         long nextIndex = followerState.nextIndex();
         long matchIndex = followerState.matchIndex();
 
+        AppendRequestPipeline pipeline = raftNode.appendRequestPipeline();
+        if (pipeline.isFirstFailureInWindow(followerState, resp.expectedNextIndex())) {
+            // The append requests pipelined after the failed one may fail as well.
+            // Since our logs match until the match index, we continue from there.
+            followerState.appendRequestAckReceived();
+            if (logger.isFineEnabled()) {
+                logger.fine("Resetting next index: " + (matchIndex + 1) + " for follower: " + resp.follower());
+            }
+            pipeline.rewind(followerState);
+            return true;
+        }
+
         if (resp.expectedNextIndex() == nextIndex) {
             // Received a response for the last append request. Resetting the flag...
             followerState.appendRequestAckReceived();
@@ -27,6 +27,7 @@ import com.hazelcast.cp.internal.raft.impl.state.QueryState;
 import com.hazelcast.cp.internal.raft.impl.state.RaftState;
 
 import static com.hazelcast.cp.internal.raft.impl.RaftRole.LEADER;
+import static java.lang.Math.max;
 
 /**
  * Handles {@link AppendSuccessResponse} sent by
@@ -92,6 +93,10 @@ public class AppendSuccessResponseHandlerTask extends AbstractResponseHandlerTas
             }
         }
 
+        if (resp.term() == state.term()) {
+            leaderState.renewLease(follower, resp.queryRound());
+        }
+
         long matchIndex = followerState.matchIndex();
         long followerLastLogIndex = resp.lastLogIndex();
 
@@ -99,7 +104,8 @@ public class AppendSuccessResponseHandlerTask extends AbstractResponseHandlerTas
             // Received a response for the last append request. Resetting the flag...
             followerState.appendRequestAckReceived();
 
-            long newNextIndex = followerLastLogIndex + 1;
+            // With pipelining, the next index may be already advanced beyond the acked entries.
+            long newNextIndex = max(followerLastLogIndex + 1, followerState.nextIndex());
             followerState.matchIndex(followerLastLogIndex);
             followerState.nextIndex(newNextIndex);
 
@@ -129,7 +135,8 @@ public class AppendSuccessResponseHandlerTask extends AbstractResponseHandlerTas
 
     private void trySendAppendRequest(RaftState state) {
         long followerLastLogIndex = resp.lastLogIndex();
-        if (state.log().lastLogOrSnapshotIndex() > followerLastLogIndex || state.commitIndex() == followerLastLogIndex) {
+        long nextIndex = state.leaderState().getFollowerState(resp.follower()).nextIndex();
+        if (state.log().lastLogOrSnapshotIndex() >= nextIndex || state.commitIndex() == followerLastLogIndex) {
             // If the follower is still missing some log entries or has not learnt the latest commit index yet,
             // then send another append request.
             raftNode.sendAppendRequest(resp.follower());
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.DELETE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.ENTRY;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.MEMBERS_FILE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.SNAPSHOT;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.TERM_FILE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.latestLogFile;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readFile;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readRecords;
+
+/**
+ * Restores the Raft state persisted by {@link FileRaftStateStore} in the
+ * given directory.
+ * <p>
+ * Log records are replayed in the order they were written until the end of
+ * the log file or the first record that was torn by a crash. After {@link
+ * #load()} returns, {@link #logFileStructure()} describes the restored log
+ * file so that a new {@link FileRaftStateStore} can continue appending to it.
+ */
+public class FileRaftStateLoader implements RaftStateLoader {
+
+    private final File dir;
+    private final InternalSerializationService serializationService;
+
+    private LogFileStructure logFileStructure;
+
+    public FileRaftStateLoader(@Nonnull File dir, @Nonnull InternalSerializationService serializationService) {
+        this.dir = dir;
+        this.serializationService = serializationService;
+    }
+
+    @Nonnull
+    @Override
+    public RestoredRaftState load() throws IOException {
+        File membersFile = new File(dir, MEMBERS_FILE);
+        if (!membersFile.exists()) {
+            throw new FileNotFoundException("No persisted Raft state found in " + dir);
+        }
+        BufferObjectDataInput in = serializationService.createObjectDataInput(readFile(membersFile));
+        RaftEndpoint localEndpoint = in.readObject();
+        int memberCount = in.readInt();
+        List<RaftEndpoint> initialMembers = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            initialMembers.add(in.readObject());
+        }
+
+        int term = 0;
+        RaftEndpoint votedFor = null;
+        File termFile = new File(dir, TERM_FILE);
+        if (termFile.exists()) {
+            in = serializationService.createObjectDataInput(readFile(termFile));
+            term = in.readInt();
+            votedFor = in.readObject();
+        }
+
+        LogReplay replay = new LogReplay();
+        File logFile = latestLogFile(dir);
+        if (logFile != null) {
+            readRecords(logFile, replay::accept);
+            logFileStructure = new LogFileStructure(logFile.getName(), replay.offsets(), replay.indexOfFirstEntry());
+        }
+
+        LogEntry[] entries = replay.entries.toArray(new LogEntry[0]);
+        return new RestoredRaftState(localEndpoint, initialMembers, term, votedFor, replay.snapshot, entries);
+    }
+
+    /**
+     * Returns the structure of the restored log file, or {@code null} if
+     * {@link #load()} has not been called or no log file was found.
+     */
+    @Nullable
+    public LogFileStructure logFileStructure() {
+        return logFileStructure;
+    }
+
+    private final class LogReplay {
+
+        final List<LogEntry> entries = new ArrayList<>();
+        final List<Long> offsets = new ArrayList<>();
+        SnapshotEntry snapshot;
+
+        void accept(long offset, byte type, byte[] payload) throws IOException {
+            switch (type) {
+                case ENTRY:
+                    LogEntry entry = serializationService.createObjectDataInput(payload).readObject();
+                    truncateFrom(entry.index());
+                    entries.add(entry);
+                    offsets.add(offset);
+                    break;
+                case SNAPSHOT:
+                    snapshot = serializationService.createObjectDataInput(payload).readObject();
+                    truncateUpTo(snapshot.index());
+                    break;
+                case DELETE:
+                    truncateFrom(ByteBuffer.wrap(payload).getLong());
+                    break;
+                default:
+                    throw new IOException("Unknown Raft log record type: " + type);
+            }
+        }
+
+        long[] offsets() {
+            return offsets.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        long indexOfFirstEntry() {
+            if (!entries.isEmpty()) {
+                return entries.get(0).index();
+            }
+            return snapshot != null ? snapshot.index() + 1 : 1;
+        }
+
+        private void truncateFrom(long index) {
+            while (!entries.isEmpty() && entries.get(entries.size() - 1).index() >= index) {
+                entries.remove(entries.size() - 1);
+                offsets.remove(offsets.size() - 1);
+            }
+        }
+
+        private void truncateUpTo(long index) {
+            int count = 0;
+            while (count < entries.size() && entries.get(count).index() <= index) {
+                count++;
+            }
+            entries.subList(0, count).clear();
+            offsets.subList(0, count).clear();
+        }
+    }
+}
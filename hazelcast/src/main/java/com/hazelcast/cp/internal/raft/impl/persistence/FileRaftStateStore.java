@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.DELETE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.ENTRY;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.MEMBERS_FILE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.RECORD_HEADER_SIZE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.SNAPSHOT;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.TERM_FILE;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.TMP_FILE_SUFFIX;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.checksum;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.deleteLogFilesExcept;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.generationOf;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.logFileName;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readRecord;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.readRecords;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.syncDirectory;
+import static com.hazelcast.cp.internal.raft.impl.persistence.RaftLogFiles.writeAtomically;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link RaftStateStore} that persists the Raft state of a single Raft group
+ * to files in a local directory. See {@link RaftLogFiles} for the layout.
+ * <p>
+ * Log entries are only appended to an in-memory buffer by {@link
+ * #persistEntry(LogEntry)} and reach the disk with a single {@code fsync}
+ * in {@link #flushLogs()}. Since the Raft node calls {@code flushLogs()}
+ * once per batch of appended entries, the cost of making the log durable is
+ * shared by all entries of the batch.
+ * <p>
+ * When a snapshot is persisted, a new log file is written that starts with
+ * the snapshot and contains a copy of the entries following it. Once that file
+ * is synced, it replaces the previous log file, so the log never grows beyond
+ * one snapshot and the entries appended after it.
+ * <p>
+ * The state persisted by this store is read back by {@link
+ * FileRaftStateLoader}. A store that continues a restored log is created with
+ * the {@link LogFileStructure} obtained from the loader.
+ * <p>
+ * This class is not thread-safe, it is accessed only by the Raft node thread.
+ */
+public class FileRaftStateStore implements RaftStateStore {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_TAIL_CAPACITY = 64;
+
+    private final File dir;
+    private final InternalSerializationService serializationService;
+    private final LogFileStructure restoredLogFileStructure;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+
+    private File logFile;
+    private long generation;
+    private FileChannel logChannel;
+    // file offset up to which the records have been handed over to the file channel
+    private long writtenPosition;
+    // file offsets of the entries after the snapshot, indexed by (entry index - firstTailIndex)
+    private long[] tailOffsets = new long[INITIAL_TAIL_CAPACITY];
+    private int tailCount;
+    private long firstTailIndex;
+    private long flushCount;
+
+    /**
+     * @param dir                      directory dedicated to this Raft group
+     * @param serializationService     used to serialize the persisted objects
+     * @param restoredLogFileStructure describes the log file to continue after
+     *                                 a restart, or {@code null} to start a
+     *                                 new log in an empty directory
+     */
+    public FileRaftStateStore(@Nonnull File dir, @Nonnull InternalSerializationService serializationService,
+                              @Nullable LogFileStructure restoredLogFileStructure) {
+        this.dir = dir;
+        this.serializationService = serializationService;
+        this.restoredLogFileStructure = restoredLogFileStructure;
+    }
+
+    @Override
+    public void open() throws IOException {
+        Files.createDirectories(dir.toPath());
+        if (restoredLogFileStructure == null) {
+            generation = 0;
+            logFile = new File(dir, logFileName(generation));
+            logChannel = FileChannel.open(logFile.toPath(), CREATE_NEW, READ, WRITE);
+            writtenPosition = 0;
+            syncDirectory(dir);
+            return;
+        }
+
+        logFile = new File(dir, restoredLogFileStructure.filename());
+        generation = generationOf(logFile.getName());
+        if (generation < 0) {
+            throw new IOException("Not a Raft log file: " + logFile);
+        }
+        logChannel = FileChannel.open(logFile.toPath(), READ, WRITE);
+        // cut off a record torn by the crash so that new records follow the last valid one
+        writtenPosition = readRecords(logFile, (offset, type, payload) -> { });
+        logChannel.truncate(writtenPosition);
+        logChannel.force(true);
+        deleteLogFilesExcept(dir, logFile);
+
+        long[] offsets = restoredLogFileStructure.tailEntryOffsets();
+        tailOffsets = Arrays.copyOf(offsets, Math.max(INITIAL_TAIL_CAPACITY, offsets.length));
+        tailCount = offsets.length;
+        firstTailIndex = restoredLogFileStructure.indexOfFirstTailEntry();
+    }
+
+    @Override
+    public void persistInitialMembers(@Nonnull RaftEndpoint localMember,
+                                      @Nonnull Collection<RaftEndpoint> initialMembers) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        out.writeObject(localMember);
+        out.writeInt(initialMembers.size());
+        for (RaftEndpoint member : initialMembers) {
+            out.writeObject(member);
+        }
+        writeAtomically(dir, MEMBERS_FILE, out.toByteArray());
+    }
+
+    @Override
+    public void persistTerm(int term, @Nullable RaftEndpoint votedFor) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        out.writeInt(term);
+        out.writeObject(votedFor);
+        writeAtomically(dir, TERM_FILE, out.toByteArray());
+    }
+
+    @Override
+    public void persistEntry(@Nonnull LogEntry entry) throws IOException {
+        if (tailCount > 0 && entry.index() != firstTailIndex + tailCount) {
+            throw new IllegalArgumentException("Expected log entry with index " + (firstTailIndex + tailCount)
+                    + " but got " + entry);
+        }
+        long offset = appendRecord(ENTRY, serialize(entry));
+        if (tailCount == 0) {
+            firstTailIndex = entry.index();
+        }
+        if (tailCount == tailOffsets.length) {
+            tailOffsets = Arrays.copyOf(tailOffsets, tailOffsets.length * 2);
+        }
+        tailOffsets[tailCount++] = offset;
+    }
+
+    @Override
+    public void persistSnapshot(@Nonnull SnapshotEntry snapshot) throws IOException {
+        drainWriteBuffer();
+        FileChannel prevChannel = logChannel;
+        File prevFile = logFile;
+
+        long nextGeneration = generation + 1;
+        File nextFile = new File(dir, logFileName(nextGeneration));
+        File tmpFile = new File(dir, nextFile.getName() + TMP_FILE_SUFFIX);
+        Files.deleteIfExists(tmpFile.toPath());
+        logChannel = FileChannel.open(tmpFile.toPath(), CREATE_NEW, READ, WRITE);
+        writtenPosition = 0;
+
+        appendRecord(SNAPSHOT, serialize(snapshot));
+        // the entries following the snapshot are still needed, copy them to the new file
+        int firstKept = (int) Math.max(0, Math.min(tailCount, snapshot.index() + 1 - firstTailIndex));
+        int keptCount = tailCount - firstKept;
+        long[] keptOffsets = new long[Math.max(INITIAL_TAIL_CAPACITY, keptCount)];
+        for (int i = 0; i < keptCount; i++) {
+            keptOffsets[i] = appendRecord(readRecord(prevChannel, tailOffsets[firstKept + i]));
+        }
+        drainWriteBuffer();
+        logChannel.force(true);
+
+        Files.move(tmpFile.toPath(), nextFile.toPath(), ATOMIC_MOVE);
+        syncDirectory(dir);
+        prevChannel.close();
+        Files.deleteIfExists(prevFile.toPath());
+
+        logFile = nextFile;
+        generation = nextGeneration;
+        tailOffsets = keptOffsets;
+        firstTailIndex += firstKept;
+        tailCount = keptCount;
+    }
+
+    @Override
+    public void deleteEntriesFrom(long startIndexInclusive) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES).putLong(0, startIndexInclusive);
+        appendRecord(DELETE, payload.array());
+        if (tailCount > 0) {
+            tailCount = (int) Math.max(0, Math.min(tailCount, startIndexInclusive - firstTailIndex));
+        }
+    }
+
+    @Override
+    public void flushLogs() throws IOException {
+        drainWriteBuffer();
+        logChannel.force(false);
+        flushCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (logChannel != null) {
+            try {
+                drainWriteBuffer();
+            } finally {
+                logChannel.close();
+                logChannel = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of times the log has been synced to the disk.
+     */
+    public long flushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Returns the file currently holding the Raft log.
+     */
+    public File logFile() {
+        return logFile;
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        out.writeObject(object);
+        return out.toByteArray();
+    }
+
+    private long appendRecord(byte type, byte[] payload) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        header.putInt(payload.length).putInt(checksum(type, payload, 0, payload.length)).put(type);
+        long offset = logPosition();
+        append(header.array());
+        append(payload);
+        return offset;
+    }
+
+    private long appendRecord(byte[] record) throws IOException {
+        long offset = logPosition();
+        append(record);
+        return offset;
+    }
+
+    private long logPosition() {
+        return writtenPosition + writeBuffer.position();
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        if (bytes.length > writeBuffer.remaining()) {
+            drainWriteBuffer();
+        }
+        if (bytes.length > writeBuffer.capacity()) {
+            write(ByteBuffer.wrap(bytes));
+        } else {
+            writeBuffer.put(bytes);
+        }
+    }
+
+    private void drainWriteBuffer() throws IOException {
+        upcast(writeBuffer).flip();
+        write(writeBuffer);
+        upcast(writeBuffer).clear();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            writtenPosition += logChannel.write(buffer, writtenPosition);
+        }
+    }
+}
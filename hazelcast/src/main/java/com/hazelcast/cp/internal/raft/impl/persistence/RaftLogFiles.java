@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * On-disk layout shared by {@link FileRaftStateStore} and {@link
+ * FileRaftStateLoader}.
+ * <p>
+ * A Raft group's directory contains a {@value #MEMBERS_FILE} file holding the
+ * local endpoint and the initial group members, a {@value #TERM_FILE} file
+ * holding the current term and vote, and a single log file named {@code
+ * raftlog-<generation>.log}. Both small files are replaced atomically. The log
+ * file is a sequence of records, each of which has the following format:
+ * <pre>
+ *     int payloadLength | int crc32(type, payload) | byte type | payload
+ * </pre>
+ * A new log file generation starting with a {@link #SNAPSHOT} record is
+ * written each time a snapshot is persisted, so the log file with the highest
+ * generation always contains the complete restorable log.
+ */
+public final class RaftLogFiles {
+
+    static final String MEMBERS_FILE = "members";
+    static final String TERM_FILE = "term";
+    static final String TMP_FILE_SUFFIX = ".tmp";
+
+    static final byte ENTRY = 1;
+    static final byte SNAPSHOT = 2;
+    static final byte DELETE = 3;
+
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+    private static final String LOG_FILE_PREFIX = "raftlog-";
+    private static final String LOG_FILE_SUFFIX = ".log";
+    private static final int HEX_RADIX = 16;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private RaftLogFiles() {
+    }
+
+    /**
+     * Consumes the records of a log file.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long offset, byte type, byte[] payload) throws IOException;
+    }
+
+    static String logFileName(long generation) {
+        return LOG_FILE_PREFIX + String.format("%016x", generation) + LOG_FILE_SUFFIX;
+    }
+
+    /**
+     * Returns the generation of the given log file name, or {@code -1} if the
+     * name does not denote a log file.
+     */
+    static long generationOf(String fileName) {
+        if (!fileName.startsWith(LOG_FILE_PREFIX) || !fileName.endsWith(LOG_FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseUnsignedLong(fileName.substring(LOG_FILE_PREFIX.length(),
+                    fileName.length() - LOG_FILE_SUFFIX.length()), HEX_RADIX);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the log file with the highest generation in the given directory,
+     * or {@code null} if there is none.
+     */
+    static File latestLogFile(File dir) {
+        File[] files = dir.listFiles();
+        File latest = null;
+        long latestGeneration = -1;
+        if (files != null) {
+            for (File file : files) {
+                long generation = generationOf(file.getName());
+                if (generation > latestGeneration) {
+                    latest = file;
+                    latestGeneration = generation;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Deletes all log files (and leftover temporary files) in the given
+     * directory except for the given one.
+     */
+    static void deleteLogFilesExcept(File dir, File retained) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!file.equals(retained) && (generationOf(name) >= 0 || name.endsWith(TMP_FILE_SUFFIX))) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+    }
+
+    static int checksum(byte type, byte[] payload, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload, offset, length);
+        return (int) crc.getValue();
+    }
+
+    static boolean isValidType(byte type) {
+        return type == ENTRY || type == SNAPSHOT || type == DELETE;
+    }
+
+    /**
+     * Reads the records of the given log file and passes them to the consumer.
+     * Reading stops at the first incomplete or corrupt record, which is what a
+     * write torn by a crash leaves behind at the end of the file.
+     *
+     * @return the offset just past the last valid record
+     */
+    static long readRecords(File file, RecordConsumer consumer) throws IOException {
+        long fileLength = file.length();
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE))) {
+            while (fileLength - offset >= RECORD_HEADER_SIZE) {
+                int length = in.readInt();
+                int crc = in.readInt();
+                byte type = in.readByte();
+                if (!isValidType(type) || length < 0 || length > fileLength - offset - RECORD_HEADER_SIZE) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (checksum(type, payload, 0, length) != crc) {
+                    break;
+                }
+                consumer.accept(offset, type, payload);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        } catch (EOFException ignored) {
+            // the file was truncated while being read, the records read so far are valid
+            ignore(ignored);
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the complete record (header included) at the given offset.
+     */
+    static byte[] readRecord(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, header, offset);
+        int length = header.getInt(0);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+        readFully(channel, record, offset);
+        return record.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of Raft log at offset " + position);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Reads the whole content of the given file.
+     */
+    public static byte[] readFile(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Replaces the content of the given file so that a concurrent crash leaves
+     * either the old or the new content behind: the content is written to a
+     * temporary file, which is synced and then renamed over the target.
+     */
+    public static void writeAtomically(File dir, String fileName, byte[] content) throws IOException {
+        Path target = new File(dir, fileName).toPath();
+        Path tmp = new File(dir, fileName + TMP_FILE_SUFFIX).toPath();
+        try (FileChannel channel = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        syncDirectory(dir);
+    }
+
+    /**
+     * Makes the creation, renaming and deletion of the files in the given
+     * directory durable. Not all platforms allow opening a directory, in
+     * which case this is a no-op.
+     */
+    static void syncDirectory(File dir) {
+        try (FileChannel channel = FileChannel.open(dir.toPath(), READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            ignore(ignored);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.raft.impl.state;
+
+/**
+ * Tracks the append requests the leader sends to its followers without
+ * waiting for the responses of the previous ones.
+ * <p>
+ * Pipelining starts once the leader knows the match index of a follower.
+ * After each append request carrying entries, the follower's next index is
+ * advanced past the sent entries. The in-flight window is tracked with the
+ * follower's match index, so the leader keeps sending while the
+ * unacknowledged entries fit into {@code maxInFlightAppendRequestCount} full
+ * append requests. Since the logs match until the match index, the in-flight
+ * entries are sent again from there if they are rejected or not acknowledged
+ * within a back-off timeout.
+ *
+ * @see com.hazelcast.cp.internal.raft.impl.RaftIntegration#getMaxInFlightAppendRequestCount()
+ */
+public final class AppendRequestPipeline {
+
+    private final int maxInFlightAppendRequestCount;
+    private final int appendRequestMaxEntryCount;
+    private final long appendRequestBackoffTimeoutInMillis;
+
+    public AppendRequestPipeline(int maxInFlightAppendRequestCount, int appendRequestMaxEntryCount,
+                                 long appendRequestBackoffTimeoutInMillis) {
+        this.maxInFlightAppendRequestCount = maxInFlightAppendRequestCount;
+        this.appendRequestMaxEntryCount = appendRequestMaxEntryCount;
+        this.appendRequestBackoffTimeoutInMillis = appendRequestBackoffTimeoutInMillis;
+    }
+
+    /**
+     * Returns true if the leader sends append requests to a follower
+     * without waiting for the responses of the previous ones.
+     */
+    public boolean isEnabled() {
+        return maxInFlightAppendRequestCount > 1;
+    }
+
+    /**
+     * Returns true if the entries sent to the follower but not acknowledged
+     * yet fill the in-flight window.
+     */
+    public boolean isWindowFull(FollowerState followerState) {
+        long inFlightEntryCount = followerState.nextIndex() - 1 - followerState.matchIndex();
+        return inFlightEntryCount >= (long) maxInFlightAppendRequestCount * appendRequestMaxEntryCount;
+    }
+
+    /**
+     * Advances the next index of the follower past the entries sent to it,
+     * so the next append request continues after them.
+     *
+     * @return true if the in-flight window is full after these entries
+     */
+    public boolean onEntriesSent(FollowerState followerState, long lastSentLogIndex) {
+        followerState.nextIndex(lastSentLogIndex + 1);
+        return isWindowFull(followerState);
+    }
+
+    /**
+     * Returns true if the failure response with the given expected next
+     * index is the first one received for the entries in flight to the
+     * follower. The failure responses of the append requests sent after the
+     * failed one are ignored until the entries are sent again.
+     */
+    public boolean isFirstFailureInWindow(FollowerState followerState, long expectedNextIndex) {
+        long matchIndex = followerState.matchIndex();
+        return isEnabled() && matchIndex > 0 && expectedNextIndex > matchIndex + 1
+                && expectedNextIndex <= followerState.nextIndex();
+    }
+
+    /**
+     * Returns true if entries are in flight to the follower and it has not
+     * acknowledged any append request within a back-off timeout, so they
+     * may be lost.
+     */
+    public boolean isTimedOut(FollowerState followerState, long now) {
+        return hasInFlightEntries(followerState)
+                && followerState.appendRequestAckTimestamp() < now - appendRequestBackoffTimeoutInMillis;
+    }
+
+    /**
+     * Returns true if entries are pipelined to the follower and not
+     * acknowledged yet.
+     */
+    public boolean hasInFlightEntries(FollowerState followerState) {
+        long matchIndex = followerState.matchIndex();
+        return isEnabled() && matchIndex > 0 && followerState.nextIndex() > matchIndex + 1;
+    }
+
+    /**
+     * Moves the next index of the follower back to the entry after its match
+     * index, so the entries in flight are sent again.
+     */
+    public void rewind(FollowerState followerState) {
+        followerState.nextIndex(followerState.matchIndex() + 1);
+    }
+}
@@ -46,6 +46,10 @@ public class FollowerState {
 
     private long appendRequestAckTimestamp;
 
+    private long leaseStartNanos;
+
+    private boolean leaseGranted;
+
     FollowerState(long matchIndex, long nextIndex) {
         this.matchIndex = matchIndex;
         this.nextIndex = nextIndex;
@@ -133,6 +137,33 @@ public class FollowerState {
         return appendRequestAckTimestamp;
     }
 
+    /**
+     * Renews the leader lease granted by this follower. The given timestamp
+     * is the {@link System#nanoTime()} at the start of the query round acked
+     * by the follower. Older timestamps are ignored.
+     */
+    public void renewLease(long startNanos) {
+        if (!leaseGranted || startNanos - leaseStartNanos > 0) {
+            leaseStartNanos = startNanos;
+            leaseGranted = true;
+        }
+    }
+
+    /**
+     * Revokes the leader lease granted by this follower.
+     */
+    public void revokeLease() {
+        leaseGranted = false;
+    }
+
+    /**
+     * Returns {@code true} if the leader lease granted by this follower
+     * has been renewed within the given duration.
+     */
+    public boolean isLeaseValid(long leaseDurationNanos, long nowNanos) {
+        return leaseGranted && nowNanos - leaseStartNanos < leaseDurationNanos;
+    }
+
     @Override
     public String toString() {
         return "FollowerState{" + "matchIndex=" + matchIndex + ", nextIndex=" + nextIndex + ", backoffRound=" + backoffRound
@@ -17,6 +17,7 @@
 package com.hazelcast.cp.internal.raft.impl.state;
 
 import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.RaftIntegration;
 import com.hazelcast.internal.util.Clock;
 
 import java.util.Arrays;
@@ -24,6 +25,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Mutable state maintained by the leader of the Raft group. Leader keeps
  * a {@link FollowerState} object for each follower.
@@ -32,9 +36,12 @@ import java.util.Map;
  */
 public class LeaderState {
 
+    private static final int MAX_PERCENTAGE = 100;
+
     private final Map<RaftEndpoint, FollowerState> followerStates = new HashMap<>();
     private final QueryState queryState = new QueryState();
     private long flushedLogIndex;
+    private long leaseFenceQueryRound;
 
     LeaderState(Collection<RaftEndpoint> remoteMembers, long lastLogIndex) {
         for (RaftEndpoint follower : remoteMembers) {
@@ -95,6 +102,53 @@ public class LeaderState {
         return queryState.queryRound();
     }
 
+    /**
+     * Renews the leader lease granted by the given follower if the acked
+     * query round is recent enough to know when it was started.
+     */
+    public void renewLease(RaftEndpoint follower, long ackedQueryRound) {
+        if (ackedQueryRound >= leaseFenceQueryRound && queryState.isRecentQueryRound(ackedQueryRound)) {
+            getFollowerState(follower).renewLease(queryState.queryRoundStartNanos(ackedQueryRound));
+        }
+    }
+
+    /**
+     * Revokes the leases granted by the followers. Acks of the query rounds
+     * started until now will not renew the lease anymore.
+     */
+    public void revokeLease() {
+        for (FollowerState followerState : followerStates.values()) {
+            followerState.revokeLease();
+        }
+        leaseFenceQueryRound = queryState.queryRound() + 1;
+    }
+
+    /**
+     * Returns {@code true} if the majority, including the leader itself,
+     * has acked an append request sent within the given lease duration.
+     */
+    public boolean isMajorityLeaseValid(int majority, long leaseDurationNanos, long nowNanos) {
+        int count = 1;
+        for (FollowerState followerState : followerStates.values()) {
+            if (followerState.isLeaseValid(leaseDurationNanos, nowNanos)) {
+                count++;
+            }
+        }
+
+        return count >= majority;
+    }
+
+    /**
+     * Returns the duration of the leader lease, which is the leader election
+     * timeout reduced by the clock drift margin of the given integration.
+     */
+    public static long leaseDurationNanos(long leaderElectionTimeoutInMillis, RaftIntegration integration) {
+        int clockDriftPercentage = integration.getLeaderLeaseClockDriftPercentage();
+        checkTrue(clockDriftPercentage >= 0 && clockDriftPercentage < MAX_PERCENTAGE,
+                "Clock drift percentage must be in [0, 100): " + clockDriftPercentage);
+        return MILLISECONDS.toNanos(leaderElectionTimeoutInMillis) * (MAX_PERCENTAGE - clockDriftPercentage) / MAX_PERCENTAGE;
+    }
+
     public void flushedLogIndex(long flushedLogIndex) {
         assert flushedLogIndex > this.flushedLogIndex;
         this.flushedLogIndex = flushedLogIndex;
@@ -61,6 +61,20 @@ public class QueryState {
      */
     private long queryRound;
 
+    /**
+     * {@link System#nanoTime()} at the start of the current query round. All
+     * AppendEntriesRPCs of the round are sent after this point, hence an ack
+     * of the round proves that the follower heard from the leader after it.
+     * Used for renewing the leader lease.
+     */
+    private long queryRoundStartNanos = System.nanoTime();
+
+    /**
+     * Start of the previous query round, kept for the acks that are still
+     * in flight when a new round is started.
+     */
+    private long prevQueryRoundStartNanos = queryRoundStartNanos;
+
     /**
      * Queries waiting to be executed.
      */
@@ -90,12 +104,35 @@ public class QueryState {
         operations.add(BiTuple.of(operation, resultFuture));
         int size = operations.size();
         if (size == 1) {
-            queryRound++;
+            startQueryRound();
         }
 
         return size;
     }
 
+    /**
+     * Starts a new query round if there is no query waiting to be executed
+     * and the current round has been started at least
+     * {@code minRoundDurationNanos} ago. Acks of the new round renew
+     * the leader lease even if no linearizable query is issued.
+     *
+     * @return {@code true} if a new query round is started
+     */
+    public boolean tryStartQueryRound(long minRoundDurationNanos) {
+        if (queryCount() > 0 || System.nanoTime() - queryRoundStartNanos < minRoundDurationNanos) {
+            return false;
+        }
+
+        startQueryRound();
+        return true;
+    }
+
+    private void startQueryRound() {
+        queryRound++;
+        prevQueryRoundStartNanos = queryRoundStartNanos;
+        queryRoundStartNanos = System.nanoTime();
+    }
+
     /**
      * Returns {@code true} if the given follower is accepted as an acker
      * for the current query round. It is accepted only if there are
@@ -137,6 +174,25 @@ public class QueryState {
         return queryRound;
     }
 
+    /**
+     * Returns {@code true} if the given query round is either the current
+     * or the previous one, hence its start timestamp is known.
+     */
+    public boolean isRecentQueryRound(long queryRound) {
+        return queryRound == this.queryRound || queryRound == this.queryRound - 1;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at the start of the given recent
+     * query round.
+     *
+     * @see #isRecentQueryRound(long)
+     */
+    public long queryRoundStartNanos(long queryRound) {
+        checkTrue(isRecentQueryRound(queryRound), "Query round: " + queryRound + " is not recent in " + this);
+        return queryRound == this.queryRound ? queryRoundStartNanos : prevQueryRoundStartNanos;
+    }
+
     /**
      * Returns {@code true} if there are queries waiting and acks are received
      * from the majority. Fails with {@link IllegalStateException} if
@@ -21,6 +21,7 @@ import com.hazelcast.cp.CPGroupId;
 import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
 import com.hazelcast.cp.internal.raft.impl.RaftRole;
 import com.hazelcast.cp.internal.raft.impl.dto.VoteRequest;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
 import com.hazelcast.cp.internal.raft.impl.log.RaftLog;
 import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
 import com.hazelcast.cp.internal.raft.impl.persistence.NopRaftStateStore;
@@ -350,6 +351,19 @@ public final class RaftState {
         commitIndex = index;
     }
 
+    /**
+     * Returns true if the last committed entry belongs to the current term.
+     * The leader must have marked an entry from its current term committed
+     * before running queries without appending a log entry (§6.4).
+     */
+    public boolean isLastCommittedEntryFromCurrentTerm() {
+        // last committed entry is either in the last snapshot or still in the log
+        LogEntry lastCommittedEntry = commitIndex == log.snapshotIndex() ? log.snapshot() : log.getLogEntry(commitIndex);
+        assert lastCommittedEntry != null;
+
+        return lastCommittedEntry.term() == term;
+    }
+
     /**
      * Returns the index of highest log entry applied to state machine
      * @see #lastApplied
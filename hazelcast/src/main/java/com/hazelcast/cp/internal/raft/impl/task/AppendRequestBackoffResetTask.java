@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.cp.internal.raft.impl.task;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.RaftNodeImpl;
+import com.hazelcast.cp.internal.raft.impl.state.AppendRequestPipeline;
+import com.hazelcast.cp.internal.raft.impl.state.FollowerState;
+import com.hazelcast.cp.internal.raft.impl.state.LeaderState;
+import com.hazelcast.internal.util.Clock;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * If the append request backoff flag is set for any follower, this task resets
+ * the flag, sends a new append request, and schedules itself again.
+ * <p>
+ * When append requests are pipelined, the task also sends the in-flight
+ * entries again if the follower has not acknowledged them within a back-off
+ * timeout, since the append requests carrying them may be lost.
+ *
+ * @see AppendRequestPipeline
+ */
+public class AppendRequestBackoffResetTask extends RaftNodeStatusAwareTask {
+
+    private final long appendRequestBackoffTimeoutInMillis;
+    private boolean scheduled;
+
+    public AppendRequestBackoffResetTask(RaftNodeImpl raftNode, long appendRequestBackoffTimeoutInMillis) {
+        super(raftNode);
+        this.appendRequestBackoffTimeoutInMillis = appendRequestBackoffTimeoutInMillis;
+    }
+
+    /**
+     * Schedules this task, if not scheduled already.
+     */
+    public void schedule() {
+        if (scheduled) {
+            return;
+        }
+
+        scheduled = true;
+        raftNode.schedule(this, appendRequestBackoffTimeoutInMillis);
+    }
+
+    @Override
+    protected void innerRun() {
+        scheduled = false;
+        LeaderState leaderState = raftNode.state().leaderState();
+
+        if (leaderState == null) {
+            return;
+        }
+
+        AppendRequestPipeline pipeline = raftNode.appendRequestPipeline();
+        Map<RaftEndpoint, FollowerState> followerStates = leaderState.getFollowerStates();
+        for (Entry<RaftEndpoint, FollowerState> entry : followerStates.entrySet()) {
+            FollowerState followerState = entry.getValue();
+            if (!followerState.isAppendRequestBackoffSet()) {
+                if (pipeline.hasInFlightEntries(followerState)) {
+                    if (pipeline.isTimedOut(followerState, Clock.currentTimeMillis())) {
+                        pipeline.rewind(followerState);
+                        raftNode.sendAppendRequest(entry.getKey());
+                    }
+                    // Schedule the task again, we still have entries in flight
+                    schedule();
+                }
+                continue;
+            }
+            if (followerState.completeAppendRequestBackoffRound()) {
+                // This follower has not sent a response to the last append request.
+                // Send another append request
+                if (pipeline.hasInFlightEntries(followerState)) {
+                    // In-flight append requests may be lost
+                    pipeline.rewind(followerState);
+                }
+                raftNode.sendAppendRequest(entry.getKey());
+            }
+            // Schedule the task again, we still have backoff flag set followers
+            schedule();
+        }
+    }
+}
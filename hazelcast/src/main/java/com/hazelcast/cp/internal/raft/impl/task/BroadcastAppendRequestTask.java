@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.cp.internal.raft.impl.task;
+
+import com.hazelcast.cp.internal.raft.impl.RaftIntegration;
+import com.hazelcast.cp.internal.raft.impl.RaftNodeImpl;
+
+import static com.hazelcast.cp.internal.raft.impl.RaftRole.LEADER;
+
+/**
+ * Broadcasts append requests for the entries appended to the Raft log.
+ * The task is submitted to the Raft thread once for the replicate tasks
+ * running back to back, so that their entries are sent in a single append
+ * request instead of one append request per entry.
+ *
+ * @see RaftNodeImpl#broadcastAppendedEntries()
+ */
+public class BroadcastAppendRequestTask extends RaftNodeStatusAwareTask {
+
+    private final RaftIntegration raftIntegration;
+    private boolean submitted;
+
+    public BroadcastAppendRequestTask(RaftNodeImpl raftNode, RaftIntegration raftIntegration) {
+        super(raftNode);
+        this.raftIntegration = raftIntegration;
+    }
+
+    /**
+     * Submits this task to the Raft thread, if not submitted already.
+     */
+    public void submit() {
+        if (submitted) {
+            return;
+        }
+
+        submitted = true;
+        raftIntegration.submit(this);
+    }
+
+    @Override
+    protected void innerRun() {
+        submitted = false;
+        if (raftNode.state().role() == LEADER) {
+            raftNode.broadcastAppendRequest();
+        }
+    }
+}
@@ -74,6 +74,8 @@ public class InitLeadershipTransferTask implements Runnable {
         }
 
         if (state.initLeadershipTransfer(targetEndpoint, resultFuture)) {
+            // the target will not wait for the leader election timeout
+            leaderState.revokeLease();
             new LeadershipTransferTask(raftNode, LEADERSHIP_TRANSFER_RETRY_COUNT).run();
         }
     }
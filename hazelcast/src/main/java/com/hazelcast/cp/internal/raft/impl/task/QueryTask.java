@@ -110,6 +110,15 @@ public class QueryTask implements Runnable {
     }
 
     private void handleLinearizableRead() {
+        if (raftNode.canQueryWithLeaderLease()) {
+            if (logger.isFineEnabled()) {
+                logger.fine("Querying: " + operation + " with leader lease in term: " + raftNode.state().term());
+            }
+
+            raftNode.runQuery(operation, resultFuture);
+            return;
+        }
+
         if (!raftNode.isLinearizableReadOptimizationEnabled()) {
             new ReplicateTask(raftNode, operation, resultFuture).run();
             return;
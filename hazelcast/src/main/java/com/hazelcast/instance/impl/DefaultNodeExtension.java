@@ -36,6 +36,7 @@ import com.hazelcast.config.cp.CPSubsystemConfig;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.cp.internal.persistence.CPPersistenceService;
+import com.hazelcast.cp.internal.persistence.FileCPPersistenceService;
 import com.hazelcast.cp.internal.persistence.NopCPPersistenceService;
 import com.hazelcast.hotrestart.HotRestartService;
 import com.hazelcast.instance.BuildInfo;
@@ -86,6 +87,7 @@ import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.internal.server.tcp.ChannelInitializerFunction;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
+import com.hazelcast.internal.server.tcp.GatheringPacketEncoder;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.JVMUtil;
@@ -112,9 +114,11 @@ import com.hazelcast.wan.impl.WanReplicationService;
 import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -151,6 +155,7 @@ public class DefaultNodeExtension implements NodeExtension {
     protected PhoneHome phoneHome;
     protected JetServiceBackend jetServiceBackend;
     protected IntegrityChecker integrityChecker;
+    protected FileCPPersistenceService cpPersistenceService;
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
 
@@ -170,6 +175,11 @@ public class DefaultNodeExtension implements NodeExtension {
         }
 
         integrityChecker = new IntegrityChecker(node.getConfig().getIntegrityCheckerConfig(), this.systemLogger);
+
+        String cpPersistenceDir = node.getProperties().getString(ClusterProperty.CP_PERSISTENCE_DIRECTORY);
+        if (cpPersistenceDir != null) {
+            cpPersistenceService = new FileCPPersistenceService(node, new File(cpPersistenceDir));
+        }
     }
 
     private void checkPersistenceAllowed() {
@@ -185,6 +195,10 @@ public class DefaultNodeExtension implements NodeExtension {
             if (!BuildInfoProvider.getBuildInfo().isEnterprise()) {
                 throw new IllegalStateException("CP persistence requires Hazelcast Enterprise Edition");
             }
+            if (node.getProperties().getString(ClusterProperty.CP_PERSISTENCE_DIRECTORY) != null) {
+                throw new IllegalStateException(ClusterProperty.CP_PERSISTENCE_DIRECTORY.getName()
+                        + " cannot be used together with CP persistence");
+            }
         }
     }
 
@@ -248,6 +262,19 @@ public class DefaultNodeExtension implements NodeExtension {
         }
     }
 
+    @Override
+    public UUID createMemberUuid() {
+        UUID uuid = cpPersistenceService != null ? cpPersistenceService.localMemberUuid() : null;
+        return uuid != null ? uuid : NodeExtension.super.createMemberUuid();
+    }
+
+    @Override
+    public void beforeJoin() {
+        if (cpPersistenceService != null) {
+            cpPersistenceService.restore();
+        }
+    }
+
     @Override
     public void printNodeInfo() {
         BuildInfo buildInfo = node.getBuildInfo();
@@ -452,6 +479,9 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
+        if (node.getProperties().getBoolean(ClusterProperty.IO_GATHERING_WRITE_ENABLED)) {
+            return new OutboundHandler[]{new GatheringPacketEncoder()};
+        }
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
@@ -481,6 +511,9 @@ public class DefaultNodeExtension implements NodeExtension {
         if (phoneHome != null) {
             phoneHome.shutdown();
         }
+        if (cpPersistenceService != null) {
+            cpPersistenceService.shutdown();
+        }
     }
 
     @Override
@@ -645,7 +678,7 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public CPPersistenceService getCPPersistenceService() {
-        return NopCPPersistenceService.INSTANCE;
+        return cpPersistenceService != null ? cpPersistenceService : NopCPPersistenceService.INSTANCE;
     }
 
     protected void createAndSetPhoneHome() {
@@ -94,6 +94,7 @@ import com.hazelcast.spi.discovery.integration.DiscoveryService;
 import com.hazelcast.spi.discovery.integration.DiscoveryServiceProvider;
 import com.hazelcast.spi.discovery.integration.DiscoveryServiceSettings;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.proxyservice.impl.ProxyServiceImpl;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.version.MemberVersion;
@@ -595,6 +596,10 @@ public class Node {
             logger.info("Shutting down multicast service...");
             multicastService.stop();
         }
+        if (nodeEngine != null) {
+            // send the batched events while the connections are still open
+            ((EventServiceImpl) nodeEngine.getEventService()).stopEventBatching();
+        }
         if (server != null) {
             logger.info("Shutting down connection manager...");
             server.shutdown();
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MEMORY_METRIC_MAX_NATIVE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MEMORY_METRIC_REJECTED_ALLOCATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MEMORY_METRIC_USED_NATIVE;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryManager} which allocates blocks straight from the process heap via
+ * {@link sun.misc.Unsafe#allocateMemory(long)} and accesses them through
+ * {@link com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry#MEM}.
+ * <p>
+ * There is no pooling: every {@code allocate()} is a {@code malloc()} and every {@code free()}
+ * is a {@code free()}. The manager only keeps track of the number of bytes it currently has
+ * handed out, which is what {@link #getUsedMemory()} reports. An allocation which would take
+ * the used memory above {@link #getMaxMemory()} fails with a {@link NativeOutOfMemoryError}.
+ * <p>
+ * Thread-safe.
+ */
+public final class UnsafeMallocMemoryManager implements MemoryManager {
+
+    private final Allocator malloc = new Allocator();
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final AtomicLong rejectedAllocationCount = new AtomicLong();
+    private final long maxMemory;
+
+    public UnsafeMallocMemoryManager() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxMemory the maximum number of bytes this manager hands out at once
+     */
+    public UnsafeMallocMemoryManager(long maxMemory) {
+        if (!isAvailable()) {
+            throw new IllegalStateException(getClass().getName() + " can only be used when Unsafe is available!");
+        }
+        this.maxMemory = checkPositive("maxMemory", maxMemory);
+    }
+
+    /**
+     * @return {@code true} if this memory manager can be created on the current JVM
+     */
+    public static boolean isAvailable() {
+        return UNSAFE_AVAILABLE && MEM_AVAILABLE;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return malloc;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    /**
+     * @return number of bytes currently allocated and not yet freed
+     */
+    @Probe(name = MEMORY_METRIC_USED_NATIVE, unit = BYTES)
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * @return the maximum number of bytes this manager hands out at once
+     */
+    @Probe(name = MEMORY_METRIC_MAX_NATIVE, unit = BYTES)
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * @return number of allocations which failed because of the {@link #getMaxMemory() limit}
+     */
+    @Probe(name = MEMORY_METRIC_REJECTED_ALLOCATIONS)
+    public long getRejectedAllocationCount() {
+        return rejectedAllocationCount.get();
+    }
+
+    private void reserve(long size, long currentSize) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > maxMemory || newUsed < 0) {
+                rejectedAllocationCount.incrementAndGet();
+                throw new NativeOutOfMemoryError("Cannot allocate " + (currentSize + size) + " bytes, "
+                        + used + " of the " + maxMemory + " bytes limit are already in use");
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        // blocks are owned and freed by their users
+    }
+
+    private final class Allocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            assert size > 0 : "UnsafeMallocMemoryManager.allocate(" + size + ")";
+            reserve(size, 0);
+            long address;
+            try {
+                address = malloc(size);
+            } catch (NativeOutOfMemoryError e) {
+                usedMemory.addAndGet(-size);
+                throw e;
+            }
+            UNSAFE.setMemory(address, size, (byte) 0);
+            return address;
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            long delta = newSize - currentSize;
+            if (delta > 0) {
+                reserve(delta, currentSize);
+            }
+            long newAddress;
+            try {
+                newAddress = UNSAFE.reallocateMemory(address, newSize);
+            } catch (OutOfMemoryError e) {
+                if (delta > 0) {
+                    usedMemory.addAndGet(-delta);
+                }
+                throw new NativeOutOfMemoryError("Cannot reallocate " + currentSize + " bytes to " + newSize
+                        + " bytes", e);
+            }
+            if (delta > 0) {
+                UNSAFE.setMemory(newAddress + currentSize, delta, (byte) 0);
+            } else {
+                usedMemory.addAndGet(delta);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            UNSAFE.freeMemory(address);
+            usedMemory.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+            // blocks are owned and freed by their users
+        }
+
+        private long malloc(long size) {
+            try {
+                return UNSAFE.allocateMemory(size);
+            } catch (OutOfMemoryError e) {
+                throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes", e);
+            }
+        }
+    }
+}
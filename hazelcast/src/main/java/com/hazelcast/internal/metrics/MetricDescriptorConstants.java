@@ -113,7 +113,9 @@ public final class MetricDescriptorConstants {
 
     // ===[EVENT]=======================================================
     public static final String EVENT_PREFIX = "event";
+    public static final String EVENT_PREFIX_LISTENER = "event.listener";
     public static final String EVENT_DISCRIMINATOR_SERVICE = "service";
+    public static final String EVENT_DISCRIMINATOR_LISTENER = "id";
     public static final String EVENT_METRIC_EVENT_SERVICE_THREAD_COUNT = "threadCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_QUEUE_CAPACITY = "queueCapacity";
     public static final String EVENT_METRIC_EVENT_SERVICE_TOTAL_FAILURE_COUNT = "totalFailureCount";
@@ -123,6 +125,7 @@ public final class MetricDescriptorConstants {
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED = "eventsProcessed";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_LISTENER_COUNT = "listenerCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_PUBLICATION_COUNT = "publicationCount";
+    public static final String EVENT_METRIC_LISTENER_REJECTED_COUNT = "rejectedCount";
     // ===[/EVENT]======================================================
 
     // ===[EXECUTOR]====================================================
@@ -198,6 +201,7 @@ public final class MetricDescriptorConstants {
     public static final String MAP_PREFIX_INDEX = "map.index";
     public static final String MAP_PREFIX_NEARCACHE = "map.nearcache";
     public static final String MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR = "map.entry.processor.offloadable.executor";
+    public static final String MAP_PREFIX_OFF_HEAP_VALUES = "map.offheapvalues";
     public static final String MAP_DISCRIMINATOR_NAME = "name";
     public static final String MAP_TAG_PARTITION = "partition";
     public static final String MAP_TAG_INDEX = "index";
@@ -262,6 +266,7 @@ public final class MetricDescriptorConstants {
     public static final String MEMORY_METRIC_COMMITTED_NATIVE = "committedNative";
     public static final String MEMORY_METRIC_USED_NATIVE = "usedNative";
     public static final String MEMORY_METRIC_FREE_NATIVE = "freeNative";
+    public static final String MEMORY_METRIC_REJECTED_ALLOCATIONS = "rejectedAllocations";
     public static final String MEMORY_METRIC_MAX_METADATA = "maxMetadata";
     public static final String MEMORY_METRIC_USED_METADATA = "usedMetadata";
     // ===[/MEMORY]=====================================================
@@ -283,6 +288,7 @@ public final class MetricDescriptorConstants {
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME = "totalElapsedMigrationOperationTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME = "totalElapsedDestinationCommitTime";
     public static final String MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME = "totalElapsedMigrationTime";
+    public static final String MIGRATION_METRIC_TOTAL_SENT_MIGRATION_FRAGMENTS = "totalSentMigrationFragments";
     // ===[/MIGRATION]==================================================
 
     // ===[MULTIMAP]====================================================
@@ -327,6 +333,9 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SOCKET_WRITES = "socketWrites";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_SOCKET_WRITE = "framesPerSocketWrite";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_PER_SOCKET_WRITE = "bytesPerSocketWrite";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
@@ -505,6 +514,10 @@ public final class MetricDescriptorConstants {
     public static final String REPLICATED_MAP_TOTAL = "total";
     // ===[/REPLICATED MAP]==============================================
 
+    // ===[RINGBUFFER]==================================================
+    public static final String RINGBUFFER_PREFIX_OFF_HEAP_STORAGE = "ringbuffer.offheapstorage";
+    // ===[/RINGBUFFER]=================================================
+
     // ===[RUNTIME]=====================================================
     public static final String RUNTIME_FULL_METRIC_FREE_MEMORY = "runtime.freeMemory";
     public static final String RUNTIME_FULL_METRIC_TOTAL_MEMORY = "runtime.totalMemory";
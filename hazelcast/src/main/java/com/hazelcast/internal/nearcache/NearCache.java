@@ -58,6 +58,19 @@ public interface NearCache<K, V> extends InitializingObject {
             = new HazelcastProperty(PROP_EXPIRATION_TASK_PERIOD_SECONDS,
             DEFAULT_EXPIRATION_TASK_PERIOD_SECONDS);
 
+    /**
+     * When enabled, the Near Cache pre-loader stores the values together
+     * with their invalidation metadata (partition UUID and sequence) next
+     * to the keys. On restart, stored values of partitions which have not
+     * changed since then are put into the Near Cache directly, only the
+     * remaining keys are fetched from the cluster.
+     */
+    String PROP_PRELOADER_STORE_VALUES
+            = "hazelcast.internal.nearcache.preloader.store.values";
+
+    HazelcastProperty PRELOADER_STORE_VALUES
+            = new HazelcastProperty(PROP_PRELOADER_STORE_VALUES, false);
+
     /**
      * Indicates how a near cache is updated.
      */
@@ -140,6 +140,13 @@ public interface NearCacheRecord<V> extends Expirable, Evictable<V> {
      */
     void setUuid(UUID uuid);
 
+    /**
+     * @return last known UUID of invalidation source
+     * at time of this records' creation, or {@code null}
+     * if it is not known
+     */
+    UUID getUuid();
+
     /**
      * @return {@code true} if supplied UUID equals
      * existing one, otherwise and when one of supplied
@@ -89,11 +89,14 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         if (inMemoryFormat == null) {
             inMemoryFormat = DEFAULT_MEMORY_FORMAT;
         }
+        boolean storeValues = properties != null && properties.getBoolean(PRELOADER_STORE_VALUES);
         switch (inMemoryFormat) {
             case BINARY:
-                return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader,
+                        storeValues);
             case OBJECT:
-                return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+                return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader,
+                        storeValues);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
@@ -77,6 +77,27 @@ public class MetaDataGenerator {
         sequenceGenerator(name).set(partitionId, sequence);
     }
 
+    /**
+     * Creates the sequences of the supplied data structure, so they are
+     * advanced by {@link #nextSequenceIfPresent(String, int)} from now on.
+     */
+    public void initSequences(String name) {
+        sequenceGenerator(name);
+    }
+
+    /**
+     * Advances the sequence of the partition, if sequences have been
+     * created for the supplied data structure before. Used to keep the
+     * sequences moving while no invalidation listener is registered, so
+     * Near Caches which are restored later can detect the change.
+     */
+    public void nextSequenceIfPresent(String name, int partitionId) {
+        AtomicLongArray sequences = sequenceGenerators.get(name);
+        if (sequences != null) {
+            sequences.incrementAndGet(partitionId);
+        }
+    }
+
     private AtomicLongArray sequenceGenerator(String name) {
         return getOrPutIfAbsent(sequenceGenerators, name, sequenceGeneratorConstructor);
     }
@@ -18,6 +18,7 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.internal.util.Timer;
@@ -30,6 +31,7 @@ import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -37,10 +39,17 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
 
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.readLongB;
 import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Bits.writeLongB;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.internal.nio.IOUtil.getPath;
@@ -54,6 +63,11 @@ import static java.nio.ByteBuffer.allocate;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * Optionally the values are stored as well, together with the
+ * invalidation metadata of their records. On load, those values can
+ * be put into the Near Cache directly via a {@link StoredValuePublisher},
+ * so only the keys of changed partitions have to be fetched again.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
@@ -63,7 +77,36 @@ public class NearCachePreloader<K> {
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        /**
+         * Length prefixed keys.
+         */
+        INTERLEAVED_LENGTH_FIELD,
+        /**
+         * Length prefixed keys, each followed by a flag if the key is
+         * stored as {@link Data} in the Near Cache and a length prefixed
+         * value. Present values are followed by the partition ID, the
+         * partition UUID and the invalidation sequence of their record.
+         */
+        INTERLEAVED_LENGTH_FIELD_WITH_VALUES
+    }
+
+    /**
+     * Puts a stored value into the Near Cache, if it is still up-to-date.
+     */
+    @FunctionalInterface
+    public interface StoredValuePublisher {
+
+        /**
+         * @param key         the key as it is used in the Near Cache
+         * @param keyData     the serialized key
+         * @param value       the stored value
+         * @param partitionId the partition ID of the stored record
+         * @param uuid        the partition UUID of the stored record
+         * @param sequence    the invalidation sequence of the stored record
+         * @return {@code true} if the key doesn't have to be loaded
+         * anymore, {@code false} otherwise
+         */
+        boolean publish(Object key, Data keyData, Data value, int partitionId, UUID uuid, long sequence);
     }
 
     /**
@@ -85,8 +128,18 @@ public class NearCachePreloader<K> {
      */
     private static final int LOAD_BATCH_SIZE = 100;
 
+    /**
+     * Value length which is stored for keys without a value.
+     */
+    private static final int NO_VALUE = -1;
+
+    private static final byte KEY_AS_OBJECT = 0;
+    private static final byte KEY_AS_DATA = 1;
+
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
     private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
+    private final byte[] tmpByte = new byte[BYTE_SIZE_IN_BYTES];
+    private final byte[] tmpLongBytes = new byte[LONG_SIZE_IN_BYTES];
 
     private final String nearCacheName;
     private final NearCacheStatsImpl nearCacheStats;
@@ -99,6 +152,7 @@ public class NearCachePreloader<K> {
     private ByteBuffer buf;
     private int lastWrittenBytes;
     private int lastKeyCount;
+    private int lastRestoredValueCount;
 
     public NearCachePreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
                               NearCacheStatsImpl nearCacheStats, SerializationService serializationService) {
@@ -122,6 +176,20 @@ public class NearCachePreloader<K> {
      * @param adapter the {@link DataStructureAdapter} to load the values from
      */
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        loadKeys(adapter, null);
+    }
+
+    /**
+     * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
+     * <p>
+     * Values which are contained in the store file are offered to the
+     * supplied {@link StoredValuePublisher} first, only the rejected
+     * ones are loaded from the {@link DataStructureAdapter}.
+     *
+     * @param adapter   the {@link DataStructureAdapter} to load the values from
+     * @param publisher the {@link StoredValuePublisher} for stored values, can be {@code null}
+     */
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, StoredValuePublisher publisher) {
         if (!storeFile.exists()) {
             logger.info(format("Skipped loading keys of Near Cache %s since storage file doesn't exist (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
@@ -132,14 +200,17 @@ public class NearCachePreloader<K> {
         BufferingInputStream bis = null;
         try {
             bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            FileFormat fileFormat = checkHeader(bis);
+            if (fileFormat == null) {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
+            boolean withValues = fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES;
+            int loadedKeys = loadKeySet(bis, adapter, withValues ? publisher : null, withValues);
 
             long elapsedMillis = Timer.millisElapsed(startedNanos);
-            logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
+            logger.info(format("Loaded %d keys of Near Cache %s in %d ms (%d values restored from storage file)",
+                    loadedKeys, nearCacheName, elapsedMillis, lastRestoredValueCount));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
         } finally {
@@ -147,19 +218,19 @@ public class NearCachePreloader<K> {
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
+    private FileFormat checkHeader(BufferingInputStream bis) throws IOException {
         int magicBytes = readInt(bis);
         if (magicBytes != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
         int fileFormat = readInt(bis);
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -168,6 +239,24 @@ public class NearCachePreloader<K> {
      * @param iterator {@link Iterator} over the key set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
      */
     public void storeKeys(Iterator<K> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD, iterator);
+    }
+
+    /**
+     * Stores the Near Cache keys and values from the supplied iterator.
+     * <p>
+     * Values are only stored for records which carry invalidation
+     * metadata, all other records are stored with their key only.
+     *
+     * @param iterator {@link Iterator} over the entry set of a
+     *                 {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     */
+    public void storeEntries(Iterator<? extends Map.Entry<K, ? extends NearCacheRecord>> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES, iterator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void store(FileFormat fileFormat, Iterator<?> iterator) {
         long startedNanos = Timer.nanos();
         FileOutputStream fos = null;
         try {
@@ -179,8 +268,13 @@ public class NearCachePreloader<K> {
 
             // write header and keys
             writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
+            writeInt(fos, fileFormat.ordinal());
+            if (fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES) {
+                writeEntrySet(fos, fos.getChannel(),
+                        (Iterator<? extends Map.Entry<K, ? extends NearCacheRecord>>) iterator);
+            } else {
+                writeKeySet(fos, fos.getChannel(), (Iterator<K>) iterator);
+            }
 
             // cleanup if no keys have been written
             if (lastKeyCount == 0) {
@@ -212,8 +306,11 @@ public class NearCachePreloader<K> {
                 MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
     }
 
-    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter,
+                           StoredValuePublisher publisher, boolean withValues) throws IOException {
         int loadedKeys = 0;
+        lastRestoredValueCount = 0;
 
         Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
         while (readFullyOrNothing(bis, tmpBytes)) {
@@ -222,8 +319,14 @@ public class NearCachePreloader<K> {
             if (!readFullyOrNothing(bis, payload)) {
                 break;
             }
-            Data key = new HeapData(payload);
-            builder.add(serializationService.toObject(key));
+            Data keyData = new HeapData(payload);
+            Object key = serializationService.toObject(keyData);
+            if (withValues && restoreValue(bis, publisher, keyData, key)) {
+                lastRestoredValueCount++;
+                loadedKeys++;
+                continue;
+            }
+            builder.add(key);
             if (builder.size() == LOAD_BATCH_SIZE) {
                 adapter.getAll(builder.build());
                 builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
@@ -236,47 +339,138 @@ public class NearCachePreloader<K> {
         return loadedKeys;
     }
 
+    private boolean restoreValue(BufferingInputStream bis, StoredValuePublisher publisher,
+                                 Data keyData, Object key) throws IOException {
+        boolean keyAsData = readByte(bis) == KEY_AS_DATA;
+        int valueSize = readValueInt(bis);
+        if (valueSize == NO_VALUE) {
+            return false;
+        }
+        byte[] valuePayload = new byte[valueSize];
+        readFully(bis, valuePayload);
+        int partitionId = readValueInt(bis);
+        UUID uuid = new UUID(readLong(bis), readLong(bis));
+        long sequence = readLong(bis);
+
+        return publisher != null
+                && publisher.publish(keyAsData ? keyData : key, keyData, new HeapData(valuePayload), partitionId, uuid, sequence);
+    }
+
     private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
         while (iterator.hasNext()) {
             K key = iterator.next();
             Data dataKey = serializationService.toData(key);
             if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
-                }
-
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
+                writeData(fos, dataKey);
                 lastKeyCount++;
             }
             flushLocalBuffer(outChannel);
         }
     }
 
+    private void writeEntrySet(FileOutputStream fos, FileChannel outChannel,
+                               Iterator<? extends Map.Entry<K, ? extends NearCacheRecord>> iterator) throws IOException {
+        while (iterator.hasNext()) {
+            Map.Entry<K, ? extends NearCacheRecord> entry = iterator.next();
+            K key = entry.getKey();
+            Data dataKey = serializationService.toData(key);
+            if (dataKey != null) {
+                writeData(fos, dataKey);
+                writeByte(fos, key instanceof Data ? KEY_AS_DATA : KEY_AS_OBJECT);
+                writeValue(fos, entry.getValue());
+                lastKeyCount++;
+            }
+            flushLocalBuffer(outChannel);
+        }
+    }
+
+    private void writeValue(FileOutputStream fos, NearCacheRecord record) throws IOException {
+        // read the metadata first, so a concurrently updated value is rejected on load
+        UUID uuid = record.getUuid();
+        long sequence = record.getInvalidationSequence();
+        int partitionId = record.getPartitionId();
+        Object value = record.getValue();
+        if (uuid == null || value == null || record.isCachedAsNull() || record.getReservationId() != READ_PERMITTED) {
+            writeInt(fos, NO_VALUE);
+            lastWrittenBytes += INT_SIZE_IN_BYTES;
+            return;
+        }
+        writeData(fos, serializationService.toData(value));
+        writeInt(fos, partitionId);
+        writeLong(fos, uuid.getMostSignificantBits());
+        writeLong(fos, uuid.getLeastSignificantBits());
+        writeLong(fos, sequence);
+        lastWrittenBytes += INT_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES;
+    }
+
+    private void writeData(FileOutputStream fos, Data data) throws IOException {
+        byte[] bytes = data.toByteArray();
+        int dataSize = bytes.length;
+        writeInt(fos, dataSize);
+
+        int position = 0;
+        int remaining = dataSize;
+        while (remaining > 0) {
+            ensureBufHasRoom(fos, 1);
+            int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
+            buf.put(bytes, position, transferredCount);
+            position += transferredCount;
+            remaining -= transferredCount;
+        }
+
+        lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
+    }
+
     private int readInt(BufferingInputStream bis) throws IOException {
         readFullyOrNothing(bis, tmpBytes);
         return readIntB(tmpBytes, 0);
     }
 
+    private int readValueInt(BufferingInputStream bis) throws IOException {
+        readFully(bis, tmpBytes);
+        return readIntB(tmpBytes, 0);
+    }
+
+    private long readLong(BufferingInputStream bis) throws IOException {
+        readFully(bis, tmpLongBytes);
+        return readLongB(tmpLongBytes, 0);
+    }
+
+    private byte readByte(BufferingInputStream bis) throws IOException {
+        readFully(bis, tmpByte);
+        return tmpByte[0];
+    }
+
+    private void readFully(BufferingInputStream bis, byte[] bytes) throws IOException {
+        if (!readFullyOrNothing(bis, bytes)) {
+            throw new EOFException(format("Unexpected end of storage file of Near Cache %s (%s)", nearCacheName,
+                    storeFile.getAbsolutePath()));
+        }
+    }
+
     private void writeInt(FileOutputStream fos, int dataSize) throws IOException {
         ensureBufHasRoom(fos, INT_SIZE_IN_BYTES);
         writeIntB(tmpBytes, 0, dataSize);
         buf.put(tmpBytes);
     }
 
+    private void writeLong(FileOutputStream fos, long value) throws IOException {
+        ensureBufHasRoom(fos, LONG_SIZE_IN_BYTES);
+        writeLongB(tmpLongBytes, 0, value);
+        buf.put(tmpLongBytes);
+    }
+
+    private void writeByte(FileOutputStream fos, byte value) throws IOException {
+        ensureBufHasRoom(fos, BYTE_SIZE_IN_BYTES);
+        buf.put(value);
+        lastWrittenBytes += BYTE_SIZE_IN_BYTES;
+    }
+
     private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
-        if (buf.position() < BUFFER_SIZE - expectedSize) {
+        if (buf.position() <= BUFFER_SIZE - expectedSize) {
             return;
         }
-        fos.write(buf.array());
+        fos.write(buf.array(), 0, buf.position());
         upcast(buf).position(0);
     }
 
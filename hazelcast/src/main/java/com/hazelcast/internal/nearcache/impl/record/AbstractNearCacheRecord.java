@@ -161,6 +161,11 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
         this.uuid = uuid;
     }
 
+    @Override
+    public UUID getUuid() {
+        return uuid;
+    }
+
     @Override
     public boolean hasSameUuid(UUID thatUuid) {
         return uuid != null && thatUuid != null && uuid.equals(thatUuid);
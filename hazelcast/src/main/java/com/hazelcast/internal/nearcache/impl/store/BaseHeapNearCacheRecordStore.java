@@ -23,6 +23,7 @@ import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
 import com.hazelcast.internal.serialization.Data;
@@ -30,9 +31,13 @@ import com.hazelcast.internal.serialization.SerializationService;
 
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
 import static java.lang.String.format;
 
 /**
@@ -48,15 +53,22 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     private static final int DEFAULT_INITIAL_CAPACITY = 1000;
 
     private final NearCachePreloader<K> nearCachePreloader;
+    private final boolean storeValues;
     private final BiFunction<? super K, ? super R, ? extends R> invalidatorFunction = createInvalidatorFunction();
 
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
                                  ClassLoader classLoader) {
+        this(name, nearCacheConfig, serializationService, classLoader, false);
+    }
+
+    BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
+                                 ClassLoader classLoader, boolean storeValues) {
         super(nearCacheConfig, serializationService, classLoader);
 
         NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
         this.nearCachePreloader = preloaderConfig.isEnabled()
                 ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+        this.storeValues = storeValues;
     }
 
     @Override
@@ -117,17 +129,56 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     @Override
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
         if (nearCachePreloader != null) {
-            nearCachePreloader.loadKeys(adapter);
+            nearCachePreloader.loadKeys(adapter, this::publishStoredValue);
         }
     }
 
     @Override
     public void storeKeys() {
-        if (nearCachePreloader != null) {
+        if (nearCachePreloader == null) {
+            return;
+        }
+        if (storeValues) {
+            nearCachePreloader.storeEntries(records.entrySet().iterator());
+        } else {
             nearCachePreloader.storeKeys(records.keySet().iterator());
         }
     }
 
+    /**
+     * Puts a value from the pre-loader store file into this Near Cache,
+     * if the partition of the key has not seen any invalidation since
+     * the value was stored.
+     *
+     * @return {@code true} if the key doesn't have to be fetched anymore,
+     * {@code false} otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private boolean publishStoredValue(Object key, Data keyData, Data value,
+                                       int partitionId, UUID uuid, long sequence) {
+        if (staleReadDetector == ALWAYS_FRESH || !isSameMetaData(partitionId, uuid, sequence)) {
+            return false;
+        }
+
+        K recordKey = (K) key;
+        long reservationId = tryReserveForUpdate(recordKey, keyData, READ_UPDATE);
+        if (reservationId == NOT_RESERVED) {
+            return true;
+        }
+        // an invalidation could have been applied before the reservation was made
+        if (!isSameMetaData(partitionId, uuid, sequence)) {
+            invalidate(recordKey);
+            return false;
+        }
+        tryPublishReserved(recordKey, (V) value, reservationId, false);
+        return true;
+    }
+
+    private boolean isSameMetaData(int partitionId, UUID uuid, long sequence) {
+        MetaDataContainer metaDataContainer = staleReadDetector.getMetaDataContainer(partitionId);
+        return uuid.equals(metaDataContainer.getUuid()) && metaDataContainer.getSequence() == sequence;
+    }
+
     @Override
     public void destroy() {
         super.destroy();
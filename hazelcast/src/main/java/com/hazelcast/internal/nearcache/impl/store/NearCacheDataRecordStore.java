@@ -44,6 +44,14 @@ public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore
         super(name, nearCacheConfig, serializationService, classLoader);
     }
 
+    public NearCacheDataRecordStore(String name,
+                                    NearCacheConfig nearCacheConfig,
+                                    SerializationService serializationService,
+                                    ClassLoader classLoader,
+                                    boolean storeValues) {
+        super(name, nearCacheConfig, serializationService, classLoader, storeValues);
+    }
+
     @Override
     protected long getKeyStorageMemoryCost(K key) {
         if (key instanceof Data) {
@@ -39,6 +39,14 @@ public class NearCacheObjectRecordStore<K, V> extends BaseHeapNearCacheRecordSto
         super(name, nearCacheConfig, serializationService, classLoader);
     }
 
+    public NearCacheObjectRecordStore(String name,
+                                      NearCacheConfig nearCacheConfig,
+                                      SerializationService serializationService,
+                                      ClassLoader classLoader,
+                                      boolean storeValues) {
+        super(name, nearCacheConfig, serializationService, classLoader, storeValues);
+    }
+
     @Override
     protected long getKeyStorageMemoryCost(K key) {
         // memory cost for "OBJECT" in memory format is totally not supported, so just return zero
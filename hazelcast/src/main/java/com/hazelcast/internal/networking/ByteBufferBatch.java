@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * A batch of {@link ByteBuffer} instances which are written to a channel with
+ * a single {@link GatheringByteChannel#write(ByteBuffer[], int, int)} call.
+ *
+ * It is the destination of an {@link OutboundHandler} that wants to prevent
+ * copying its data into a single buffer, e.g. because it already has the
+ * data in byte-arrays. The buffers added must be in reading mode; a buffer
+ * which has been written completely is skipped on the next write.
+ *
+ * A ByteBufferBatch is not thread-safe.
+ */
+public final class ByteBufferBatch {
+
+    private final ByteBuffer[] buffers;
+    // index of the first buffer that has not been written completely
+    private int offset;
+    private int size;
+
+    public ByteBufferBatch(int capacity) {
+        this.buffers = new ByteBuffer[checkPositive("capacity", capacity)];
+    }
+
+    /**
+     * Adds a buffer to the end of this batch.
+     *
+     * @param buffer the buffer in reading mode.
+     * @throws IllegalStateException if the batch is full.
+     */
+    public void add(ByteBuffer buffer) {
+        if (size == buffers.length) {
+            throw new IllegalStateException("ByteBufferBatch is full, capacity " + buffers.length);
+        }
+        buffers[size++] = buffer;
+    }
+
+    /**
+     * Returns the number of buffers that can still be added.
+     */
+    public int remainingCapacity() {
+        return buffers.length - size;
+    }
+
+    /**
+     * Returns the number of buffers in this batch, including the ones
+     * that have been written completely.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if there are any bytes left to be written.
+     */
+    public boolean hasRemaining() {
+        while (offset < size) {
+            if (buffers[offset].hasRemaining()) {
+                return true;
+            }
+            offset++;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of bytes left to be written.
+     */
+    public long remaining() {
+        long remaining = 0;
+        for (int k = offset; k < size; k++) {
+            remaining += buffers[k].remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Writes the remaining bytes of this batch to the channel using a single
+     * gathering write. The channel is not called if nothing remains.
+     *
+     * @param channel the channel to write to.
+     * @return the number of bytes written.
+     * @throws IOException if writing to the channel fails.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        if (!hasRemaining()) {
+            return 0;
+        }
+        return channel.write(buffers, offset, size - offset);
+    }
+
+    /**
+     * Removes all buffers from this batch.
+     */
+    public void clear() {
+        Arrays.fill(buffers, 0, size, null);
+        offset = 0;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferBatch{size=" + size + ", offset=" + offset + ", capacity=" + buffers.length + '}';
+    }
+}
@@ -36,7 +36,7 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
  * A {@link PacketIOHelper} is designed to be reused.
  */
 public class PacketIOHelper {
-    static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+    public static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
     private int valueOffset;
     private int size;
@@ -58,11 +58,7 @@ public class PacketIOHelper {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putChar(packet.getFlags());
-            dst.putInt(packet.getPartitionId());
-            size = packet.totalSize();
-            dst.putInt(size);
+            size = writeHeaderTo(packet, dst);
             headerComplete = true;
         }
 
@@ -74,6 +70,23 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Writes only the header of the packet to the supplied {@code ByteBuffer}. The payload, if any, has to be written
+     * directly after it, e.g. as a separate buffer in a gathering write.
+     *
+     * @param packet the packet
+     * @param dst    the destination byte buffer; it must have at least {@link #HEADER_SIZE} bytes remaining.
+     * @return the size of the payload
+     */
+    public static int writeHeaderTo(Packet packet, ByteBuffer dst) {
+        int payloadSize = packet.totalSize();
+        dst.put(VERSION);
+        dst.putChar(packet.getFlags());
+        dst.putInt(packet.getPartitionId());
+        dst.putInt(payloadSize);
+        return payloadSize;
+    }
+
     private boolean writeValue(Packet packet, ByteBuffer dst) {
         if (size > 0) {
             // the number of bytes that can be written to the bb.
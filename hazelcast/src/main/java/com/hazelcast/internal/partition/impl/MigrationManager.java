@@ -110,9 +110,11 @@ import static com.hazelcast.internal.partition.IPartitionService.SERVICE_NAME;
 import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.ASYNC_EXECUTOR;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MAX_TOTAL_MIGRATING_DATA_IN_MB;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_CHUNKED_MIGRATION_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_INTERVAL;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_TIMEOUT;
 
 /**
@@ -181,8 +183,11 @@ public class MigrationManager {
         partitionMigrationTimeout = properties.getMillis(PARTITION_MIGRATION_TIMEOUT);
         fragmentedMigrationEnabled = properties.getBoolean(PARTITION_FRAGMENTED_MIGRATION_ENABLED);
         chunkedMigrationEnabled = properties.getBoolean(PARTITION_CHUNKED_MIGRATION_ENABLED);
-        maxTotalChunkedDataInBytes = (int) MEGABYTES.toBytes(properties.getInteger(PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB));
         maxParallelMigrations = properties.getInteger(ClusterProperty.PARTITION_MAX_PARALLEL_MIGRATIONS);
+        maxTotalChunkedDataInBytes = maxChunkedDataInBytes(
+                properties.getInteger(PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB),
+                properties.getInteger(PARTITION_CHUNKED_MAX_TOTAL_MIGRATING_DATA_IN_MB), maxParallelMigrations,
+                properties.getInteger(PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS));
         partitionStateManager = partitionService.getPartitionStateManager();
         ILogger migrationThreadLogger = node.getLogger(MigrationThread.class);
         String hzName = nodeEngine.getHazelcastInstance().getName();
@@ -315,6 +320,29 @@ public class MigrationManager {
         return maxTotalChunkedDataInBytes;
     }
 
+    /**
+     * Returns the size limit of a single migration chunk. When a member-wide
+     * budget is configured, the limit per migration is narrowed so that
+     * the chunks in flight of all parallel migrations on a member fit into
+     * the budget.
+     *
+     * @param maxMigratingDataInMb      limit of a single migration's chunk
+     * @param maxTotalMigratingDataInMb member-wide budget, disabled when {@code <= 0}
+     * @param maxParallelMigrations     max number of parallel migrations on a member
+     * @param maxInFlightFragments      max number of unacknowledged chunks of a migration
+     * @return chunk size limit in bytes
+     */
+    static int maxChunkedDataInBytes(int maxMigratingDataInMb, int maxTotalMigratingDataInMb,
+                                     int maxParallelMigrations, int maxInFlightFragments) {
+        long maxBytes = MEGABYTES.toBytes(maxMigratingDataInMb);
+        if (maxTotalMigratingDataInMb > 0) {
+            long budgetBytes = MEGABYTES.toBytes(maxTotalMigratingDataInMb)
+                    / ((long) Math.max(1, maxParallelMigrations) * Math.max(1, maxInFlightFragments));
+            maxBytes = Math.max(1, Math.min(maxBytes, budgetBytes));
+        }
+        return (int) Math.min(maxBytes, Integer.MAX_VALUE);
+    }
+
     public boolean removeFinalizingMigration(MigrationInfo migration) {
         return finalizingMigrationsRegistry.remove(migration);
     }
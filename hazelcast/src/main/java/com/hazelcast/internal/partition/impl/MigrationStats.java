@@ -36,6 +36,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_DESTINATION_COMMIT_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_OPERATION_TIME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MIGRATION_METRIC_TOTAL_SENT_MIGRATION_FRAGMENTS;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 
@@ -74,6 +75,9 @@ public class MigrationStats {
     @Probe(name = MIGRATION_METRIC_TOTAL_ELAPSED_MIGRATION_TIME, unit = NS)
     private final AtomicLong totalElapsedMigrationTime = new AtomicLong();
 
+    @Probe(name = MIGRATION_METRIC_TOTAL_SENT_MIGRATION_FRAGMENTS)
+    private final AtomicLong totalSentMigrationFragments = new AtomicLong();
+
     /**
      * Marks start of new repartitioning.
      * Resets stats from previous repartitioning round.
@@ -108,6 +112,14 @@ public class MigrationStats {
         totalElapsedMigrationTime.addAndGet(time);
     }
 
+    /**
+     * Records a migration fragment (or chunk) acknowledged by
+     * the destination, when this member is the migration source.
+     */
+    public void incrementSentMigrationFragments() {
+        totalSentMigrationFragments.incrementAndGet();
+    }
+
     /**
      * Returns the last repartition time.
      */
@@ -191,6 +203,14 @@ public class MigrationStats {
         return TimeUnit.NANOSECONDS.toMillis(totalElapsedMigrationTime.get());
     }
 
+    /**
+     * Returns the total number of migration fragments (or chunks) sent by this
+     * member as migration source and acknowledged by the destination, since the beginning.
+     */
+    public long getTotalSentMigrationFragments() {
+        return totalSentMigrationFragments.get();
+    }
+
     public MigrationState toMigrationState() {
         return new MigrationStateImpl(lastRepartitionTime.get(), plannedMigrations,
                 completedMigrations.get(), getElapsedMigrationTime());
@@ -210,7 +230,8 @@ public class MigrationStats {
                     .append(", elapsedDestinationCommitTime=").append(getElapsedDestinationCommitTime()).append("ms")
                     .append(", totalElapsedDestinationCommitTime=").append(getTotalElapsedDestinationCommitTime()).append("ms")
                     .append(", elapsedMigrationTime=").append(getElapsedMigrationTime()).append("ms")
-                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms");
+                    .append(", totalElapsedMigrationTime=").append(getTotalElapsedMigrationTime()).append("ms")
+                    .append(", totalSentMigrationFragments=").append(getTotalSentMigrationFragments());
         }
         return s.toString();
     }
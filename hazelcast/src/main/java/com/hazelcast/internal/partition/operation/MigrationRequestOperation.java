@@ -44,9 +44,11 @@ import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationservice.CallStatus;
 import com.hazelcast.spi.impl.operationservice.Offload;
+import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+import com.hazelcast.spi.properties.ClusterProperty;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
@@ -85,6 +87,13 @@ import static java.util.Collections.singleton;
  *
  * @since 5.1 If chunked migration is enabled,
  * it also subdivides fragments into chunks.
+ * <p>
+ * Up to {@link ClusterProperty#PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS}
+ * fragments are sent without waiting for their acknowledgement. Fragments
+ * of a partition are sent over the same connection and run on the same
+ * partition thread of the destination, so they are still applied in the
+ * order they were sent. The first fragment is always acknowledged before
+ * the next one is sent, since it prepares the destination.
  */
 public class MigrationRequestOperation extends BaseMigrationOperation {
 
@@ -96,6 +105,14 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private transient Map<ServiceNamespace, Collection<ChunkSupplier>>
             namespaceToSuppliers = new HashMap<>();
 
+    private final transient Object fragmentMutex = new Object();
+    private transient int maxInFlightFragments;
+    // the following fields are guarded by fragmentMutex
+    private transient int inFlightFragments;
+    private transient boolean preparingFragment;
+    private transient boolean allFragmentsSent;
+    private transient boolean migrationCompleted;
+
     public MigrationRequestOperation() {
     }
 
@@ -123,8 +140,13 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         public void start() {
             NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
             try {
+                maxInFlightFragments = Math.max(1,
+                        nodeEngine.getProperties().getInteger(ClusterProperty.PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS));
                 executeBeforeMigrations();
                 namespacesContext = new ServiceNamespacesContext(nodeEngine, getPartitionReplicationEvent());
+                synchronized (fragmentMutex) {
+                    inFlightFragments++;
+                }
                 invokeMigrationOperation(initialReplicaFragmentMigrationState(), true);
             } catch (Throwable e) {
                 logThrowable(e);
@@ -169,15 +191,32 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         ExecutorService asyncExecutor = getNodeEngine().getExecutionService().getExecutor(ExecutionService.ASYNC_EXECUTOR);
 
         Address target = migrationInfo.getDestinationAddress();
-        nodeEngine.getOperationService()
+        InvocationBuilder invocationBuilder = nodeEngine.getOperationService()
                 .createInvocationBuilder(InternalPartitionService.SERVICE_NAME, operation, target)
                 .setResultDeserialized(true)
-                .setCallTimeout(partitionService.getPartitionMigrationTimeout())
-                .invoke()
+                .setCallTimeout(partitionService.getPartitionMigrationTimeout());
+        if (!firstFragment && maxInFlightFragments > 1) {
+            // a retried fragment could be applied after a later one which is
+            // already in flight, fail the migration instead of retrying
+            invocationBuilder.setTryCount(1);
+        }
+        invocationBuilder.invoke()
                 .whenCompleteAsync(new MigrationCallback(), asyncExecutor);
     }
 
+    /**
+     * Prepares and sends the next fragment if the number of fragments in
+     * flight allows it and no other fragment is being prepared. Completes
+     * the migration once all fragments are sent and acknowledged.
+     */
     private void trySendNewFragment() {
+        synchronized (fragmentMutex) {
+            if (migrationCompleted || preparingFragment || allFragmentsSent
+                    || inFlightFragments >= maxInFlightFragments) {
+                return;
+            }
+            preparingFragment = true;
+        }
         try {
             verifyMaster();
             verifyExistingDestination();
@@ -198,8 +237,16 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 // migration ops must be serialized and invoked from partition threads
                 getNodeEngine().getOperationService().execute(new InvokeMigrationOps(migrationState, getPartitionId()));
             } else {
-                getLogger().finest("All migration fragments done for " + migrationInfo);
-                completeMigration(true);
+                boolean done;
+                synchronized (fragmentMutex) {
+                    preparingFragment = false;
+                    allFragmentsSent = true;
+                    done = inFlightFragments == 0;
+                }
+                if (done) {
+                    getLogger().finest("All migration fragments done for " + migrationInfo);
+                    completeMigration(true);
+                }
             }
         } catch (Throwable e) {
             logThrowable(e);
@@ -207,6 +254,20 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         }
     }
 
+    private void onFragmentAcknowledged() {
+        boolean done;
+        synchronized (fragmentMutex) {
+            inFlightFragments--;
+            done = allFragmentsSent && inFlightFragments == 0;
+        }
+        if (done) {
+            getLogger().finest("All migration fragments done for " + migrationInfo);
+            completeMigration(true);
+        } else {
+            trySendNewFragment();
+        }
+    }
+
     private final class InvokeMigrationOps implements PartitionSpecificRunnable, UrgentSystemOperation {
 
         private final ReplicaFragmentMigrationState migrationState;
@@ -225,11 +286,22 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         @Override
         public void run() {
             try {
+                synchronized (fragmentMutex) {
+                    inFlightFragments++;
+                }
                 invokeMigrationOperation(migrationState, false);
             } catch (Throwable t) {
                 logThrowable(t);
                 completeMigration(false);
+                return;
+            }
+            synchronized (fragmentMutex) {
+                preparingFragment = false;
             }
+            // the chunk suppliers were drained while serializing the fragment,
+            // so the next one can be prepared while this one is in flight
+            getNodeEngine().getExecutionService().submit(ExecutionService.ASYNC_EXECUTOR,
+                    () -> trySendNewFragment());
         }
     }
 
@@ -383,6 +455,13 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     }
 
     private void completeMigration(boolean result) {
+        synchronized (fragmentMutex) {
+            if (migrationCompleted) {
+                // a fragment failed or timed out while others were still in flight
+                return;
+            }
+            migrationCompleted = true;
+        }
         success = result;
         onMigrationComplete();
         sendResponse(result);
@@ -438,10 +517,12 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 logThrowable(throwable);
                 completeMigration(false);
             } else if (Boolean.TRUE.equals(result)) {
+                InternalPartitionServiceImpl partitionService = getService();
+                partitionService.getMigrationManager().getStats().incrementSentMigrationFragments();
                 // ASYNC executor is of CONCRETE type (does not share threads with other executors)
                 // and is never used for user-supplied code.
                 getNodeEngine().getExecutionService().submit(ExecutionService.ASYNC_EXECUTOR,
-                        () -> trySendNewFragment());
+                        () -> onFragmentAcknowledged());
             } else {
                 ILogger logger = getLogger();
                 if (logger.isFineEnabled()) {
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.Data;
+
+/**
+ * Reads top-level fields directly from the bytes of serialized {@link Data},
+ * without creating an input or an {@link InternalGenericRecord} for it. Used
+ * to evaluate query predicates on values stored in the {@code BINARY} format.
+ */
+public interface DataFieldReader {
+
+    /**
+     * Returned by {@link #read} if the field can't be read by the reader, for
+     * example if the path is not a top-level field or the field is not of a
+     * primitive type. The caller should then read the field from an {@link
+     * InternalGenericRecord}.
+     */
+    Object NOT_READ = new Object();
+
+    /**
+     * Reads the value of the given field.
+     *
+     * @param data      the serialized value
+     * @param fieldPath the name of the field
+     * @return the value of the field, which might be {@code null}, or {@link
+     * #NOT_READ}
+     */
+    Object read(Data data, String fieldPath);
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.HashUtil;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+import static com.hazelcast.internal.serialization.impl.HeapData.PARTITION_HASH_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * A {@link Data} implementation where the content lives in a memory block
+ * obtained from a {@link MemoryAllocator}, outside of the Java heap.
+ * <p>
+ * The block has exactly the layout of a {@link HeapData} payload, so
+ * {@link #toByteArray()} is a plain copy. An instance is the only heap
+ * object needed to reference a serialized value, compared to the
+ * {@link HeapData} and its {@code byte[]} in the on-heap case.
+ * <p>
+ * The owner of the block is responsible for calling {@link #dispose(MemoryAllocator)}
+ * once the data is no longer reachable by any reader. Accessing the data after
+ * it has been disposed fails with {@link IllegalStateException}.
+ * Code which lets a value escape its owner's lifecycle must copy it with
+ * {@link com.hazelcast.internal.util.ToHeapDataConverter#toHeapData(Data)}.
+ */
+public final class OffHeapData implements Data {
+
+    // address + size + accessor reference
+    private static final int HEAP_COST = OBJECT_HEADER_SIZE + Long.BYTES + Integer.BYTES + REFERENCE_COST_IN_BYTES;
+
+    private final MemoryAccessor mem;
+    private final int size;
+    private volatile long address;
+
+    private OffHeapData(MemoryAccessor mem, long address, int size) {
+        this.mem = mem;
+        this.address = address;
+        this.size = size;
+    }
+
+    /**
+     * Copies the given data into a newly allocated off-heap block.
+     *
+     * @param data   the data to copy, must not be empty
+     * @param malloc the allocator to take the block from
+     * @param mem    the accessor for the memory managed by {@code malloc}
+     * @return the off-heap copy of {@code data}
+     */
+    public static OffHeapData copyOf(Data data, MemoryAllocator malloc, MemoryAccessor mem) {
+        int size = data.totalSize();
+        assert size >= HEAP_DATA_OVERHEAD : "Cannot copy empty data off-heap";
+        long address = malloc.allocate(size);
+        byte[] bytes = data.toByteArray();
+        mem.copyFromByteArray(bytes, 0, address, size);
+        return new OffHeapData(mem, address, size);
+    }
+
+    /**
+     * Frees the memory block of this data. Subsequent calls have no effect.
+     *
+     * @param malloc the allocator the block was taken from
+     */
+    public void dispose(MemoryAllocator malloc) {
+        long address = this.address;
+        if (address != NULL_ADDRESS) {
+            this.address = NULL_ADDRESS;
+            malloc.free(address, size);
+        }
+    }
+
+    public boolean isDisposed() {
+        return address == NULL_ADDRESS;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size];
+        mem.copyToByteArray(checkedAddress(), bytes, 0, size);
+        return bytes;
+    }
+
+    @Override
+    public int getType() {
+        return readIntB(TYPE_OFFSET);
+    }
+
+    @Override
+    public int totalSize() {
+        return size;
+    }
+
+    @Override
+    public void copyTo(byte[] dest, int destPos) {
+        mem.copyToByteArray(checkedAddress(), dest, destPos, size);
+    }
+
+    @Override
+    public int dataSize() {
+        return size - HEAP_DATA_OVERHEAD;
+    }
+
+    @Override
+    public int getHeapCost() {
+        return HEAP_COST;
+    }
+
+    @Override
+    public int getPartitionHash() {
+        if (hasPartitionHash()) {
+            return readIntB(PARTITION_HASH_OFFSET);
+        }
+        return hashCode();
+    }
+
+    @Override
+    public boolean hasPartitionHash() {
+        return readIntB(PARTITION_HASH_OFFSET) != 0;
+    }
+
+    @Override
+    public long hash64() {
+        return HashUtil.MurmurHash3_x64_64_direct(mem, checkedAddress(), DATA_OFFSET, dataSize());
+    }
+
+    @Override
+    public boolean isPortable() {
+        return SerializationConstants.CONSTANT_TYPE_PORTABLE == getType();
+    }
+
+    @Override
+    public boolean isJson() {
+        return SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE == getType();
+    }
+
+    @Override
+    public boolean isCompact() {
+        return SerializationConstants.TYPE_COMPACT == getType();
+    }
+
+    @Override
+    public int hashCode() {
+        return HashUtil.MurmurHash3_x86_32_direct(mem, checkedAddress(), DATA_OFFSET, dataSize());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Data)) {
+            return false;
+        }
+        Data data = (Data) o;
+        if (getType() != data.getType() || dataSize() != data.dataSize()) {
+            return false;
+        }
+        byte[] other = data.toByteArray();
+        long address = checkedAddress();
+        for (int i = size - 1; i >= DATA_OFFSET; i--) {
+            if (mem.getByte(address + i) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readIntB(int offset) {
+        int value = mem.getInt(checkedAddress() + offset);
+        return mem.isBigEndian() ? value : Integer.reverseBytes(value);
+    }
+
+    private long checkedAddress() {
+        long address = this.address;
+        if (address == NULL_ADDRESS) {
+            throw new IllegalStateException("Off-heap data has already been disposed");
+        }
+        return address;
+    }
+
+    @Override
+    public String toString() {
+        if (isDisposed()) {
+            return "OffHeapData{disposed, totalSize=" + size + '}';
+        }
+        return "OffHeapData{"
+                + "type=" + getType()
+                + ", hashCode=" + hashCode()
+                + ", partitionHash=" + getPartitionHash()
+                + ", totalSize=" + totalSize()
+                + ", dataSize=" + dataSize()
+                + ", heapCost=" + getHeapCost()
+                + '}';
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.DataType;
+import com.hazelcast.internal.serialization.impl.compact.CompactDataFieldReader;
 import com.hazelcast.internal.serialization.impl.compact.Schema;
 import com.hazelcast.internal.serialization.impl.defaultserializers.ArrayBlockingQueueStreamSerializer;
 import com.hazelcast.internal.serialization.impl.defaultserializers.ArrayDequeStreamSerializer;
@@ -52,6 +53,7 @@ import com.hazelcast.internal.serialization.impl.defaultserializers.TreeMapStrea
 import com.hazelcast.internal.serialization.impl.defaultserializers.TreeSetStreamSerializer;
 import com.hazelcast.internal.serialization.impl.portable.PortableContext;
 import com.hazelcast.internal.serialization.impl.portable.PortableContextImpl;
+import com.hazelcast.internal.serialization.impl.portable.PortableDataFieldReader;
 import com.hazelcast.internal.serialization.impl.portable.PortableHookLoader;
 import com.hazelcast.internal.serialization.impl.portable.PortableSerializer;
 import com.hazelcast.nio.ObjectDataInput;
@@ -138,6 +140,7 @@ import static com.hazelcast.internal.serialization.impl.defaultserializers.JavaD
 import static com.hazelcast.internal.serialization.impl.defaultserializers.JavaDefaultSerializers.LocalTimeSerializer;
 import static com.hazelcast.internal.serialization.impl.defaultserializers.JavaDefaultSerializers.OffsetDateTimeSerializer;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 
 public class SerializationServiceV1 extends AbstractSerializationService {
 
@@ -146,6 +149,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final DataFieldReader portableFieldReader;
+    private final DataFieldReader compactFieldReader;
 
     SerializationServiceV1(AbstractBuilder<?> builder) {
         super(builder);
@@ -166,6 +171,9 @@ public class SerializationServiceV1 extends AbstractSerializationService {
                 new JavaDefaultSerializers.ExternalizableSerializer(builder.enableCompression, builder.classNameFilter));
         registerConstantSerializers(builder.isCompatibility());
         registerJavaTypeSerializers(builder.isCompatibility());
+
+        portableFieldReader = new PortableDataFieldReader(portableContext, getByteOrder(), builder.isCompatibility());
+        compactFieldReader = new CompactDataFieldReader(compactStreamSerializer, getByteOrder(), builder.isCompatibility());
     }
 
     @Override
@@ -173,6 +181,9 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         if (type == DataType.NATIVE) {
             throw new IllegalArgumentException("Native data type is not supported");
         }
+        if (obj instanceof Data) {
+            return (B) toHeapData((Data) obj);
+        }
         return toData(obj);
     }
 
@@ -181,6 +192,9 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         if (type == DataType.NATIVE) {
             throw new IllegalArgumentException("Native data type is not supported");
         }
+        if (obj instanceof Data) {
+            return (B) toHeapData((Data) obj);
+        }
         return toData(obj, strategy);
     }
 
@@ -189,7 +203,7 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         if (type == DataType.NATIVE) {
             throw new IllegalArgumentException("Native data type is not supported");
         }
-        return (B) data;
+        return (B) toHeapData(data);
     }
 
     public InternalGenericRecord readAsInternalGenericRecord(Data data) throws IOException {
@@ -203,6 +217,23 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         throw new IllegalArgumentException("Given type does not support query over data, type id " + data.getType());
     }
 
+    /**
+     * Reads a top-level field of Portable or Compact serialized data directly
+     * from its bytes, see {@link DataFieldReader}.
+     *
+     * @return the value of the field or {@link DataFieldReader#NOT_READ} if
+     * the field should be read using {@link #readAsInternalGenericRecord}
+     */
+    public Object readFieldFromData(Data data, String fieldPath) {
+        if (data.isPortable()) {
+            return portableFieldReader.read(data, fieldPath);
+        }
+        if (data.isCompact()) {
+            return compactFieldReader.read(data, fieldPath);
+        }
+        return DataFieldReader.NOT_READ;
+    }
+
     @Override
     public Schema extractSchemaFromData(@Nonnull Data data) throws IOException {
         if (!data.isCompact()) {
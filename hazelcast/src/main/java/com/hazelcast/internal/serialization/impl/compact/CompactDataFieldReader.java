@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.DataFieldReader;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.BYTE_OFFSET_READER_RANGE;
+import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.NULL_OFFSET;
+import static com.hazelcast.internal.serialization.impl.compact.OffsetReader.SHORT_OFFSET_READER_RANGE;
+
+/**
+ * Reads top-level fields of the fixed-size kinds, their nullable variants and
+ * strings from Compact serialized {@link HeapData}. The positions are
+ * computed from the offsets in the field descriptors of the cached {@link
+ * Schema} and the same way {@link CompactInternalGenericRecord} computes them.
+ * All other fields, and strings if the serialization is in the compatibility
+ * mode, are not read.
+ */
+public final class CompactDataFieldReader implements DataFieldReader {
+
+    private final CompactStreamSerializer serializer;
+    private final boolean bigEndian;
+    private final boolean compatibility;
+
+    public CompactDataFieldReader(CompactStreamSerializer serializer, ByteOrder byteOrder, boolean compatibility) {
+        this.serializer = serializer;
+        this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+        this.compatibility = compatibility;
+    }
+
+    @SuppressWarnings({"checkstyle:CyclomaticComplexity", "checkstyle:NPathComplexity", "checkstyle:ReturnCount"})
+    @Override
+    public Object read(Data data, String fieldPath) {
+        if (!(data instanceof HeapData) || !data.isCompact()) {
+            return NOT_READ;
+        }
+        byte[] bytes = data.toByteArray();
+        int position = HeapData.DATA_OFFSET;
+        Schema schema = serializer.getSchema(Bits.readLong(bytes, position, bigEndian));
+        FieldDescriptor fd = schema == null ? null : schema.getField(fieldPath);
+        if (fd == null) {
+            return NOT_READ;
+        }
+        position += LONG_SIZE_IN_BYTES;
+
+        int dataStart = position;
+        int dataLength = 0;
+        if (schema.getNumberOfVariableSizeFields() != 0) {
+            dataLength = Bits.readInt(bytes, position, bigEndian);
+            dataStart = position + INT_SIZE_IN_BYTES;
+        }
+
+        int fixedPosition = dataStart + fd.getOffset();
+        switch (fd.getKind()) {
+            case BOOLEAN:
+                return ((bytes[fixedPosition] >>> fd.getBitOffset()) & 1) != 0;
+            case INT8:
+                return bytes[fixedPosition];
+            case INT16:
+                return Bits.readShort(bytes, fixedPosition, bigEndian);
+            case INT32:
+                return Bits.readInt(bytes, fixedPosition, bigEndian);
+            case INT64:
+                return Bits.readLong(bytes, fixedPosition, bigEndian);
+            case FLOAT32:
+                return Float.intBitsToFloat(Bits.readInt(bytes, fixedPosition, bigEndian));
+            case FLOAT64:
+                return Double.longBitsToDouble(Bits.readLong(bytes, fixedPosition, bigEndian));
+            case NULLABLE_BOOLEAN:
+            case NULLABLE_INT8:
+            case NULLABLE_INT16:
+            case NULLABLE_INT32:
+            case NULLABLE_INT64:
+            case NULLABLE_FLOAT32:
+            case NULLABLE_FLOAT64:
+                int variablePosition = variableSizeFieldPosition(bytes, dataStart, dataLength, fd.getIndex());
+                return variablePosition == NULL_OFFSET ? null : readVariableSize(bytes, variablePosition, fd);
+            case STRING:
+                if (compatibility) {
+                    return NOT_READ;
+                }
+                int stringPosition = variableSizeFieldPosition(bytes, dataStart, dataLength, fd.getIndex());
+                return stringPosition == NULL_OFFSET ? null : readVariableSize(bytes, stringPosition, fd);
+            default:
+                return NOT_READ;
+        }
+    }
+
+    private int variableSizeFieldPosition(byte[] bytes, int dataStart, int dataLength, int index) {
+        int variableOffsetsPosition = dataStart + dataLength;
+        int offset;
+        if (dataLength < BYTE_OFFSET_READER_RANGE) {
+            byte byteOffset = bytes[variableOffsetsPosition + index];
+            offset = byteOffset == NULL_OFFSET ? NULL_OFFSET : Byte.toUnsignedInt(byteOffset);
+        } else if (dataLength < SHORT_OFFSET_READER_RANGE) {
+            short shortOffset = Bits.readShort(bytes, variableOffsetsPosition + index * SHORT_SIZE_IN_BYTES, bigEndian);
+            offset = shortOffset == NULL_OFFSET ? NULL_OFFSET : Short.toUnsignedInt(shortOffset);
+        } else {
+            offset = Bits.readInt(bytes, variableOffsetsPosition + index * INT_SIZE_IN_BYTES, bigEndian);
+        }
+        return offset == NULL_OFFSET ? NULL_OFFSET : offset + dataStart;
+    }
+
+    private Object readVariableSize(byte[] bytes, int position, FieldDescriptor fd) {
+        switch (fd.getKind()) {
+            case NULLABLE_BOOLEAN:
+                return bytes[position] != 0;
+            case NULLABLE_INT8:
+                return bytes[position];
+            case NULLABLE_INT16:
+                return Bits.readShort(bytes, position, bigEndian);
+            case NULLABLE_INT32:
+                return Bits.readInt(bytes, position, bigEndian);
+            case NULLABLE_INT64:
+                return Bits.readLong(bytes, position, bigEndian);
+            case NULLABLE_FLOAT32:
+                return Float.intBitsToFloat(Bits.readInt(bytes, position, bigEndian));
+            case NULLABLE_FLOAT64:
+                return Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian));
+            case STRING:
+                int length = Bits.readInt(bytes, position, bigEndian);
+                return length == NULL_ARRAY_LENGTH
+                        ? null
+                        : new String(bytes, position + INT_SIZE_IN_BYTES, length, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("Unexpected field kind: " + fd.getKind());
+        }
+    }
+}
@@ -270,6 +270,10 @@ public class CompactStreamSerializer implements StreamSerializer<Object> {
         return (InternalGenericRecord) readGenericRecord(input, false);
     }
 
+    Schema getSchema(long schemaId) {
+        return schemaService.get(schemaId);
+    }
+
     //Should be deleted with removing Beta tags
     public boolean isEnabled() {
         return isEnabled;
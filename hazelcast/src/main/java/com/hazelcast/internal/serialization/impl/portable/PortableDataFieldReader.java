@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.portable;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.DataFieldReader;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.FieldDefinition;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.NULL_ARRAY_LENGTH;
+import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Reads top-level fields of the primitive types and strings from Portable
+ * serialized {@link HeapData}. The positions are read from the field offset
+ * table using the field indexes of the registered {@link ClassDefinition},
+ * the same way {@link PortableInternalGenericRecord} reads them. All other
+ * fields, and strings if the serialization is in the compatibility mode, are
+ * not read.
+ */
+public final class PortableDataFieldReader implements DataFieldReader {
+
+    // factory ID, class ID, version and final position precede the field count
+    private static final int FIELD_COUNT_OFFSET = 4 * INT_SIZE_IN_BYTES;
+
+    private final PortableContext context;
+    private final boolean bigEndian;
+    private final boolean compatibility;
+
+    public PortableDataFieldReader(PortableContext context, ByteOrder byteOrder, boolean compatibility) {
+        this.context = context;
+        this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+        this.compatibility = compatibility;
+    }
+
+    @SuppressWarnings({"checkstyle:CyclomaticComplexity", "checkstyle:NPathComplexity", "checkstyle:ReturnCount"})
+    @Override
+    public Object read(Data data, String fieldPath) {
+        if (!(data instanceof HeapData) || !data.isPortable()) {
+            return NOT_READ;
+        }
+        byte[] bytes = data.toByteArray();
+        int start = HeapData.DATA_OFFSET;
+        int factoryId = Bits.readInt(bytes, start, bigEndian);
+        int classId = Bits.readInt(bytes, start + INT_SIZE_IN_BYTES, bigEndian);
+        int version = Bits.readInt(bytes, start + 2 * INT_SIZE_IN_BYTES, bigEndian);
+        ClassDefinition cd = context.lookupClassDefinition(factoryId, classId, version < 0 ? context.getVersion() : version);
+        FieldDefinition fd = cd == null ? null : cd.getField(fieldPath);
+        int fieldCountPosition = start + FIELD_COUNT_OFFSET;
+        if (fd == null || Bits.readInt(bytes, fieldCountPosition, bigEndian) != cd.getFieldCount()) {
+            return NOT_READ;
+        }
+
+        int offsetPosition = fieldCountPosition + INT_SIZE_IN_BYTES + fd.getIndex() * INT_SIZE_IN_BYTES;
+        int fieldPosition = Bits.readInt(bytes, offsetPosition, bigEndian);
+        // skip the field name and type
+        int position = fieldPosition + SHORT_SIZE_IN_BYTES + Bits.readShort(bytes, fieldPosition, bigEndian) + 1;
+        switch (fd.getType()) {
+            case BOOLEAN:
+                return bytes[position] != 0;
+            case BYTE:
+                return bytes[position];
+            case CHAR:
+                return Bits.readChar(bytes, position, bigEndian);
+            case SHORT:
+                return Bits.readShort(bytes, position, bigEndian);
+            case INT:
+                return Bits.readInt(bytes, position, bigEndian);
+            case LONG:
+                return Bits.readLong(bytes, position, bigEndian);
+            case FLOAT:
+                return Float.intBitsToFloat(Bits.readInt(bytes, position, bigEndian));
+            case DOUBLE:
+                return Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian));
+            case UTF:
+                if (compatibility) {
+                    return NOT_READ;
+                }
+                int length = Bits.readInt(bytes, position, bigEndian);
+                return length == NULL_ARRAY_LENGTH
+                        ? null
+                        : new String(bytes, position + INT_SIZE_IN_BYTES, length, StandardCharsets.UTF_8);
+            default:
+                return NOT_READ;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.ByteBufferBatch;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.Packet;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
+import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
+import static com.hazelcast.internal.nio.PacketIOHelper.writeHeaderTo;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
+
+/**
+ * A {@link OutboundHandler} for member to member communication that writes
+ * a batch of {@link Packet} instances with a single gathering write.
+ *
+ * The packet headers and small payloads are copied into a scratch buffer.
+ * Larger payloads are not copied; the byte-array of the packet is wrapped and
+ * added to the {@link ByteBufferBatch} directly, in between the regions of
+ * the scratch buffer. Just like the {@link PacketEncoder}, the packet
+ * instances are not modified, so they can be shared over multiple
+ * connections.
+ *
+ * A new batch is only created once the previous one has been written
+ * completely.
+ *
+ * @see PacketEncoder
+ */
+public class GatheringPacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBufferBatch> {
+
+    static final int DEFAULT_MAX_BUFFERS = 64;
+    static final int DEFAULT_COPY_THRESHOLD = 1024;
+
+    // a packet takes at most 2 buffers and the last region of the scratch buffer 1
+    private static final int MAX_BUFFERS_PER_PACKET = 3;
+
+    private final int maxBuffers;
+    private final int copyThreshold;
+
+    private ByteBuffer scratch;
+    private int regionStart;
+
+    public GatheringPacketEncoder() {
+        this(DEFAULT_MAX_BUFFERS, DEFAULT_COPY_THRESHOLD);
+    }
+
+    /**
+     * @param maxBuffers    the maximum number of buffers in a single gathering write
+     * @param copyThreshold payloads up to this size are copied into the scratch buffer
+     */
+    GatheringPacketEncoder(int maxBuffers, int copyThreshold) {
+        if (maxBuffers < MAX_BUFFERS_PER_PACKET) {
+            throw new IllegalArgumentException("maxBuffers can't be smaller than " + MAX_BUFFERS_PER_PACKET
+                    + ", maxBuffers: " + maxBuffers);
+        }
+        this.maxBuffers = maxBuffers;
+        this.copyThreshold = copyThreshold;
+    }
+
+    @Override
+    public void handlerAdded() {
+        init(channel.options().getOption(SO_SNDBUF), channel.options().getOption(DIRECT_BUF));
+    }
+
+    void init(int scratchSize, boolean direct) {
+        scratch = newByteBuffer(scratchSize, direct);
+        dst = new ByteBufferBatch(maxBuffers);
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        if (dst.hasRemaining()) {
+            // the previous batch isn't written completely yet
+            return DIRTY;
+        }
+
+        dst.clear();
+        upcast(scratch).clear();
+        regionStart = 0;
+        try {
+            for (; ; ) {
+                if (dst.remainingCapacity() < MAX_BUFFERS_PER_PACKET || scratch.remaining() < HEADER_SIZE) {
+                    // the batch is full; there could be more packets, so we are not done
+                    return DIRTY;
+                }
+
+                Packet packet = src.get();
+                if (packet == null) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+
+                int payloadSize = writeHeaderTo(packet, scratch);
+                if (payloadSize == 0) {
+                    continue;
+                }
+
+                byte[] payload = packet.toByteArray();
+                if (payloadSize <= copyThreshold && payloadSize <= scratch.remaining()) {
+                    scratch.put(payload, 0, payloadSize);
+                } else {
+                    addScratchRegion();
+                    dst.add(ByteBuffer.wrap(payload, 0, payloadSize));
+                }
+            }
+        } finally {
+            addScratchRegion();
+        }
+    }
+
+    private void addScratchRegion() {
+        int position = scratch.position();
+        if (position == regionStart) {
+            return;
+        }
+
+        ByteBuffer region = scratch.duplicate();
+        upcast(region).limit(position);
+        upcast(region).position(regionStart);
+        dst.add(region);
+        regionStart = position;
+    }
+}
@@ -291,4 +291,39 @@ final class AccumulatorSerializerHooks {
             return false;
         }
     }
+
+    public static final class CardinalityAccHook implements SerializerHook<CardinalityAccumulator> {
+
+        @Override
+        public Class<CardinalityAccumulator> getSerializationType() {
+            return CardinalityAccumulator.class;
+        }
+
+        @Override
+        public Serializer createSerializer() {
+            return new StreamSerializer<CardinalityAccumulator>() {
+                @Override
+                public int getTypeId() {
+                    return SerializerHookConstants.CARDINALITY_ACC;
+                }
+
+                @Override
+                public void write(
+                        @Nonnull ObjectDataOutput out, @Nonnull CardinalityAccumulator object
+                ) throws IOException {
+                    out.writeObject(object.hyperLogLog());
+                }
+
+                @Nonnull @Override
+                public CardinalityAccumulator read(@Nonnull ObjectDataInput in) throws IOException {
+                    return new CardinalityAccumulator(in.readObject());
+                }
+            };
+        }
+
+        @Override
+        public boolean isOverwritable() {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.accumulator;
+
+import com.hazelcast.cardinality.CardinalityEstimator;
+import com.hazelcast.cardinality.impl.CardinalityEstimatorProxy;
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogImpl;
+import com.hazelcast.jet.aggregate.AggregateOperations;
+
+import javax.annotation.Nonnull;
+
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.writeLongB;
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x64_64;
+
+/**
+ * Keeps the state needed to implement the {@link
+ * AggregateOperations#estimatingCardinality} aggregate operation. It
+ * estimates the number of distinct {@code long} values it accumulated
+ * using the same HyperLogLog sketch that backs the {@link
+ * CardinalityEstimator}. The values are hashed the same way as the estimator
+ * hashes a {@code Long} passed to {@link CardinalityEstimator#add}, so the
+ * accumulated sketch can be {@linkplain #mergeInto merged into an estimator}
+ * fed with the same IDs.
+ *
+ * @since 5.2
+ */
+public class CardinalityAccumulator {
+
+    private final HyperLogLog hll;
+    private final byte[] hashBuffer = new byte[LONG_SIZE_IN_BYTES];
+
+    /**
+     * Constructs an empty accumulator.
+     */
+    public CardinalityAccumulator() {
+        this(new HyperLogLogImpl());
+    }
+
+    CardinalityAccumulator(HyperLogLog hll) {
+        this.hll = hll;
+    }
+
+    /**
+     * Accumulates a value identifying a distinct item.
+     */
+    public CardinalityAccumulator accumulate(long value) {
+        // the estimator hashes the payload of the serialized object, for a
+        // Long it's the value in big-endian byte order
+        writeLongB(hashBuffer, 0, value);
+        hll.add(MurmurHash3_x64_64(hashBuffer, 0, LONG_SIZE_IN_BYTES));
+        return this;
+    }
+
+    /**
+     * Combines another accumulator with this one.
+     */
+    public CardinalityAccumulator combine(@Nonnull CardinalityAccumulator that) {
+        hll.merge(that.hll);
+        return this;
+    }
+
+    /**
+     * Merges the accumulated sketch into the given estimator, so that it
+     * estimates the number of distinct items among the ones added to it and
+     * the ones accumulated here. The estimator must be obtained from a
+     * member, for example from {@link
+     * com.hazelcast.jet.core.Processor.Context#hazelcastInstance()} in a
+     * sink, this accumulator is not changed.
+     *
+     * @throws UnsupportedOperationException if the estimator is a client proxy
+     */
+    public void mergeInto(@Nonnull CardinalityEstimator estimator) {
+        if (!(estimator instanceof CardinalityEstimatorProxy)) {
+            throw new UnsupportedOperationException("Merging is only supported into an estimator obtained from a member");
+        }
+        ((CardinalityEstimatorProxy) estimator).mergeAsync(hll).joinInternal();
+    }
+
+    /**
+     * Returns the estimated number of distinct values accumulated so far.
+     */
+    public long export() {
+        return hll.estimate();
+    }
+
+    HyperLogLog hyperLogLog() {
+        return hll;
+    }
+
+    @Override
+    public String toString() {
+        return "CardinalityAccumulator(" + hll.estimate() + ')';
+    }
+}
@@ -27,6 +27,7 @@ import com.hazelcast.function.SupplierEx;
 import com.hazelcast.function.ToDoubleFunctionEx;
 import com.hazelcast.function.ToLongFunctionEx;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.accumulator.CardinalityAccumulator;
 import com.hazelcast.jet.accumulator.DoubleAccumulator;
 import com.hazelcast.jet.accumulator.LinTrendAccumulator;
 import com.hazelcast.jet.accumulator.LongAccumulator;
@@ -483,6 +484,59 @@ public final class AggregateOperations {
                 .andExportFinish(LinTrendAccumulator::export);
     }
 
+    /**
+     * Returns an aggregate operation that estimates the number of distinct
+     * items it observes. Items are told apart by the {@code long} value that
+     * {@code getIdFn} returns for them, for example a numeric user ID or a
+     * 64-bit hash of a string key. The estimate is computed with the same
+     * HyperLogLog sketch that backs the {@link
+     * com.hazelcast.cardinality.CardinalityEstimator CardinalityEstimator},
+     * so the accumulator stays small regardless of the number of distinct
+     * items, but the result has a typical error of about 1%.
+     * <p>
+     * This sample takes a stream of page views and outputs the approximate
+     * number of distinct users per page:
+     * <pre>{@code
+     * BatchStage<PageView> pageViews = pipeline.readFrom(pageViewSource);
+     * BatchStage<Entry<String, Long>> uniqueUsersPerPage = pageViews
+     *         .groupingKey(PageView::getPageUrl)
+     *         .aggregate(estimatingCardinality(PageView::getUserId));
+     * }</pre>
+     * The IDs are hashed like {@link
+     * com.hazelcast.cardinality.CardinalityEstimator#add} hashes a {@code
+     * Long}. To keep the sketches instead of the estimates, use {@link
+     * AggregateOperation1#withIdentityFinish()}. A sink can then merge them
+     * into estimators with {@link CardinalityAccumulator#mergeInto}:
+     * <pre>{@code
+     * pageViews.groupingKey(PageView::getPageUrl)
+     *          .aggregate(estimatingCardinality(PageView::getUserId).withIdentityFinish())
+     *          .writeTo(SinkBuilder.sinkBuilder("mergeUniqueUsers", Context::hazelcastInstance)
+     *                  .<Entry<String, CardinalityAccumulator>>receiveFn((hz, e) -> e.getValue()
+     *                          .mergeInto(hz.getCardinalityEstimator("uniqueUsers-" + e.getKey())))
+     *                  .build());
+     * }</pre>
+     * This aggregate operation does not implement the {@link
+     * AggregateOperation#deductFn() deduct} primitive.
+     *
+     * @param getIdFn function that extracts the value identifying the
+     *     distinct items. It must be stateless and {@linkplain
+     *     Processor#isCooperative() cooperative}.
+     * @param <T> type of the input item
+     *
+     * @since 5.2
+     */
+    @Nonnull
+    public static <T> AggregateOperation1<T, CardinalityAccumulator, Long> estimatingCardinality(
+            @Nonnull ToLongFunctionEx<? super T> getIdFn
+    ) {
+        checkSerializable(getIdFn, "getIdFn");
+        return AggregateOperation
+                .withCreate(CardinalityAccumulator::new)
+                .andAccumulate((CardinalityAccumulator a, T item) -> a.accumulate(getIdFn.applyAsLong(item)))
+                .andCombine(CardinalityAccumulator::combine)
+                .andExportFinish(CardinalityAccumulator::export);
+    }
+
     /**
      * Returns an aggregate operation that takes string items and concatenates
      * them into a single string.
@@ -28,6 +28,7 @@ import com.hazelcast.jet.pipeline.test.impl.ItemsDistributedFillBufferFn;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.annotation.PrivateApi;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 
 import static com.hazelcast.jet.impl.JetFactoryIdHelper.JET_DS_FACTORY;
@@ -58,6 +59,7 @@ public final class JetDataSerializerHook implements DataSerializerHook {
     public static final int READ_MAP_OR_CACHE_P_LOCAL_PROCESSOR_SUPPLIER = 14;
     public static final int PROCESSOR_MAP_P_SUPPLIER = 15;
     public static final int AGGREGATE_COMBINING_ACCUMULATE = 16;
+    public static final int JET_SQL_COLUMNAR_BATCH = 17;
 
     /**
      * Factory ID
@@ -112,6 +114,8 @@ public final class JetDataSerializerHook implements DataSerializerHook {
                     return new ProcessorSuppliers.ProcessorMapPSupplier<>();
                 case AGGREGATE_COMBINING_ACCUMULATE:
                     return new AggregateOperation1Impl.AggregateCombiningAccumulate<>();
+                case JET_SQL_COLUMNAR_BATCH:
+                    return new ColumnarBatch();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
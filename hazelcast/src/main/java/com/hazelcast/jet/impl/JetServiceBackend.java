@@ -50,6 +50,8 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.merge.DiscardMergePolicy;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Properties;
@@ -92,6 +94,7 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
     private JobCoordinationService jobCoordinationService;
     private JobClassLoaderService jobClassLoaderService;
     private JobExecutionService jobExecutionService;
+    private LocalSnapshotStore localSnapshotStore;
 
     private final AtomicInteger numConcurrentAsyncOps = new AtomicInteger();
     private final Supplier<int[]> sharedPartitionKeys = memoizeConcurrent(this::computeSharedPartitionKeys);
@@ -121,6 +124,13 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         nodeEngine.getMetricsRegistry().registerDynamicMetricsProvider(jobExecutionService);
         networking = new Networking(engine, jobExecutionService, jetConfig.getFlowControlPeriodMs());
 
+        File localSnapshotDirectory = LocalSnapshotStore.rootDirectory(nodeEngine.getProperties());
+        if (localSnapshotDirectory != null) {
+            localSnapshotStore = new LocalSnapshotStore(nodeEngine, localSnapshotDirectory);
+            nodeEngine.getProxyService().addProxyListener(localSnapshotStore);
+            logger.info("Storing the data of job snapshots in " + localSnapshotDirectory.getAbsolutePath());
+        }
+
         ClientEngine clientEngine = engine.getService(ClientEngineImpl.SERVICE_NAME);
         ClientExceptionFactory clientExceptionFactory = clientEngine.getExceptionFactory();
         if (clientExceptionFactory != null) {
@@ -198,6 +208,9 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         taskletExecutionService.shutdown();
         taskletExecutionService.awaitWorkerTermination();
         networking.shutdown();
+        if (localSnapshotStore != null) {
+            localSnapshotStore.shutdown();
+        }
     }
 
     @Override
@@ -249,6 +262,15 @@ public class JetServiceBackend implements ManagedService, MembershipAwareService
         return jobClassLoaderService;
     }
 
+    /**
+     * Returns the store for snapshot data or {@code null}, if the snapshot
+     * data is stored in {@code IMap}s.
+     */
+    @Nullable
+    public LocalSnapshotStore getLocalSnapshotStore() {
+        return localSnapshotStore;
+    }
+
     public JobExecutionService getJobExecutionService() {
         return jobExecutionService;
     }
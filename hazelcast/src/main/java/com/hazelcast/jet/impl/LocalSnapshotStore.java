@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectEvent.EventType;
+import com.hazelcast.core.DistributedObjectListener;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.datamodel.Tuple2;
+import com.hazelcast.jet.impl.operation.GetLocalSnapshotChunkCountsOperation;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
+import static com.hazelcast.jet.impl.JobRepository.SNAPSHOT_DATA_MAP_PREFIX;
+import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Stores the data of automatic job snapshots in files on the local disk,
+ * see {@link ClusterProperty#JET_SNAPSHOT_LOCAL_DIRECTORY}.
+ * <p>
+ * The layout of the directory is:
+ * <pre>
+ * &lt;root&gt;/&lt;snapshot map name&gt;/&lt;local member UUID&gt;/&lt;vertex&gt;
+ * &lt;root&gt;/&lt;snapshot map name&gt;/&lt;local member UUID&gt;/replicas/&lt;owner member UUID&gt;/&lt;vertex&gt;
+ * </pre>
+ * Each file starts with the snapshot ID and the vertex name, followed by
+ * length-prefixed chunks. A file with a different snapshot ID is truncated
+ * when the first chunk of a new snapshot is appended to it, files with an
+ * older snapshot ID are ignored when reading. A file stays open for writing
+ * until a chunk of another snapshot is appended to it.
+ * <p>
+ * The directory of a snapshot map is deleted when the map is destroyed.
+ * On shutdown, the local member deletes the files it wrote itself, the
+ * replicas it holds for other members are kept.
+ */
+public class LocalSnapshotStore implements DistributedObjectListener {
+
+    private static final String REPLICAS_DIR = "replicas";
+
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final File rootDirectory;
+    private final String localMemberDirName;
+    private final Map<File, SnapshotFileWriter> writers = new HashMap<>();
+
+    public LocalSnapshotStore(@Nonnull NodeEngine nodeEngine, @Nonnull File rootDirectory) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        this.rootDirectory = rootDirectory;
+        this.localMemberDirName = nodeEngine.getLocalMember().getUuid().toString();
+    }
+
+    /**
+     * Returns the root directory configured with {@link
+     * ClusterProperty#JET_SNAPSHOT_LOCAL_DIRECTORY} or {@code null}, if the
+     * local snapshot store isn't enabled.
+     */
+    @Nullable
+    public static File rootDirectory(@Nonnull HazelcastProperties properties) {
+        String dir = properties.getString(ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY);
+        return dir == null || dir.isEmpty() ? null : new File(dir);
+    }
+
+    /**
+     * Returns true, if the data of the snapshot written to the given map are
+     * stored by this store. False for exported snapshots.
+     */
+    public boolean isLocalSnapshotMap(@Nonnull String mapName) {
+        return mapName.startsWith(SNAPSHOT_DATA_MAP_PREFIX);
+    }
+
+    /**
+     * Appends a chunk to the file for the given vertex. Blocks on file IO,
+     * so it must not be called on a partition or an operation thread.
+     *
+     * @param ownerUuid UUID of the member that wrote the chunk, if it's a
+     *                  replica, or {@code null} if it was written locally
+     */
+    public synchronized void append(
+            @Nonnull String mapName,
+            @Nullable UUID ownerUuid,
+            @Nonnull String vertexName,
+            long snapshotId,
+            @Nonnull byte[] chunk
+    ) throws IOException {
+        File dir = ownerUuid == null ? memberDirectory(mapName) : replicaDirectory(mapName, ownerUuid);
+        File file = new File(dir, encode(vertexName));
+        SnapshotFileWriter writer = writers.get(file);
+        if (writer == null || writer.snapshotId != snapshotId) {
+            if (writer != null) {
+                writers.remove(file);
+                writer.close();
+            }
+            writer = SnapshotFileWriter.open(dir, file, vertexName, snapshotId);
+            writers.put(file, writer);
+        }
+        writer.append(chunk);
+    }
+
+    /**
+     * Returns the number of chunks of the given snapshot stored on this
+     * member, by the UUID of the member that wrote them.
+     */
+    @Nonnull
+    public synchronized Map<UUID, Long> chunkCounts(@Nonnull String mapName, long snapshotId) throws IOException {
+        Map<UUID, Long> counts = new HashMap<>();
+        counts.put(nodeEngine.getLocalMember().getUuid(), countChunks(listFiles(memberDirectory(mapName)), snapshotId));
+        File[] ownerDirs = new File(memberDirectory(mapName), REPLICAS_DIR).listFiles(File::isDirectory);
+        if (ownerDirs != null) {
+            for (File ownerDir : ownerDirs) {
+                counts.put(UUID.fromString(ownerDir.getName()), countChunks(listFiles(ownerDir), snapshotId));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the files to read when restoring from the given map: the files
+     * written by the local member and the replicas of files written by the
+     * given absent members.
+     */
+    @Nonnull
+    public List<File> filesToRestore(@Nonnull String mapName, @Nonnull Collection<UUID> absentOwners) {
+        List<File> files = new ArrayList<>(listFiles(memberDirectory(mapName)));
+        for (UUID owner : absentOwners) {
+            files.addAll(listFiles(replicaDirectory(mapName, owner)));
+        }
+        return files;
+    }
+
+    /**
+     * Queries all members for the chunks of the snapshot they store and
+     * checks that the chunks are available. Returns the total number of
+     * chunks and the UUIDs of the members that wrote some of them, but are
+     * no longer in the cluster. Their chunks must be read from replicas.
+     * <p>
+     * This is a blocking call.
+     */
+    @Nonnull
+    public Tuple2<Long, Set<UUID>> locateChunks(@Nonnull String mapName, long snapshotId) {
+        Collection<Member> members = nodeEngine.getClusterService().getMembers();
+        Map<UUID, CompletableFuture<Map<UUID, Long>>> futures = new HashMap<>();
+        for (Member member : members) {
+            futures.put(member.getUuid(), nodeEngine.getOperationService()
+                    .<Map<UUID, Long>>invokeOnTarget(JetServiceBackend.SERVICE_NAME,
+                            new GetLocalSnapshotChunkCountsOperation(mapName, snapshotId), member.getAddress()));
+        }
+        long totalChunks = 0;
+        Set<UUID> absentOwners = new HashSet<>();
+        for (Entry<UUID, CompletableFuture<Map<UUID, Long>>> en : futures.entrySet()) {
+            for (Entry<UUID, Long> count : en.getValue().join().entrySet()) {
+                UUID owner = count.getKey();
+                if (owner.equals(en.getKey())) {
+                    totalChunks += count.getValue();
+                } else if (!futures.containsKey(owner) && count.getValue() > 0) {
+                    // the owner isn't in the cluster, use the replica
+                    totalChunks += count.getValue();
+                    absentOwners.add(owner);
+                }
+            }
+        }
+        return tuple2(totalChunks, absentOwners);
+    }
+
+    @Override
+    public void distributedObjectCreated(DistributedObjectEvent event) {
+    }
+
+    @Override
+    public void distributedObjectDestroyed(DistributedObjectEvent event) {
+        String name = (String) event.getObjectName();
+        if (event.getEventType() == EventType.DESTROYED
+                && MapService.SERVICE_NAME.equals(event.getServiceName())
+                && isLocalSnapshotMap(name)) {
+            logFine(logger, "Deleting local snapshot data of map %s", name);
+            File mapDir = new File(rootDirectory, name);
+            closeWriters(mapDir);
+            IOUtil.deleteQuietly(mapDir);
+        }
+    }
+
+    /**
+     * Closes the open files and deletes the files written by the local
+     * member. The replicas of other members' files are kept.
+     */
+    public synchronized void shutdown() {
+        closeWriters(rootDirectory);
+        File[] mapDirs = rootDirectory.listFiles(File::isDirectory);
+        if (mapDirs != null) {
+            for (File mapDir : mapDirs) {
+                for (File file : listFiles(new File(mapDir, localMemberDirName))) {
+                    IOUtil.deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private synchronized void closeWriters(File dir) {
+        for (Iterator<Entry<File, SnapshotFileWriter>> it = writers.entrySet().iterator(); it.hasNext(); ) {
+            Entry<File, SnapshotFileWriter> entry = it.next();
+            if (entry.getKey().toPath().startsWith(dir.toPath())) {
+                IOUtil.closeResource(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private File memberDirectory(String mapName) {
+        return new File(new File(rootDirectory, mapName), localMemberDirName);
+    }
+
+    private File replicaDirectory(String mapName, UUID ownerUuid) {
+        return new File(new File(memberDirectory(mapName), REPLICAS_DIR), ownerUuid.toString());
+    }
+
+    private static List<File> listFiles(File dir) {
+        File[] files = dir.listFiles(File::isFile);
+        return files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+    }
+
+    private static long readSnapshotId(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readLong();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    private static long countChunks(List<File> files, long snapshotId) throws IOException {
+        long count = 0;
+        for (File file : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readLong() != snapshotId) {
+                    continue;
+                }
+                in.readUTF();
+                for (;;) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (in.skipBytes(length) != length) {
+                        throw new JetException("Truncated local snapshot file " + file);
+                    }
+                    count++;
+                }
+            } catch (EOFException e) {
+                throw new JetException("Truncated local snapshot file " + file, e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * An open file with the chunks of one snapshot.
+     */
+    private static final class SnapshotFileWriter implements Closeable {
+        private final long snapshotId;
+        private final DataOutputStream out;
+
+        private SnapshotFileWriter(long snapshotId, DataOutputStream out) {
+            this.snapshotId = snapshotId;
+            this.out = out;
+        }
+
+        static SnapshotFileWriter open(File dir, File file, String vertexName, long snapshotId) throws IOException {
+            boolean newFile = !file.exists() || readSnapshotId(file) != snapshotId;
+            if (newFile && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Failed to create directory " + dir);
+            }
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, !newFile)));
+            try {
+                if (newFile) {
+                    out.writeLong(snapshotId);
+                    out.writeUTF(vertexName);
+                }
+            } catch (IOException e) {
+                IOUtil.closeResource(out);
+                throw e;
+            }
+            return new SnapshotFileWriter(snapshotId, out);
+        }
+
+        void append(byte[] chunk) throws IOException {
+            out.writeInt(chunk.length);
+            out.write(chunk);
+            // a chunk is acknowledged to the snapshot writer once this returns
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the chunks of a snapshot from a file written by {@link #append}.
+     */
+    public static final class ChunkReader implements Closeable {
+        private final DataInputStream in;
+        private final String vertexName;
+
+        private ChunkReader(DataInputStream in, String vertexName) {
+            this.in = in;
+            this.vertexName = vertexName;
+        }
+
+        /**
+         * Opens the file for reading. Returns {@code null}, if the file
+         * contains data of a different snapshot.
+         */
+        @Nullable
+        public static ChunkReader open(@Nonnull File file, long snapshotId) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readLong() != snapshotId) {
+                    in.close();
+                    return null;
+                }
+                return new ChunkReader(in, in.readUTF());
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        @Nonnull
+        public String vertexName() {
+            return vertexName;
+        }
+
+        /**
+         * Returns the next chunk or {@code null}, if there are no more chunks.
+         */
+        @Nullable
+        public byte[] next() throws IOException {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            byte[] chunk = new byte[length];
+            in.readFully(chunk);
+            return chunk;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static String encode(String vertexName) {
+        try {
+            return URLEncoder.encode(vertexName, UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
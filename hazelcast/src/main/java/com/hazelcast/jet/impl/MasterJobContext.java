@@ -25,6 +25,7 @@ import com.hazelcast.jet.Job;
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Edge;
 import com.hazelcast.jet.core.JobStatus;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.metrics.JobMetrics;
@@ -92,6 +93,7 @@ import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
 import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.impl.JobClassLoaderService.JobPhase.COORDINATOR;
 import static com.hazelcast.jet.impl.JobRepository.EXPORTED_SNAPSHOTS_PREFIX;
+import static com.hazelcast.jet.impl.SnapshotValidator.validateLocalSnapshot;
 import static com.hazelcast.jet.impl.SnapshotValidator.validateSnapshot;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.RESTART;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.SUSPEND;
@@ -384,8 +386,21 @@ public class MasterJobContext {
 
     private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId, String mapName, String snapshotName) {
         IMap<Object, Object> snapshotMap = mc.nodeEngine().getHazelcastInstance().getMap(mapName);
-        long resolvedSnapshotId = validateSnapshot(
-                snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+        JetServiceBackend jetServiceBackend = mc.nodeEngine().getService(JetServiceBackend.SERVICE_NAME);
+        LocalSnapshotStore localSnapshotStore = jetServiceBackend.getLocalSnapshotStore();
+        long resolvedSnapshotId;
+        ProcessorMetaSupplier readSnapshotP;
+        if (localSnapshotStore != null && localSnapshotStore.isLocalSnapshotMap(mapName)) {
+            Tuple2<Long, Set<UUID>> validated = validateLocalSnapshot(
+                    snapshotId, snapshotMap, localSnapshotStore, mc.jobIdString());
+            long localSnapshotId = resolvedSnapshotId = validated.f0();
+            Set<UUID> absentOwners = validated.f1();
+            readSnapshotP = ProcessorMetaSupplier.of(1,
+                    () -> new ReadLocalSnapshotP(mapName, localSnapshotId, absentOwners));
+        } else {
+            resolvedSnapshotId = validateSnapshot(snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+            readSnapshotP = readMapP(mapName);
+        }
         logger.info(String.format(
                 "About to restore the state of %s from snapshot %d, mapName = %s",
                 mc.jobIdString(), resolvedSnapshotId, mapName));
@@ -393,7 +408,7 @@ public class MasterJobContext {
         dag.iterator().forEachRemaining(originalVertices::add);
 
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readSnapshotP);
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
                 () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
         dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.impl.LocalSnapshotStore.ChunkReader;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+
+/**
+ * Reads the chunks of a snapshot from the {@link LocalSnapshotStore} of the
+ * local member. It emits the same items as reading the snapshot map would,
+ * to be processed by {@link ExplodeSnapshotP}.
+ */
+public class ReadLocalSnapshotP extends AbstractProcessor {
+
+    private final String mapName;
+    private final long snapshotId;
+    private final Set<UUID> absentOwners;
+
+    private InternalSerializationService serializationService;
+    private Iterator<File> files;
+    private ChunkReader reader;
+    private Traverser<Entry<SnapshotDataKey, byte[]>> traverser;
+
+    ReadLocalSnapshotP(String mapName, long snapshotId, Set<UUID> absentOwners) {
+        this.mapName = mapName;
+        this.snapshotId = snapshotId;
+        this.absentOwners = absentOwners;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        serializationService = ((ProcCtx) context).serializationService();
+        JetServiceBackend jetServiceBackend = ((ProcCtx) context).nodeEngine().getService(JetServiceBackend.SERVICE_NAME);
+        LocalSnapshotStore store = jetServiceBackend.getLocalSnapshotStore();
+        if (store == null) {
+            throw new IllegalStateException("Local snapshot store is not enabled");
+        }
+        files = store.filesToRestore(mapName, absentOwners).iterator();
+        traverser = () -> {
+            try {
+                return nextChunk();
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        };
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return false;
+    }
+
+    @Override
+    public boolean complete() {
+        return emitFromTraverser(traverser);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private Entry<SnapshotDataKey, byte[]> nextChunk() throws IOException {
+        for (;;) {
+            if (reader != null) {
+                byte[] chunk = reader.next();
+                if (chunk != null) {
+                    SnapshotDataKey key = new SnapshotDataKey(0, snapshotId, reader.vertexName(), 0);
+                    return entry(key, serializationService.toObject(new HeapData(chunk)));
+                }
+                reader.close();
+                reader = null;
+            }
+            if (!files.hasNext()) {
+                return null;
+            }
+            reader = ChunkReader.open(files.next(), snapshotId);
+        }
+    }
+}
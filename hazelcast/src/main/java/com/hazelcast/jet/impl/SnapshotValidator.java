@@ -18,9 +18,14 @@ package com.hazelcast.jet.impl;
 
 import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.map.IMap;
 
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 
 final class SnapshotValidator {
@@ -42,14 +47,7 @@ final class SnapshotValidator {
     static long validateSnapshot(
             long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName
     ) {
-        SnapshotValidationRecord validationRecord =
-                (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
-        if (validationRecord == null) {
-            String nameOrId = snapshotName != null ? '"' + snapshotName + '"' : "with ID " + snapshotId;
-            throw new JetException(String.format(
-                    "snapshot %s doesn't exist or is damaged. Unable to restore the state for %s.",
-                    nameOrId, jobIdString));
-        }
+        SnapshotValidationRecord validationRecord = getValidationRecord(snapshotMap, snapshotId, jobIdString, snapshotName);
         if (validationRecord.numChunks() != snapshotMap.size() - 1) {
             // fallback validation that counts using aggregate(), ignoring different snapshot IDs
             long filteredCount = snapshotMap.aggregate(
@@ -62,11 +60,55 @@ final class SnapshotValidator {
                         jobIdString, snapshotMap.getName(), validationRecord.numChunks(), snapshotMap.size() - 1));
             }
         }
+        checkSnapshotId(validationRecord, snapshotId, snapshotMap, jobIdString);
+        return validationRecord.snapshotId();
+    }
+
+    /**
+     * Validates a snapshot whose data are stored in the {@link
+     * LocalSnapshotStore}s of the members. The snapshot map contains only
+     * the validation record.
+     *
+     * @return the snapshot ID of the snapshot being validated and the UUIDs
+     * of the members whose chunks must be restored from replicas
+     */
+    static Tuple2<Long, Set<UUID>> validateLocalSnapshot(
+            long snapshotId, IMap<Object, Object> snapshotMap, LocalSnapshotStore store, String jobIdString
+    ) {
+        SnapshotValidationRecord validationRecord = getValidationRecord(snapshotMap, snapshotId, jobIdString, null);
+        checkSnapshotId(validationRecord, snapshotId, snapshotMap, jobIdString);
+        Tuple2<Long, Set<UUID>> chunks = store.locateChunks(snapshotMap.getName(), validationRecord.snapshotId());
+        if (validationRecord.numChunks() != chunks.f0()) {
+            throw new JetException(String.format(
+                    "State for %s stored on local disks for IMap '%s' is incomplete: it should have %,d chunks, " +
+                            "but %,d are available on the current members",
+                    jobIdString, snapshotMap.getName(), validationRecord.numChunks(), chunks.f0()));
+        }
+        return tuple2(validationRecord.snapshotId(), chunks.f1());
+    }
+
+    private static SnapshotValidationRecord getValidationRecord(
+            IMap<Object, Object> snapshotMap, long snapshotId, String jobIdString, String snapshotName
+    ) {
+        SnapshotValidationRecord validationRecord =
+                (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
+        if (validationRecord == null) {
+            String nameOrId = snapshotName != null ? '"' + snapshotName + '"' : "with ID " + snapshotId;
+            throw new JetException(String.format(
+                    "snapshot %s doesn't exist or is damaged. Unable to restore the state for %s.",
+                    nameOrId, jobIdString));
+        }
+        return validationRecord;
+    }
+
+    private static void checkSnapshotId(
+            SnapshotValidationRecord validationRecord, long snapshotId, IMap<Object, Object> snapshotMap,
+            String jobIdString
+    ) {
         if (snapshotId != NO_SNAPSHOT && snapshotId != validationRecord.snapshotId()) {
             throw new JetException(String.format(
                     "%s: IMap '%s' was supposed to contain snapshotId %d, but it contains snapshotId %d",
                     jobIdString, snapshotMap.getName(), snapshotId, validationRecord.snapshotId()));
         }
-        return validationRecord.snapshotId();
     }
 }
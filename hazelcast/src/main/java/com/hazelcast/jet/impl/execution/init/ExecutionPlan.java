@@ -35,6 +35,7 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.JobClassLoaderService;
+import com.hazelcast.jet.impl.LocalSnapshotStore;
 import com.hazelcast.jet.impl.execution.ConcurrentInboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ConveyorCollector;
 import com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition;
@@ -49,8 +50,10 @@ import com.hazelcast.jet.impl.execution.StoreSnapshotTasklet;
 import com.hazelcast.jet.impl.execution.Tasklet;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriter;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
 import com.hazelcast.jet.impl.util.ImdgUtil;
+import com.hazelcast.jet.impl.util.LocalSnapshotWriter;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
@@ -168,8 +171,9 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                            ConcurrentHashMap<String, File> tempDirectories,
                            InternalSerializationService jobSerializationService) {
         this.nodeEngine = nodeEngine;
-        this.jobClassLoaderService =
-                ((JetServiceBackend) nodeEngine.getService(JetServiceBackend.SERVICE_NAME)).getJobClassLoaderService();
+        JetServiceBackend jetServiceBackend = nodeEngine.getService(JetServiceBackend.SERVICE_NAME);
+        this.jobClassLoaderService = jetServiceBackend.getJobClassLoaderService();
+        LocalSnapshotStore localSnapshotStore = jetServiceBackend.getLocalSnapshotStore();
         this.executionId = executionId;
         initProcSuppliers(jobId, tempDirectories, jobSerializationService);
         initDag(jobSerializationService);
@@ -203,10 +207,14 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 Arrays.setAll(snapshotQueues, i -> new OneToOneConcurrentArrayQueue<>(SNAPSHOT_QUEUE_SIZE));
                 ssConveyor = ConcurrentConveyor.concurrentConveyor(null, snapshotQueues);
                 ILogger storeSnapshotLogger = prefixedLogger(nodeEngine.getLogger(StoreSnapshotTasklet.class), jobPrefix);
+                AsyncSnapshotWriter snapshotWriter = localSnapshotStore != null
+                        ? new LocalSnapshotWriter(nodeEngine, localSnapshotStore, snapshotContext, vertex.name(),
+                                memberIndex, memberCount, jobSerializationService)
+                        : new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount,
+                                jobSerializationService);
                 StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext,
                         ConcurrentInboundEdgeStream.create(ssConveyor, 0, 0, true, jobPrefix + "/ssFrom", null),
-                        new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount,
-                                jobSerializationService),
+                        snapshotWriter,
                         storeSnapshotLogger, vertex.name(), higherPriorityVertices.contains(vertex.vertexId()));
                 tasklets.add(ssTasklet);
             }
@@ -39,10 +39,12 @@ import com.hazelcast.jet.impl.operation.GetJobSubmissionTimeOperation;
 import com.hazelcast.jet.impl.operation.GetJobSummaryListOperation;
 import com.hazelcast.jet.impl.operation.GetJobSuspensionCauseOperation;
 import com.hazelcast.jet.impl.operation.GetLocalJobMetricsOperation;
+import com.hazelcast.jet.impl.operation.GetLocalSnapshotChunkCountsOperation;
 import com.hazelcast.jet.impl.operation.InitExecutionOperation;
 import com.hazelcast.jet.impl.operation.JoinSubmittedJobOperation;
 import com.hazelcast.jet.impl.operation.NotifyMemberShutdownOperation;
 import com.hazelcast.jet.impl.operation.PrepareForPassiveClusterOperation;
+import com.hazelcast.jet.impl.operation.ReplicateSnapshotChunkOperation;
 import com.hazelcast.jet.impl.operation.ResumeJobOperation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
@@ -108,6 +110,8 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int NOOP_PROCESSOR_SUPPLIER = 46;
     public static final int CHECK_LIGHT_JOBS_OP = 47;
     public static final int SQL_SUMMARY = 48;
+    public static final int REPLICATE_SNAPSHOT_CHUNK_OP = 49;
+    public static final int GET_LOCAL_SNAPSHOT_CHUNK_COUNTS_OP = 50;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -210,6 +214,10 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                     return new CheckLightJobsOperation();
                 case SQL_SUMMARY:
                     return new SqlSummary();
+                case REPLICATE_SNAPSHOT_CHUNK_OP:
+                    return new ReplicateSnapshotChunkOperation();
+                case GET_LOCAL_SNAPSHOT_CHUNK_COUNTS_OP:
+                    return new GetLocalSnapshotChunkCountsOperation();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
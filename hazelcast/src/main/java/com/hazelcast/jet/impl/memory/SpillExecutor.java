@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.function.RunnableEx;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.jet.impl.execution.TaskletExecutionService.TASKLET_INIT_CLOSE_EXECUTOR_NAME;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+
+/**
+ * Runs the {@link SpillFile} IO of a cooperative processor on the executor
+ * Jet uses for blocking tasklet initialization, so that the IO doesn't block
+ * the cooperative worker thread. At most one task runs at a time. While it
+ * runs, the processor must not touch the state the task uses and should
+ * return {@code false} from its callbacks until {@link #isDone()}.
+ * <p>
+ * Not thread-safe, all methods must be called from the processor thread.
+ */
+public final class SpillExecutor {
+
+    private final Executor executor;
+    private CompletableFuture<Void> pending;
+
+    private SpillExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an executor for the processor with the given context. Only call
+     * it if {@link SpillFile#spillDirectory} returned non-null value.
+     */
+    @Nonnull
+    public static SpillExecutor create(@Nonnull Processor.Context context) {
+        return new SpillExecutor(getNodeEngine(context.hazelcastInstance())
+                .getExecutionService().getExecutor(TASKLET_INIT_CLOSE_EXECUTOR_NAME));
+    }
+
+    /**
+     * Starts the given task. Must not be called before the previous task
+     * {@linkplain #isDone() is done}.
+     */
+    public void submit(@Nonnull RunnableEx task) {
+        assert pending == null : "a spill task is already running";
+        pending = CompletableFuture.runAsync(task, executor);
+    }
+
+    /**
+     * Returns {@code true} if no task is running. If the last task failed,
+     * rethrows its exception.
+     */
+    public boolean isDone() {
+        if (pending == null) {
+            return true;
+        }
+        if (!pending.isDone()) {
+            return false;
+        }
+        CompletableFuture<Void> done = pending;
+        pending = null;
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw sneakyThrow(e);
+        } catch (ExecutionException e) {
+            throw sneakyThrow(peel(e));
+        }
+        return true;
+    }
+
+    /**
+     * Waits until the running task, if any, completes, ignoring its failure.
+     * Call it before closing the spill files the task might use.
+     */
+    public void awaitCompletion() {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // reported from isDone(), or the processor is closed because of another failure
+        }
+        pending = null;
+    }
+}
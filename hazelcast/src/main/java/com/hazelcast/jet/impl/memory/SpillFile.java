@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.ObjectDataInputStream;
+import com.hazelcast.internal.serialization.impl.ObjectDataOutputStream;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+
+/**
+ * A local file to which a processor writes a part of its accumulated state
+ * when it reaches the {@linkplain Processor.Context#maxProcessorAccumulatedRecords()
+ * accumulation limit}. The items are written using the member's
+ * serialization service and are read back in the same order, once.
+ * <p>
+ * The file is deleted when closed.
+ */
+public final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private final InternalSerializationService serializationService;
+
+    private ObjectDataOutputStream out;
+    private ObjectDataInputStream in;
+    private long count;
+
+    private SpillFile(File file, InternalSerializationService serializationService) throws IOException {
+        this.file = file;
+        this.serializationService = serializationService;
+        this.out = new ObjectDataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE), serializationService);
+    }
+
+    /**
+     * Creates a new spill file in the given directory.
+     */
+    @Nonnull
+    public static SpillFile create(@Nonnull File directory, @Nonnull InternalSerializationService serializationService)
+            throws IOException {
+        Files.createDirectories(directory.toPath());
+        return new SpillFile(File.createTempFile("jet-spill-", ".bin", directory), serializationService);
+    }
+
+    /**
+     * Returns the spill directory configured with {@link
+     * ClusterProperty#JET_SPILL_DIRECTORY} on the member the processor runs
+     * on or {@code null}, if spilling isn't enabled.
+     */
+    @Nullable
+    public static File spillDirectory(@Nonnull Processor.Context context) {
+        NodeEngineImpl nodeEngine = nodeEngine(context);
+        if (nodeEngine == null) {
+            return null;
+        }
+        String dir = nodeEngine.getProperties().getString(ClusterProperty.JET_SPILL_DIRECTORY);
+        return dir == null || dir.isEmpty() ? null : new File(dir);
+    }
+
+    /**
+     * Returns the serialization service to be used for spill files created
+     * by the processor with the given context. Only call it if {@link
+     * #spillDirectory} returned non-null value.
+     */
+    @Nonnull
+    public static InternalSerializationService serializationService(@Nonnull Processor.Context context) {
+        return (InternalSerializationService) nodeEngine(context).getSerializationService();
+    }
+
+    @Nullable
+    private static NodeEngineImpl nodeEngine(Processor.Context context) {
+        HazelcastInstance instance = context.hazelcastInstance();
+        // test contexts might not have an instance
+        return instance == null ? null : getNodeEngine(instance);
+    }
+
+    /**
+     * Appends the item to the file. Must not be called after {@link
+     * #finishWriting()}.
+     */
+    public void write(@Nonnull Object item) throws IOException {
+        out.writeObject(item);
+        count++;
+    }
+
+    /**
+     * Returns the number of items written to the file.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Finishes writing and prepares the file for {@link #read()}. Can be
+     * called only once.
+     */
+    public void finishWriting() throws IOException {
+        assert in == null : "writing already finished";
+        out.close();
+        out = null;
+        in = new ObjectDataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE),
+                serializationService);
+    }
+
+    /**
+     * Reads the next item. Must not be called more than {@link #count()}
+     * times.
+     */
+    public <T> T read() throws IOException {
+        return in.readObject();
+    }
+
+    /**
+     * Finishes writing and returns a traverser over the written items. The
+     * items must not be null. Can be called only once.
+     */
+    @Nonnull
+    public <T> Traverser<T> reader() throws IOException {
+        finishWriting();
+        return new Traverser<T>() {
+            private long remaining = count;
+
+            @Override
+            public T next() {
+                if (remaining == 0) {
+                    return null;
+                }
+                remaining--;
+                try {
+                    return read();
+                } catch (IOException e) {
+                    throw sneakyThrow(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        closeResource(out);
+        closeResource(in);
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ignored) {
+            // the file will be left in the spill directory
+        }
+    }
+}
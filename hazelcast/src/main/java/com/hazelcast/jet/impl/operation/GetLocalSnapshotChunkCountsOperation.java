@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.jet.impl.JetServiceBackend;
+import com.hazelcast.jet.impl.LocalSnapshotStore;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.hazelcast.jet.impl.util.Util.checkJetIsEnabled;
+
+/**
+ * An operation sent from the coordinator to all members before restoring a
+ * job from a snapshot stored in the {@link LocalSnapshotStore}. The
+ * response is the number of chunks of the snapshot the member stores, by
+ * the UUID of the member that wrote them.
+ */
+public class GetLocalSnapshotChunkCountsOperation extends Operation implements IdentifiedDataSerializable {
+
+    private String mapName;
+    private long snapshotId;
+    private Map<UUID, Long> response;
+
+    public GetLocalSnapshotChunkCountsOperation() {
+    }
+
+    public GetLocalSnapshotChunkCountsOperation(String mapName, long snapshotId) {
+        this.mapName = mapName;
+        this.snapshotId = snapshotId;
+    }
+
+    @Override
+    public void run() throws Exception {
+        LocalSnapshotStore store = getJetServiceBackend().getLocalSnapshotStore();
+        if (store == null) {
+            throw new IllegalStateException("Local snapshot store is not enabled on " + getNodeEngine().getThisAddress());
+        }
+        response = store.chunkCounts(mapName, snapshotId);
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    protected JetServiceBackend getJetServiceBackend() {
+        checkJetIsEnabled(getNodeEngine());
+        assert getServiceName().equals(JetServiceBackend.SERVICE_NAME) : "Service is not JetServiceBackend";
+        return getService();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetInitDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.GET_LOCAL_SNAPSHOT_CHUNK_COUNTS_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(mapName);
+        out.writeLong(snapshotId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        mapName = in.readString();
+        snapshotId = in.readLong();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.operation;
+
+import com.hazelcast.jet.impl.LocalSnapshotStore;
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.internal.util.UUIDSerializationUtil.readUUID;
+import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+
+/**
+ * An operation sent by a member writing a snapshot to its {@link
+ * LocalSnapshotStore} to the member holding the replica of its chunks.
+ * The chunk is written on the IO executor, not on the operation thread.
+ */
+public class ReplicateSnapshotChunkOperation extends AsyncOperation {
+
+    private String mapName;
+    private UUID ownerUuid;
+    private String vertexName;
+    private long snapshotId;
+    private byte[] chunk;
+
+    public ReplicateSnapshotChunkOperation() {
+    }
+
+    public ReplicateSnapshotChunkOperation(String mapName, UUID ownerUuid, String vertexName, long snapshotId,
+                                           byte[] chunk) {
+        this.mapName = mapName;
+        this.ownerUuid = ownerUuid;
+        this.vertexName = vertexName;
+        this.snapshotId = snapshotId;
+        this.chunk = chunk;
+    }
+
+    @Override
+    protected CompletableFuture<?> doRun() {
+        LocalSnapshotStore store = getJetServiceBackend().getLocalSnapshotStore();
+        if (store == null) {
+            throw new IllegalStateException("Local snapshot store is not enabled on " + getNodeEngine().getThisAddress());
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                store.append(mapName, ownerUuid, vertexName, snapshotId, chunk);
+            } catch (IOException e) {
+                throw sneakyThrow(e);
+            }
+        }, getNodeEngine().getExecutionService().getExecutor(ExecutionService.IO_EXECUTOR));
+    }
+
+    @Override
+    public int getClassId() {
+        return JetInitDataSerializerHook.REPLICATE_SNAPSHOT_CHUNK_OP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(mapName);
+        writeUUID(out, ownerUuid);
+        out.writeString(vertexName);
+        out.writeLong(snapshotId);
+        out.writeByteArray(chunk);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        mapName = in.readString();
+        ownerUuid = readUUID(in);
+        vertexName = in.readString();
+        snapshotId = in.readLong();
+        chunk = in.readByteArray();
+    }
+}
@@ -16,23 +16,31 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.function.BiConsumerEx;
 import com.hazelcast.function.FunctionEx;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillExecutor;
+import com.hazelcast.jet.impl.memory.SpillFile;
 
 import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static java.util.Collections.singletonList;
 
@@ -41,9 +49,19 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If a {@linkplain SpillFile#spillDirectory spill directory} is configured
+ * and the aggregate operation has a combine function, the accumulators are
+ * hash-partitioned by key into spill files each time the accumulation limit
+ * is reached. On completion the partitions are loaded one at a time, the
+ * accumulators for the same key are combined and the results emitted. The
+ * file IO runs on a {@link SpillExecutor}, the processor waits for it by
+ * returning {@code false}.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     protected final Map<K, A> keyToAcc = new HashMap<>();
 
     private final List<FunctionEx<?, ? extends K>> groupKeyFns;
@@ -52,6 +70,11 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
     private long maxEntries;
     private Traverser<OUT> resultTraverser;
+    private File spillDirectory;
+    private InternalSerializationService serializationService;
+    private SpillExecutor spillExecutor;
+    private SpillFile[] spilledPartitions;
+    private int nextPartition;
 
     public GroupP(
             @Nonnull List<FunctionEx<?, ? extends K>> groupKeyFns,
@@ -76,39 +99,145 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        if (aggrOp.combineFn() != null) {
+            spillDirectory = SpillFile.spillDirectory(context);
+            if (spillDirectory != null) {
+                serializationService = SpillFile.serializationService(context);
+                spillExecutor = SpillExecutor.create(context);
+            }
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (spillExecutor != null && !spillExecutor.isDone()) {
+            return false;
+        }
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> {
+        A acc = keyToAcc.get(key);
+        if (acc == null) {
             if (keyToAcc.size() == maxEntries) {
-                throw new AccumulationLimitExceededException();
+                if (spillExecutor == null) {
+                    throw new AccumulationLimitExceededException();
+                }
+                spillExecutor.submit(this::spill);
+                return false;
             }
 
-            return aggrOp.createFn().get();
-        });
+            acc = aggrOp.createFn().get();
+            keyToAcc.put(key, acc);
+        }
         aggrOp.accumulateFn(ordinal).accept(acc, item);
         return true;
     }
 
     @Override
     public boolean complete() {
-        if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
-                    // reuse null filtering done by map()
-                    .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+        if (spillExecutor != null && !spillExecutor.isDone()) {
+            return false;
+        }
+        if (spilledPartitions == null) {
+            if (resultTraverser == null) {
+                resultTraverser = newResultTraverser();
+            }
+            return emitFromTraverser(resultTraverser);
+        }
+        return completeSpilled();
+    }
+
+    /**
+     * Spills the remaining in-memory accumulators and then loads and emits
+     * the spilled partitions one at a time.
+     */
+    private boolean completeSpilled() {
+        for (;;) {
+            if (!spillExecutor.isDone()) {
+                return false;
+            }
+            if (resultTraverser != null && !emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            if (nextPartition == spilledPartitions.length) {
+                return true;
+            }
+            if (resultTraverser == null) {
+                spillExecutor.submit(this::spill);
+            } else {
+                int index = nextPartition++;
+                spillExecutor.submit(() -> loadPartition(index));
+            }
+            resultTraverser = newResultTraverser();
         }
-        return emitFromTraverser(resultTraverser);
+    }
+
+    private Traverser<OUT> newResultTraverser() {
+        return new ResultTraverser()
+                // reuse null filtering done by map()
+                .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+    }
+
+    @Override
+    public void close() {
+        if (spillExecutor != null) {
+            spillExecutor.awaitCompletion();
+        }
+        if (spilledPartitions != null) {
+            for (SpillFile partition : spilledPartitions) {
+                if (partition != null) {
+                    partition.close();
+                }
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        if (spilledPartitions == null) {
+            spilledPartitions = new SpillFile[SPILL_PARTITION_COUNT];
+            for (int i = 0; i < spilledPartitions.length; i++) {
+                spilledPartitions[i] = SpillFile.create(spillDirectory, serializationService);
+            }
+        }
+        for (Entry<K, A> e : keyToAcc.entrySet()) {
+            SpillFile partition = spilledPartitions[hashToIndex(Objects.hashCode(e.getKey()), SPILL_PARTITION_COUNT)];
+            partition.write(e.getKey());
+            partition.write(e.getValue());
+        }
+        keyToAcc.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadPartition(int index) throws IOException {
+        BiConsumerEx<? super A, ? super A> combineFn = aggrOp.combineFn();
+        SpillFile partition = spilledPartitions[index];
+        partition.finishWriting();
+        for (long i = partition.count() / 2; i > 0; i--) {
+            K key = partition.read();
+            A acc = partition.read();
+            A existing = keyToAcc.get(key);
+            if (existing != null) {
+                combineFn.accept(existing, acc);
+            } else if (keyToAcc.size() == maxEntries) {
+                // a single partition doesn't fit into the limit
+                throw new AccumulationLimitExceededException();
+            } else {
+                keyToAcc.put(key, acc);
+            }
+        }
+        partition.close();
+        spilledPartitions[index] = null;
     }
 
     private class ResultTraverser implements Traverser<Entry<K, A>> {
-        private final Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
+        // created lazily, a spill task might be still filling keyToAcc
+        private Iterator<Entry<K, A>> iter;
 
         @Override
         public Entry<K, A> next() {
+            if (iter == null) {
+                iter = keyToAcc.entrySet().iterator();
+            }
             if (!iter.hasNext()) {
                 return null;
             }
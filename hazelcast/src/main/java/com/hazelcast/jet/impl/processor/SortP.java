@@ -16,38 +16,79 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillExecutor;
+import com.hazelcast.jet.impl.memory.SpillFile;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 
+/**
+ * Batch processor that emits all received items sorted. If a {@linkplain
+ * SpillFile#spillDirectory spill directory} is configured, the sorted items
+ * are written to a spill file each time the accumulation limit is reached
+ * and the files are merged when the processor completes. The file IO runs
+ * on a {@link SpillExecutor}, the processor waits for it by returning {@code
+ * false}.
+ */
 public class SortP<T> extends AbstractProcessor {
 
+    private static final int MERGE_CHUNK_SIZE = 1024;
+
+    private final Comparator<T> comparator;
     private final PriorityQueue<T> priorityQueue;
-    private final Traverser<T> resultTraverser;
+    private final List<SpillFile> spilledRuns = new ArrayList<>();
+    private final ArrayDeque<T> mergedChunk = new ArrayDeque<>();
+    private Traverser<T> resultTraverser;
 
     private long maxItems;
+    private File spillDirectory;
+    private InternalSerializationService serializationService;
+    private SpillExecutor spillExecutor;
 
+    // merge state, filled by the spill tasks
+    private PriorityQueue<RunHead<T>> runHeads;
+    private boolean mergeDone;
+
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
         this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        spillDirectory = SpillFile.spillDirectory(context);
+        if (spillDirectory != null) {
+            serializationService = SpillFile.serializationService(context);
+            spillExecutor = SpillExecutor.create(context);
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
+        if (spillExecutor != null && !spillExecutor.isDone()) {
+            return false;
+        }
         if (priorityQueue.size() == maxItems) {
-            throw new AccumulationLimitExceededException();
+            if (spillExecutor == null) {
+                throw new AccumulationLimitExceededException();
+            }
+            spillExecutor.submit(this::spillRun);
+            return false;
         }
 
         priorityQueue.add((T) item);
@@ -56,6 +97,89 @@ public class SortP<T> extends AbstractProcessor {
 
     @Override
     public boolean complete() {
-        return emitFromTraverser(resultTraverser);
+        for (;;) {
+            if (spillExecutor != null && !spillExecutor.isDone()) {
+                return false;
+            }
+            if (resultTraverser == null) {
+                if (spilledRuns.isEmpty()) {
+                    resultTraverser = priorityQueue::poll;
+                } else {
+                    spillExecutor.submit(this::startMerge);
+                    resultTraverser = mergedChunk::poll;
+                    continue;
+                }
+            }
+            if (!emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            if (runHeads == null || mergeDone) {
+                return true;
+            }
+            spillExecutor.submit(this::mergeChunk);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spillExecutor != null) {
+            spillExecutor.awaitCompletion();
+        }
+        spilledRuns.forEach(SpillFile::close);
+        spilledRuns.clear();
+    }
+
+    private void spillRun() throws IOException {
+        SpillFile run = SpillFile.create(spillDirectory, serializationService);
+        spilledRuns.add(run);
+        for (T item; (item = priorityQueue.poll()) != null; ) {
+            run.write(item);
+        }
+    }
+
+    /**
+     * Starts a k-way merge of the spilled runs and the items remaining in the
+     * priority queue and merges the first chunk.
+     */
+    private void startMerge() throws IOException {
+        runHeads = new PriorityQueue<>(spilledRuns.size() + 1, (l, r) -> comparator.compare(l.item, r.item));
+        RunHead.addTo(runHeads, priorityQueue::poll);
+        for (SpillFile run : spilledRuns) {
+            RunHead.addTo(runHeads, run.reader());
+        }
+        mergeChunk();
+    }
+
+    /**
+     * Moves the next {@value #MERGE_CHUNK_SIZE} merged items to {@link
+     * #mergedChunk}.
+     */
+    private void mergeChunk() {
+        for (int i = 0; i < MERGE_CHUNK_SIZE; i++) {
+            RunHead<T> head = runHeads.poll();
+            if (head == null) {
+                mergeDone = true;
+                return;
+            }
+            mergedChunk.add(head.item);
+            RunHead.addTo(runHeads, head.run);
+        }
+    }
+
+    private static final class RunHead<T> {
+        private final T item;
+        private final Traverser<T> run;
+
+        private RunHead(T item, Traverser<T> run) {
+            this.item = item;
+            this.run = run;
+        }
+
+        static <T> void addTo(PriorityQueue<RunHead<T>> heads, Traverser<T> run) {
+            T item = run.next();
+            if (item != null) {
+                heads.add(new RunHead<>(item, run));
+            }
+        }
     }
 }
@@ -253,9 +253,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             Data data = dataSupplier.get();
             totalPayloadBytes += data.dataSize();
             totalChunks++;
-            CompletableFuture<Object> future = currentMap.putAsync(
+            CompletableFuture<Object> future = putChunk(currentMap,
                     new SnapshotDataKey(partitionKeys[partitionId], currentSnapshotId, vertexName, partitionSequence),
-                    data).toCompletableFuture();
+                    data);
             partitionSequence += memberCount;
             future.whenComplete(putResponseConsumer);
             numActiveFlushes.incrementAndGet();
@@ -265,6 +265,14 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return true;
     }
 
+    /**
+     * Stores one chunk of the snapshot. The returned future completes with
+     * the previous value, which is expected to be {@code null}.
+     */
+    protected CompletableFuture<Object> putChunk(IMap<SnapshotDataKey, Object> map, SnapshotDataKey key, Data chunk) {
+        return map.putAsync(key, chunk).toCompletableFuture();
+    }
+
     private boolean initCurrentMap() {
         if (currentMap == null) {
             String mapName = snapshotContext.currentMapName();
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.jet.impl.JetServiceBackend;
+import com.hazelcast.jet.impl.LocalSnapshotStore;
+import com.hazelcast.jet.impl.execution.SnapshotContext;
+import com.hazelcast.jet.impl.operation.ReplicateSnapshotChunkOperation;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+
+/**
+ * A snapshot writer that stores the chunks in the {@link
+ * LocalSnapshotStore} instead of the snapshot map. Each chunk is appended
+ * to the local file on the IO executor and then sent to the next data
+ * member, which stores the replica. The chunk is complete when both writes
+ * are done. Chunks of exported snapshots are put to the map as usual.
+ */
+public class LocalSnapshotWriter extends AsyncSnapshotWriterImpl {
+
+    private final NodeEngine nodeEngine;
+    private final LocalSnapshotStore store;
+    private final Executor executor;
+    private final UUID localMemberUuid;
+
+    private long replicaSnapshotId = -1;
+    private Address replicaAddress;
+
+    public LocalSnapshotWriter(NodeEngine nodeEngine,
+                               LocalSnapshotStore store,
+                               SnapshotContext snapshotContext,
+                               String vertexName,
+                               int memberIndex,
+                               int memberCount,
+                               SerializationService serializationService) {
+        super(nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService);
+        this.nodeEngine = nodeEngine;
+        this.store = store;
+        this.executor = nodeEngine.getExecutionService().getExecutor(ExecutionService.IO_EXECUTOR);
+        this.localMemberUuid = nodeEngine.getLocalMember().getUuid();
+    }
+
+    @Override
+    protected CompletableFuture<Object> putChunk(IMap<SnapshotDataKey, Object> map, SnapshotDataKey key, Data chunk) {
+        String mapName = map.getName();
+        if (!store.isLocalSnapshotMap(mapName)) {
+            return super.putChunk(map, key, chunk);
+        }
+        Address replica = replicaAddress(key.snapshotId());
+        byte[] bytes = chunk.toByteArray();
+        CompletableFuture<Object> localWrite = CompletableFuture.supplyAsync(() -> {
+            try {
+                store.append(mapName, null, key.vertexName(), key.snapshotId(), bytes);
+            } catch (Exception e) {
+                throw sneakyThrow(e);
+            }
+            return null;
+        }, executor);
+        if (replica == null) {
+            return localWrite;
+        }
+        return localWrite.thenCompose(r -> nodeEngine.getOperationService()
+                .invokeOnTarget(JetServiceBackend.SERVICE_NAME,
+                        new ReplicateSnapshotChunkOperation(mapName, localMemberUuid, key.vertexName(),
+                                key.snapshotId(), bytes),
+                        replica));
+    }
+
+    /**
+     * Returns the member after the local one in the member list. It's
+     * chosen once per snapshot so that all replicas of a snapshot's chunks
+     * are on the same member.
+     */
+    private Address replicaAddress(long snapshotId) {
+        if (snapshotId != replicaSnapshotId) {
+            replicaSnapshotId = snapshotId;
+            List<Member> members = new ArrayList<>(nodeEngine.getClusterService().getMembers(DATA_MEMBER_SELECTOR));
+            int localIndex = members.indexOf(nodeEngine.getLocalMember());
+            replicaAddress = members.size() < 2 || localIndex < 0
+                    ? null
+                    : members.get((localIndex + 1) % members.size()).getAddress();
+        }
+        return replicaAddress;
+    }
+}
@@ -29,6 +29,8 @@ import com.hazelcast.internal.serialization.impl.NavigableJsonInputAdapter;
 import com.hazelcast.query.impl.getters.JsonPathCursor;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Responsible for creating and using {@link JsonSchemaNode}s.
@@ -137,15 +139,7 @@ public final class JsonSchemaHelper {
         }
         if (attributePath.getNext() == null) {
             if (schemaNode.isTerminal()) {
-                // at this point we are sure we found the value by pattern. So we have to be able to extract JsonValue.
-                // Otherwise, let the exceptions propagate
-                try {
-                    JsonReducedValueParser valueParser = new JsonReducedValueParser();
-                    int valuePos = ((JsonSchemaTerminalNode) schemaNode).getValueStartLocation();
-                    return input.parseValue(valueParser, valuePos);
-                } catch (ParseException parseException) {
-                    throw new HazelcastException(parseException);
-                }
+                return parseTerminalValue(input, (JsonSchemaTerminalNode) schemaNode);
             } else {
                 return NonTerminalJsonValue.INSTANCE;
             }
@@ -153,6 +147,56 @@ public final class JsonSchemaHelper {
         return null;
     }
 
+    /**
+     * Extracts all the scalar JsonValues that are stored in attributePath
+     * in input, where attributePath contains "any". The values are read
+     * at the locations recorded in the schema, the input is not parsed.
+     * The same as the parser based extraction, only attribute names are
+     * allowed after "any" and non-scalar matches are skipped.
+     *
+     * @param input         a buffer containing the queried object
+     * @param schemaNode    valid schema description to the target object
+     * @param anyPattern    a pattern with "any" created by
+     *                      {@link #createPattern} for the same schema
+     *                      and attributePath
+     * @param attributePath the query path
+     * @return              the values found or {@code null} if the
+     *                      pattern does not point to a non-empty array. An
+     *                      empty struct doesn't tell whether it is an array
+     *                      or an object, so the caller has to fall back to
+     *                      parsing for it.
+     * @throws IOException
+     */
+    public static List<JsonValue> findValuesWithAnyPattern(NavigableJsonInputAdapter input,
+                                                           JsonSchemaNode schemaNode, JsonPattern anyPattern,
+                                                           JsonPathCursor attributePath) throws IOException {
+        for (int i = 0; i < anyPattern.depth(); i++) {
+            schemaNode = ((JsonSchemaStructNode) schemaNode).getChild(anyPattern.get(i)).getValue();
+        }
+        if (schemaNode.isTerminal()) {
+            return null;
+        }
+        JsonSchemaStructNode arrayNode = (JsonSchemaStructNode) schemaNode;
+        int itemCount = arrayNode.getChildCount();
+        if (itemCount == 0 || !arrayNode.getChild(0).isArrayItem()) {
+            return null;
+        }
+        // the parts up to and including "any"
+        int anyPathLength = anyPattern.depth() + 1;
+        List<JsonValue> values = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            attributePath.reset();
+            for (int j = 0; j < anyPathLength; j++) {
+                attributePath.getNext();
+            }
+            JsonValue value = findValueAfterAny(input, arrayNode.getChild(i).getValue(), attributePath);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
     /**
      * Creates a description out of a JsonValue. The parser must be
      * pointing to the start of the input.
@@ -199,6 +243,46 @@ public final class JsonSchemaHelper {
         return dummy;
     }
 
+    private static JsonValue findValueAfterAny(NavigableJsonInputAdapter input, JsonSchemaNode schemaNode,
+                                               JsonPathCursor attributePath) throws IOException {
+        while (attributePath.getNext() != null) {
+            if (schemaNode.isTerminal() || attributePath.isArray()) {
+                return null;
+            }
+            schemaNode = findAttribute(input, (JsonSchemaStructNode) schemaNode, attributePath);
+            if (schemaNode == null) {
+                return null;
+            }
+        }
+        return schemaNode.isTerminal() ? parseTerminalValue(input, (JsonSchemaTerminalNode) schemaNode) : null;
+    }
+
+    private static JsonSchemaNode findAttribute(NavigableJsonInputAdapter input, JsonSchemaStructNode structNode,
+                                                JsonPathCursor attributePath) {
+        for (int i = 0; i < structNode.getChildCount(); i++) {
+            JsonSchemaNameValue nameValue = structNode.getChild(i);
+            if (nameValue.isObjectItem()) {
+                input.position(nameValue.getNameStart());
+                if (input.isAttributeName(attributePath)) {
+                    return nameValue.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JsonValue parseTerminalValue(NavigableJsonInputAdapter input,
+                                                JsonSchemaTerminalNode terminalNode) throws IOException {
+        // at this point we are sure we found the value by pattern. So we have to be able to extract JsonValue.
+        // Otherwise, let the exceptions propagate
+        try {
+            JsonReducedValueParser valueParser = new JsonReducedValueParser();
+            return input.parseValue(valueParser, terminalNode.getValueStartLocation());
+        } catch (ParseException parseException) {
+            throw new HazelcastException(parseException);
+        }
+    }
+
     private static boolean isValidIndex(int suggestedIndex, JsonSchemaStructNode structNode, boolean isArrayPath) {
         if (suggestedIndex >= structNode.getChildCount()) {
             return false;
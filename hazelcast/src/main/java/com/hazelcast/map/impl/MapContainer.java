@@ -26,6 +26,7 @@ import com.hazelcast.config.WanConsumerConfig;
 import com.hazelcast.config.WanReplicationConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.config.WanSyncConfig;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
@@ -71,6 +72,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static com.hazelcast.config.ConsistencyCheckStrategy.MERKLE_TREES;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMapMergePolicy;
@@ -105,11 +107,17 @@ public class MapContainer {
     protected final Function<Object, Data> toDataFunction = new ObjectToData();
     protected final InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
     protected final ConstructorFunction<RecordFactoryAttributes, RecordFactory> recordFactoryConstructor;
+    /**
+     * Member-wide memory manager of off-heap record values, {@code null}
+     * when {@link com.hazelcast.spi.properties.ClusterProperty#MAP_OFF_HEAP_VALUES_ENABLED} is not in effect.
+     */
+    protected final MemoryManager offHeapMemoryManager;
     /**
      * Holds number of registered {@link InvalidationListener} from clients.
      */
     protected final AtomicInteger invalidationListenerCounter;
     protected final AtomicLong lastInvalidMergePolicyCheckTime = new AtomicLong();
+    protected final boolean merkleTreeEnabled;
 
     protected SplitBrainMergePolicy wanMergePolicy;
     protected DelegatingWanScheme wanReplicationDelegate;
@@ -137,6 +145,7 @@ public class MapContainer {
         this.splitBrainProtectionName = mapConfig.getSplitBrainProtectionName();
         this.serializationService = ((InternalSerializationService) nodeEngine.getSerializationService());
         this.recordFactoryConstructor = createRecordFactoryConstructor(serializationService);
+        this.offHeapMemoryManager = createOffHeapMemoryManager();
         this.objectNamespace = MapService.getObjectNamespace(name);
         this.extractors = Extractors.newBuilder(serializationService)
                 .setAttributeConfigs(mapConfig.getAttributeConfigs())
@@ -148,6 +157,7 @@ public class MapContainer {
         this.mapStoreContext = createMapStoreContext(this);
         this.invalidationListenerCounter = mapServiceContext.getEventListenerCounter()
                 .getOrCreateCounter(name);
+        this.merkleTreeEnabled = mapServiceContext.shouldEnableMerkleTree(mapConfig, true);
         initWanReplication(mapServiceContext.getNodeEngine());
     }
 
@@ -354,6 +364,13 @@ public class MapContainer {
         return wanMergePolicy;
     }
 
+    /**
+     * @return {@code true} if the record stores of this map maintain a Merkle tree
+     */
+    public boolean isMerkleTreeEnabled() {
+        return merkleTreeEnabled;
+    }
+
     public boolean isWanReplicationEnabled() {
         return wanReplicationDelegate != null && wanMergePolicy != null;
     }
@@ -414,6 +431,21 @@ public class MapContainer {
         return recordFactoryConstructor;
     }
 
+    /**
+     * @return the memory manager which keeps record values of this map
+     * off-heap or {@code null} if values are stored on-heap
+     */
+    public MemoryManager getOffHeapMemoryManager() {
+        return offHeapMemoryManager;
+    }
+
+    private MemoryManager createOffHeapMemoryManager() {
+        if (mapConfig.getInMemoryFormat() != BINARY) {
+            return null;
+        }
+        return mapServiceContext.getOffHeapValuesMemoryManager();
+    }
+
     public QueryableEntry newQueryEntry(Data key, Object value) {
         return queryEntryFactory.newEntry(key, value);
     }
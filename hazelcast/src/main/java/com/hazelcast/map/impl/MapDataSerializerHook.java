@@ -71,6 +71,7 @@ import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchIndexOperation;
 import com.hazelcast.map.impl.operation.MapFetchIndexOperation.MapFetchIndexOperationResult;
 import com.hazelcast.map.impl.operation.MapFetchKeysOperation;
+import com.hazelcast.map.impl.operation.MapFetchMerkleTreeLeavesOperation;
 import com.hazelcast.map.impl.operation.MapFetchWithQueryOperation;
 import com.hazelcast.map.impl.operation.MapFlushBackupOperation;
 import com.hazelcast.map.impl.operation.MapFlushOperation;
@@ -324,8 +325,9 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int INDEX_ITERATION_POINTER = 156;
     public static final int MAP_FETCH_INDEX_OPERATION_RESULT = 157;
     public static final int MAP_CHUNK = 158;
+    public static final int MAP_FETCH_MERKLE_TREE_LEAVES_OPERATION = 159;
 
-    private static final int LEN = MAP_CHUNK + 1;
+    private static final int LEN = MAP_FETCH_MERKLE_TREE_LEAVES_OPERATION + 1;
 
     @Override
     public int getFactoryId() {
@@ -491,6 +493,7 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[INDEX_ITERATION_POINTER] = arg -> new IndexIterationPointer();
         constructors[MAP_FETCH_INDEX_OPERATION_RESULT] = arg -> new MapFetchIndexOperationResult();
         constructors[MAP_CHUNK] = arg -> new MapChunk();
+        constructors[MAP_FETCH_MERKLE_TREE_LEAVES_OPERATION] = arg -> new MapFetchMerkleTreeLeavesOperation();
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -20,38 +20,92 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MergePolicyConfig;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.operation.MapFetchMerkleTreeLeavesOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.merge.AbstractMergeRunnable;
+import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationFactory;
+import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.spi.impl.merge.MergingValueFactory.createMergingEntry;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.compareTrees;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.createRemoteMerkleTreeView;
+import static com.hazelcast.wan.impl.merkletree.MerkleTreeUtil.getLeafOrderForHash;
 
 class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore, MapMergeTypes<Object, Object>> {
 
+    private final ILogger logger;
     private final MapServiceContext mapServiceContext;
+    private final Collection<RecordStore> mergingStores;
+    private final Map<RecordStore, InternalCompletableFuture<int[]>> remoteMerkleTreeLeaves = new HashMap<>();
 
     MapMergeRunnable(Collection<RecordStore> mergingStores,
                      MapSplitBrainHandlerService splitBrainHandlerService,
                      MapServiceContext mapServiceContext) {
         super(MapService.SERVICE_NAME, mergingStores, splitBrainHandlerService, mapServiceContext.getNodeEngine());
 
+        this.logger = mapServiceContext.getNodeEngine().getLogger(getClass());
         this.mapServiceContext = mapServiceContext;
+        this.mergingStores = mergingStores;
+    }
+
+    /**
+     * Fetches the Merkle tree leaves of the partitions in the merged
+     * cluster for the stores which maintain a Merkle tree, so that only
+     * the entries of the differing leaves are merged. Only done if {@link
+     * ClusterProperty#MAP_MERGE_MERKLE_TREE_DIFF_ONLY} is set, since the
+     * entries which are equal on both sides then skip the merge policy.
+     */
+    @Override
+    protected void onRunStart() {
+        if (!mapServiceContext.getNodeEngine().getProperties().getBoolean(ClusterProperty.MAP_MERGE_MERKLE_TREE_DIFF_ONLY)) {
+            return;
+        }
+        OperationService operationService = mapServiceContext.getNodeEngine().getOperationService();
+        for (RecordStore store : mergingStores) {
+            MerkleTree merkleTree = store.getMerkleTree();
+            if (merkleTree == null) {
+                continue;
+            }
+            Operation operation = new MapFetchMerkleTreeLeavesOperation(store.getName(), merkleTree.depth(),
+                    merkleTree.getNodeHash(0));
+            remoteMerkleTreeLeaves.put(store, operationService.invokeOnPartition(MapService.SERVICE_NAME, operation,
+                    store.getPartitionId()));
+        }
     }
 
     @Override
     protected void mergeStore(RecordStore store, BiConsumer<Integer, MapMergeTypes<Object, Object>> consumer) {
         int partitionId = store.getPartitionId();
+        Set<Integer> differentLeaves = getDifferentMerkleTreeLeaves(store);
+        if (differentLeaves != null && differentLeaves.isEmpty()) {
+            return;
+        }
+        int leafLevel = differentLeaves != null ? store.getMerkleTree().depth() - 1 : 0;
 
         store.forEach((BiConsumer<Data, Record>) (key, record) -> {
+            if (differentLeaves != null
+                    && !differentLeaves.contains(getLeafOrderForHash(key.hashCode(), leafLevel))) {
+                return;
+            }
             Data dataKey = toHeapData(key);
             Data dataValue = toHeapData(record.getValue());
             ExpiryMetadata expiryMetadata = store.getExpirySystem().getExpiryMetadata(dataKey);
@@ -100,6 +154,34 @@ class MapMergeRunnable extends AbstractMergeRunnable<Object, Object, RecordStore
         return operationProvider.createMergeOperationFactory(dataStructureName, partitions, entries, mergePolicy);
     }
 
+    /**
+     * @return the orders of the leaves which differ in the Merkle trees
+     * of the given store and its partition in the merged cluster or
+     * {@code null} if all entries of the store have to be merged
+     */
+    private Set<Integer> getDifferentMerkleTreeLeaves(RecordStore store) {
+        InternalCompletableFuture<int[]> future = remoteMerkleTreeLeaves.remove(store);
+        if (future == null) {
+            return null;
+        }
+
+        int[] leaves;
+        try {
+            leaves = future.joinInternal();
+        } catch (Exception e) {
+            logger.warning("Could not fetch the Merkle tree of map " + store.getName() + " in partition "
+                    + store.getPartitionId() + ", all of its entries will be merged. Cause: " + e.getMessage());
+            return null;
+        }
+
+        if (leaves == null) {
+            return null;
+        } else if (leaves.length == 0) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(compareTrees(store.getMerkleTree(), createRemoteMerkleTreeView(leaves)));
+    }
+
     private MapConfig getMapConfig(String dataStructureName) {
         MapContainer mapContainer = mapServiceContext.getMapContainer(dataStructureName);
         return mapContainer.getMapConfig();
@@ -35,11 +35,13 @@ import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.JsonMetadataStore;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.JsonMetadata;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
@@ -49,6 +51,7 @@ import java.util.List;
 import java.util.function.Predicate;
 
 import static com.hazelcast.config.CacheDeserializedValues.NEVER;
+import static com.hazelcast.config.MetadataPolicy.CREATE_ON_UPDATE;
 import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
@@ -306,19 +309,7 @@ class MapMigrationAwareService
 
             Indexes.beginPartitionUpdate(indexesSnapshot);
 
-            CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
-            CachedQueryEntry<?, ?> cachedEntry = cacheDeserializedValues == NEVER ? new CachedQueryEntry<>(serializationService,
-                    mapContainer.getExtractors()) : null;
-            recordStore.forEach((key, record) -> {
-                Object value = Records.getValueOrCachedValue(record, serializationService);
-                if (value != null) {
-                    QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
-                    queryEntry.setRecord(record);
-                    CachedQueryEntry<?, ?> newEntry =
-                            cachedEntry == null ? (CachedQueryEntry<?, ?>) queryEntry : cachedEntry.init(key, value);
-                    indexes.putEntry(newEntry, null, queryEntry, Index.OperationSource.SYSTEM);
-                }
-            }, false);
+            indexEntries(recordStore, mapContainer, indexes);
 
             Indexes.markPartitionAsIndexed(event.getPartitionId(), indexesSnapshot);
         }
@@ -328,6 +319,33 @@ class MapMigrationAwareService
         }
     }
 
+    private void indexEntries(RecordStore<Record> recordStore, MapContainer mapContainer, Indexes indexes) {
+        CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
+        CachedQueryEntry<?, ?> cachedEntry = cacheDeserializedValues == NEVER ? new CachedQueryEntry<>(serializationService,
+                mapContainer.getExtractors()) : null;
+        JsonMetadataStore metadataStore = mapContainer.getMapConfig().getMetadataPolicy() == CREATE_ON_UPDATE
+                ? recordStore.getOrCreateMetadataStore() : null;
+        // off-heap values may be freed after this operation, keep index entries on-heap
+        boolean offHeapValues = mapContainer.getOffHeapMemoryManager() != null;
+        recordStore.forEach((key, record) -> {
+            Object value = Records.getValueOrCachedValueOnHeap(record, serializationService);
+            if (value != null) {
+                QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
+                if (!offHeapValues) {
+                    queryEntry.setRecord(record);
+                }
+                CachedQueryEntry<?, ?> newEntry =
+                        cachedEntry == null ? (CachedQueryEntry<?, ?>) queryEntry : cachedEntry.init(key, value);
+                if (metadataStore != null) {
+                    JsonMetadata metadata = metadataStore.get(key);
+                    queryEntry.setMetadata(metadata);
+                    newEntry.setMetadata(metadata);
+                }
+                indexes.putEntry(newEntry, null, queryEntry, Index.OperationSource.SYSTEM);
+            }
+        }, false);
+    }
+
     private void depopulateIndexes(PartitionMigrationEvent event, String stepName) {
         assert event.getMigrationEndpoint() == SOURCE;
         assert event.getNewReplicaIndex() != 0 : "Invalid migration event: " + event;
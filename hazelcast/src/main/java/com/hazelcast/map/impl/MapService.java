@@ -20,6 +20,7 @@ import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.WanAcknowledgeType;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.internal.cluster.ClusterStateListener;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
@@ -74,6 +75,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_INDEX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_NEARCACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_OFF_HEAP_VALUES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_INDEX;
 
 /**
@@ -136,6 +138,11 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         if (dsMetricsEnabled) {
             ((NodeEngineImpl) nodeEngine).getMetricsRegistry().registerDynamicMetricsProvider(this);
         }
+        UnsafeMallocMemoryManager offHeapValuesMemoryManager = mapServiceContext.getOffHeapValuesMemoryManager();
+        if (offHeapValuesMemoryManager != null) {
+            ((NodeEngineImpl) nodeEngine).getMetricsRegistry()
+                    .registerStaticMetrics(offHeapValuesMemoryManager, MAP_PREFIX_OFF_HEAP_VALUES);
+        }
     }
 
     @Override
@@ -252,6 +259,8 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         }
 
         mapServiceContext.getEventListenerCounter().incCounter(mapName);
+        mapServiceContext.getMapNearCacheManager().getInvalidator()
+                .getMetaDataGenerator().initSequences(mapName);
     }
 
     @Override
@@ -22,6 +22,7 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.internal.util.comparators.ValueComparator;
@@ -45,6 +46,7 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.operationservice.Operation;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -205,6 +207,14 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     NodeWideUsedCapacityCounter getNodeWideUsedCapacityCounter();
 
+    /**
+     * @return the member-wide memory manager which keeps record values
+     * of {@code BINARY} maps off-heap or {@code null} if values are
+     * stored on-heap, see {@link com.hazelcast.spi.properties.ClusterProperty#MAP_OFF_HEAP_VALUES_ENABLED}
+     */
+    @Nullable
+    UnsafeMallocMemoryManager getOffHeapValuesMemoryManager();
+
     ExecutorStats getOffloadedEntryProcessorExecutorStats();
 
     Semaphore getNodeWideLoadedKeyLimiter();
@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
@@ -74,6 +75,7 @@ import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.recordstore.DefaultRecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.map.listener.MapPartitionLostListener;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.DefaultIndexProvider;
 import com.hazelcast.query.impl.IndexCopyBehavior;
@@ -85,6 +87,7 @@ import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import com.hazelcast.spi.impl.eventservice.EventService;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -112,8 +115,12 @@ import static com.hazelcast.spi.impl.executionservice.ExecutionService.QUERY_EXE
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
 import static com.hazelcast.spi.properties.ClusterProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COPY_BEHAVIOR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_MERGE_MERKLE_TREE_DIFF_ONLY;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_VALUES_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_VALUES_MAX_SIZE_MB;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
+import static java.lang.Boolean.TRUE;
 import static java.lang.Thread.currentThread;
 
 /**
@@ -144,6 +151,7 @@ class MapServiceContextImpl implements MapServiceContext {
     private final MapClearExpiredRecordsTask clearExpiredRecordsTask;
     private final PartitioningStrategyFactory partitioningStrategyFactory;
     private final NodeWideUsedCapacityCounter nodeWideUsedCapacityCounter;
+    private final UnsafeMallocMemoryManager offHeapValuesMemoryManager;
     private final ConstructorFunction<String, MapContainer> mapConstructor;
     private final IndexProvider indexProvider = new DefaultIndexProvider();
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
@@ -183,6 +191,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.operationProviders = createOperationProviders();
         this.partitioningStrategyFactory = new PartitioningStrategyFactory(nodeEngine.getConfigClassLoader());
         this.nodeWideUsedCapacityCounter = new NodeWideUsedCapacityCounter(nodeEngine.getProperties());
+        this.offHeapValuesMemoryManager = createOffHeapValuesMemoryManager(nodeEngine.getProperties());
         this.nodeWideLoadedKeyLimiter = new Semaphore(checkPositive(PROP_LOADED_KEY_LIMITER_PER_NODE,
                 nodeEngine.getProperties().getInteger(LOADED_KEY_LIMITER_PER_NODE)));
         this.logger = nodeEngine.getLogger(getClass());
@@ -898,6 +907,17 @@ class MapServiceContextImpl implements MapServiceContext {
         return ValueComparatorUtil.getValueComparatorOf(inMemoryFormat);
     }
 
+    @Override
+    public boolean shouldEnableMerkleTree(MapConfig mapConfig, boolean log) {
+        boolean enabled = TRUE.equals(mapConfig.getMerkleTreeConfig().getEnabled());
+        if (enabled && log && !nodeEngine.getProperties().getBoolean(MAP_MERGE_MERKLE_TREE_DIFF_ONLY)) {
+            logger.info("Merkle tree is enabled for map " + mapConfig.getName() + ", but all of its entries"
+                    + " are merged after a split-brain. Set " + MAP_MERGE_MERKLE_TREE_DIFF_ONLY.getName()
+                    + " to merge only the entries which differ.");
+        }
+        return enabled;
+    }
+
     @Override
     public Semaphore getNodeWideLoadedKeyLimiter() {
         return nodeWideLoadedKeyLimiter;
@@ -907,6 +927,20 @@ class MapServiceContextImpl implements MapServiceContext {
         return nodeWideUsedCapacityCounter;
     }
 
+    @Override
+    public UnsafeMallocMemoryManager getOffHeapValuesMemoryManager() {
+        return offHeapValuesMemoryManager;
+    }
+
+    private static UnsafeMallocMemoryManager createOffHeapValuesMemoryManager(HazelcastProperties properties) {
+        if (!properties.getBoolean(MAP_OFF_HEAP_VALUES_ENABLED) || !UnsafeMallocMemoryManager.isAvailable()) {
+            return null;
+        }
+        long maxSizeMb = checkPositive(MAP_OFF_HEAP_VALUES_MAX_SIZE_MB.getName(),
+                properties.getLong(MAP_OFF_HEAP_VALUES_MAX_SIZE_MB));
+        return new UnsafeMallocMemoryManager(MemoryUnit.MEGABYTES.toBytes(maxSizeMb));
+    }
+
     // used only for testing purposes
     PartitioningStrategyFactory getPartitioningStrategyFactory() {
         return partitioningStrategyFactory;
@@ -22,6 +22,7 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.JsonMetadataStore;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.impl.CachedQueryEntry;
@@ -29,6 +30,7 @@ import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.JsonMetadata;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
 import com.hazelcast.spi.impl.operationservice.MutatingOperation;
@@ -38,6 +40,7 @@ import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
 import java.io.IOException;
 
 import static com.hazelcast.config.CacheDeserializedValues.NEVER;
+import static com.hazelcast.config.MetadataPolicy.CREATE_ON_UPDATE;
 
 public class AddIndexOperation extends MapOperation
         implements PartitionAwareOperation, MutatingOperation, BackupAwareOperation {
@@ -98,12 +101,23 @@ public class AddIndexOperation extends MapOperation
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         CachedQueryEntry<?, ?> cachedEntry = cacheDeserializedValues == NEVER ? new CachedQueryEntry<>(serializationService,
                 mapContainer.getExtractors()) : null;
+        JsonMetadataStore metadataStore = mapContainer.getMapConfig().getMetadataPolicy() == CREATE_ON_UPDATE
+                ? recordStore.getOrCreateMetadataStore() : null;
+        // off-heap values may be freed after this operation, keep index entries on-heap
+        boolean offHeapValues = mapContainer.getOffHeapMemoryManager() != null;
         recordStore.forEach((dataKey, record) -> {
-            Object value = Records.getValueOrCachedValue(record, serializationService);
+            Object value = Records.getValueOrCachedValueOnHeap(record, serializationService);
             QueryableEntry<?, ?> queryEntry = mapContainer.newQueryEntry(dataKey, value);
-            queryEntry.setRecord(record);
+            if (!offHeapValues) {
+                queryEntry.setRecord(record);
+            }
             CachedQueryEntry<?, ?> newEntry =
                     cachedEntry == null ? (CachedQueryEntry<?, ?>) queryEntry : cachedEntry.init(dataKey, value);
+            if (metadataStore != null) {
+                JsonMetadata metadata = metadataStore.get(dataKey);
+                queryEntry.setMetadata(metadata);
+                newEntry.setMetadata(metadata);
+            }
             index.putEntry(newEntry, null, queryEntry, Index.OperationSource.USER);
         }, false);
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+
+import java.io.IOException;
+
+/**
+ * Operation for fetching the leaves of the Merkle tree of a map partition,
+ * so that the caller can find out which entries of its own Merkle tree
+ * differ. Used during split-brain healing to merge only the entries of
+ * the differing leaves.
+ * <p>
+ * The caller sends the root hash of its own tree. If the root hashes are
+ * the same, an empty array is returned instead of the leaves. If this
+ * partition has no Merkle tree with the same depth, {@code null} is
+ * returned, meaning that all entries have to be merged.
+ */
+public class MapFetchMerkleTreeLeavesOperation extends MapOperation implements ReadonlyOperation {
+
+    private static final int[] EMPTY_LEAVES = new int[0];
+
+    private int depth;
+    private int rootHash;
+
+    private transient int[] leaves;
+
+    public MapFetchMerkleTreeLeavesOperation() {
+        this(null, 0, 0);
+    }
+
+    public MapFetchMerkleTreeLeavesOperation(String mapName, int depth, int rootHash) {
+        super(mapName);
+        this.depth = depth;
+        this.rootHash = rootHash;
+        createRecordStoreOnDemand = false;
+    }
+
+    @Override
+    protected void runInternal() {
+        MerkleTree merkleTree = recordStore != null ? recordStore.getMerkleTree() : null;
+        if (merkleTree == null || merkleTree.depth() != depth) {
+            leaves = null;
+        } else if (merkleTree.getNodeHash(0) == rootHash) {
+            leaves = EMPTY_LEAVES;
+        } else {
+            leaves = MerkleTreeUtil.getLeaves(merkleTree);
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return leaves;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_FETCH_MERKLE_TREE_LEAVES_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(depth);
+        out.writeInt(rootHash);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        depth = in.readInt();
+        rootHash = in.readInt();
+    }
+}
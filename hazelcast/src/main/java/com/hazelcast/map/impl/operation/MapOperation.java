@@ -207,7 +207,8 @@ public abstract class MapOperation extends AbstractNamedOperation
     void disposeDeferredBlocks() {
         if (!disposeDeferredBlocks
                 || recordStore == null
-                || recordStore.getInMemoryFormat() != NATIVE) {
+                || (recordStore.getInMemoryFormat() != NATIVE
+                && recordStore.getMapContainer().getOffHeapMemoryManager() == null)) {
             return;
         }
 
@@ -244,7 +245,11 @@ public abstract class MapOperation extends AbstractNamedOperation
     }
 
     protected final void invalidateNearCache(List<Data> keys) {
-        if (!mapContainer.hasInvalidationListener() || isEmpty(keys)) {
+        if (!mapContainer.hasInvalidationListener()) {
+            nextSequenceWithoutListener(getPartitionId());
+            return;
+        }
+        if (isEmpty(keys)) {
             return;
         }
 
@@ -257,7 +262,11 @@ public abstract class MapOperation extends AbstractNamedOperation
 
     // TODO: improve here it's possible that client cannot manage to attach listener
     public final void invalidateNearCache(Data key) {
-        if (!mapContainer.hasInvalidationListener() || key == null) {
+        if (key == null) {
+            return;
+        }
+        if (!mapContainer.hasInvalidationListener()) {
+            nextSequenceWithoutListener(getNodeEngine().getPartitionService().getPartitionId(key));
             return;
         }
 
@@ -280,9 +289,20 @@ public abstract class MapOperation extends AbstractNamedOperation
             } else {
                 invalidator.forceIncrementSequence(name, getPartitionId());
             }
+        } else {
+            nextSequenceWithoutListener(getPartitionId());
         }
     }
 
+    /**
+     * Advances the invalidation sequence of a map which had Near Cache
+     * invalidation listeners before, so Near Caches restored from a
+     * pre-loader store file notice the change after reconnecting.
+     */
+    private void nextSequenceWithoutListener(int partitionId) {
+        getNearCacheInvalidator().getMetaDataGenerator().nextSequenceIfPresent(name, partitionId);
+    }
+
     private Invalidator getNearCacheInvalidator() {
         MapNearCacheManager mapNearCacheManager = mapServiceContext.getMapNearCacheManager();
         return mapNearCacheManager.getInvalidator();
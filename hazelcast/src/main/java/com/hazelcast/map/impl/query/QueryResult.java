@@ -38,6 +38,7 @@ import java.util.Map;
 
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.readNullablePartitionIdSet;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeNullablePartitionIdSet;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 
 /**
  * Represents a result of a query execution in the form of an iterable
@@ -270,11 +271,11 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
                 key = entry.getKeyData();
                 break;
             case VALUE:
-                value = getValueData(entry);
+                value = toHeapData(getValueData(entry));
                 break;
             case ENTRY:
                 key = entry.getKeyData();
-                value = entry.getValueData();
+                value = toHeapData(entry.getValueData());
                 break;
             default:
                 throw new IllegalStateException("Unknown iterationType:" + iterationType);
@@ -16,6 +16,10 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.CountByValueAggregator;
+import com.hazelcast.aggregation.impl.DistinctValuesAggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -26,15 +30,24 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.LocalMapStatsProvider;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AbstractIndex;
+import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.EvaluatePredicate;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
+import com.hazelcast.query.impl.predicates.TruePredicate;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
 import java.util.Collection;
+import java.util.Map;
 
 import static com.hazelcast.internal.util.SetUtil.singletonPartitionIdSet;
 
@@ -120,6 +133,7 @@ public class QueryRunner {
      * @return the query result. {@code null} if the {@code doPartitionScan} is set and the execution on the
      * global index failed.
      */
+    @SuppressWarnings("checkstyle:npathcomplexity")
     public Result runIndexOrPartitionScanQueryOnOwnedPartitions(Query query, boolean doPartitionScan) {
         int migrationStamp = getMigrationStamp();
         PartitionIdSet initialPartitions = mapServiceContext.getOrInitCachedMemberPartitions();
@@ -137,6 +151,14 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
+        if (actualPartitions.size() == initialPartitions.size()) {
+            // counting aggregations may be answered by an index without visiting the entries
+            Result result = runIndexOnlyAggregationSafely(query, predicate, mapContainer, migrationStamp, actualPartitions);
+            if (result != null) {
+                return result;
+            }
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         Iterable<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer,
                 migrationStamp, initialPartitions.size());
@@ -294,6 +316,148 @@ public class QueryRunner {
         return null;
     }
 
+    /**
+     * Answers counting aggregations directly from the index which evaluates the
+     * whole predicate, without visiting and deserializing the matching entries:
+     * <ul>
+     * <li>a {@link CountAggregator} counting the entries themselves,
+     * <li>a {@link DistinctValuesAggregator} (count-distinct) or a {@link
+     * CountByValueAggregator} (group-by count) over the single, non-collection
+     * attribute of that index. If the predicate is always true, any index on
+     * the attribute is used.
+     * </ul>
+     * Only possible for global indexes able to count the matching entries, see
+     * {@link AbstractIndex#evaluateCount}, and if none of the entries may expire:
+     * expired entries are still indexed until they are evicted.
+     *
+     * @return the aggregation result or {@code null} if the query can't be
+     * answered this way.
+     */
+    protected Result runIndexOnlyAggregationSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                   int migrationStamp, PartitionIdSet partitions) {
+        Aggregator aggregator = query.getAggregator();
+        if (!(aggregator instanceof CountAggregator || aggregator instanceof DistinctValuesAggregator
+                || aggregator instanceof CountByValueAggregator)) {
+            return null;
+        }
+
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal() || !validateMigrationStamp(migrationStamp)
+                || mayHaveExpiringEntries(mapContainer, partitions)) {
+            return null;
+        }
+
+        AggregationResult result = (AggregationResult) populateEmptyResult(query, partitions);
+        boolean answered = aggregator instanceof CountAggregator
+                ? countFromIndex(predicate, indexes, partitions, (CountAggregator) result.getAggregator())
+                : countByValueFromIndex(predicate, indexes, partitions, result.getAggregator());
+        // the same migration stamp check as for the index queries
+        if (!answered || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+        indexes.getIndexesStats().incrementQueryCount();
+        indexes.getIndexesStats().incrementIndexedQueryCount();
+
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
+    private static boolean countFromIndex(Predicate predicate, Indexes indexes, PartitionIdSet partitions,
+                                          CountAggregator aggregator) {
+        if (!(predicate instanceof EvaluatePredicate) || aggregator.getAttributePath() != null) {
+            return false;
+        }
+        EvaluatePredicate evaluatePredicate = (EvaluatePredicate) predicate;
+        InternalIndex index = indexes.matchIndex(evaluatePredicate.getIndexName(), IndexMatchHint.EXACT_NAME,
+                partitions.size());
+        if (!(index instanceof AbstractIndex)) {
+            return false;
+        }
+
+        long count = ((AbstractIndex) index).evaluateCount(evaluatePredicate.getPredicate());
+        if (count < 0) {
+            return false;
+        }
+        aggregator.accumulateCount(count);
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean countByValueFromIndex(Predicate predicate, Indexes indexes, PartitionIdSet partitions,
+                                                 Aggregator aggregator) {
+        String attributePath = aggregator instanceof DistinctValuesAggregator
+                ? ((DistinctValuesAggregator) aggregator).getAttributePath()
+                : ((CountByValueAggregator) aggregator).getAttributePath();
+        if (attributePath == null || attributePath.contains("[any]")) {
+            return false;
+        }
+
+        Map<Object, Long> counts = countByValue(predicate, indexes, partitions,
+                IndexUtils.canonicalizeAttribute(attributePath));
+        if (counts == null) {
+            return false;
+        }
+        for (Map.Entry<Object, Long> entry : counts.entrySet()) {
+            Object value = entry.getKey() == AbstractIndex.NULL ? null : entry.getKey();
+            if (aggregator instanceof DistinctValuesAggregator) {
+                ((DistinctValuesAggregator) aggregator).accumulateExtracted(null, value);
+            } else {
+                ((CountByValueAggregator) aggregator).accumulateCount(value, entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the entries matching the predicate per value of the given
+     * attribute using the index on the attribute.
+     *
+     * @return the counts per value or {@code null} if they can't be counted
+     * that way.
+     */
+    private static Map<Object, Long> countByValue(Predicate predicate, Indexes indexes, PartitionIdSet partitions,
+                                                  String attribute) {
+        InternalIndex index;
+        Predicate indexPredicate;
+        if (predicate instanceof EvaluatePredicate) {
+            EvaluatePredicate evaluatePredicate = (EvaluatePredicate) predicate;
+            index = indexes.matchIndex(evaluatePredicate.getIndexName(), IndexMatchHint.EXACT_NAME, partitions.size());
+            indexPredicate = evaluatePredicate.getPredicate();
+        } else if (predicate instanceof TruePredicate) {
+            index = indexes.matchIndex(attribute, EqualPredicate.class, IndexMatchHint.NONE, partitions.size());
+            indexPredicate = null;
+        } else {
+            return null;
+        }
+        if (!(index instanceof AbstractIndex) || index.getComponents().length != 1
+                || !index.getComponents()[0].equals(attribute)) {
+            return null;
+        }
+
+        Map<Object, Long> counts = ((AbstractIndex) index).evaluateCountByValue(indexPredicate);
+        if (counts == null) {
+            return null;
+        }
+        for (Object value : counts.keySet()) {
+            // numbers are indexed in a canonical form, their original type is unknown
+            if (value instanceof Number) {
+                return null;
+            }
+        }
+        return counts;
+    }
+
+    private boolean mayHaveExpiringEntries(MapContainer mapContainer, PartitionIdSet partitions) {
+        String mapName = mapContainer.getName();
+        for (int partitionId : partitions) {
+            RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapName);
+            if (recordStore != null && recordStore.isExpirable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected Result runUsingPartitionScanSafely(Query query, Predicate predicate,
                                                  PartitionIdSet partitions, int migrationStamp) {
 
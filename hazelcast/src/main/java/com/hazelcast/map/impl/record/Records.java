@@ -25,6 +25,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 
 import java.io.IOException;
 
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.record.Record.NOT_CACHED;
 import static com.hazelcast.map.impl.record.RecordReaderWriter.getById;
 
@@ -173,6 +174,16 @@ public final class Records {
         }
     }
 
+    /**
+     * Same as {@link #getValueOrCachedValue(Record, SerializationService)}
+     * but copies a serialized value which is not on the heap, so that it
+     * can be kept after the running partition operation, e.g. by an index.
+     */
+    public static Object getValueOrCachedValueOnHeap(Record record, SerializationService serializationService) {
+        Object value = getValueOrCachedValue(record, serializationService);
+        return value instanceof Data ? toHeapData((Data) value) : value;
+    }
+
     private static Object tryStoreIntoCache(Record record, Object valueBeforeCas, SerializationService serializationService) {
         Thread currentThread = Thread.currentThread();
         if (!record.casCachedValue(null, currentThread)) {
@@ -22,6 +22,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MetadataPolicy;
 import com.hazelcast.internal.locksupport.LockStore;
 import com.hazelcast.internal.locksupport.LockSupportService;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.serialization.Data;
@@ -41,6 +42,7 @@ import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.RecordReaderWriter;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
 
@@ -64,6 +66,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     protected Storage<Data, Record> storage;
     protected IndexingMutationObserver<Record> indexingObserver;
+    protected MerkleTreeMutationObserver<Record> merkleTreeObserver;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -85,9 +88,13 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     public void init() {
         this.storage = createStorage(recordFactory, inMemoryFormat);
         addMutationObservers();
+        assert mutationObserver.isNotifiedBefore(JsonMetadataMutationObserver.class, IndexingMutationObserver.class)
+                : "JSON metadata must be created before the entry is indexed";
     }
 
-    // Overridden in EE.
+    // Overridden in EE. The JSON metadata observer must be added
+    // before the indexing observer, which reuses the metadata created
+    // by the former when indexing JSON values.
     protected void addMutationObservers() {
         // Add observer for event journal
         EventJournalConfig eventJournalConfig = mapContainer.getEventJournalConfig();
@@ -102,15 +109,27 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
                     JsonMetadataInitializer.INSTANCE, getOrCreateMetadataStore()));
         }
 
-        // Add observer for indexing
+        // Add observer for indexing, after the json metadata observer
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for merkle tree
+        if (mapContainer.isMerkleTreeEnabled()) {
+            merkleTreeObserver = new MerkleTreeMutationObserver<>(serializationService,
+                    mapContainer.getMapConfig().getMerkleTreeConfig().getDepth());
+            mutationObserver.add(merkleTreeObserver);
+        }
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
         return indexingObserver;
     }
 
+    @Override
+    public MerkleTree getMerkleTree() {
+        return merkleTreeObserver != null ? merkleTreeObserver.getMerkleTree() : null;
+    }
+
     @Override
     public InMemoryFormat getInMemoryFormat() {
         return inMemoryFormat;
@@ -155,6 +174,10 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        MemoryManager offHeapMemoryManager = mapContainer.getOffHeapMemoryManager();
+        if (offHeapMemoryManager != null) {
+            return new OffHeapStorageImpl(offHeapMemoryManager, getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
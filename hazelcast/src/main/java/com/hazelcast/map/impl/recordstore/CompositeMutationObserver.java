@@ -42,6 +42,23 @@ class CompositeMutationObserver<R extends Record> implements MutationObserver<R>
         mutationObservers.add(mutationObserver);
     }
 
+    /**
+     * Returns {@code true} if no observer of type {@code before} is added
+     * after an observer of type {@code after}. Used to assert that observers
+     * depending on each other are notified in order.
+     */
+    boolean isNotifiedBefore(Class<?> before, Class<?> after) {
+        boolean afterSeen = false;
+        for (int i = 0; i < mutationObservers.size(); i++) {
+            MutationObserver observer = mutationObservers.get(i);
+            if (before.isInstance(observer) && afterSeen) {
+                return false;
+            }
+            afterSeen |= after.isInstance(observer);
+        }
+        return true;
+    }
+
     @Override
     public void onClear() {
         Throwable throwable = null;
@@ -80,12 +97,12 @@ class CompositeMutationObserver<R extends Record> implements MutationObserver<R>
     }
 
     @Override
-    public void onReplicationPutRecord(@Nonnull Data key,
-                                       @Nonnull R record, boolean populateIndex) {
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record,
+                                       Object oldValue, boolean populateIndex) {
         Throwable throwable = null;
         for (int i = 0; i < mutationObservers.size(); i++) {
             try {
-                mutationObservers.get(i).onReplicationPutRecord(key, record, populateIndex);
+                mutationObservers.get(i).onReplicationPutRecord(key, record, oldValue, populateIndex);
             } catch (Throwable t) {
                 if (throwable == null) {
                     throwable = t;
@@ -194,18 +194,20 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public Record putOrUpdateReplicatedRecord(Data dataKey, Record replicatedRecord,
                                               ExpiryMetadata expiryMetadata,
                                               boolean indexesMustBePopulated, long now) {
+        Object oldValue = null;
         Record newRecord = storage.get(dataKey);
         if (newRecord == null) {
             newRecord = createRecord(dataKey, replicatedRecord != null
                     ? replicatedRecord.getValue() : null, now);
             storage.put(dataKey, newRecord);
         } else {
+            oldValue = newRecord.getValue();
             storage.updateRecordValue(dataKey, newRecord, replicatedRecord.getValue());
         }
 
         Records.copyMetadataFrom(replicatedRecord, newRecord);
         expirySystem.add(dataKey, expiryMetadata, now);
-        mutationObserver.onReplicationPutRecord(dataKey, newRecord, indexesMustBePopulated);
+        mutationObserver.onReplicationPutRecord(dataKey, newRecord, oldValue, indexesMustBePopulated);
         updateStatsOnPut(replicatedRecord.getHits(), now);
 
         return newRecord;
@@ -669,6 +671,11 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
      */
     @Override
     public Data readBackupData(Data key) {
+        if (mapContainer.getOffHeapMemoryManager() != null) {
+            // off-heap values can be freed by the partition thread at any
+            // time, let the caller fall back to a get operation instead
+            return null;
+        }
         Record record = getRecord(key);
 
         if (record == null) {
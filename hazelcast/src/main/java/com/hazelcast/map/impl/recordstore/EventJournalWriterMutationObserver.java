@@ -81,7 +81,8 @@ public class EventJournalWriterMutationObserver implements MutationObserver {
     }
 
     @Override
-    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue,
+                                       boolean populateIndex) {
         // NOP
     }
 
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.recordstore;
 
+import com.hazelcast.config.MetadataPolicy;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.map.impl.MapContainer;
@@ -24,12 +25,14 @@ import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.JsonMetadata;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import javax.annotation.Nonnull;
 import java.util.function.BiConsumer;
 
 import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+import static com.hazelcast.map.impl.record.Records.getValueOrCachedValueOnHeap;
 
 public class IndexingMutationObserver<R extends Record> implements MutationObserver<R> {
 
@@ -54,7 +57,8 @@ public class IndexingMutationObserver<R extends Record> implements MutationObser
     }
 
     @Override
-    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, boolean populateIndex) {
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, Object oldValue,
+                                       boolean populateIndex) {
         if (populateIndex) {
             saveIndex(key, record, null, Index.OperationSource.SYSTEM);
         }
@@ -163,9 +167,16 @@ public class IndexingMutationObserver<R extends Record> implements MutationObser
             return;
         }
 
+        // index entries are read by query threads after this operation, when
+        // off-heap values may already be freed, so they keep on-heap values only
         QueryableEntry queryableEntry = mapContainer.newQueryEntry(toBackingKeyFormat(dataKey),
-                getValueOrCachedValue(record, ss));
-        queryableEntry.setRecord(record);
+                getValueOrCachedValueOnHeap(record, ss));
+        if (mapContainer.getOffHeapMemoryManager() == null) {
+            queryableEntry.setRecord(record);
+        }
+        // reuse the JSON metadata created on put, so that the indexed
+        // attributes are extracted without re-parsing the whole value
+        queryableEntry.setMetadata(getJsonMetadata(dataKey));
 
         indexes.putEntry(queryableEntry, oldValue, operationSource);
     }
@@ -180,6 +191,13 @@ public class IndexingMutationObserver<R extends Record> implements MutationObser
         indexes.removeEntry(toBackingKeyFormat(dataKey), getValueOrCachedValue(record, ss), operationSource);
     }
 
+    private JsonMetadata getJsonMetadata(Data dataKey) {
+        if (mapContainer.getMapConfig().getMetadataPolicy() != MetadataPolicy.CREATE_ON_UPDATE) {
+            return null;
+        }
+        return recordStore.getOrCreateMetadataStore().get(dataKey);
+    }
+
     private Data toBackingKeyFormat(Data key) {
         return recordStore.getStorage().toBackingDataKeyFormat(key);
     }
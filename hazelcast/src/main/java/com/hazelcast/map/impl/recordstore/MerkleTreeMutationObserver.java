@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Maintains the {@link MerkleTree} of a {@link RecordStore} incrementally
+ * on every mutation. The tree is built from the serialized keys and values
+ * so that the trees of the same entries on different members are equal.
+ * <p>
+ * All methods are expected to be called on the partition thread which
+ * owns the record store.
+ */
+public class MerkleTreeMutationObserver<R extends Record> implements MutationObserver<R> {
+
+    private final SerializationService ss;
+    private final MerkleTree merkleTree;
+
+    public MerkleTreeMutationObserver(SerializationService ss, int depth) {
+        this.ss = ss;
+        this.merkleTree = new ArrayMerkleTree(depth);
+    }
+
+    public MerkleTree getMerkleTree() {
+        return merkleTree;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, R record, Object oldValue, boolean backup) {
+        add(key, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, Object oldValue, boolean populateIndex) {
+        onUpdateRecord(key, record, oldValue, record.getValue(), false);
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull R record,
+                               Object oldValue, Object newValue, boolean backup) {
+        if (oldValue == null) {
+            add(key, record.getValue());
+        } else {
+            merkleTree.updateReplace(key, toData(oldValue), toData(record.getValue()));
+        }
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, R record) {
+        remove(key, record);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull R record) {
+        remove(key, record);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull R record, boolean backup) {
+        add(key, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        merkleTree.clear();
+    }
+
+    @Override
+    public void onClear() {
+        merkleTree.clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        merkleTree.clear();
+    }
+
+    private void add(Data key, Object value) {
+        if (value != null) {
+            merkleTree.updateAdd(key, toData(value));
+        }
+    }
+
+    private void remove(Data key, R record) {
+        if (record != null && record.getValue() != null) {
+            merkleTree.updateRemove(key, toData(record.getValue()));
+        }
+    }
+
+    private Data toData(Object value) {
+        return ss.toData(value);
+    }
+}
@@ -46,10 +46,12 @@ public interface MutationObserver<R extends Record> {
      *
      * @param key           The key of the record
      * @param record        The record
+     * @param oldValue      The value the record had before the replication
+     *                      or {@code null} if the record is new
      * @param populateIndex  {@code true} if
      *                      indexing can be done, otherwise {@code false}
      */
-    void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, boolean populateIndex);
+    void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, Object oldValue, boolean populateIndex);
 
     /**
      * Called when a new record is updated
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.OffHeapData;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+
+/**
+ * {@link StorageImpl} variant for {@code BINARY} maps which keeps the serialized
+ * record values in memory blocks outside of the Java heap, see {@link OffHeapData}.
+ * Keys, records and expiry metadata stay on-heap, but a value no longer costs
+ * a {@code HeapData} and a {@code byte[]} per entry.
+ * <p>
+ * Blocks of replaced and removed values are not freed immediately, since the
+ * running operation may still read them. They are freed when the operation
+ * calls {@link #disposeDeferredBlocks()}.
+ * <p>
+ * Only accessed by the partition thread, like {@link StorageImpl}.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class OffHeapStorageImpl<R extends Record> extends StorageImpl<R> {
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final List<OffHeapData> deferredBlocks = new ArrayList<>();
+
+    OffHeapStorageImpl(MemoryManager memoryManager, ExpirySystem expirySystem,
+                       SerializationService serializationService) {
+        super(BINARY, expirySystem, serializationService);
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        R previousRecord = get(key);
+        record.setValue(toOffHeap(record.getValue()));
+
+        super.put(key, record);
+
+        if (previousRecord != null && previousRecord.getValue() != record.getValue()) {
+            deferDispose(previousRecord.getValue());
+        }
+    }
+
+    @Override
+    public R updateRecordValue(Data key, R record, Object value) {
+        Object oldValue = record.getValue();
+        updateCostEstimate(-getEntryCostEstimator().calculateValueCost(record));
+
+        record.setValue(toOffHeap(getSerializationService().toData(value)));
+
+        updateCostEstimate(getEntryCostEstimator().calculateValueCost(record));
+        if (oldValue != record.getValue()) {
+            deferDispose(oldValue);
+        }
+        return record;
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, R record) {
+        super.removeRecord(dataKey, record);
+
+        deferDispose(record.getValue());
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        Iterator<Map.Entry<Data, R>> iterator = mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            deferDispose(iterator.next().getValue().getValue());
+        }
+
+        super.clear(isDuringShutdown);
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        super.destroy(isDuringShutdown);
+
+        disposeDeferredBlocks();
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredBlocks.size(); i++) {
+            deferredBlocks.get(i).dispose(malloc);
+        }
+        deferredBlocks.clear();
+    }
+
+    private Object toOffHeap(Object value) {
+        if (value instanceof OffHeapData || !(value instanceof Data) || ((Data) value).totalSize() == 0) {
+            return value;
+        }
+        try {
+            return OffHeapData.copyOf((Data) value, malloc, mem);
+        } catch (NativeOutOfMemoryError e) {
+            // the member-wide off-heap budget is used up, keep the value on-heap
+            return value;
+        }
+    }
+
+    private void deferDispose(Object value) {
+        if (value instanceof OffHeapData) {
+            deferredBlocks.add((OffHeapData) value);
+        }
+    }
+}
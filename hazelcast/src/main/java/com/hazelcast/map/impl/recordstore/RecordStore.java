@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
 import com.hazelcast.internal.eviction.ExpiredKey;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
@@ -42,6 +43,7 @@ import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -520,6 +522,15 @@ public interface RecordStore<R extends Record> {
      */
     JsonMetadataStore getOrCreateMetadataStore();
 
+    /**
+     * Returns the Merkle tree of this record store, which is maintained
+     * on each mutation if it is enabled in the {@link MapConfig}.
+     *
+     * @return the Merkle tree or {@code null} if it is not enabled
+     */
+    @Nullable
+    MerkleTree getMerkleTree();
+
     Storage getStorage();
 
     void sampleAndForceRemoveEntries(int entryCountToRemove);
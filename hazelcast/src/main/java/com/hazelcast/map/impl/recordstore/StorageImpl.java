@@ -35,6 +35,7 @@ import java.util.Map;
 
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.internal.util.IterableUtil.asReadOnlyIterator;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
 
 /**
@@ -119,6 +120,10 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         clear(isDuringShutdown);
     }
 
+    protected SerializationService getSerializationService() {
+        return serializationService;
+    }
+
     public EntryCostEstimator getEntryCostEstimator() {
         return entryCostEstimator;
     }
@@ -162,7 +167,8 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         List<Map.Entry<Data, Data>> entriesData = new ArrayList<>(entries.size());
         for (Map.Entry<Data, R> entry : entries) {
             R record = entry.getValue();
-            Data dataValue = serializationService.toData(record.getValue());
+            // the entries outlive the running operation, copy values which are not on the heap
+            Data dataValue = toHeapData(serializationService.toData(record.getValue()));
             entriesData.add(new AbstractMap.SimpleEntry<>(entry.getKey(), dataValue));
         }
         return new MapEntriesWithCursor(entriesData, newPointers);
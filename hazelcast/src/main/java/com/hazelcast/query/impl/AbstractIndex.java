@@ -31,6 +31,7 @@ import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
@@ -168,6 +169,57 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    /**
+     * Counts the entries matching the given predicate without visiting them,
+     * if the index store supports it.
+     *
+     * @param predicate the predicate to evaluate. The predicate is guaranteed
+     *                  to be evaluable by this index ({@code canEvaluate}
+     *                  returned {@code true} for its class).
+     * @return the number of matching entries or {@code -1} if this index can't
+     * count them without visiting them.
+     * @see BitmapIndexStore#count
+     */
+    public long evaluateCount(Predicate predicate) {
+        if (converter == null || !(indexStore instanceof BitmapIndexStore)) {
+            return -1;
+        }
+        long timestamp = stats.makeTimestamp();
+
+        long count = ((BitmapIndexStore) indexStore).count(predicate, converter);
+        if (count >= 0) {
+            stats.onIndexHit(timestamp, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the entries per distinct indexed value without visiting them, if
+     * the index store supports it.
+     *
+     * @param predicate the predicate restricting the counted entries or {@code
+     *                  null} to count all of them. The predicate is guaranteed
+     *                  to be evaluable by this index.
+     * @return the map from the indexed values in their canonical form to the
+     * number of entries having them or {@code null} if this index can't count
+     * them without visiting them.
+     * @see BitmapIndexStore#countByValue
+     */
+    public Map<Object, Long> evaluateCountByValue(Predicate predicate) {
+        if (converter == null || !(indexStore instanceof BitmapIndexStore)) {
+            return null;
+        }
+        long timestamp = stats.makeTimestamp();
+
+        Map<Object, Long> counts = ((BitmapIndexStore) indexStore).countByValue(predicate, converter);
+        if (counts != null) {
+            stats.onIndexHit(timestamp, counts.size());
+        }
+
+        return counts;
+    }
+
     @Override
     public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
         if (converter == null) {
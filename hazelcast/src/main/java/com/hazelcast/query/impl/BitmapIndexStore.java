@@ -39,6 +39,8 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+
 /**
  * The store of bitmap indexes.
  * <p>
@@ -68,6 +70,8 @@ public final class BitmapIndexStore extends BaseIndexStore {
     }
 
     private final String keyAttribute;
+    // an entry is never indexed under more than one unique key if it's the entry key
+    private final boolean countable;
 
     private final Bitmap<QueryableEntry> bitmap = new Bitmap<>();
     // maps user-provided long keys to long bitmap keys
@@ -80,6 +84,7 @@ public final class BitmapIndexStore extends BaseIndexStore {
         super(IndexCopyBehavior.NEVER, true);
 
         this.keyAttribute = config.getBitmapIndexOptions().getUniqueKey();
+        this.countable = KEY_ATTRIBUTE_NAME.value().equals(keyAttribute);
 
         switch (config.getBitmapIndexOptions().getUniqueKeyTransformation()) {
             case OBJECT:
@@ -311,6 +316,58 @@ public final class BitmapIndexStore extends BaseIndexStore {
         }
     }
 
+    /**
+     * Counts the entries matching the given predicate using only the bitmap,
+     * without visiting the entries.
+     *
+     * @param predicate the predicate to evaluate, it's guaranteed to be
+     *                  evaluable by this index store.
+     * @param converter the converter to use for the predicate arguments.
+     * @return the number of matching entries or {@code -1} if this index store
+     * can't count them precisely. That's the case if the unique key of the
+     * index is not the entry key: for other unique keys an entry may end up
+     * indexed under its old and new unique key after its unique key attribute
+     * is updated.
+     */
+    public long count(Predicate predicate, TypeConverter converter) {
+        if (!countable) {
+            return -1;
+        }
+        takeReadLock();
+        try {
+            return bitmap.count(predicate, new CanonicalizingConverter(converter));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Counts the entries per distinct indexed attribute value using only the
+     * bitmap, without visiting the entries. The attribute values are returned
+     * in their canonical form, e.g. all integral numbers which fit into
+     * {@code int} are returned as {@link Integer}s, and {@code null} is
+     * returned as {@link AbstractIndex#NULL}.
+     *
+     * @param predicate the predicate restricting the counted entries, it's
+     *                  guaranteed to be evaluable by this index store; or
+     *                  {@code null} to count all the entries.
+     * @param converter the converter to use for the predicate arguments.
+     * @return the map from the attribute values to the number of entries having
+     * them or {@code null} if this index store can't count them precisely, see
+     * {@link #count}.
+     */
+    public Map<Object, Long> countByValue(Predicate predicate, TypeConverter converter) {
+        if (!countable) {
+            return null;
+        }
+        takeReadLock();
+        try {
+            return bitmap.countByValue(predicate, new CanonicalizingConverter(converter));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
     @Override
     public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
         throw makeUnsupportedOperationException();
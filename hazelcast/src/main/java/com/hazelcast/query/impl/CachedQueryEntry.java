@@ -84,6 +84,8 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> implements Iden
             this.valueData = null;
         }
 
+        // reused instances must not carry over the JSON metadata of the previous entry
+        setMetadata(null);
         return this;
     }
 
@@ -316,6 +316,7 @@ public class Indexes {
         } else {
             newEntry = cachedEntries[0];
             newEntry.init(serializationService, entryToStore.getKeyData(), entryToStore.getTargetObject(false), extractors);
+            newEntry.setMetadata(entryToStore.getMetadata());
         }
 
         CachedQueryEntry oldEntry;
@@ -164,6 +164,64 @@ public final class Bitmap<E> {
         return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
     }
 
+    /**
+     * Counts the entries matching the given predicate while converting the
+     * predicate arguments using the given converter. Only the bit sets are
+     * consulted, the entries themselves are not visited.
+     * <p>
+     * The same predicates as for {@link #evaluate} are supported.
+     *
+     * @param predicate the predicate to evaluate.
+     * @param converter the converter to use for the predicate arguments
+     *                  conversion.
+     * @return the number of entries matching the given predicate.
+     */
+    public long count(Predicate predicate, TypeConverter converter) {
+        return BitmapAlgorithms.count(predicateIterator(predicate, converter));
+    }
+
+    /**
+     * Counts the entries per distinct attribute value, optionally restricted
+     * to the entries matching the given predicate. Only the bit sets are
+     * consulted, the entries themselves are not visited: the predicate is
+     * evaluated once and intersected with the bit set of each value.
+     * <p>
+     * The size of the returned map is the number of distinct attribute values
+     * of the counted entries. An entry having multiple values is counted once
+     * for each of them.
+     *
+     * @param predicate the predicate to evaluate or {@code null} to count all
+     *                  the entries.
+     * @param converter the converter to use for the predicate arguments
+     *                  conversion.
+     * @return the map from the attribute values to the number of entries
+     * having them, values without any counted entry are not included.
+     */
+    public Map<Object, Long> countByValue(Predicate predicate, TypeConverter converter) {
+        SparseBitSet matching = null;
+        if (predicate != null) {
+            matching = new SparseBitSet();
+            AscendingLongIterator iterator = predicateIterator(predicate, converter);
+            for (long member = iterator.advance(); member != AscendingLongIterator.END; member = iterator.advance()) {
+                matching.add(member);
+            }
+        }
+
+        Map<Object, Long> counts = new HashMap<>();
+        for (Map.Entry<Object, SparseBitSet> entry : bitSets.entrySet()) {
+            AscendingLongIterator iterator = entry.getValue().iterator();
+            if (matching != null) {
+                iterator = BitmapAlgorithms.and(new AscendingLongIterator[]{iterator, matching.iterator()});
+            }
+
+            long count = BitmapAlgorithms.count(iterator);
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     private AscendingLongIterator predicateIterator(Predicate predicate, TypeConverter converter) {
         if (predicate instanceof AndPredicate) {
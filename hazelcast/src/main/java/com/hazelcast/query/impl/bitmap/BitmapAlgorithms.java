@@ -53,6 +53,19 @@ final class BitmapAlgorithms {
         return new NotIterator(iterator, universe);
     }
 
+    /**
+     * Exhausts the given iterator.
+     *
+     * @return the number of indexes the given iterator was positioned at.
+     */
+    public static long count(AscendingLongIterator iterator) {
+        long count = 0;
+        while (iterator.advance() != AscendingLongIterator.END) {
+            ++count;
+        }
+        return count;
+    }
+
     private static final class AndIterator implements AscendingLongIterator {
 
         // The idea: order iterators by their current index; if the index of the
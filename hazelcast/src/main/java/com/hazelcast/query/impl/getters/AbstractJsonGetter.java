@@ -29,6 +29,7 @@ import com.hazelcast.json.internal.JsonSchemaHelper;
 import com.hazelcast.json.internal.JsonSchemaNode;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
@@ -171,7 +172,7 @@ public abstract class AbstractJsonGetter extends Getter {
         pathCursor.reset();
         if (knownPattern != null) {
             if (knownPattern.hasAny()) {
-                return getValue(obj, attributePath);
+                return getMultiValue(obj, attributePath, adapter, schemaNode, knownPattern, pathCursor);
             }
             queryContext.addOrVoteForPattern(knownPattern);
             return convertFromJsonValue(JsonSchemaHelper.findValueWithPattern(adapter, schemaNode, knownPattern, pathCursor));
@@ -179,6 +180,24 @@ public abstract class AbstractJsonGetter extends Getter {
         return null;
     }
 
+    /**
+     * Collects the values matching a path with "any" using the schema,
+     * falls back to parsing the object if the schema can't tell.
+     */
+    private Object getMultiValue(Object obj, String attributePath, NavigableJsonInputAdapter adapter,
+                                 JsonSchemaNode schemaNode, JsonPattern anyPattern,
+                                 JsonPathCursor pathCursor) throws IOException {
+        List<JsonValue> values = JsonSchemaHelper.findValuesWithAnyPattern(adapter, schemaNode, anyPattern, pathCursor);
+        if (values == null) {
+            return getValue(obj, attributePath);
+        }
+        MultiResult<Object> multiResult = new MultiResult<>(new ArrayList<>(values.size()));
+        for (JsonValue value : values) {
+            multiResult.add(convertFromJsonValue(value));
+        }
+        return multiResult;
+    }
+
     @Override
     Class getReturnType() {
         throw new IllegalArgumentException("Non applicable for Json getters");
@@ -18,8 +18,10 @@ package com.hazelcast.query.impl.getters;
 
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DataFieldReader;
 import com.hazelcast.internal.serialization.impl.GenericRecordQueryReader;
 import com.hazelcast.internal.serialization.impl.InternalGenericRecord;
+import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
 import com.hazelcast.internal.serialization.impl.portable.PortableGenericRecord;
 
 final class PortableGetter extends Getter {
@@ -36,6 +38,13 @@ final class PortableGetter extends Getter {
         if (target instanceof PortableGenericRecord) {
             record = (InternalGenericRecord) target;
         } else {
+            if (serializationService instanceof SerializationServiceV1) {
+                // read top-level primitive fields without creating a record
+                Object value = ((SerializationServiceV1) serializationService).readFieldFromData((Data) target, fieldPath);
+                if (value != DataFieldReader.NOT_READ) {
+                    return value;
+                }
+            }
             record = serializationService.readAsInternalGenericRecord((Data) target);
         }
         GenericRecordQueryReader reader = new GenericRecordQueryReader(record);
@@ -21,14 +21,16 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.replicatedmap.impl.ReplicatedMapService;
 import com.hazelcast.replicatedmap.impl.record.AbstractReplicatedRecordStore;
-import com.hazelcast.replicatedmap.impl.record.InternalReplicatedMapStorage;
 import com.hazelcast.replicatedmap.impl.record.RecordMigrationInfo;
+import com.hazelcast.replicatedmap.impl.record.ReplicatedMapStorage;
 import com.hazelcast.replicatedmap.impl.record.ReplicatedRecord;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
 
 /**
@@ -61,7 +63,8 @@ public class SyncReplicatedMapDataOperation<K, V> extends AbstractSerializableOp
         ReplicatedMapService service = getService();
         AbstractReplicatedRecordStore store
                 = (AbstractReplicatedRecordStore) service.getReplicatedRecordStore(name, true, getPartitionId());
-        InternalReplicatedMapStorage<K, V> newStorage = new InternalReplicatedMapStorage<>();
+        ReplicatedMapStorage<K, V> newStorage = store.createStorage();
+        Map<K, ReplicatedRecord<K, V>> newRecords = createHashMap(recordSet.size());
         for (RecordMigrationInfo record : recordSet) {
             K key = (K) store.marshall(record.getKey());
             V value = (V) store.marshall(record.getValue());
@@ -70,14 +73,15 @@ public class SyncReplicatedMapDataOperation<K, V> extends AbstractSerializableOp
             if (oldRecord != null) {
                 replicatedRecord.setHits(oldRecord.getHits());
             }
-            newStorage.put(key, replicatedRecord);
+            newRecords.put(key, replicatedRecord);
             if (record.getTtl() > 0) {
                 store.scheduleTtlEntry(record.getTtl(), key, value);
             }
         }
 
+        newStorage.putAll(newRecords);
         newStorage.syncVersion(version);
-        AtomicReference<InternalReplicatedMapStorage<K, V>> storageRef = store.getStorageRef();
+        AtomicReference<ReplicatedMapStorage<K, V>> storageRef = store.getStorageRef();
         storageRef.set(newStorage);
         store.setLoaded(true);
     }
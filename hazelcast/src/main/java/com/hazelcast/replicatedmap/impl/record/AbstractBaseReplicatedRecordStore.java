@@ -35,6 +35,8 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.spi.properties.ClusterProperty.REPLICATED_MAP_COPY_ON_WRITE_STORAGE_ENABLED;
+
 /**
  * Internal base class to encapsulate the internals from the interface methods of ReplicatedRecordStore
  *
@@ -52,8 +54,9 @@ public abstract class AbstractBaseReplicatedRecordStore<K, V> implements Replica
     protected final ReplicatedMapConfig replicatedMapConfig;
     protected final SerializationService serializationService;
     protected final ReplicatedMapService replicatedMapService;
-    protected final AtomicReference<InternalReplicatedMapStorage<K, V>> storageRef;
+    protected final AtomicReference<ReplicatedMapStorage<K, V>> storageRef;
     protected final AtomicBoolean isLoaded = new AtomicBoolean(false);
+    protected final boolean copyOnWriteStorage;
 
     private final EntryTaskScheduler<Object, Object> ttlEvictionScheduler;
 
@@ -66,21 +69,29 @@ public abstract class AbstractBaseReplicatedRecordStore<K, V> implements Replica
         this.eventService = nodeEngine.getEventService();
         this.replicatedMapService = replicatedMapService;
         this.replicatedMapConfig = replicatedMapService.getReplicatedMapConfig(name);
+        this.copyOnWriteStorage = nodeEngine.getProperties().getBoolean(REPLICATED_MAP_COPY_ON_WRITE_STORAGE_ENABLED);
         this.storageRef = new AtomicReference<>();
-        this.storageRef.set(new InternalReplicatedMapStorage<>());
+        this.storageRef.set(createStorage());
         this.ttlEvictionScheduler = EntryTaskSchedulerFactory
                 .newScheduler(nodeEngine.getExecutionService().getGlobalTaskScheduler(),
                         new ReplicatedMapEvictionProcessor(this, nodeEngine, partitionId), ScheduleType.POSTPONE);
     }
 
-    public InternalReplicatedMapStorage<K, V> getStorage() {
+    public ReplicatedMapStorage<K, V> getStorage() {
         return storageRef.get();
     }
 
-    public AtomicReference<InternalReplicatedMapStorage<K, V>> getStorageRef() {
+    public AtomicReference<ReplicatedMapStorage<K, V>> getStorageRef() {
         return storageRef;
     }
 
+    /**
+     * Creates an empty storage of the type configured for this record store.
+     */
+    public ReplicatedMapStorage<K, V> createStorage() {
+        return copyOnWriteStorage ? new CopyOnWriteReplicatedMapStorage<>() : new InternalReplicatedMapStorage<>();
+    }
+
     // only used for testing purposes
     public EntryTaskScheduler getTtlEvictionScheduler() {
         return ttlEvictionScheduler;
@@ -102,15 +113,15 @@ public abstract class AbstractBaseReplicatedRecordStore<K, V> implements Replica
 
     @Override
     public void destroy() {
-        InternalReplicatedMapStorage storage = storageRef.getAndSet(new InternalReplicatedMapStorage<>());
+        ReplicatedMapStorage storage = storageRef.getAndSet(createStorage());
         if (storage != null) {
             storage.clear();
         }
         ttlEvictionScheduler.cancelAll();
     }
 
-    protected InternalReplicatedMapStorage<K, V> clearInternal() {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+    protected ReplicatedMapStorage<K, V> clearInternal() {
+        ReplicatedMapStorage<K, V> storage = getStorage();
         storage.clear();
         getStats().incrementOtherOperations();
         ttlEvictionScheduler.cancelAll();
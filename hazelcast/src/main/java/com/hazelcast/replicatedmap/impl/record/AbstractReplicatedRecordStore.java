@@ -41,6 +41,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.core.EntryEventType.EVICTED;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.Preconditions.isNotNull;
 import static com.hazelcast.replicatedmap.impl.ReplicatedMapService.SERVICE_NAME;
 import static com.hazelcast.spi.impl.merge.MergingValueFactory.createMergingEntry;
@@ -59,7 +60,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
 
     @Override
     public Object remove(Object key) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         Object old = remove(storage, key);
         storage.incrementVersion();
         return old;
@@ -67,14 +68,14 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
 
     @Override
     public Object removeWithVersion(Object key, long version) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         Object old = remove(storage, key);
         storage.setVersion(version);
         return old;
     }
 
     @SuppressWarnings("unchecked")
-    private Object remove(InternalReplicatedMapStorage<K, V> storage, Object key) {
+    private Object remove(ReplicatedMapStorage<K, V> storage, Object key) {
         isNotNull(key, "key");
         long startNanos = Timer.nanos();
         V oldValue;
@@ -100,7 +101,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
         long startNanos = Timer.nanos();
         V oldValue;
         K marshalledKey = (K) marshall(key);
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         ReplicatedRecord<K, V> current = storage.get(marshalledKey);
         if (current == null) {
             oldValue = null;
@@ -129,7 +130,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
             replicatedRecord = null;
         }
 
-        Object value = replicatedRecord == null ? null : unmarshall(replicatedRecord.getValue());
+        Object value = replicatedRecord == null ? null : unmarshall(readValue(replicatedRecord));
         if (replicatedMapConfig.isStatisticsEnabled()) {
             getStats().incrementGetsNanos(Timer.nanosElapsed(startNanos));
         }
@@ -145,7 +146,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
 
     @Override
     public Object put(Object key, Object value, long ttl, TimeUnit timeUnit, boolean incrementHits) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         Object old = put(storage, key, value, ttl, timeUnit, incrementHits);
         storage.incrementVersion();
         return old;
@@ -153,14 +154,14 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
 
     @Override
     public Object putWithVersion(Object key, Object value, long ttl, TimeUnit timeUnit, boolean incrementHits, long version) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         Object old = put(storage, key, value, ttl, timeUnit, incrementHits);
         storage.setVersion(version);
         return old;
     }
 
     @SuppressWarnings("unchecked")
-    private Object put(InternalReplicatedMapStorage<K, V> storage, Object key, Object value,
+    private Object put(ReplicatedMapStorage<K, V> storage, Object key, Object value,
                        long ttl, TimeUnit timeUnit, boolean incrementHits) {
         isNotNull(key, "key");
         isNotNull(value, "value");
@@ -208,7 +209,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
     // IMPORTANT >> Increments hit counter
     private boolean containsKeyAndValue(Object key) {
         ReplicatedRecord<K, V> replicatedRecord = getStorage().get(marshall(key));
-        return replicatedRecord != null && replicatedRecord.getValue() != null;
+        return replicatedRecord != null && readValue(replicatedRecord) != null;
     }
 
     @Override
@@ -217,7 +218,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
         getStats().incrementOtherOperations();
         Object v = unmarshall(value);
         for (Map.Entry<K, ReplicatedRecord<K, V>> entry : getStorage().entrySet()) {
-            V entryValue = entry.getValue().getValue();
+            V entryValue = readValue(entry.getValue());
             if (v == entryValue || (entryValue != null && unmarshall(entryValue).equals(v))) {
                 return true;
             }
@@ -249,10 +250,10 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
 
     @Override
     public Collection values(Comparator comparator) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         List<Object> values = new ArrayList<>(storage.size());
         for (ReplicatedRecord<K, V> record : storage.values()) {
-            values.add(unmarshall(record.getValue()));
+            values.add(unmarshall(readValue(record)));
         }
         getStats().incrementOtherOperations();
         return values;
@@ -308,15 +309,17 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
     }
 
     public void putRecords(Collection<RecordMigrationInfo> records, long version) {
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
+        Map<K, ReplicatedRecord<K, V>> newRecords = createHashMap(records.size());
         for (RecordMigrationInfo record : records) {
-            putRecord(storage, record);
+            putRecord(newRecords, record);
         }
+        storage.putAll(newRecords);
         storage.syncVersion(version);
     }
 
     @SuppressWarnings("unchecked")
-    private void putRecord(InternalReplicatedMapStorage<K, V> storage, RecordMigrationInfo record) {
+    private void putRecord(Map<K, ReplicatedRecord<K, V>> newRecords, RecordMigrationInfo record) {
         K key = (K) marshall(record.getKey());
         V value = (V) marshall(record.getValue());
         ReplicatedRecord<K, V> newRecord = buildReplicatedRecord(key, value, record.getTtl());
@@ -324,12 +327,20 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
         newRecord.setCreationTime(record.getCreationTime());
         newRecord.setLastAccessTime(record.getLastAccessTime());
         newRecord.setUpdateTime(record.getLastUpdateTime());
-        storage.put(key, newRecord);
+        newRecords.put(key, newRecord);
         if (record.getTtl() > 0) {
             scheduleTtlEntry(record.getTtl(), key, value);
         }
     }
 
+    /**
+     * Returns the value of the record. Unless the copy-on-write storage is
+     * used, this also updates the access statistics of the record.
+     */
+    private V readValue(ReplicatedRecord<K, V> record) {
+        return copyOnWriteStorage ? record.getValueInternal() : record.getValue();
+    }
+
     private ReplicatedRecord<K, V> buildReplicatedRecord(K key, V value, long ttlMillis) {
         return new ReplicatedRecord<>(key, value, ttlMillis);
     }
@@ -344,7 +355,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
             serializationService.getManagedContext().initialize(mergePolicy);
 
         K marshalledKey = (K) marshall(mergingEntry.getRawKey());
-        InternalReplicatedMapStorage<K, V> storage = getStorage();
+        ReplicatedMapStorage<K, V> storage = getStorage();
         ReplicatedRecord<K, V> record = storage.get(marshalledKey);
         if (record == null) {
             V newValue = (V) mergePolicy.merge(mergingEntry, null);
@@ -426,7 +437,7 @@ public abstract class AbstractReplicatedRecordStore<K, V> extends AbstractBaseRe
                 entry = findNextEntry();
                 Object key = entry.getKey();
                 record = entry.getValue();
-                Object value = record != null ? record.getValue() : null;
+                Object value = record != null ? readValue(record) : null;
                 if (key != null && value != null) {
                     break;
                 }
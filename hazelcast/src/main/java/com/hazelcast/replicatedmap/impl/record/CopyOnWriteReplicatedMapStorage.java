@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.replicatedmap.impl.record;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Read-optimized {@link ReplicatedMapStorage} which keeps its records in an immutable
+ * snapshot. Reads never write to shared state.
+ * <p>
+ * Updates are not copied into the snapshot one by one. They are buffered in a small map of
+ * pending writes, where a removal is kept as a {@link #REMOVED} marker, and a lookup checks
+ * that map before the snapshot while it is not empty. Once {@value #PUBLISH_BATCH_SIZE}
+ * writes are pending, the snapshot is copied once with all of them applied and published.
+ * Bulk updates via {@link #putAll(Map)} are applied with a single copy as well.
+ * <p>
+ * Meant for read-mostly replicated maps, since the cost of publishing grows with the size of
+ * the storage. The views returned by {@link #entrySet()}, {@link #keySet()} and
+ * {@link #values()} publish the pending writes first and are stable snapshots, which are not
+ * modifiable.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class CopyOnWriteReplicatedMapStorage<K, V> extends ReplicatedMapStorage<K, V> {
+
+    static final int PUBLISH_BATCH_SIZE = 64;
+
+    private static final Object REMOVED = new Object();
+
+    private final Object mutex = new Object();
+
+    /**
+     * Writes not yet applied to the {@link #snapshot}. Only updated under the
+     * {@link #mutex}, entries are removed only after the snapshot containing
+     * them is published.
+     */
+    private final ConcurrentMap<Object, Object> pending = new ConcurrentHashMap<>();
+
+    private volatile Map<K, ReplicatedRecord<K, V>> snapshot = emptyMap();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ReplicatedRecord<K, V> get(Object key) {
+        if (!pending.isEmpty()) {
+            Object pendingRecord = pending.get(key);
+            if (pendingRecord != null) {
+                return pendingRecord == REMOVED ? null : (ReplicatedRecord<K, V>) pendingRecord;
+            }
+        }
+        return snapshot.get(key);
+    }
+
+    @Override
+    public ReplicatedRecord<K, V> put(K key, ReplicatedRecord<K, V> replicatedRecord) {
+        synchronized (mutex) {
+            ReplicatedRecord<K, V> oldRecord = get(key);
+            addPending(key, replicatedRecord);
+            return oldRecord;
+        }
+    }
+
+    @Override
+    public void putAll(Map<K, ReplicatedRecord<K, V>> replicatedRecords) {
+        if (replicatedRecords.isEmpty()) {
+            return;
+        }
+        synchronized (mutex) {
+            Map<K, ReplicatedRecord<K, V>> copy = copyWithPending();
+            copy.putAll(replicatedRecords);
+            publish(copy);
+        }
+    }
+
+    @Override
+    public boolean remove(K key, ReplicatedRecord<K, V> replicatedRecord) {
+        synchronized (mutex) {
+            ReplicatedRecord<K, V> existingRecord = get(key);
+            if (existingRecord == null || !existingRecord.equals(replicatedRecord)) {
+                return false;
+            }
+            addPending(key, REMOVED);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Map.Entry<K, ReplicatedRecord<K, V>>> entrySet() {
+        return publishedSnapshot().entrySet();
+    }
+
+    @Override
+    public Collection<ReplicatedRecord<K, V>> values() {
+        return publishedSnapshot().values();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return publishedSnapshot().keySet();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (mutex) {
+            snapshot = emptyMap();
+            pending.clear();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return publishedSnapshot().isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return publishedSnapshot().size();
+    }
+
+    // only used for testing purposes
+    int pendingWriteCount() {
+        return pending.size();
+    }
+
+    private void addPending(K key, Object pendingRecord) {
+        pending.put(key, pendingRecord);
+        if (pending.size() >= PUBLISH_BATCH_SIZE) {
+            publish(copyWithPending());
+        }
+    }
+
+    /**
+     * Returns the snapshot after publishing the pending writes, if there are any.
+     */
+    private Map<K, ReplicatedRecord<K, V>> publishedSnapshot() {
+        if (!pending.isEmpty()) {
+            synchronized (mutex) {
+                if (!pending.isEmpty()) {
+                    publish(copyWithPending());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<K, ReplicatedRecord<K, V>> copyWithPending() {
+        Map<K, ReplicatedRecord<K, V>> copy = new HashMap<>(snapshot);
+        for (Map.Entry<Object, Object> entry : pending.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                copy.remove(entry.getKey());
+            } else {
+                copy.put((K) entry.getKey(), (ReplicatedRecord<K, V>) entry.getValue());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Publishes the given copy, which must contain all pending writes. They are
+     * cleared only after the new snapshot is visible, so that a concurrent lookup
+     * which misses them in the pending map finds them in the snapshot.
+     */
+    private void publish(Map<K, ReplicatedRecord<K, V>> copy) {
+        snapshot = unmodifiableMap(copy);
+        pending.clear();
+    }
+}
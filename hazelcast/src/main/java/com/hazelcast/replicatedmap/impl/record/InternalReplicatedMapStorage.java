@@ -29,79 +29,66 @@ import java.util.concurrent.ConcurrentMap;
  * @param <K> key type
  * @param <V> value type
  */
-public class InternalReplicatedMapStorage<K, V> {
+public class InternalReplicatedMapStorage<K, V> extends ReplicatedMapStorage<K, V> {
 
     private final ConcurrentMap<K, ReplicatedRecord<K, V>> storage =
             new ConcurrentHashMap<>(1000, 0.75f, 1);
 
-    private long version;
-
-    private boolean stale;
-
     public InternalReplicatedMapStorage() {
     }
 
-    public long getVersion() {
-        return version;
-    }
-
-    public void syncVersion(long version) {
-        this.stale = false;
-        this.version = version;
-    }
-
-    public void setVersion(long version) {
-        if (!stale) {
-            stale = (version != (this.version + 1));
-        }
-        this.version = version;
-    }
-
-    public long incrementVersion() {
-        return version++;
-    }
-
+    @Override
     public ReplicatedRecord<K, V> get(Object key) {
         return storage.get(key);
     }
 
+    @Override
     public ReplicatedRecord<K, V> put(K key, ReplicatedRecord<K, V> replicatedRecord) {
         return storage.put(key, replicatedRecord);
     }
 
+    @Override
+    public void putAll(Map<K, ReplicatedRecord<K, V>> replicatedRecords) {
+        storage.putAll(replicatedRecords);
+    }
+
+    @Override
     public boolean remove(K key, ReplicatedRecord<K, V> replicatedRecord) {
         return storage.remove(key, replicatedRecord);
     }
 
+    @Override
     public boolean containsKey(Object key) {
         return storage.containsKey(key);
     }
 
+    @Override
     public Set<Map.Entry<K, ReplicatedRecord<K, V>>> entrySet() {
         return storage.entrySet();
     }
 
+    @Override
     public Collection<ReplicatedRecord<K, V>> values() {
         return storage.values();
     }
 
+    @Override
     public Set<K> keySet() {
         return storage.keySet();
     }
 
+    @Override
     public void clear() {
         storage.clear();
     }
 
+    @Override
     public boolean isEmpty() {
         return storage.isEmpty();
     }
 
+    @Override
     public int size() {
         return storage.size();
     }
-
-    public boolean isStale(long version) {
-        return stale || version > this.version;
-    }
 }
@@ -27,11 +27,11 @@ import java.util.Map.Entry;
 
 class LazyCollection<K, V> implements Collection<V> {
 
-    private final InternalReplicatedMapStorage<K, V> storage;
+    private final ReplicatedMapStorage<K, V> storage;
     private final IteratorFactory<K, V, V> iteratorFactory;
     private final Collection<ReplicatedRecord<K, V>> values;
 
-    LazyCollection(IteratorFactory<K, V, V> iteratorFactory, InternalReplicatedMapStorage<K, V> storage) {
+    LazyCollection(IteratorFactory<K, V, V> iteratorFactory, ReplicatedMapStorage<K, V> storage) {
         this.iteratorFactory = iteratorFactory;
         this.values = storage.values();
         this.storage = storage;
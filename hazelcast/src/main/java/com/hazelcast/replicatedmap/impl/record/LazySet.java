@@ -26,10 +26,10 @@ import java.util.Set;
 
 class LazySet<K, V, R> implements Set<R> {
 
-    private final InternalReplicatedMapStorage<K, V> storage;
+    private final ReplicatedMapStorage<K, V> storage;
     private final IteratorFactory<K, V, R> iteratorFactory;
 
-    LazySet(IteratorFactory<K, V, R> iteratorFactory, InternalReplicatedMapStorage<K, V> storage) {
+    LazySet(IteratorFactory<K, V, R> iteratorFactory, ReplicatedMapStorage<K, V> storage) {
         this.iteratorFactory = iteratorFactory;
         this.storage = storage;
     }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.replicatedmap.impl.record;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the record storages of a replicated map partition. Keeps
+ * the replication version of the storage, the records are kept by the
+ * subclasses.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @see InternalReplicatedMapStorage
+ * @see CopyOnWriteReplicatedMapStorage
+ */
+public abstract class ReplicatedMapStorage<K, V> {
+
+    private long version;
+
+    private boolean stale;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void syncVersion(long version) {
+        this.stale = false;
+        this.version = version;
+    }
+
+    public void setVersion(long version) {
+        if (!stale) {
+            stale = (version != (this.version + 1));
+        }
+        this.version = version;
+    }
+
+    public long incrementVersion() {
+        return version++;
+    }
+
+    public boolean isStale(long version) {
+        return stale || version > this.version;
+    }
+
+    public abstract ReplicatedRecord<K, V> get(Object key);
+
+    public abstract ReplicatedRecord<K, V> put(K key, ReplicatedRecord<K, V> replicatedRecord);
+
+    public abstract void putAll(Map<K, ReplicatedRecord<K, V>> replicatedRecords);
+
+    public abstract boolean remove(K key, ReplicatedRecord<K, V> replicatedRecord);
+
+    public abstract boolean containsKey(Object key);
+
+    public abstract Set<Map.Entry<K, ReplicatedRecord<K, V>>> entrySet();
+
+    public abstract Collection<ReplicatedRecord<K, V>> values();
+
+    public abstract Set<K> keySet();
+
+    public abstract void clear();
+
+    public abstract boolean isEmpty();
+
+    public abstract int size();
+}
@@ -88,7 +88,7 @@ public interface ReplicatedRecordStore {
 
     void putRecords(Collection<RecordMigrationInfo> records, long version);
 
-    InternalReplicatedMapStorage getStorage();
+    ReplicatedMapStorage getStorage();
 
     ScheduledEntry<Object, Object> cancelTtlEntry(Object key);
 
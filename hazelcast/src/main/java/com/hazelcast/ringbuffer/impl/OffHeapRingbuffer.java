@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+
+/**
+ * A {@link Ringbuffer} for serialized items which keeps the item bytes in a
+ * single memory block outside of the Java heap instead of one
+ * {@link HeapData} per slot.
+ * <p>
+ * Items are appended to the block and each slot only records the offset and
+ * length of its item, so an item costs no heap objects while it is stored.
+ * Overwritten and evicted items leave garbage behind in the block. When the
+ * block runs out of space, the live items are moved to its start in place
+ * and the block is only reallocated if they still don't leave enough room,
+ * or if they use a small part of it. Items which don't fit into the memory
+ * budget of the {@link MemoryManager} are kept on-heap.
+ * <p>
+ * The block is freed by {@link #dispose()}, which the owner has to call when
+ * it drops the ringbuffer. Reading an item copies its bytes into a new
+ * {@link HeapData}.
+ * <p>
+ * Like {@link ArrayRingbuffer}, this class is not thread-safe and relies on
+ * the partition thread for exclusive access.
+ */
+public class OffHeapRingbuffer implements Ringbuffer<Data> {
+
+    static final int INITIAL_REGION_SIZE = 4096;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int ON_HEAP_LENGTH = -2;
+    private static final int MAX_REGION_SIZE = Integer.MAX_VALUE - 8;
+    private static final int COPY_CHUNK_SIZE = 4096;
+    private static final int SHRINK_FACTOR = 4;
+
+    private final int capacity;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private Data[] heapItems;
+    private long address;
+    private int regionSize;
+    private int writeOffset;
+    private long tailSequence = -1;
+    private long headSequence = tailSequence + 1;
+
+    /**
+     * @throws NativeOutOfMemoryError if the initial block doesn't fit into
+     *                                the budget of the memory manager
+     */
+    public OffHeapRingbuffer(int capacity, MemoryManager memoryManager) {
+        this.capacity = capacity;
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        Arrays.fill(lengths, NULL_LENGTH);
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.address = malloc.allocate(INITIAL_REGION_SIZE);
+        this.regionSize = INITIAL_REGION_SIZE;
+    }
+
+    /**
+     * Creates an off-heap ringbuffer with the same capacity, sequences and
+     * items as the given ringbuffer.
+     *
+     * @throws NativeOutOfMemoryError if the initial block doesn't fit into
+     *                                the budget of the memory manager
+     */
+    public static OffHeapRingbuffer copyOf(Ringbuffer<Data> ringbuffer, MemoryManager memoryManager) {
+        OffHeapRingbuffer copy = new OffHeapRingbuffer((int) ringbuffer.getCapacity(), memoryManager);
+        copy.tailSequence = ringbuffer.tailSequence();
+        copy.headSequence = ringbuffer.headSequence();
+        for (long seq = copy.headSequence; seq <= copy.tailSequence; seq++) {
+            copy.set(seq, ringbuffer.read(seq));
+        }
+        return copy;
+    }
+
+    @Override
+    public long tailSequence() {
+        return tailSequence;
+    }
+
+    @Override
+    public long peekNextTailSequence() {
+        return tailSequence + 1;
+    }
+
+    @Override
+    public void setTailSequence(long sequence) {
+        this.tailSequence = sequence;
+    }
+
+    @Override
+    public long headSequence() {
+        return headSequence;
+    }
+
+    @Override
+    public void setHeadSequence(long sequence) {
+        this.headSequence = sequence;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long size() {
+        return tailSequence - headSequence + 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public long add(Data item) {
+        tailSequence++;
+
+        if (tailSequence - capacity == headSequence) {
+            headSequence++;
+        }
+
+        write(toIndex(tailSequence), item);
+
+        return tailSequence;
+    }
+
+    @Override
+    public Data read(long sequence) {
+        checkReadSequence(sequence);
+        return readSlot(toIndex(sequence));
+    }
+
+    @Override
+    public void checkBlockableReadSequence(long readSequence) {
+        if (readSequence > tailSequence + 1) {
+            throw new IllegalArgumentException("sequence:" + readSequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (readSequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + readSequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void checkReadSequence(long sequence) {
+        if (sequence > tailSequence) {
+            throw new IllegalArgumentException("sequence:" + sequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (sequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + sequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void set(long seq, Data data) {
+        write(toIndex(seq), data);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(lengths, NULL_LENGTH);
+        heapItems = null;
+        if (regionSize > INITIAL_REGION_SIZE) {
+            address = malloc.reallocate(address, regionSize, INITIAL_REGION_SIZE);
+            regionSize = INITIAL_REGION_SIZE;
+        }
+        writeOffset = 0;
+        tailSequence = -1;
+        headSequence = tailSequence + 1;
+    }
+
+    /**
+     * Frees the memory block holding the item bytes. The ringbuffer must not
+     * be used afterwards.
+     */
+    public void dispose() {
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        malloc.free(address, regionSize);
+        address = NULL_ADDRESS;
+        regionSize = 0;
+        writeOffset = 0;
+        Arrays.fill(lengths, NULL_LENGTH);
+        heapItems = null;
+    }
+
+    @Override
+    public Iterator<Data> iterator() {
+        return new ReadOnlyRingbufferIterator<>(this);
+    }
+
+    /**
+     * Returns a copy of the items in their ring slots. Unlike with the
+     * {@link ArrayRingbuffer}, changes to the returned array are not
+     * reflected in the ringbuffer.
+     */
+    @Override
+    public Data[] getItems() {
+        Data[] items = new Data[capacity];
+        for (long seq = headSequence; seq <= tailSequence; seq++) {
+            int index = toIndex(seq);
+            items[index] = readSlot(index);
+        }
+        return items;
+    }
+
+    /**
+     * Returns the size of the memory block holding the item bytes.
+     */
+    int regionSize() {
+        return regionSize;
+    }
+
+    private int toIndex(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private Data readSlot(int index) {
+        int length = lengths[index];
+        if (length == NULL_LENGTH) {
+            return null;
+        } else if (length == ON_HEAP_LENGTH) {
+            return heapItems[index];
+        }
+        byte[] bytes = new byte[length];
+        mem.copyToByteArray(address + offsets[index], bytes, 0, length);
+        return new HeapData(bytes);
+    }
+
+    private void write(int index, Data item) {
+        if (address == NULL_ADDRESS) {
+            throw new IllegalStateException("Ringbuffer has already been disposed");
+        }
+        // drop the old item first so the compaction does not move it
+        clearSlot(index);
+        if (item == null) {
+            return;
+        }
+        byte[] bytes = item.toByteArray();
+        if (bytes == null) {
+            bytes = new byte[0];
+        }
+        if (regionSize - writeOffset < bytes.length && !makeRoom(bytes.length)) {
+            // the member-wide off-heap budget is used up, keep the item on-heap
+            if (heapItems == null) {
+                heapItems = new Data[capacity];
+            }
+            heapItems[index] = item;
+            lengths[index] = ON_HEAP_LENGTH;
+            return;
+        }
+        mem.copyFromByteArray(bytes, 0, address + writeOffset, bytes.length);
+        offsets[index] = writeOffset;
+        lengths[index] = bytes.length;
+        writeOffset += bytes.length;
+    }
+
+    private void clearSlot(int index) {
+        if (lengths[index] == ON_HEAP_LENGTH) {
+            heapItems[index] = null;
+        }
+        lengths[index] = NULL_LENGTH;
+    }
+
+    /**
+     * Compacts the live items and resizes the block if needed, so that
+     * {@code extraBytes} more bytes can be appended.
+     *
+     * @return {@code false} if the block could not be grown within the
+     * budget of the memory manager
+     */
+    private boolean makeRoom(int extraBytes) {
+        compact();
+        long required = (long) writeOffset + extraBytes;
+        if (required > MAX_REGION_SIZE) {
+            return false;
+        }
+        int newSize = (int) Math.min(MAX_REGION_SIZE, Math.max(INITIAL_REGION_SIZE, required + required / 2));
+        if (required > regionSize || newSize * SHRINK_FACTOR < regionSize) {
+            try {
+                address = malloc.reallocate(address, regionSize, newSize);
+                regionSize = newSize;
+            } catch (NativeOutOfMemoryError e) {
+                return required <= regionSize;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the off-heap items between the head and the tail to the start
+     * of the block, keeping their order. Slots outside of the head and the
+     * tail are cleared since their bytes are not kept.
+     */
+    private void compact() {
+        long[] liveSlots = new long[capacity];
+        int liveCount = 0;
+        boolean[] live = new boolean[capacity];
+        for (long seq = Math.max(headSequence, tailSequence - capacity + 1); seq <= tailSequence; seq++) {
+            live[toIndex(seq)] = true;
+        }
+        for (int index = 0; index < capacity; index++) {
+            if (!live[index]) {
+                clearSlot(index);
+            } else if (lengths[index] >= 0) {
+                // sort the slots by offset, so moving an item never overwrites one which is not moved yet
+                liveSlots[liveCount++] = ((long) offsets[index] << Integer.SIZE) | index;
+            }
+        }
+        Arrays.sort(liveSlots, 0, liveCount);
+
+        int newOffset = 0;
+        for (int i = 0; i < liveCount; i++) {
+            int index = (int) liveSlots[i];
+            if (offsets[index] != newOffset) {
+                move(offsets[index], newOffset, lengths[index]);
+                offsets[index] = newOffset;
+            }
+            newOffset += lengths[index];
+        }
+        writeOffset = newOffset;
+    }
+
+    private void move(int fromOffset, int toOffset, int length) {
+        if (fromOffset - toOffset >= length) {
+            mem.copyMemory(address + fromOffset, address + toOffset, length);
+            return;
+        }
+        // the old and the new range overlap, copy front to back through the heap
+        byte[] chunk = new byte[Math.min(COPY_CHUNK_SIZE, length)];
+        for (int copied = 0; copied < length; copied += chunk.length) {
+            int chunkLength = Math.min(chunk.length, length - copied);
+            mem.copyToByteArray(address + fromOffset + copied, chunk, 0, chunkLength);
+            mem.copyFromByteArray(chunk, 0, address + toOffset + copied, chunkLength);
+        }
+    }
+}
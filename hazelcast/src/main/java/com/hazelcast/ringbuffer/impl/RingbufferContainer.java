@@ -19,7 +19,9 @@ package com.hazelcast.ringbuffer.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.RingbufferConfig;
 import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.memory.NativeOutOfMemoryError;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
@@ -37,6 +39,7 @@ import java.io.IOException;
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.config.InMemoryFormat.values;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -133,14 +136,30 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
      * ringbuffer store and the config. This is because on a replication
      * operation the container is only partially constructed. The init method
      * finishes the configuration of the ring buffer container for further
-     * usage.
+     * usage. {@code BINARY} ringbuffers are moved to an
+     * {@link OffHeapRingbuffer} here if
+     * {@link com.hazelcast.spi.properties.ClusterProperty#RINGBUFFER_OFF_HEAP_STORAGE_ENABLED}
+     * is set and the member-wide off-heap budget allows it.
      *
      * @param config     the configuration of the ring buffer
      * @param nodeEngine the NodeEngine
      */
+    @SuppressWarnings("unchecked")
     public void init(RingbufferConfig config, NodeEngine nodeEngine) {
         this.config = config;
         this.serializationService = nodeEngine.getSerializationService();
+        if (inMemoryFormat == BINARY && ringbuffer instanceof ArrayRingbuffer) {
+            RingbufferService service = nodeEngine.getService(RingbufferService.SERVICE_NAME);
+            MemoryManager memoryManager = service.getOffHeapStorageMemoryManager();
+            if (memoryManager != null) {
+                try {
+                    ringbuffer = (Ringbuffer<E>) OffHeapRingbuffer.copyOf((Ringbuffer<Data>) ringbuffer, memoryManager);
+                } catch (NativeOutOfMemoryError e) {
+                    // the member-wide off-heap budget is used up, keep the items on-heap
+                    ignore(e);
+                }
+            }
+        }
         initRingbufferStore(nodeEngine.getConfigClassLoader());
     }
 
@@ -689,4 +708,14 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
             expirationPolicy.clear();
         }
     }
+
+    /**
+     * Releases the off-heap memory of the ringbuffer, if it has any. Called
+     * when the container is dropped, it must not be used afterwards.
+     */
+    public void dispose() {
+        if (ringbuffer instanceof OffHeapRingbuffer) {
+            ((OffHeapRingbuffer) ringbuffer).dispose();
+        }
+    }
 }
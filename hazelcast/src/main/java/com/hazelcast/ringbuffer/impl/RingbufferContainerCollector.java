@@ -51,11 +51,13 @@ class RingbufferContainerCollector extends AbstractContainerCollector<Ringbuffer
     @Override
     protected void destroy(RingbufferContainer container) {
         container.clear();
+        container.dispose();
     }
 
     @Override
     protected void destroyBackup(RingbufferContainer container) {
         container.clear();
+        container.dispose();
     }
 
     @Override
@@ -19,6 +19,7 @@ package com.hazelcast.ringbuffer.impl;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.RingbufferConfig;
 import com.hazelcast.core.DistributedObject;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -35,35 +36,49 @@ import com.hazelcast.internal.services.SplitBrainHandlerService;
 import com.hazelcast.internal.services.SplitBrainProtectionAwareService;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ContextMutexFactory;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.partition.strategy.StringPartitioningStrategy;
 import com.hazelcast.ringbuffer.impl.operations.MergeOperation;
 import com.hazelcast.ringbuffer.impl.operations.ReplicationOperation;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.merge.AbstractContainerMerger;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
 import com.hazelcast.spi.merge.RingbufferMergeData;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.RingbufferMergeTypes;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.splitbrainprotection.SplitBrainProtectionOn;
 import com.hazelcast.splitbrainprotection.SplitBrainProtectionService;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.internal.config.ConfigValidator.checkRingbufferConfig;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.RINGBUFFER_PREFIX_OFF_HEAP_STORAGE;
 import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutSynchronized;
 import static com.hazelcast.internal.util.MapUtil.isNullOrEmpty;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_OFF_HEAP_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_OFF_HEAP_STORAGE_MAX_SIZE_MB;
 
 /**
  * The SPI Service that deals with the {@link com.hazelcast.ringbuffer.Ringbuffer}.
@@ -83,6 +98,7 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
     public static final String SERVICE_NAME = "hz:impl:ringbufferService";
 
     private static final Object NULL_OBJECT = new Object();
+    private static final long DESTROY_TIMEOUT_SECONDS = 30;
 
     /**
      * Map from namespace to actual ringbuffer containers. The namespace
@@ -110,23 +126,49 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
                 }
             };
 
+    private final UnsafeMallocMemoryManager offHeapStorageMemoryManager;
+
     private NodeEngine nodeEngine;
+    private ILogger logger;
     private SerializationService serializationService;
     private IPartitionService partitionService;
     private SplitBrainProtectionService splitBrainProtectionService;
 
     public RingbufferService(NodeEngineImpl nodeEngine) {
         init(nodeEngine, null);
+        this.offHeapStorageMemoryManager = createOffHeapStorageMemoryManager(nodeEngine.getProperties());
+        if (offHeapStorageMemoryManager != null) {
+            nodeEngine.getMetricsRegistry()
+                    .registerStaticMetrics(offHeapStorageMemoryManager, RINGBUFFER_PREFIX_OFF_HEAP_STORAGE);
+        }
     }
 
     @Override
     public void init(NodeEngine nodeEngine, Properties properties) {
         this.nodeEngine = checkNotNull(nodeEngine, "nodeEngine can't be null");
+        this.logger = nodeEngine.getLogger(RingbufferService.class);
         this.serializationService = nodeEngine.getSerializationService();
         this.partitionService = nodeEngine.getPartitionService();
         this.splitBrainProtectionService = nodeEngine.getSplitBrainProtectionService();
     }
 
+    /**
+     * Returns the memory manager for the items of {@link OffHeapRingbuffer}s,
+     * or {@code null} if they are not enabled.
+     */
+    public UnsafeMallocMemoryManager getOffHeapStorageMemoryManager() {
+        return offHeapStorageMemoryManager;
+    }
+
+    private static UnsafeMallocMemoryManager createOffHeapStorageMemoryManager(HazelcastProperties properties) {
+        if (!properties.getBoolean(RINGBUFFER_OFF_HEAP_STORAGE_ENABLED) || !UnsafeMallocMemoryManager.isAvailable()) {
+            return null;
+        }
+        long maxSizeMb = checkPositive(RINGBUFFER_OFF_HEAP_STORAGE_MAX_SIZE_MB.getName(),
+                properties.getLong(RINGBUFFER_OFF_HEAP_STORAGE_MAX_SIZE_MB));
+        return new UnsafeMallocMemoryManager(MemoryUnit.MEGABYTES.toBytes(maxSizeMb));
+    }
+
     // just for testing
     public ConcurrentMap<Integer, Map<ObjectNamespace, RingbufferContainer>> getContainers() {
         return containers;
@@ -148,20 +190,84 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
     }
 
     public void destroyContainer(int partitionId, ObjectNamespace namespace) {
-        final Map<ObjectNamespace, RingbufferContainer> partitionContainers = containers.get(partitionId);
-        if (partitionContainers == null) {
+        if (!containers.containsKey(partitionId)) {
             return;
         }
-        partitionContainers.remove(namespace);
+        CountDownLatch done = new CountDownLatch(1);
+        runOnPartitionThread(partitionId, () -> {
+            Map<ObjectNamespace, RingbufferContainer> partitionContainers = containers.get(partitionId);
+            RingbufferContainer container = partitionContainers != null ? partitionContainers.remove(namespace) : null;
+            if (container != null) {
+                container.dispose();
+            }
+        }, done);
+        awaitDestroy(done);
     }
 
     @Override
     public void reset() {
-        containers.clear();
+        List<Integer> partitionIds = new ArrayList<>(containers.keySet());
+        CountDownLatch done = new CountDownLatch(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            runOnPartitionThread(partitionId, () -> {
+                Map<ObjectNamespace, RingbufferContainer> partitionContainers = containers.remove(partitionId);
+                if (partitionContainers != null) {
+                    partitionContainers.values().forEach(RingbufferContainer::dispose);
+                }
+            }, done);
+        }
+        awaitDestroy(done);
+    }
+
+    /**
+     * Runs the task on the thread of the partition, so that it does not race
+     * with operations using the containers of the partition. The memory of an
+     * {@link OffHeapRingbuffer} is only freed there. The task runs on the
+     * calling thread if it is the partition thread.
+     */
+    private void runOnPartitionThread(int partitionId, Runnable task, CountDownLatch done) {
+        Thread currentThread = Thread.currentThread();
+        OperationServiceImpl operationService = (OperationServiceImpl) nodeEngine.getOperationService();
+        if (currentThread instanceof PartitionOperationThread && ((PartitionOperationThread) currentThread).getThreadId()
+                == operationService.getOperationExecutor().getPartitionThreadId(partitionId)) {
+            try {
+                task.run();
+            } finally {
+                done.countDown();
+            }
+            return;
+        }
+        operationService.execute(new PartitionSpecificRunnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    done.countDown();
+                }
+            }
+
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+        });
+    }
+
+    private void awaitDestroy(CountDownLatch done) {
+        try {
+            if (!done.await(DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Ringbuffer containers were not destroyed in expected time, possible leak");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning(e);
+        }
     }
 
     @Override
     public void shutdown(boolean terminate) {
+        // the operation executor is shut down after the services
         reset();
     }
 
@@ -236,7 +342,10 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
         checkNotNull(ringbuffer, "ringbuffer can't be null");
         ringbuffer.init(config, nodeEngine);
         ringbuffer.getStore().instrument(nodeEngine);
-        getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        RingbufferContainer previous = getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        if (previous != null && previous != ringbuffer) {
+            previous.dispose();
+        }
     }
 
     @Override
@@ -297,6 +406,7 @@ public class RingbufferService implements ManagedService, RemoteService, Chunked
             final RingbufferContainer container = entry.getValue();
             if (thresholdReplicaIndex < 0 || container.getConfig().getTotalBackupCount() < thresholdReplicaIndex) {
                 iterator.remove();
+                container.dispose();
             }
         }
     }
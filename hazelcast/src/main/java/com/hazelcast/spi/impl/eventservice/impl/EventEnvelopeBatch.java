@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+
+import java.io.IOException;
+
+/**
+ * A batch of {@link EventEnvelope}s sent to a single remote subscriber in
+ * one packet. Each envelope keeps the order key it was published with, so
+ * the subscriber can process the events of the batch on the same event
+ * threads as if they were sent one by one.
+ *
+ * @see RemoteEventBatcher
+ */
+public final class EventEnvelopeBatch implements IdentifiedDataSerializable {
+
+    private EventEnvelope[] envelopes;
+    private int[] orderKeys;
+
+    public EventEnvelopeBatch() {
+    }
+
+    EventEnvelopeBatch(EventEnvelope[] envelopes, int[] orderKeys) {
+        assert envelopes.length == orderKeys.length;
+        this.envelopes = envelopes;
+        this.orderKeys = orderKeys;
+    }
+
+    public int size() {
+        return envelopes.length;
+    }
+
+    public EventEnvelope getEnvelope(int index) {
+        return envelopes[index];
+    }
+
+    public int getOrderKey(int index) {
+        return orderKeys[index];
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.EVENT_ENVELOPE_BATCH;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(envelopes.length);
+        for (int i = 0; i < envelopes.length; i++) {
+            out.writeInt(orderKeys[i]);
+            envelopes[i].writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        envelopes = new EventEnvelope[size];
+        orderKeys = new int[size];
+        for (int i = 0; i < size; i++) {
+            orderKeys[i] = in.readInt();
+            EventEnvelope envelope = new EventEnvelope();
+            envelope.readData(in);
+            envelopes[i] = envelope;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventEnvelopeBatch{size=" + (envelopes == null ? 0 : envelopes.length) + '}';
+    }
+}
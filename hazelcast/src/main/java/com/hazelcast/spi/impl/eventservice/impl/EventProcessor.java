@@ -45,6 +45,14 @@ public class EventProcessor implements StripedRunnable {
         process(envelope);
     }
 
+    /**
+     * Counts the event as rejected for its listener, called when this
+     * processor was not accepted by the event executor.
+     */
+    void onRejected() {
+        eventService.incrementRejected(envelope);
+    }
+
     /**
      * Processes the event by dispatching it on the responsible {@link EventPublishingService}
      * together with the listener responsible for the event.
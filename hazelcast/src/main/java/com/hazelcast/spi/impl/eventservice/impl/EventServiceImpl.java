@@ -19,7 +19,9 @@ package com.hazelcast.spi.impl.eventservice.impl;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.impl.MemberImpl;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
@@ -39,6 +41,7 @@ import com.hazelcast.spi.impl.eventservice.EventService;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperationSupplier;
 import com.hazelcast.spi.impl.eventservice.impl.operations.OnJoinRegistrationOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperationSupplier;
+import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventBatchOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -60,6 +63,7 @@ import java.util.function.Supplier;
 import java.util.logging.Level;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_LISTENER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_SERVICE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE;
@@ -69,15 +73,19 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_MET
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_THREAD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_TOTAL_FAILURE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_PREFIX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_PREFIX_LISTENER;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.FutureUtil.getValue;
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
 import static com.hazelcast.internal.util.InvocationUtil.invokeOnStableClusterSerial;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_MAX_DELAY_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_MAX_SIZE;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_SYNC_TIMEOUT_MILLIS;
@@ -108,7 +116,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * event can be retransmitted causing it to be received by the target node at a later time.
  */
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
-public class EventServiceImpl implements EventService, StaticMetricsProvider {
+public class EventServiceImpl implements EventService, StaticMetricsProvider, DynamicMetricsProvider {
 
     public static final String SERVICE_NAME = "hz:core:eventService";
 
@@ -178,6 +186,8 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     private final InternalSerializationService serializationService;
     private final int eventSyncFrequency;
+    /** Batches asynchronous remote events, {@code null} when event batching is disabled */
+    private final RemoteEventBatcher eventBatcher;
 
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -189,6 +199,12 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         this.eventQueueTimeoutMs = hazelcastProperties.getMillis(EVENT_QUEUE_TIMEOUT_MILLIS);
         this.sendEventSyncTimeoutMillis = hazelcastProperties.getInteger(EVENT_SYNC_TIMEOUT_MILLIS);
         this.eventSyncFrequency = loadEventSyncFrequency();
+        long batchMaxDelayMillis = hazelcastProperties.getMillis(EVENT_BATCH_MAX_DELAY_MILLIS);
+        int batchMaxSize = hazelcastProperties.getInteger(EVENT_BATCH_MAX_SIZE);
+        this.eventBatcher = batchMaxDelayMillis > 0 && batchMaxSize > 1
+                ? new RemoteEventBatcher(this, nodeEngine.getExecutionService(), batchMaxSize, batchMaxDelayMillis,
+                        eventThreadCount)
+                : null;
 
         this.eventExecutor = new StripedExecutor(
                 nodeEngine.getNode().getLogger(EventServiceImpl.class),
@@ -214,6 +230,28 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, EVENT_PREFIX);
+        registry.registerDynamicMetricsProvider(this);
+    }
+
+    /**
+     * Provides the rejected event count of each listener registration
+     * which had an event rejected on this member.
+     */
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (EventServiceSegment<?> segment : segments.values()) {
+            for (Registration registration : segment.getRegistrationIdMap().values()) {
+                if (registration.getRejectedCount() == 0) {
+                    continue;
+                }
+                MetricDescriptor listenerDescriptor = descriptor
+                        .copy()
+                        .withPrefix(EVENT_PREFIX_LISTENER)
+                        .withDiscriminator(EVENT_DISCRIMINATOR_LISTENER, registration.getId().toString())
+                        .withTag(EVENT_DISCRIMINATOR_SERVICE, registration.getServiceName());
+                context.collect(listenerDescriptor, registration);
+            }
+        }
     }
 
     @Override
@@ -546,6 +584,7 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
             }
         } catch (RejectedExecutionException e) {
             rejectedCount.inc();
+            reg.incrementRejected();
 
             if (eventExecutor.isLive()) {
                 logFailure("EventQueue overloaded! %s failed to publish to %s:%s",
@@ -561,7 +600,10 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * A synchronous event means that we send the event as an {@link SendEventOperation} and in case of failure
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
-     * exception (see {@link RemoteEventProcessor})
+     * exception (see {@link RemoteEventProcessor}). When event batching is enabled, asynchronous events
+     * are collected by the {@link RemoteEventBatcher} and sent together with the following events for the
+     * same subscriber. A synchronous event is then sent as a {@link SendEventBatchOperation} after the pending
+     * events, so that it passes through the same event thread of the subscriber as the batches sent before it.
      */
     private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
         String serviceName = eventEnvelope.getServiceName();
@@ -569,7 +611,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
 
         if (sync) {
-            SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
+            Operation op = eventBatcher != null
+                    ? eventBatcher.flushForSyncEvent(subscriber, eventEnvelope, orderKey)
+                    : new SendEventOperation(eventEnvelope, orderKey);
             Future f = nodeEngine.getOperationService()
                     .createInvocationBuilder(serviceName, op, subscriber)
                     .setTryCount(SEND_RETRY_COUNT).invoke();
@@ -581,19 +625,91 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (eventBatcher != null) {
+            eventBatcher.add(subscriber, eventEnvelope, orderKey);
         } else {
-            Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
-                    .setPacketType(Packet.Type.EVENT);
+            transmit(subscriber, eventEnvelope, orderKey);
+        }
+    }
+
+    /**
+     * Sends the {@link EventEnvelope} or {@link EventEnvelopeBatch} to the {@code subscriber}
+     * as an event packet, without waiting for it to be processed.
+     */
+    void transmit(Address subscriber, Object event, int orderKey) {
+        Packet packet = new Packet(serializationService.toBytes(event), orderKey)
+                .setPacketType(Packet.Type.EVENT);
+
+        ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
+        if (!cm.transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
+            }
+        }
+    }
+
+    /**
+     * Hands over the {@code batch} to the event thread of the {@code batchOrderKey}, the thread
+     * which unpacks the asynchronous batches of the sender with the same order key. Events sent
+     * this way keep their order relative to the batches received before them.
+     *
+     * @param batch         the batch received from a remote member
+     * @param batchOrderKey the order key of the batches of the sender which carry the events
+     * @see SendEventBatchOperation
+     * @see #executeBatch(EventEnvelopeBatch, int)
+     */
+    public void executeBatchInOrder(EventEnvelopeBatch batch, int batchOrderKey) {
+        executeEventCallback(new RemoteEventProcessor(this, batch, batchOrderKey));
+    }
 
-            ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
-            if (!cm.transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
+    /**
+     * Processes the events of the {@code batch} whose order keys map to the current event thread
+     * and hands over the others to the event threads of their order keys. The sender batches the
+     * events by the event thread stripe, so when both members run the same number of event threads,
+     * all events are processed on the current thread.
+     * <p>
+     * This runs on an event thread, so the events are offered without waiting: if the queue
+     * of an event thread is full, the event is rejected instead of blocking the current thread.
+     * On rejection, the rejection counts of the member and of the listener are increased and a
+     * failure is logged. The event processing is not retried.
+     *
+     * @param batch         the batch received from a remote member
+     * @param batchOrderKey the order key the batch is processed with
+     */
+    void executeBatch(EventEnvelopeBatch batch, int batchOrderKey) {
+        int stripe = hashToIndex(batchOrderKey, eventThreadCount);
+        for (int i = 0; i < batch.size(); i++) {
+            EventEnvelope envelope = batch.getEnvelope(i);
+            int orderKey = batch.getOrderKey(i);
+            if (hashToIndex(orderKey, eventThreadCount) == stripe) {
+                new RemoteEventProcessor(this, envelope, orderKey).run();
+                continue;
+            }
+            try {
+                eventExecutor.execute(new RemoteEventProcessor(this, envelope, orderKey));
+            } catch (RejectedExecutionException e) {
+                rejectedCount.inc();
+                incrementRejected(envelope);
+
+                if (eventExecutor.isLive()) {
+                    logFailure("EventQueue overloaded! Failed to process batched event: %s", envelope);
                 }
             }
         }
     }
 
+    /** Increases the rejected event count of the local registration the {@code envelope} is sent to, if any */
+    void incrementRejected(EventEnvelope envelope) {
+        EventServiceSegment segment = getSegment(envelope.getServiceName(), false);
+        if (segment == null) {
+            return;
+        }
+        Registration registration = (Registration) segment.getRegistrationIdMap().get(envelope.getEventId());
+        if (registration != null) {
+            registration.incrementRejected();
+        }
+    }
+
     /**
      * Returns the {@link EventServiceSegment} for the {@code service}. If the segment is {@code null} and
      * {@code forceCreate} is {@code true}, the segment is created and registered with the {@link MetricsRegistry}.
@@ -644,6 +760,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
             eventExecutor.execute(callback);
         } catch (RejectedExecutionException e) {
             rejectedCount.inc();
+            if (callback instanceof EventProcessor) {
+                ((EventProcessor) callback).onRejected();
+            }
 
             if (eventExecutor.isLive()) {
                 logFailure("EventQueue overloaded! Failed to execute event callback: %s", callback);
@@ -702,7 +821,18 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         return registrations.isEmpty() ? null : new OnJoinRegistrationOperation(registrations);
     }
 
+    /**
+     * Sends the batched events which are still pending and stops batching new ones.
+     * Called on shutdown, before the member connections are closed.
+     */
+    public void stopEventBatching() {
+        if (eventBatcher != null) {
+            eventBatcher.stop();
+        }
+    }
+
     public void shutdown() {
+        stopEventBatching();
         logger.finest("Stopping event executor...");
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
@@ -713,6 +843,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     public void onMemberLeft(MemberImpl member) {
         Address address = member.getAddress();
+        if (eventBatcher != null) {
+            eventBatcher.onMemberLeft(address);
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.eventservice.impl;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.Preconditions;
 import com.hazelcast.internal.util.UUIDSerializationUtil;
 import com.hazelcast.nio.ObjectDataInput;
@@ -28,6 +29,9 @@ import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_LISTENER_REJECTED_COUNT;
 
 public class Registration implements EventRegistration {
 
@@ -38,6 +42,12 @@ public class Registration implements EventRegistration {
     private Address subscriber;
     private transient boolean localOnly;
     private transient Object listener;
+    /**
+     * Number of events for this registration which were dropped on this
+     * member because the event queue was full
+     */
+    @Probe(name = EVENT_METRIC_LISTENER_REJECTED_COUNT)
+    private final transient AtomicLong rejectedCount = new AtomicLong();
 
     public Registration() {
     }
@@ -85,6 +95,18 @@ public class Registration implements EventRegistration {
         return listener;
     }
 
+    void incrementRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of events for this registration which were dropped
+     * on this member because the event queue was full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
     // Registration equals() and hashCode() relies on the ID field only,
     // because the registration ID is unique in the cluster
     @Override
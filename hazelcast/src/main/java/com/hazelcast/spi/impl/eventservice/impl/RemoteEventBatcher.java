@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.util.ConcurrencyUtil;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventBatchOperation;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Collects asynchronous events for remote subscribers and sends them as
+ * {@link EventEnvelopeBatch}es. A batch is sent when it reaches {@link
+ * #maxBatchSize} events or when {@link #maxDelayMillis} passed since its
+ * first event was added, whichever comes first.
+ * <p>
+ * The events of a subscriber are batched separately for each event thread
+ * stripe of their order key and a batch is sent with its stripe index as
+ * the order key. The subscriber unpacks the batches of different stripes on
+ * different event threads, and, if it runs the same number of event
+ * threads, processes their events without handing them over again.
+ * <p>
+ * Batches of a subscriber and stripe are sent in the order their events
+ * were added, so the ordering guarantees of the events sent one by one are
+ * kept.
+ * <p>
+ * Once {@link #stop() stopped}, the pending events are sent and each event
+ * added later is sent right away in a batch of its own.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#EVENT_BATCH_MAX_DELAY_MILLIS
+ * @see com.hazelcast.spi.properties.ClusterProperty#EVENT_BATCH_MAX_SIZE
+ */
+class RemoteEventBatcher {
+
+    private final EventServiceImpl eventService;
+    private final ExecutionService executionService;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final int stripeCount;
+    private final ConcurrentMap<Address, Batch[]> batches = new ConcurrentHashMap<>();
+    private final ConstructorFunction<Address, Batch[]> batchConstructor = this::newBatches;
+    private volatile boolean stopped;
+
+    RemoteEventBatcher(EventServiceImpl eventService, ExecutionService executionService,
+                       int maxBatchSize, long maxDelayMillis, int stripeCount) {
+        this.eventService = eventService;
+        this.executionService = executionService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * Adds the event to the batch of the subscriber and the stripe of the
+     * order key. The batch is sent right away when it is full or the batcher
+     * is stopped, otherwise a send is scheduled if not done yet.
+     */
+    void add(Address subscriber, EventEnvelope envelope, int orderKey) {
+        Batch batch = getBatch(subscriber, orderKey);
+        boolean send = false;
+        boolean scheduleFlush = false;
+        synchronized (batch) {
+            batch.add(envelope, orderKey);
+            if (batch.size == maxBatchSize || stopped) {
+                batch.enqueue();
+                send = true;
+            } else if (!batch.flushScheduled) {
+                batch.flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (send) {
+            batch.transmitEnqueued(false);
+        }
+        if (scheduleFlush) {
+            executionService.schedule(batch::flush, maxDelayMillis, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending events of the subscriber in the stripe of the order
+     * key and returns the operation for sending the synchronous event after
+     * them. The operation passes the event through the same event thread of
+     * the subscriber as the batches, so it can not overtake the events sent
+     * before it.
+     */
+    Operation flushForSyncEvent(Address subscriber, EventEnvelope envelope, int orderKey) {
+        Batch batch = getBatch(subscriber, orderKey);
+        synchronized (batch) {
+            batch.enqueue();
+        }
+        // the operation may be sent only after the batches before it
+        batch.transmitEnqueued(true);
+        EventEnvelopeBatch eventBatch = new EventEnvelopeBatch(new EventEnvelope[]{envelope}, new int[]{orderKey});
+        return new SendEventBatchOperation(eventBatch, batch.stripe);
+    }
+
+    /**
+     * Sends the pending events of all subscribers and stops collecting new
+     * ones. Called on shutdown, before the member connections are closed.
+     */
+    void stop() {
+        stopped = true;
+        for (Batch[] subscriberBatches : batches.values()) {
+            for (Batch batch : subscriberBatches) {
+                batch.flush();
+            }
+        }
+    }
+
+    /**
+     * Drops the pending events of a subscriber which left the cluster.
+     */
+    void onMemberLeft(Address subscriber) {
+        batches.remove(subscriber);
+    }
+
+    private Batch getBatch(Address subscriber, int orderKey) {
+        Batch[] subscriberBatches = ConcurrencyUtil.getOrPutIfAbsent(batches, subscriber, batchConstructor);
+        return subscriberBatches[hashToIndex(orderKey, stripeCount)];
+    }
+
+    private Batch[] newBatches(Address subscriber) {
+        Batch[] subscriberBatches = new Batch[stripeCount];
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            subscriberBatches[stripe] = new Batch(subscriber, stripe);
+        }
+        return subscriberBatches;
+    }
+
+    /**
+     * Pending events of a single subscriber and stripe. The events are
+     * collected while holding its monitor, a full batch is then moved to a
+     * queue and serialized and transmitted outside the monitor. The queue is
+     * drained while holding the {@link #sendLock}, so the batches are
+     * transmitted in order.
+     */
+    private final class Batch {
+
+        private final Address subscriber;
+        private final int stripe;
+        private final EventEnvelope[] envelopes = new EventEnvelope[maxBatchSize];
+        private final int[] orderKeys = new int[maxBatchSize];
+        private final Queue<EventEnvelopeBatch> enqueued = new ConcurrentLinkedQueue<>();
+        private final Lock sendLock = new ReentrantLock();
+        private int size;
+        private boolean flushScheduled;
+
+        private Batch(Address subscriber, int stripe) {
+            this.subscriber = subscriber;
+            this.stripe = stripe;
+        }
+
+        private void add(EventEnvelope envelope, int orderKey) {
+            envelopes[size] = envelope;
+            orderKeys[size] = orderKey;
+            size++;
+        }
+
+        private void flush() {
+            synchronized (this) {
+                flushScheduled = false;
+                enqueue();
+            }
+            transmitEnqueued(false);
+        }
+
+        /**
+         * Moves the collected events to the queue of batches to transmit.
+         * Must be called while holding the monitor.
+         */
+        private void enqueue() {
+            if (size == 0) {
+                return;
+            }
+            enqueued.add(new EventEnvelopeBatch(Arrays.copyOf(envelopes, size), Arrays.copyOf(orderKeys, size)));
+            Arrays.fill(envelopes, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * Transmits the enqueued batches. If {@code wait} is {@code true},
+         * returns after all batches enqueued before the call are transmitted.
+         * Otherwise leaves the batches to another thread which is
+         * transmitting.
+         */
+        private void transmitEnqueued(boolean wait) {
+            if (wait) {
+                sendLock.lock();
+                try {
+                    transmitAll();
+                } finally {
+                    sendLock.unlock();
+                }
+            }
+            // the lock holder checks the queue again after releasing the lock
+            while (!enqueued.isEmpty() && sendLock.tryLock()) {
+                try {
+                    transmitAll();
+                } finally {
+                    sendLock.unlock();
+                }
+            }
+        }
+
+        private void transmitAll() {
+            for (EventEnvelopeBatch batch; (batch = enqueued.poll()) != null; ) {
+                eventService.transmit(subscriber, batch, stripe);
+            }
+        }
+    }
+}
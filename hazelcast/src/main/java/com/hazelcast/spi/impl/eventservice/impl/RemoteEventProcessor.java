@@ -27,6 +27,11 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
  * An extension of the {@link EventProcessor} which logs and swallows any exception while processing the event.
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.internal.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
+ * <p>
+ * A packet may also contain an {@link EventEnvelopeBatch}, in which case its events are processed by new processors
+ * with the order keys they were published with, on this thread or on the threads of their order keys. Batches are
+ * also handed over by {@link com.hazelcast.spi.impl.eventservice.impl.operations.SendEventBatchOperation}, so that
+ * synchronous events pass through the same event thread as the asynchronous batches of the sender.
  *
  * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int)
  */
@@ -34,18 +39,48 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
 
     private final EventServiceImpl eventService;
     private final Packet packet;
+    private final Object event;
 
     public RemoteEventProcessor(EventServiceImpl eventService, Packet packet) {
         super(eventService, null, packet.getPartitionId());
         this.eventService = eventService;
         this.packet = packet;
+        this.event = null;
+    }
+
+    RemoteEventProcessor(EventServiceImpl eventService, Object event, int orderKey) {
+        super(eventService, null, orderKey);
+        this.eventService = eventService;
+        this.packet = null;
+        this.event = event;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events of a packet which was not deserialized yet can not be assigned to their
+     * listeners, so they are only counted by the member-wide rejection count.
+     */
+    @Override
+    void onRejected() {
+        if (event instanceof EventEnvelopeBatch) {
+            EventEnvelopeBatch batch = (EventEnvelopeBatch) event;
+            for (int i = 0; i < batch.size(); i++) {
+                eventService.incrementRejected(batch.getEnvelope(i));
+            }
+        } else if (event != null) {
+            eventService.incrementRejected((EventEnvelope) event);
+        }
     }
 
     @Override
     public void run() {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
-            process(eventEnvelope);
+            Object event = this.event != null ? this.event : eventService.nodeEngine.toObject(packet);
+            if (event instanceof EventEnvelopeBatch) {
+                eventService.executeBatch((EventEnvelopeBatch) event, getKey());
+            } else {
+                process((EventEnvelope) event);
+            }
         } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
             // this happens when there is a lite member in the cluster
             // and a data member creates a ReplicatedMap proxy
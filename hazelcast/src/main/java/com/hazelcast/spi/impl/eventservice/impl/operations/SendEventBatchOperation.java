@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl.operations;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.eventservice.impl.EventEnvelopeBatch;
+import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+/**
+ * An operation for sending a batch of events, which ends with a synchronous
+ * event, to a remote subscriber. The batch is handed over to the event thread
+ * of the {@link #batchOrderKey} like the asynchronous batches of the sender,
+ * so the events can not overtake batched events sent before them.
+ *
+ * @see SendEventOperation
+ * @see EventServiceImpl#executeBatchInOrder(EventEnvelopeBatch, int)
+ */
+public class SendEventBatchOperation extends Operation implements AllowedDuringPassiveState, IdentifiedDataSerializable {
+
+    private EventEnvelopeBatch batch;
+    private int batchOrderKey;
+
+    public SendEventBatchOperation() {
+    }
+
+    public SendEventBatchOperation(EventEnvelopeBatch batch, int batchOrderKey) {
+        this.batch = batch;
+        this.batchOrderKey = batchOrderKey;
+    }
+
+    @Override
+    public void run() throws Exception {
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngine().getEventService();
+        eventService.executeBatchInOrder(batch, batchOrderKey);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        batch.writeData(out);
+        out.writeInt(batchOrderKey);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        batch = new EventEnvelopeBatch();
+        batch.readData(in);
+        batchOrderKey = in.readInt();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.SEND_EVENT_BATCH;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * An {@link OperationQueue} for a single consumer thread, e.g. a {@link PartitionOperationThread}.
+ * <p>
+ * Normal and priority tasks are put in their own {@link ManyToOneConcurrentArrayQueue}, so
+ * offering a task is a single CAS and doesn't allocate. Unlike {@link OperationQueueImpl}, there
+ * is no {@link OperationQueueImpl#TRIGGER_TASK} needed to wake up the consumer for a priority
+ * task: the consumer always checks the priority queue first.
+ * <p>
+ * The array queues are bounded; an operation queue must not reject tasks though. So when an
+ * array queue is full, tasks overflow into an unbounded {@link ConcurrentLinkedQueue} and keep
+ * going there as long as it is not empty. This keeps the FIFO order of the tasks offered by a
+ * single producer.
+ * <p>
+ * When there is nothing to take, the consumer uses the configured {@link IdleStrategy}, or blocks
+ * if there is none. A producer unparks a blocked consumer after offering.
+ */
+public final class ManyToOneOperationQueue implements OperationQueue {
+
+    private final ManyToOneConcurrentArrayQueue<Object> normalQueue;
+    private final ManyToOneConcurrentArrayQueue<Object> priorityQueue;
+    private final Queue<Object> normalOverflowQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Object> priorityOverflowQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean consumerBlocked = new AtomicBoolean();
+    private final IdleStrategy idleStrategy;
+
+    private Thread consumerThread;
+
+    /**
+     * @param normalCapacity   capacity of the array queue for normal tasks
+     * @param priorityCapacity capacity of the array queue for priority tasks
+     * @param idleStrategy     the idleStrategy. If null, the consumer will block.
+     */
+    public ManyToOneOperationQueue(int normalCapacity, int priorityCapacity, IdleStrategy idleStrategy) {
+        this.normalQueue = new ManyToOneConcurrentArrayQueue<>(normalCapacity);
+        this.priorityQueue = new ManyToOneConcurrentArrayQueue<>(priorityCapacity);
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread.
+     * <p>
+     * Should be called before the queue is safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread null.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size() + normalOverflowQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size() + priorityOverflowQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            offer(priorityQueue, priorityOverflowQueue, task);
+        } else {
+            offer(normalQueue, normalOverflowQueue, task);
+        }
+
+        // the offer above ends with a volatile write, so either we see the consumer
+        // blocked here or the consumer sees the task before it blocks
+        if (consumerBlocked.get() && consumerBlocked.compareAndSet(true, false)) {
+            unpark(consumerThread);
+        }
+    }
+
+    private static void offer(ManyToOneConcurrentArrayQueue<Object> queue, Queue<Object> overflowQueue, Object task) {
+        if (!overflowQueue.isEmpty() || !queue.offer(task)) {
+            overflowQueue.add(task);
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        for (long iteration = 0; ; iteration++) {
+            Object task = poll(priorityQueue, priorityOverflowQueue);
+            if (task == null && !priorityOnly) {
+                task = poll(normalQueue, normalOverflowQueue);
+            }
+            if (task != null) {
+                return task;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (idleStrategy != null) {
+                idleStrategy.idle(iteration);
+            } else {
+                block(priorityOnly);
+            }
+        }
+    }
+
+    private static Object poll(ManyToOneConcurrentArrayQueue<Object> queue, Queue<Object> overflowQueue) {
+        Object task = queue.poll();
+        if (task != null) {
+            return task;
+        }
+        if (overflowQueue.peek() == null) {
+            return null;
+        }
+        // The array must be checked after the overflow queue: a producer fills the array
+        // before it overflows, so a task found in the overflow queue can be preceded by tasks
+        // which were offered to the array in the meantime or which aren't visible yet.
+        return queue.size() == 0 ? overflowQueue.poll() : null;
+    }
+
+    private void block(boolean priorityOnly) {
+        consumerBlocked.set(true);
+        // the array queue's tail is bumped before the task itself becomes visible,
+        // so check the sizes instead of polling to not miss a task being offered
+        if (prioritySize() > 0 || (!priorityOnly && normalSize() > 0)) {
+            consumerBlocked.set(false);
+            return;
+        }
+        park();
+        consumerBlocked.set(false);
+    }
+}
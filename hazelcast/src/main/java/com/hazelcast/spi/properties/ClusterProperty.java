@@ -302,6 +302,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * Enables writing batches of packets between members with a single
+     * gathering write, instead of copying each packet into the send buffer.
+     * Payloads of larger packets are not copied at all. This reduces the
+     * number of system calls when there are many small packets, e.g.
+     * backups and responses.
+     * <p>
+     * Only applies to member connections without TLS. It is disabled by
+     * default.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_ENABLED
+            = new HazelcastProperty("hazelcast.io.gathering.write.enabled", false);
+
     /**
      * Property needed for concurrency detection so that write through can be
      * done correctly.
@@ -417,6 +430,21 @@ public final class ClusterProperty {
     public static final HazelcastProperty MERGE_NEXT_RUN_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.merge.next.run.delay.seconds", 120, SECONDS);
 
+    /**
+     * When enabled, the split-brain handler compares the Merkle trees of the
+     * maps which have them enabled with the merged cluster and merges only
+     * the entries of the differing tree leaves.
+     * <p>
+     * Entries with equal keys and values on both sides are then not passed to
+     * the merge policy and their metadata, such as hits, last access time or
+     * expiration time, is not merged. Only enable it if the merge policies of
+     * the maps don't depend on the metadata.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty MAP_MERGE_MERKLE_TREE_DIFF_ONLY
+            = new HazelcastProperty("hazelcast.map.merge.merkle.tree.diff.only", false);
+
     /**
      * Time in seconds to sleep after a migration task.
      */
@@ -460,6 +488,35 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB
             = new HazelcastProperty("hazelcast.partition.migration.chunks.max.migrating.data.in.mb", 250);
 
+    /**
+     * Upper bound for the total size of chunks in flight on a member
+     * across all of its parallel migrations, in MB.
+     * <p>
+     * When set, the size of a single chunk is capped to this value divided
+     * by {@link #PARTITION_MAX_PARALLEL_MIGRATIONS} and by
+     * {@link #PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS}, so that running
+     * more migrations in parallel or sending more fragments without waiting
+     * does not increase the migrating data beyond the budget. Values less than or equal to zero disable the budget and
+     * only {@link #PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB} applies.
+     * <p>
+     * Default is 0 (disabled).
+     */
+    public static final HazelcastProperty PARTITION_CHUNKED_MAX_TOTAL_MIGRATING_DATA_IN_MB
+            = new HazelcastProperty("hazelcast.partition.migration.chunks.max.total.migrating.data.in.mb", 0);
+
+    /**
+     * Maximum number of fragments (or chunks) of a single partition migration
+     * which the migration source sends without waiting for the destination
+     * to acknowledge them. The next fragment is prepared and sent while the
+     * previous ones are still transferred and applied. The destination
+     * still applies the fragments one by one, in the order they were sent.
+     * <p>
+     * Default is 1, each fragment is sent after the previous one is
+     * acknowledged.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS
+            = new HazelcastProperty("hazelcast.partition.migration.fragments.max.in.flight", 1);
+
     /**
      * The time that a newly-appointed master node waits before forming a cluster.
      * Once a cluster is being started, a newly-appointed master node may receive
@@ -1196,6 +1253,27 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Enables keeping the serialized values of {@code BINARY} in-memory-format
+     * maps in memory blocks allocated outside of the Java heap. Keys and
+     * record metadata stay on-heap, but each entry no longer holds its value
+     * as heap objects, which reduces the heap footprint and GC work for big
+     * maps. Has no effect for {@code OBJECT} and {@code NATIVE} maps or when
+     * {@code sun.misc.Unsafe} is not available.
+     * <p>
+     * This is an experimental feature and is disabled by default.
+     */
+    public static final HazelcastProperty MAP_OFF_HEAP_VALUES_ENABLED
+            = new HazelcastProperty("hazelcast.map.offheap.values.enabled", false);
+
+    /**
+     * The maximum off-heap memory in megabytes which all maps of a member may
+     * use for their values when {@link #MAP_OFF_HEAP_VALUES_ENABLED} is set.
+     * Values which do not fit into this budget stay on-heap.
+     */
+    public static final HazelcastProperty MAP_OFF_HEAP_VALUES_MAX_SIZE_MB
+            = new HazelcastProperty("hazelcast.map.offheap.values.max.size.mb", 1024);
+
     /**
      * Setting this capacity is valid if you set {@code writeCoalescing} to {@code false}
      * (see {@link com.hazelcast.config.MapStoreConfig#setWriteCoalescing(boolean)}).
@@ -1209,6 +1287,44 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Enables keeping the items of {@code BINARY} in-memory-format
+     * ringbuffers in a memory block outside of the Java heap, with only an
+     * offset and a length kept on-heap per slot. This reduces the heap
+     * footprint of big ringbuffers such as the ones backing reliable topics,
+     * at the cost of copying an item to the heap whenever it is read. Has no
+     * effect on {@code OBJECT} ringbuffers, which includes event journals.
+     * <p>
+     * This is an experimental feature and is disabled by default.
+     */
+    public static final HazelcastProperty RINGBUFFER_OFF_HEAP_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.ringbuffer.offheap.storage.enabled", false);
+
+    /**
+     * The maximum off-heap memory in megabytes which all ringbuffers of a
+     * member may use for their items when
+     * {@link #RINGBUFFER_OFF_HEAP_STORAGE_ENABLED} is set. Items which do not
+     * fit into this budget stay on-heap.
+     */
+    public static final HazelcastProperty RINGBUFFER_OFF_HEAP_STORAGE_MAX_SIZE_MB
+            = new HazelcastProperty("hazelcast.ringbuffer.offheap.storage.max.size.mb", 1024);
+
+    /**
+     * Enables a read-optimized storage for replicated maps. The records of a
+     * replicated map are kept in an immutable snapshot, so reads never write
+     * to shared state. Updates are buffered and the snapshot is copied once
+     * per batch of updates. Reading an entry doesn't update its hits and last
+     * access time in this mode. To keep the read path completely free of
+     * writes, statistics should be disabled in the
+     * {@link com.hazelcast.config.ReplicatedMapConfig} as well.
+     * <p>
+     * Since the cost of publishing a batch grows with the size of the map,
+     * this mode should only be used for read-mostly replicated maps such as
+     * reference data. It is disabled by default.
+     */
+    public static final HazelcastProperty REPLICATED_MAP_COPY_ON_WRITE_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.replicatedmap.copy.on.write.storage.enabled", false);
+
     /*
      * INVOCATION / OPERATION SYSTEM PROPERTIES
      */
@@ -1503,6 +1619,31 @@ public final class ClusterProperty {
     public static final HazelcastProperty EVENT_SYNC_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.sync.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * Maximum time an event for a remote subscriber is held back to be sent
+     * together with the following events for the same subscriber, in a single
+     * packet.
+     * <p>
+     * Batching reduces the number of packets when listeners are registered on
+     * frequently updated data structures, at the cost of added latency. Values
+     * less than or equal to zero disable batching and each event is sent in
+     * its own packet. All members of the cluster must run a version which
+     * supports event batching before this property is enabled.
+     *
+     * @see #EVENT_BATCH_MAX_SIZE
+     */
+    public static final HazelcastProperty EVENT_BATCH_MAX_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.event.batch.max.delay.millis", 0, MILLISECONDS);
+
+    /**
+     * Maximum number of events for a remote subscriber which are sent in a
+     * single packet when event batching is enabled. A batch is sent as soon as
+     * it reaches this size, without waiting for
+     * {@link #EVENT_BATCH_MAX_DELAY_MILLIS}.
+     */
+    public static final HazelcastProperty EVENT_BATCH_MAX_SIZE
+            = new HazelcastProperty("hazelcast.event.batch.max.size", 100);
+
     /**
      * Enable or disable the sending of phone home data to Hazelcast’s phone home
      * server.
@@ -1750,6 +1891,78 @@ public final class ClusterProperty {
     public static final HazelcastProperty PROCESSOR_CUSTOM_LIB_DIR
             = new HazelcastProperty("hazelcast.jet.custom.lib.dir", "custom-lib");
 
+    /**
+     * Local directory the sorting and grouping processors use to spill their
+     * state to when they reach the
+     * {@linkplain com.hazelcast.jet.config.InstanceConfig#setMaxProcessorAccumulatedRecords
+     * max accumulated records} limit. When set, such a processor writes its
+     * in-memory state to files in this directory and merges them when it
+     * completes, instead of failing the job. Grouping can only spill if the
+     * aggregate operation has a combine function.
+     * <p>
+     * By default the property is not set and the processors fail the job when
+     * they reach the limit.
+     *
+     * @since 5.2
+     */
+    public static final HazelcastProperty JET_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.spill.directory");
+
+    /**
+     * Local directory to which the members write the data of the automatic
+     * job snapshots, instead of storing it in the snapshot {@code IMap}s.
+     * Each member appends its snapshot chunks to files in this directory and
+     * asynchronously replicates them to the next member in the cluster. The
+     * {@code IMap} then contains only the small snapshot validation record.
+     * When a job restarts, each member restores the chunks it wrote and the
+     * replicas of chunks written by members that are no longer in the
+     * cluster. If both the member that wrote a part of the snapshot and its
+     * replica are lost, the job fails to restore from the snapshot.
+     * <p>
+     * Exported snapshots are always stored in {@code IMap}s. The property
+     * must have the same value on all members.
+     * <p>
+     * By default the property is not set and the snapshot data is stored in
+     * {@code IMap}s.
+     *
+     * @since 5.2
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_LOCAL_DIRECTORY
+            = new HazelcastProperty("hazelcast.jet.snapshot.local.directory");
+
+    /**
+     * Directory in which the member persists the state of CP Subsystem: its
+     * CP member identity, the active CP members and the Raft log and term of
+     * each CP group it is a member of. When the CP members restart with the
+     * same addresses and directories, they restore their CP groups from
+     * these files, so CP data survives a restart of all CP members.
+     * <p>
+     * Each member needs its own directory, it is locked while the member is
+     * running. The Raft log is synced to the disk once per batch of appended
+     * entries.
+     * <p>
+     * By default the property is not set and the CP state is not persisted.
+     * It can't be combined with the CP Subsystem Persistence of the Hazelcast
+     * Enterprise Edition.
+     *
+     * @since 5.2
+     */
+    public static final HazelcastProperty CP_PERSISTENCE_DIRECTORY
+            = new HazelcastProperty("hazelcast.cp.persistence.directory");
+
+    /**
+     * Maximum number of rows in a columnar batch passed between the IMap
+     * scan and the filters and projections on top of it in SQL queries.
+     * <p>
+     * This is an experimental feature. It's disabled by default, set the
+     * property to a positive value to enable it. The property is read by
+     * the member planning the query.
+     *
+     * @since 5.2
+     */
+    public static final HazelcastProperty SQL_COLUMNAR_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.sql.columnar.batch.size", 0);
+
     /**
      * Controls whether cluster emojis can be used in log messages. This is just a hint for components calling the logging.
      *
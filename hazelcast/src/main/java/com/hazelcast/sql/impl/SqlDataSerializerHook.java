@@ -32,6 +32,7 @@ import com.hazelcast.sql.impl.expression.ColumnExpression;
 import com.hazelcast.sql.impl.expression.ConstantExpression;
 import com.hazelcast.sql.impl.expression.ParameterExpression;
 import com.hazelcast.sql.impl.expression.SearchableExpression;
+import com.hazelcast.sql.impl.expression.compiled.CompiledExpression;
 import com.hazelcast.sql.impl.expression.datetime.ExtractFunction;
 import com.hazelcast.sql.impl.expression.datetime.ToEpochMillisFunction;
 import com.hazelcast.sql.impl.expression.datetime.ToTimestampTzFunction;
@@ -171,7 +172,9 @@ public class SqlDataSerializerHook implements DataSerializerHook {
 
     public static final int VIEW = 61;
 
-    public static final int LEN = VIEW + 1;
+    public static final int EXPRESSION_COMPILED = 62;
+
+    public static final int LEN = EXPRESSION_COMPILED + 1;
 
     @Override
     public int getFactoryId() {
@@ -260,6 +263,8 @@ public class SqlDataSerializerHook implements DataSerializerHook {
 
         constructors[VIEW] = arg -> new View();
 
+        constructors[EXPRESSION_COMPILED] = arg -> new CompiledExpression<>();
+
         return new ArrayDataSerializableFactory(constructors);
     }
 }
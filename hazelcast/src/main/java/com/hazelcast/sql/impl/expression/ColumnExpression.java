@@ -86,6 +86,10 @@ public final class ColumnExpression<T> implements Expression<T>, IdentifiedDataS
         return type;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     @Override
     public int getFactoryId() {
         return SqlDataSerializerHook.F_ID;
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.expression.columnar;
+
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.compiled.ExpressionCompiler;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
+import com.hazelcast.sql.impl.row.ColumnarBatch.DoubleColumn;
+import com.hazelcast.sql.impl.row.ColumnarBatch.LongColumn;
+import com.hazelcast.sql.impl.row.ColumnarBatch.RowView;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies a filter to {@link ColumnarBatch}es by narrowing their selection
+ * vector.
+ * <p>
+ * The operands of a top-level AND are applied one after another, each to
+ * the rows that passed the previous ones. Comparisons of an integer or
+ * approximate numeric column with a constant are evaluated directly on the
+ * primitive column, other operands are evaluated row by row.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ColumnarFilter {
+
+    private final Conjunct[] conjuncts;
+
+    public ColumnarFilter(@Nonnull Expression<Boolean> predicate, @Nonnull ExpressionEvalContext context) {
+        List<Expression<?>> operands = new ArrayList<>();
+        collectConjuncts(predicate, operands);
+
+        conjuncts = new Conjunct[operands.size()];
+        for (int i = 0; i < conjuncts.length; i++) {
+            conjuncts[i] = createConjunct(operands.get(i), context);
+        }
+    }
+
+    /**
+     * Returns a batch with the rows of the given batch for which the
+     * predicate is {@code TRUE}, or {@code null} if there are none.
+     */
+    @Nullable
+    public ColumnarBatch apply(@Nonnull ColumnarBatch batch) {
+        int count = batch.getRowCount();
+        int[] selection = new int[count];
+        for (int i = 0; i < count; i++) {
+            selection[i] = batch.physicalIndex(i);
+        }
+
+        for (Conjunct conjunct : conjuncts) {
+            count = conjunct.filter(batch, selection, count);
+            if (count == 0) {
+                return null;
+            }
+        }
+        return count == batch.getRowCount() ? batch : batch.withSelection(selection, count);
+    }
+
+    private static void collectConjuncts(Expression<?> expression, List<Expression<?>> result) {
+        if (expression instanceof AndPredicate) {
+            for (Expression<?> operand : ((AndPredicate) expression).getOperands()) {
+                collectConjuncts(operand, result);
+            }
+        } else {
+            result.add(expression);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Conjunct createConjunct(Expression<?> expression, ExpressionEvalContext context) {
+        RowConjunct rowConjunct = new RowConjunct(
+                ExpressionCompiler.compileIfEnabled((Expression<Boolean>) expression), context);
+        if (!(expression instanceof ComparisonPredicate)) {
+            return rowConjunct;
+        }
+
+        ComparisonPredicate comparison = (ComparisonPredicate) expression;
+        ComparisonMode mode = comparison.getMode();
+        Expression<?> column = comparison.getOperand1();
+        Expression<?> constant = comparison.getOperand2();
+        if (column instanceof ConstantExpression) {
+            column = comparison.getOperand2();
+            constant = comparison.getOperand1();
+            mode = flip(mode);
+        }
+        if (!(column instanceof ColumnExpression)
+                || !(constant instanceof ConstantExpression)
+                || ((ConstantExpression<?>) constant).getValue() == null) {
+            return rowConjunct;
+        }
+
+        int index = ((ColumnExpression<?>) column).getIndex();
+        Object value = ((ConstantExpression<?>) constant).getValue();
+        QueryDataTypeFamily columnFamily = column.getType().getTypeFamily();
+        QueryDataTypeFamily constantFamily = constant.getType().getTypeFamily();
+        if (columnFamily.isNumericInteger() && constantFamily.isNumericInteger()) {
+            return new LongConjunct(index, mode, ((Number) value).longValue(), rowConjunct);
+        } else if (columnFamily.isNumericApproximate() && columnFamily == constantFamily) {
+            return new DoubleConjunct(index, mode, ((Number) value).doubleValue(), rowConjunct);
+        }
+        return rowConjunct;
+    }
+
+    /**
+     * Returns the mode to use when the operands are swapped.
+     */
+    private static ComparisonMode flip(ComparisonMode mode) {
+        switch (mode) {
+            case GREATER_THAN:
+                return ComparisonMode.LESS_THAN;
+            case GREATER_THAN_OR_EQUAL:
+                return ComparisonMode.LESS_THAN_OR_EQUAL;
+            case LESS_THAN:
+                return ComparisonMode.GREATER_THAN;
+            case LESS_THAN_OR_EQUAL:
+                return ComparisonMode.GREATER_THAN_OR_EQUAL;
+            default:
+                return mode;
+        }
+    }
+
+    private static boolean matches(ComparisonMode mode, int order) {
+        switch (mode) {
+            case EQUALS:
+                return order == 0;
+            case NOT_EQUALS:
+                return order != 0;
+            case GREATER_THAN:
+                return order > 0;
+            case GREATER_THAN_OR_EQUAL:
+                return order >= 0;
+            case LESS_THAN:
+                return order < 0;
+            case LESS_THAN_OR_EQUAL:
+                return order <= 0;
+            default:
+                throw new IllegalStateException("unexpected comparison mode: " + mode);
+        }
+    }
+
+    private interface Conjunct {
+
+        /**
+         * Removes the rows that don't pass from the first {@code count}
+         * elements of the selection, keeping the order, and returns the
+         * number of remaining rows.
+         */
+        int filter(ColumnarBatch batch, int[] selection, int count);
+    }
+
+    private static final class RowConjunct implements Conjunct {
+
+        private final Expression<Boolean> predicate;
+        private final ExpressionEvalContext context;
+
+        private RowConjunct(Expression<Boolean> predicate, ExpressionEvalContext context) {
+            this.predicate = predicate;
+            this.context = context;
+        }
+
+        @Override
+        public int filter(ColumnarBatch batch, int[] selection, int count) {
+            RowView row = new RowView(batch);
+            int passed = 0;
+            for (int i = 0; i < count; i++) {
+                int physicalIndex = selection[i];
+                if (Boolean.TRUE.equals(predicate.eval(row.at(physicalIndex), context))) {
+                    selection[passed++] = physicalIndex;
+                }
+            }
+            return passed;
+        }
+    }
+
+    private static final class LongConjunct implements Conjunct {
+
+        private final int index;
+        private final ComparisonMode mode;
+        private final long constant;
+        private final RowConjunct fallback;
+
+        private LongConjunct(int index, ComparisonMode mode, long constant, RowConjunct fallback) {
+            this.index = index;
+            this.mode = mode;
+            this.constant = constant;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public int filter(ColumnarBatch batch, int[] selection, int count) {
+            if (!(batch.getColumn(index) instanceof LongColumn)) {
+                return fallback.filter(batch, selection, count);
+            }
+
+            LongColumn column = (LongColumn) batch.getColumn(index);
+            int passed = 0;
+            for (int i = 0; i < count; i++) {
+                int physicalIndex = selection[i];
+                if (!column.isNull(physicalIndex)
+                        && matches(mode, Long.compare(column.getLong(physicalIndex), constant))) {
+                    selection[passed++] = physicalIndex;
+                }
+            }
+            return passed;
+        }
+    }
+
+    private static final class DoubleConjunct implements Conjunct {
+
+        private final int index;
+        private final ComparisonMode mode;
+        private final double constant;
+        private final RowConjunct fallback;
+
+        private DoubleConjunct(int index, ComparisonMode mode, double constant, RowConjunct fallback) {
+            this.index = index;
+            this.mode = mode;
+            this.constant = constant;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public int filter(ColumnarBatch batch, int[] selection, int count) {
+            if (!(batch.getColumn(index) instanceof DoubleColumn)) {
+                return fallback.filter(batch, selection, count);
+            }
+
+            DoubleColumn column = (DoubleColumn) batch.getColumn(index);
+            int passed = 0;
+            for (int i = 0; i < count; i++) {
+                int physicalIndex = selection[i];
+                if (!column.isNull(physicalIndex)
+                        && matches(mode, Double.compare(column.getDouble(physicalIndex), constant))) {
+                    selection[passed++] = physicalIndex;
+                }
+            }
+            return passed;
+        }
+    }
+}
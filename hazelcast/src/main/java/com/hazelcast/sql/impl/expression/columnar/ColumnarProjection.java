@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.expression.columnar;
+
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.compiled.ExpressionCompiler;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
+import com.hazelcast.sql.impl.row.ColumnarBatch.Column;
+import com.hazelcast.sql.impl.row.ColumnarBatch.RowView;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Applies a projection to {@link ColumnarBatch}es.
+ * <p>
+ * A projected column of the input is reused in the output batch without
+ * copying, other expressions are evaluated for the selected rows into new
+ * columns. The output batch keeps the selection vector of the input.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ColumnarProjection {
+
+    private final List<Expression<?>> projection;
+    private final List<Expression<?>> evaluated;
+    private final ExpressionEvalContext context;
+
+    public ColumnarProjection(@Nonnull List<Expression<?>> projection, @Nonnull ExpressionEvalContext context) {
+        this.projection = projection;
+        this.evaluated = ExpressionCompiler.compileIfEnabled(projection);
+        this.context = context;
+    }
+
+    @Nonnull
+    public ColumnarBatch apply(@Nonnull ColumnarBatch batch) {
+        Column[] columns = new Column[projection.size()];
+        RowView row = null;
+        for (int i = 0; i < columns.length; i++) {
+            Expression<?> expression = evaluated.get(i);
+            Column reused = reusableColumn(projection.get(i), batch);
+            if (reused != null) {
+                columns[i] = reused;
+                continue;
+            }
+
+            if (row == null) {
+                row = new RowView(batch);
+            }
+            Column column = Column.create(expression.getType(), batch.getPhysicalRowCount());
+            for (int j = 0; j < batch.getRowCount(); j++) {
+                int physicalIndex = batch.physicalIndex(j);
+                column.set(physicalIndex, expression.eval(row.at(physicalIndex), context));
+            }
+            columns[i] = column;
+        }
+        return batch.withColumns(columns);
+    }
+
+    private static Column reusableColumn(Expression<?> expression, ColumnarBatch batch) {
+        // OBJECT columns can contain lazily deserialized values, which the expression would deserialize
+        if (!(expression instanceof ColumnExpression)
+                || expression.getType().getTypeFamily() == QueryDataTypeFamily.OBJECT) {
+            return null;
+        }
+        Column column = batch.getColumn(((ColumnExpression<?>) expression).getIndex());
+        return column.getType().equals(expression.getType()) ? column : null;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.row.Row;
+
+/**
+ * A node producing a BOOLEAN value. The ternary value is carried as a
+ * primitive {@code int}: {@link #TRUE}, {@link #FALSE} or {@link #UNKNOWN}
+ * for {@code NULL}, so no {@link EvalState} is needed.
+ * <p>
+ * The semantics are the same as the ones of {@link
+ * com.hazelcast.sql.impl.expression.predicate.TernaryLogic}.
+ */
+abstract class BooleanNode extends EvalNode {
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+    static final int UNKNOWN = -1;
+
+    abstract int evalBoolean(Row row, ExpressionEvalContext context);
+
+    @Override
+    final Object evalObject(Row row, ExpressionEvalContext context) {
+        int value = evalBoolean(row, context);
+        return value == UNKNOWN ? null : (Object) (value == TRUE);
+    }
+
+    @Override
+    final boolean evalIsNull(Row row, ExpressionEvalContext context) {
+        return evalBoolean(row, context) == UNKNOWN;
+    }
+
+    static int toTernary(Boolean value) {
+        return value == null ? UNKNOWN : value ? TRUE : FALSE;
+    }
+
+    static boolean isTrue(int order, ComparisonMode mode) {
+        switch (mode) {
+            case EQUALS:
+                return order == 0;
+            case NOT_EQUALS:
+                return order != 0;
+            case GREATER_THAN:
+                return order > 0;
+            case GREATER_THAN_OR_EQUAL:
+                return order >= 0;
+            case LESS_THAN:
+                return order < 0;
+            case LESS_THAN_OR_EQUAL:
+                return order <= 0;
+            default:
+                throw new IllegalStateException("unexpected comparison mode: " + mode);
+        }
+    }
+
+    static final class Interpreted extends BooleanNode {
+        private final Expression<?> expression;
+
+        Interpreted(Expression<?> expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            return toTernary((Boolean) expression.eval(row, context));
+        }
+    }
+
+    static final class And extends BooleanNode {
+        private final BooleanNode[] operands;
+
+        And(BooleanNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            int result = TRUE;
+            for (BooleanNode operand : operands) {
+                int value = operand.evalBoolean(row, context);
+                if (value == FALSE) {
+                    return FALSE;
+                }
+                if (value == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+    }
+
+    static final class Or extends BooleanNode {
+        private final BooleanNode[] operands;
+
+        Or(BooleanNode[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            int result = FALSE;
+            for (BooleanNode operand : operands) {
+                int value = operand.evalBoolean(row, context);
+                if (value == TRUE) {
+                    return TRUE;
+                }
+                if (value == UNKNOWN) {
+                    result = UNKNOWN;
+                }
+            }
+            return result;
+        }
+    }
+
+    static final class Not extends BooleanNode {
+        private final BooleanNode operand;
+
+        Not(BooleanNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            int value = operand.evalBoolean(row, context);
+            return value == UNKNOWN ? UNKNOWN : TRUE - value;
+        }
+    }
+
+    static final class IsNull extends BooleanNode {
+        private final EvalNode operand;
+        private final boolean negated;
+
+        IsNull(EvalNode operand, boolean negated) {
+            this.operand = operand;
+            this.negated = negated;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            return operand.evalIsNull(row, context) != negated ? TRUE : FALSE;
+        }
+    }
+
+    static final class LongComparison extends BooleanNode {
+        private final EvalState state;
+        private final ComparisonMode mode;
+        private final LongNode operand1;
+        private final LongNode operand2;
+
+        LongComparison(EvalState state, ComparisonMode mode, LongNode operand1, LongNode operand2) {
+            this.state = state;
+            this.mode = mode;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            long left = operand1.evalLong(row, context);
+            if (state.wasNull) {
+                return UNKNOWN;
+            }
+
+            long right = operand2.evalLong(row, context);
+            if (state.wasNull) {
+                return UNKNOWN;
+            }
+
+            return isTrue(Long.compare(left, right), mode) ? TRUE : FALSE;
+        }
+    }
+
+    static final class DoubleComparison extends BooleanNode {
+        private final EvalState state;
+        private final ComparisonMode mode;
+        private final DoubleNode operand1;
+        private final DoubleNode operand2;
+
+        DoubleComparison(EvalState state, ComparisonMode mode, DoubleNode operand1, DoubleNode operand2) {
+            this.state = state;
+            this.mode = mode;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            double left = operand1.evalDouble(row, context);
+            if (state.wasNull) {
+                return UNKNOWN;
+            }
+
+            double right = operand2.evalDouble(row, context);
+            if (state.wasNull) {
+                return UNKNOWN;
+            }
+
+            // same order as Double.compareTo() and Float.compareTo(): NaN is the greatest, -0.0 is less than 0.0
+            return isTrue(Double.compare(left, right), mode) ? TRUE : FALSE;
+        }
+    }
+
+    static final class BooleanComparison extends BooleanNode {
+        private final ComparisonMode mode;
+        private final BooleanNode operand1;
+        private final BooleanNode operand2;
+
+        BooleanComparison(ComparisonMode mode, BooleanNode operand1, BooleanNode operand2) {
+            this.mode = mode;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        int evalBoolean(Row row, ExpressionEvalContext context) {
+            int left = operand1.evalBoolean(row, context);
+            if (left == UNKNOWN) {
+                return UNKNOWN;
+            }
+
+            int right = operand2.evalBoolean(row, context);
+            if (right == UNKNOWN) {
+                return UNKNOWN;
+            }
+
+            // FALSE < TRUE, like Boolean.compareTo()
+            return isTrue(Integer.compare(left, right), mode) ? TRUE : FALSE;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.SqlDataSerializerHook;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataType;
+
+import java.io.IOException;
+
+/**
+ * An expression compiled by the {@link ExpressionCompiler}.
+ * <p>
+ * It is a not thread-safe replacement of the source expression: every thread
+ * evaluating it needs its own instance. Only the source expression is
+ * serialized, the deserialized instance compiles it again on first use.
+ *
+ * @param <T> the return type of this expression.
+ */
+public final class CompiledExpression<T> implements Expression<T>, IdentifiedDataSerializable {
+
+    private static final long serialVersionUID = 3409612719414632187L;
+
+    private Expression<T> source;
+    private transient EvalNode node;
+
+    public CompiledExpression() {
+        // No-op.
+    }
+
+    CompiledExpression(Expression<T> source, EvalNode node) {
+        this.source = source;
+        this.node = node;
+    }
+
+    /**
+     * Returns the expression this one was compiled from.
+     */
+    public Expression<T> getSource() {
+        return source;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T eval(Row row, ExpressionEvalContext context) {
+        if (node == null) {
+            node = ExpressionCompiler.compileNode(source);
+        }
+        return (T) node.evalObject(row, context);
+    }
+
+    @Override
+    public QueryDataType getType() {
+        return source.getType();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SqlDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SqlDataSerializerHook.EXPRESSION_COMPILED;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeObject(source);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        source = in.readObject();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledExpression{source=" + source + '}';
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlErrorCode;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.ExpressionMath;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import static com.hazelcast.sql.impl.type.QueryDataTypeFamily.REAL;
+
+/**
+ * A node producing a value of the REAL or DOUBLE family. The value is carried
+ * as a primitive {@code double}; REAL values are always exact {@code float}
+ * values and the REAL arithmetic is done on {@code float}s, just like in the
+ * interpreted expressions.
+ */
+abstract class DoubleNode extends EvalNode {
+
+    final EvalState state;
+    final QueryDataTypeFamily family;
+
+    DoubleNode(EvalState state, QueryDataTypeFamily family) {
+        assert family.isNumericApproximate() : family;
+        this.state = state;
+        this.family = family;
+    }
+
+    /**
+     * Evaluates this node. Sets {@link EvalState#wasNull}; the returned value
+     * must be ignored if the result is {@code NULL}.
+     */
+    abstract double evalDouble(Row row, ExpressionEvalContext context);
+
+    @Override
+    final Object evalObject(Row row, ExpressionEvalContext context) {
+        double value = evalDouble(row, context);
+        if (state.wasNull) {
+            return null;
+        }
+        return family == REAL ? (Object) (float) value : (Object) value;
+    }
+
+    @Override
+    final boolean evalIsNull(Row row, ExpressionEvalContext context) {
+        evalDouble(row, context);
+        return state.wasNull;
+    }
+
+    /**
+     * Unboxes the value of an interpreted expression.
+     */
+    static final class Interpreted extends DoubleNode {
+        private final Expression<?> expression;
+
+        Interpreted(EvalState state, Expression<?> expression) {
+            super(state, expression.getType().getTypeFamily());
+            this.expression = expression;
+        }
+
+        @Override
+        double evalDouble(Row row, ExpressionEvalContext context) {
+            Object value = expression.eval(row, context);
+            if (value == null) {
+                state.wasNull = true;
+                return 0;
+            }
+            state.wasNull = false;
+            return ((Number) value).doubleValue();
+        }
+    }
+
+    /**
+     * Widens an integer operand of a DOUBLE expression.
+     */
+    static final class FromLong extends DoubleNode {
+        private final LongNode operand;
+
+        FromLong(EvalState state, LongNode operand) {
+            super(state, QueryDataTypeFamily.DOUBLE);
+            this.operand = operand;
+        }
+
+        @Override
+        double evalDouble(Row row, ExpressionEvalContext context) {
+            return operand.evalLong(row, context);
+        }
+    }
+
+    static final class Arithmetic extends DoubleNode {
+        private final ArithmeticOperator operator;
+        private final DoubleNode operand1;
+        private final DoubleNode operand2;
+
+        Arithmetic(EvalState state, QueryDataTypeFamily family, ArithmeticOperator operator,
+                   DoubleNode operand1, DoubleNode operand2) {
+            super(state, family);
+            this.operator = operator;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        double evalDouble(Row row, ExpressionEvalContext context) {
+            double left = operand1.evalDouble(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+
+            double right = operand2.evalDouble(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+
+            return family == REAL ? evalFloat((float) left, (float) right) : evalDouble(left, right);
+        }
+
+        private double evalDouble(double left, double right) {
+            switch (operator) {
+                case PLUS:
+                    return left + right;
+                case MINUS:
+                    return left - right;
+                case MULTIPLY:
+                    return left * right;
+                case DIVIDE:
+                    try {
+                        return ExpressionMath.divideExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw divisionByZero(e);
+                    }
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + operator);
+            }
+        }
+
+        private float evalFloat(float left, float right) {
+            switch (operator) {
+                case PLUS:
+                    return left + right;
+                case MINUS:
+                    return left - right;
+                case MULTIPLY:
+                    return left * right;
+                case DIVIDE:
+                    try {
+                        return ExpressionMath.divideExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw divisionByZero(e);
+                    }
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + operator);
+            }
+        }
+
+        private static QueryException divisionByZero(ArithmeticException e) {
+            return QueryException.error(SqlErrorCode.DATA_EXCEPTION, "Division by zero", e);
+        }
+    }
+
+    static final class Negate extends DoubleNode {
+        private final DoubleNode operand;
+
+        Negate(EvalState state, QueryDataTypeFamily family, DoubleNode operand) {
+            super(state, family);
+            this.operand = operand;
+        }
+
+        @Override
+        double evalDouble(Row row, ExpressionEvalContext context) {
+            double value = operand.evalDouble(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+            return family == REAL ? -(float) value : -value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.Row;
+
+/**
+ * A node of a compiled expression tree.
+ * <p>
+ * Nodes are not thread-safe: the primitive-specialized nodes share an
+ * {@link EvalState} to signal SQL {@code NULL} without boxing.
+ */
+abstract class EvalNode {
+
+    /**
+     * Evaluates this node, boxing the result.
+     */
+    abstract Object evalObject(Row row, ExpressionEvalContext context);
+
+    /**
+     * Evaluates this node, only checking if the result is {@code NULL}.
+     */
+    boolean evalIsNull(Row row, ExpressionEvalContext context) {
+        return evalObject(row, context) == null;
+    }
+
+    /**
+     * The mutable state shared by the nodes of a single compiled expression.
+     */
+    static final class EvalState {
+        /**
+         * Set by every primitive evaluation: whether its result is {@code NULL}.
+         * The returned primitive must be ignored then.
+         */
+        boolean wasNull;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.expression.BiExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.compiled.EvalNode.EvalState;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.MinusFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.sql.impl.type.QueryDataTypeFamily.BOOLEAN;
+import static com.hazelcast.sql.impl.type.QueryDataTypeFamily.DOUBLE;
+
+/**
+ * Compiles an interpreted expression tree into a tree of {@link EvalNode}s,
+ * which evaluate numeric and boolean expressions on primitives instead of
+ * boxing every intermediate value.
+ * <p>
+ * The compiled operations are {@code +, -, *, /} and unary {@code -} on the
+ * integer and approximate numeric types, comparisons of these types and of
+ * BOOLEAN, {@code AND, OR, NOT, IS NULL} and {@code IS NOT NULL}. Any other
+ * expression is evaluated by the interpreter, but its operands can still be
+ * compiled.
+ * <p>
+ * The compilation is disabled by default; it is enabled by the {@code
+ * hazelcast.sql.expression.compilation.enabled} system property.
+ */
+@SuppressWarnings("checkstyle:classdataabstractioncoupling")
+public final class ExpressionCompiler {
+
+    private static final boolean COMPILATION_ENABLED = Boolean.getBoolean("hazelcast.sql.expression.compilation.enabled");
+
+    private final EvalState state = new EvalState();
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compiles the expression if the compilation is enabled.
+     *
+     * @see #compile(Expression)
+     */
+    public static <T> Expression<T> compileIfEnabled(Expression<T> expression) {
+        return COMPILATION_ENABLED && expression != null ? compile(expression) : expression;
+    }
+
+    /**
+     * Compiles the expressions if the compilation is enabled.
+     *
+     * @see #compile(Expression)
+     */
+    public static List<Expression<?>> compileIfEnabled(List<Expression<?>> expressions) {
+        if (!COMPILATION_ENABLED || expressions == null) {
+            return expressions;
+        }
+
+        List<Expression<?>> result = new ArrayList<>(expressions.size());
+        for (Expression<?> expression : expressions) {
+            result.add(compile(expression));
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the expression.
+     * <p>
+     * The returned expression is not thread-safe. If nothing of the expression
+     * can be compiled, the expression itself is returned.
+     *
+     * @param expression the expression to compile
+     * @return the compiled expression or the expression itself
+     */
+    public static <T> Expression<T> compile(Expression<T> expression) {
+        EvalNode node = compileNode(expression);
+        if (node instanceof InterpretedNode || node instanceof LongNode.Interpreted
+                || node instanceof DoubleNode.Interpreted || node instanceof BooleanNode.Interpreted) {
+            return expression;
+        }
+        return new CompiledExpression<>(expression, node);
+    }
+
+    /**
+     * Compiles the expression into a tree of evaluation nodes.
+     */
+    static EvalNode compileNode(Expression<?> expression) {
+        return new ExpressionCompiler().compileAny(expression);
+    }
+
+    private EvalNode compileAny(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        if (family.isNumericInteger()) {
+            return compileLong(expression);
+        } else if (family.isNumericApproximate()) {
+            return compileDouble(expression);
+        } else if (family == BOOLEAN) {
+            return compileBoolean(expression);
+        } else {
+            return new InterpretedNode(expression);
+        }
+    }
+
+    private LongNode compileLong(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        ArithmeticOperator operator = arithmeticOperator(expression);
+        if (operator != null) {
+            BiExpression<?> arithmetic = (BiExpression<?>) expression;
+            Expression<?> operand1 = arithmetic.getOperand1();
+            Expression<?> operand2 = arithmetic.getOperand2();
+            if (isNumericInteger(operand1) && isNumericInteger(operand2)) {
+                return new LongNode.Arithmetic(state, family, operator, compileLong(operand1), compileLong(operand2));
+            }
+        } else if (expression instanceof UnaryMinusFunction) {
+            Expression<?> operand = ((UnaryMinusFunction<?>) expression).getOperand();
+            if (isNumericInteger(operand)) {
+                return new LongNode.Negate(state, family, compileLong(operand));
+            }
+        }
+        return new LongNode.Interpreted(state, expression);
+    }
+
+    private DoubleNode compileDouble(Expression<?> expression) {
+        QueryDataTypeFamily family = expression.getType().getTypeFamily();
+        ArithmeticOperator operator = arithmeticOperator(expression);
+        if (operator != null) {
+            BiExpression<?> arithmetic = (BiExpression<?>) expression;
+            Expression<?> operand1 = arithmetic.getOperand1();
+            Expression<?> operand2 = arithmetic.getOperand2();
+            if (isDoubleOperand(family, operand1) && isDoubleOperand(family, operand2)) {
+                return new DoubleNode.Arithmetic(state, family, operator,
+                        compileDoubleOperand(operand1), compileDoubleOperand(operand2));
+            }
+        } else if (expression instanceof UnaryMinusFunction) {
+            Expression<?> operand = ((UnaryMinusFunction<?>) expression).getOperand();
+            if (operand.getType().getTypeFamily() == family) {
+                return new DoubleNode.Negate(state, family, compileDouble(operand));
+            }
+        }
+        return new DoubleNode.Interpreted(state, expression);
+    }
+
+    /**
+     * A DOUBLE expression can have operands of any integer or approximate type,
+     * they are widened to {@code double}. A REAL expression must have REAL
+     * operands, widening an integer to {@code double} and then narrowing it to
+     * {@code float} could round differently than the interpreter does.
+     */
+    private static boolean isDoubleOperand(QueryDataTypeFamily family, Expression<?> operand) {
+        QueryDataTypeFamily operandFamily = operand.getType().getTypeFamily();
+        if (family == DOUBLE) {
+            return operandFamily.isNumericInteger() || operandFamily.isNumericApproximate();
+        } else {
+            return operandFamily == family;
+        }
+    }
+
+    private DoubleNode compileDoubleOperand(Expression<?> operand) {
+        if (operand.getType().getTypeFamily().isNumericInteger()) {
+            return new DoubleNode.FromLong(state, compileLong(operand));
+        }
+        return compileDouble(operand);
+    }
+
+    private BooleanNode compileBoolean(Expression<?> expression) {
+        if (expression instanceof AndPredicate) {
+            return new BooleanNode.And(compileBooleans(((AndPredicate) expression).getOperands()));
+        } else if (expression instanceof OrPredicate) {
+            return new BooleanNode.Or(compileBooleans(((OrPredicate) expression).getOperands()));
+        } else if (expression instanceof NotPredicate) {
+            return new BooleanNode.Not(compileBoolean(((NotPredicate) expression).getOperand()));
+        } else if (expression instanceof IsNullPredicate) {
+            return new BooleanNode.IsNull(compileAny(((IsNullPredicate) expression).getOperand()), false);
+        } else if (expression instanceof IsNotNullPredicate) {
+            return new BooleanNode.IsNull(compileAny(((IsNotNullPredicate) expression).getOperand()), true);
+        } else if (expression instanceof ComparisonPredicate) {
+            return compileComparison((ComparisonPredicate) expression);
+        }
+        return new BooleanNode.Interpreted(expression);
+    }
+
+    private BooleanNode[] compileBooleans(Expression<?>[] operands) {
+        BooleanNode[] nodes = new BooleanNode[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            nodes[i] = compileBoolean(operands[i]);
+        }
+        return nodes;
+    }
+
+    private BooleanNode compileComparison(ComparisonPredicate comparison) {
+        Expression<?> operand1 = comparison.getOperand1();
+        Expression<?> operand2 = comparison.getOperand2();
+        QueryDataTypeFamily family = operand1.getType().getTypeFamily();
+        if (family != operand2.getType().getTypeFamily()) {
+            return new BooleanNode.Interpreted(comparison);
+        }
+
+        if (family.isNumericInteger()) {
+            return new BooleanNode.LongComparison(state, comparison.getMode(), compileLong(operand1), compileLong(operand2));
+        } else if (family.isNumericApproximate()) {
+            return new BooleanNode.DoubleComparison(state, comparison.getMode(),
+                    compileDouble(operand1), compileDouble(operand2));
+        } else if (family == BOOLEAN) {
+            return new BooleanNode.BooleanComparison(comparison.getMode(), compileBoolean(operand1), compileBoolean(operand2));
+        }
+        return new BooleanNode.Interpreted(comparison);
+    }
+
+    private static ArithmeticOperator arithmeticOperator(Expression<?> expression) {
+        if (expression instanceof PlusFunction) {
+            return ArithmeticOperator.PLUS;
+        } else if (expression instanceof MinusFunction) {
+            return ArithmeticOperator.MINUS;
+        } else if (expression instanceof MultiplyFunction) {
+            return ArithmeticOperator.MULTIPLY;
+        } else if (expression instanceof DivideFunction) {
+            return ArithmeticOperator.DIVIDE;
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isNumericInteger(Expression<?> expression) {
+        return expression.getType().getTypeFamily().isNumericInteger();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.Row;
+
+/**
+ * A node that evaluates an expression with the interpreter. Used for the
+ * expressions which aren't compiled.
+ */
+final class InterpretedNode extends EvalNode {
+
+    private final Expression<?> expression;
+
+    InterpretedNode(Expression<?> expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    Object evalObject(Row row, ExpressionEvalContext context) {
+        return expression.eval(row, context);
+    }
+}
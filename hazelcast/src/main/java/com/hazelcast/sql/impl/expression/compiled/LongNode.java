@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlErrorCode;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.ExpressionMath;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+/**
+ * A node producing a value of one of the integer families: TINYINT, SMALLINT,
+ * INTEGER or BIGINT. The value is carried as a primitive {@code long} and only
+ * boxed to the Java type of the family by {@link #evalObject}.
+ * <p>
+ * The semantics, including overflow handling and error messages, are the same
+ * as the ones of the interpreted expressions, e.g. {@link
+ * com.hazelcast.sql.impl.expression.math.PlusFunction}.
+ */
+abstract class LongNode extends EvalNode {
+
+    final EvalState state;
+    final QueryDataTypeFamily family;
+
+    LongNode(EvalState state, QueryDataTypeFamily family) {
+        assert family.isNumericInteger() : family;
+        this.state = state;
+        this.family = family;
+    }
+
+    /**
+     * Evaluates this node. Sets {@link EvalState#wasNull}; the returned value
+     * must be ignored if the result is {@code NULL}.
+     */
+    abstract long evalLong(Row row, ExpressionEvalContext context);
+
+    @Override
+    final Object evalObject(Row row, ExpressionEvalContext context) {
+        long value = evalLong(row, context);
+        if (state.wasNull) {
+            return null;
+        }
+
+        switch (family) {
+            case TINYINT:
+                return (byte) value;
+            case SMALLINT:
+                return (short) value;
+            case INTEGER:
+                return (int) value;
+            default:
+                return value;
+        }
+    }
+
+    @Override
+    final boolean evalIsNull(Row row, ExpressionEvalContext context) {
+        evalLong(row, context);
+        return state.wasNull;
+    }
+
+    /**
+     * Unboxes the value of an interpreted expression.
+     */
+    static final class Interpreted extends LongNode {
+        private final Expression<?> expression;
+
+        Interpreted(EvalState state, Expression<?> expression) {
+            super(state, expression.getType().getTypeFamily());
+            this.expression = expression;
+        }
+
+        @Override
+        long evalLong(Row row, ExpressionEvalContext context) {
+            Object value = expression.eval(row, context);
+            if (value == null) {
+                state.wasNull = true;
+                return 0;
+            }
+            state.wasNull = false;
+            return ((Number) value).longValue();
+        }
+    }
+
+    static final class Arithmetic extends LongNode {
+        private final ArithmeticOperator operator;
+        private final LongNode operand1;
+        private final LongNode operand2;
+
+        Arithmetic(EvalState state, QueryDataTypeFamily family, ArithmeticOperator operator,
+                   LongNode operand1, LongNode operand2) {
+            super(state, family);
+            this.operator = operator;
+            this.operand1 = operand1;
+            this.operand2 = operand2;
+        }
+
+        @Override
+        long evalLong(Row row, ExpressionEvalContext context) {
+            long left = operand1.evalLong(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+
+            long right = operand2.evalLong(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+
+            switch (operator) {
+                case PLUS:
+                    return plus(left, right);
+                case MINUS:
+                    return minus(left, right);
+                case MULTIPLY:
+                    return multiply(left, right);
+                case DIVIDE:
+                    return divide(left, right);
+                default:
+                    throw new IllegalStateException("Unexpected operator: " + operator);
+            }
+        }
+
+        private long plus(long left, long right) {
+            switch (family) {
+                case TINYINT:
+                    return (byte) ((byte) left + (byte) right);
+                case SMALLINT:
+                    return (short) ((short) left + (short) right);
+                case INTEGER:
+                    return (int) left + (int) right;
+                default:
+                    try {
+                        return Math.addExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw overflow();
+                    }
+            }
+        }
+
+        private long minus(long left, long right) {
+            switch (family) {
+                case TINYINT:
+                    return (byte) ((byte) left - (byte) right);
+                case SMALLINT:
+                    return (short) ((short) left - (short) right);
+                case INTEGER:
+                    return (int) left - (int) right;
+                default:
+                    try {
+                        return Math.subtractExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw overflow();
+                    }
+            }
+        }
+
+        private long multiply(long left, long right) {
+            switch (family) {
+                case TINYINT:
+                    return (byte) ((byte) left * (byte) right);
+                case SMALLINT:
+                    return (short) ((short) left * (short) right);
+                case INTEGER:
+                    return (int) left * (int) right;
+                default:
+                    try {
+                        return Math.multiplyExact(left, right);
+                    } catch (ArithmeticException e) {
+                        throw overflow();
+                    }
+            }
+        }
+
+        private long divide(long left, long right) {
+            try {
+                switch (family) {
+                    case TINYINT:
+                        return (byte) ((byte) left / right);
+                    case SMALLINT:
+                        return (short) ((short) left / right);
+                    case INTEGER:
+                        return (int) ((int) left / right);
+                    default:
+                        return ExpressionMath.divideExact(left, right);
+                }
+            } catch (ArithmeticException e) {
+                throw QueryException.error(SqlErrorCode.DATA_EXCEPTION, "Division by zero", e);
+            }
+        }
+
+        private QueryException overflow() {
+            return QueryException.error(SqlErrorCode.DATA_EXCEPTION,
+                    "BIGINT overflow in '" + operator.symbol() + "' operator (consider adding explicit CAST to DECIMAL)");
+        }
+    }
+
+    static final class Negate extends LongNode {
+        private final LongNode operand;
+
+        Negate(EvalState state, QueryDataTypeFamily family, LongNode operand) {
+            super(state, family);
+            this.operand = operand;
+        }
+
+        @Override
+        long evalLong(Row row, ExpressionEvalContext context) {
+            long value = operand.evalLong(row, context);
+            if (state.wasNull) {
+                return 0;
+            }
+
+            switch (family) {
+                case TINYINT:
+                    return (byte) -(byte) value;
+                case SMALLINT:
+                    return (short) -(short) value;
+                case INTEGER:
+                    return -(int) value;
+                default:
+                    try {
+                        return Math.negateExact(value);
+                    } catch (ArithmeticException e) {
+                        throw QueryException.error(SqlErrorCode.DATA_EXCEPTION,
+                                "BIGINT overflow in unary '-' operator (consider adding explicit CAST to DECIMAL)");
+                    }
+            }
+        }
+    }
+}
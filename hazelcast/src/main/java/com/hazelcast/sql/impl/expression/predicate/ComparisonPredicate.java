@@ -131,6 +131,10 @@ public final class ComparisonPredicate extends BiExpression<Boolean> implements
         return QueryDataType.BOOLEAN;
     }
 
+    public ComparisonMode getMode() {
+        return mode;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         super.writeData(out);
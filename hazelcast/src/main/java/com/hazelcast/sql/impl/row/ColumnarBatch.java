@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.row;
+
+import com.hazelcast.function.BiConsumerEx;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.jet.core.JetDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A batch of rows stored column by column. With columnar batches enabled
+ * (see {@link com.hazelcast.spi.properties.ClusterProperty#SQL_COLUMNAR_BATCH_SIZE}),
+ * the Jet SQL engine passes one batch instead of one {@link JetSqlRow} per
+ * item between the IMap scan, filters, projections, aggregations and the
+ * root sink, which converts the batch back to rows.
+ * <p>
+ * Values of the integer and approximate numeric types are stored in
+ * primitive arrays, values of other types as objects, possibly serialized.
+ * Rows removed by a filter are not removed from the columns, instead the
+ * batch carries a <em>selection vector</em> with the indices of the rows
+ * that remain. The {@link RowBatch} methods and the {@code index} arguments
+ * count selected rows only; the methods taking a {@code physicalIndex}
+ * address the column arrays directly.
+ * <p>
+ * A batch is not modified after it was built, except that deserialized
+ * values are cached like in {@link JetSqlRow}: filtering and projecting
+ * create new batches sharing the unchanged columns.
+ */
+public final class ColumnarBatch implements RowBatch, IdentifiedDataSerializable {
+
+    private SerializationService ss;
+    private int physicalRowCount;
+    private Column[] columns;
+    // physical indices of the selected rows in ascending order, null if all rows are selected
+    private int[] selection;
+    private int rowCount;
+
+    // for deserialization
+    public ColumnarBatch() {
+    }
+
+    ColumnarBatch(SerializationService ss, int physicalRowCount, Column[] columns, int[] selection, int rowCount) {
+        this.ss = ss;
+        this.physicalRowCount = physicalRowCount;
+        this.columns = columns;
+        this.selection = selection;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Returns the number of selected rows.
+     */
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns a view of the selected row at the given index. The view is
+     * allocated by every call, use {@link RowView} to iterate.
+     */
+    @Override
+    public Row getRow(int index) {
+        return new RowView(this).at(physicalIndex(index));
+    }
+
+    /**
+     * Returns the number of rows in the columns, including the ones that are
+     * not selected.
+     */
+    public int getPhysicalRowCount() {
+        return physicalRowCount;
+    }
+
+    /**
+     * Returns the physical index of the selected row at the given index.
+     */
+    public int physicalIndex(int index) {
+        return selection == null ? index : selection[index];
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public Column getColumn(int index) {
+        return columns[index];
+    }
+
+    public SerializationService getSerializationService() {
+        return ss;
+    }
+
+    /**
+     * Returns a batch with the same columns and the given rows selected.
+     *
+     * @param selection physical indices of the selected rows in ascending
+     *                  order, the array is not copied
+     * @param rowCount  the number of valid elements in {@code selection}
+     */
+    public ColumnarBatch withSelection(@Nonnull int[] selection, int rowCount) {
+        return new ColumnarBatch(ss, physicalRowCount, columns, selection, rowCount);
+    }
+
+    /**
+     * Returns a batch with the same rows selected and the given columns. The
+     * columns must have the physical row count of this batch.
+     */
+    public ColumnarBatch withColumns(@Nonnull Column[] columns) {
+        return new ColumnarBatch(ss, physicalRowCount, columns, selection, rowCount);
+    }
+
+    /**
+     * Returns the selected row at the given index as a {@link JetSqlRow}.
+     */
+    public JetSqlRow toJetSqlRow(int index) {
+        int physicalIndex = physicalIndex(index);
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].get(physicalIndex);
+        }
+        return new JetSqlRow(ss, values);
+    }
+
+    /**
+     * Passes the selected rows to the given action as {@link JetSqlRow}s.
+     */
+    public void forEachRow(Consumer<? super JetSqlRow> action) {
+        for (int i = 0; i < rowCount; i++) {
+            action.accept(toJetSqlRow(i));
+        }
+    }
+
+    /**
+     * Returns the selected rows as {@link JetSqlRow}s.
+     */
+    public List<JetSqlRow> toJetSqlRows() {
+        List<JetSqlRow> rows = new ArrayList<>(rowCount);
+        forEachRow(rows::add);
+        return rows;
+    }
+
+    /**
+     * Adapts the accumulate function of an aggregation over rows to accept
+     * batches, each selected row is accumulated in order.
+     */
+    public static <A> BiConsumerEx<A, ColumnarBatch> accumulateFn(
+            @Nonnull BiConsumerEx<? super A, ? super JetSqlRow> rowAccumulateFn
+    ) {
+        return (acc, batch) -> {
+            for (int i = 0; i < batch.rowCount; i++) {
+                rowAccumulateFn.accept(acc, batch.toJetSqlRow(i));
+            }
+        };
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return JetDataSerializerHook.JET_SQL_COLUMNAR_BATCH;
+    }
+
+    /**
+     * Writes the selected rows only, the deserialized batch has no selection
+     * vector.
+     */
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(rowCount);
+        out.writeInt(columns.length);
+        for (Column column : columns) {
+            out.writeObject(column.type);
+            for (int i = 0; i < rowCount; i++) {
+                column.writeValue(out, physicalIndex(i), ss);
+            }
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        ss = ((SerializationServiceSupport) in).getSerializationService();
+        rowCount = in.readInt();
+        physicalRowCount = rowCount;
+        columns = new Column[in.readInt()];
+        for (int c = 0; c < columns.length; c++) {
+            Column column = Column.create(in.readObject(), rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                column.readValue(in, i);
+            }
+            columns[c] = column;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ColumnarBatch{rowCount=").append(rowCount).append(", rows=[");
+        for (int i = 0; i < rowCount; i++) {
+            sb.append(i == 0 ? "" : ", ").append(toJetSqlRow(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * A reusable {@link Row} view of a single physical row of a batch. The
+     * values are returned deserialized.
+     */
+    public static final class RowView implements Row {
+
+        private final ColumnarBatch batch;
+        private int physicalIndex;
+
+        public RowView(ColumnarBatch batch) {
+            this.batch = batch;
+        }
+
+        /**
+         * Points this view to the given physical row and returns it.
+         */
+        public RowView at(int physicalIndex) {
+            this.physicalIndex = physicalIndex;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T get(int index) {
+            return (T) batch.columns[index].getDeserialized(physicalIndex, batch.ss);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return batch.columns.length;
+        }
+    }
+
+    /**
+     * A column of a batch. A column is filled using {@link #set} while it is
+     * being built and not modified afterwards.
+     */
+    public abstract static class Column {
+
+        final QueryDataType type;
+
+        Column(QueryDataType type) {
+            this.type = type;
+        }
+
+        /**
+         * Creates a column for values of the given type with all values
+         * {@code null}.
+         */
+        public static Column create(QueryDataType type, int length) {
+            QueryDataTypeFamily family = type.getTypeFamily();
+            if (family.isNumericInteger()) {
+                return new LongColumn(type, length);
+            } else if (family.isNumericApproximate()) {
+                return new DoubleColumn(type, length);
+            } else {
+                return new ObjectColumn(type, length);
+            }
+        }
+
+        public QueryDataType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the value at the given physical index, which might be
+         * serialized.
+         */
+        public abstract Object get(int physicalIndex);
+
+        /**
+         * Returns the deserialized value at the given physical index.
+         */
+        public Object getDeserialized(int physicalIndex, SerializationService ss) {
+            return get(physicalIndex);
+        }
+
+        public abstract boolean isNull(int physicalIndex);
+
+        /**
+         * Sets the value at the given physical index. The value must be of
+         * this column's type, or serialized for an {@link ObjectColumn}.
+         */
+        public abstract void set(int physicalIndex, Object value);
+
+        abstract void writeValue(ObjectDataOutput out, int physicalIndex, SerializationService ss) throws IOException;
+
+        abstract void readValue(ObjectDataInput in, int physicalIndex) throws IOException;
+    }
+
+    /**
+     * A column of TINYINT, SMALLINT, INTEGER or BIGINT values stored as
+     * {@code long}s.
+     */
+    public static final class LongColumn extends Column {
+
+        private final QueryDataTypeFamily family;
+        private final long[] values;
+        private final boolean[] nulls;
+
+        LongColumn(QueryDataType type, int length) {
+            super(type);
+            this.family = type.getTypeFamily();
+            this.values = new long[length];
+            this.nulls = new boolean[length];
+            Arrays.fill(nulls, true);
+        }
+
+        public long getLong(int physicalIndex) {
+            return values[physicalIndex];
+        }
+
+        @Override
+        public boolean isNull(int physicalIndex) {
+            return nulls[physicalIndex];
+        }
+
+        @Override
+        public Object get(int physicalIndex) {
+            if (nulls[physicalIndex]) {
+                return null;
+            }
+            long value = values[physicalIndex];
+            switch (family) {
+                case TINYINT:
+                    return (byte) value;
+                case SMALLINT:
+                    return (short) value;
+                case INTEGER:
+                    return (int) value;
+                default:
+                    return value;
+            }
+        }
+
+        @Override
+        public void set(int physicalIndex, Object value) {
+            nulls[physicalIndex] = value == null;
+            values[physicalIndex] = value == null ? 0 : ((Number) value).longValue();
+        }
+
+        @Override
+        void writeValue(ObjectDataOutput out, int physicalIndex, SerializationService ss) throws IOException {
+            out.writeBoolean(nulls[physicalIndex]);
+            out.writeLong(values[physicalIndex]);
+        }
+
+        @Override
+        void readValue(ObjectDataInput in, int physicalIndex) throws IOException {
+            nulls[physicalIndex] = in.readBoolean();
+            values[physicalIndex] = in.readLong();
+        }
+    }
+
+    /**
+     * A column of REAL or DOUBLE values stored as {@code double}s.
+     */
+    public static final class DoubleColumn extends Column {
+
+        private final boolean real;
+        private final double[] values;
+        private final boolean[] nulls;
+
+        DoubleColumn(QueryDataType type, int length) {
+            super(type);
+            this.real = type.getTypeFamily() == QueryDataTypeFamily.REAL;
+            this.values = new double[length];
+            this.nulls = new boolean[length];
+            Arrays.fill(nulls, true);
+        }
+
+        public double getDouble(int physicalIndex) {
+            return values[physicalIndex];
+        }
+
+        @Override
+        public boolean isNull(int physicalIndex) {
+            return nulls[physicalIndex];
+        }
+
+        @Override
+        public Object get(int physicalIndex) {
+            if (nulls[physicalIndex]) {
+                return null;
+            }
+            double value = values[physicalIndex];
+            return real ? (Object) (float) value : (Object) value;
+        }
+
+        @Override
+        public void set(int physicalIndex, Object value) {
+            nulls[physicalIndex] = value == null;
+            values[physicalIndex] = value == null ? 0 : ((Number) value).doubleValue();
+        }
+
+        @Override
+        void writeValue(ObjectDataOutput out, int physicalIndex, SerializationService ss) throws IOException {
+            out.writeBoolean(nulls[physicalIndex]);
+            out.writeDouble(values[physicalIndex]);
+        }
+
+        @Override
+        void readValue(ObjectDataInput in, int physicalIndex) throws IOException {
+            nulls[physicalIndex] = in.readBoolean();
+            values[physicalIndex] = in.readDouble();
+        }
+    }
+
+    /**
+     * A column of values of any other type, stored as objects which might be
+     * serialized, see {@link JetSqlRow}.
+     */
+    public static final class ObjectColumn extends Column {
+
+        private final Object[] values;
+
+        ObjectColumn(QueryDataType type, int length) {
+            super(type);
+            this.values = new Object[length];
+        }
+
+        @Override
+        public Object get(int physicalIndex) {
+            return values[physicalIndex];
+        }
+
+        @Override
+        public Object getDeserialized(int physicalIndex, SerializationService ss) {
+            values[physicalIndex] = ss.toObject(values[physicalIndex]);
+            return values[physicalIndex];
+        }
+
+        @Override
+        public boolean isNull(int physicalIndex) {
+            return values[physicalIndex] == null;
+        }
+
+        @Override
+        public void set(int physicalIndex, Object value) {
+            values[physicalIndex] = value;
+        }
+
+        @Override
+        void writeValue(ObjectDataOutput out, int physicalIndex, SerializationService ss) throws IOException {
+            IOUtil.writeData(out, ss.toData(values[physicalIndex]));
+        }
+
+        @Override
+        void readValue(ObjectDataInput in, int physicalIndex) throws IOException {
+            values[physicalIndex] = IOUtil.readData(in);
+        }
+    }
+}
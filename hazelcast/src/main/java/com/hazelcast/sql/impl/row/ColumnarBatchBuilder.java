@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.row;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.sql.impl.row.ColumnarBatch.Column;
+import com.hazelcast.sql.impl.type.QueryDataType;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Collects {@link JetSqlRow}s into a {@link ColumnarBatch}. The builder can
+ * be reused after {@link #build()}.
+ */
+public final class ColumnarBatchBuilder {
+
+    private final SerializationService ss;
+    private final QueryDataType[] types;
+    private final int capacity;
+
+    private Column[] columns;
+    private int rowCount;
+
+    public ColumnarBatchBuilder(@Nonnull SerializationService ss, @Nonnull QueryDataType[] types, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.ss = ss;
+        this.types = types;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a row to the batch being built. The row must have a field for each
+     * of the builder's types and the builder must not be full.
+     */
+    public void add(@Nonnull JetSqlRow row) {
+        assert row.getFieldCount() == types.length : "unexpected field count: " + row.getFieldCount();
+        if (columns == null) {
+            columns = new Column[types.length];
+            for (int i = 0; i < types.length; i++) {
+                columns[i] = Column.create(types[i], capacity);
+            }
+        }
+        for (int i = 0; i < columns.length; i++) {
+            // numeric values are never serialized, don't deserialize values of other types
+            columns[i].set(rowCount, columns[i] instanceof ColumnarBatch.ObjectColumn
+                    ? row.getMaybeSerialized(i)
+                    : row.get(i));
+        }
+        rowCount++;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    public boolean isFull() {
+        return rowCount == capacity;
+    }
+
+    /**
+     * Returns a batch with the rows added since the last call and resets the
+     * builder.
+     */
+    @Nonnull
+    public ColumnarBatch build() {
+        Column[] builtColumns = columns;
+        if (builtColumns == null) {
+            builtColumns = new Column[types.length];
+            for (int i = 0; i < types.length; i++) {
+                builtColumns[i] = Column.create(types[i], 0);
+            }
+        }
+        ColumnarBatch batch = new ColumnarBatch(ss, rowCount, builtColumns, null, rowCount);
+        columns = null;
+        rowCount = 0;
+        return batch;
+    }
+}
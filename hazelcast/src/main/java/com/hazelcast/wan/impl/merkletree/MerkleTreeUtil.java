@@ -359,6 +359,37 @@ public final class MerkleTreeUtil {
         }
     }
 
+    /**
+     * Returns the hashes of the leaves of a Merkle tree
+     *
+     * @param merkleTreeView The Merkle tree which leaves to be returned
+     * @return the hashes of the leaves from left to right
+     */
+    public static int[] getLeaves(MerkleTreeView merkleTreeView) {
+        int leafLevel = merkleTreeView.depth() - 1;
+        int numberOfLeaves = getNodesOnLevel(leafLevel);
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+        int[] leaves = new int[numberOfLeaves];
+
+        for (int i = 0; i < numberOfLeaves; i++) {
+            leaves[i] = merkleTreeView.getNodeHash(leftMostLeaf + i);
+        }
+
+        return leaves;
+    }
+
+    /**
+     * Creates a {@link RemoteMerkleTreeView} from the hashes of the leaves
+     * of a Merkle tree
+     *
+     * @param leaves The hashes of the leaves from left to right
+     * @return the view representing the remote Merkle tree
+     */
+    public static RemoteMerkleTreeView createRemoteMerkleTreeView(int[] leaves) {
+        int depth = QuickMath.log2(leaves.length << 1);
+        return new RemoteMerkleTreeView(leaves, depth);
+    }
+
     /**
      * Creates a {@link RemoteMerkleTreeView} by reading the hashes of
      * the leaves of a Merkle tree from the provided {@link DataInput}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CountByValueAggregationTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testCountByValueAggregator_withAttributePath_withNull() {
+        Person[] people = {new Person(5.1), new Person(3.3), new Person(5.1), new Person(null), new Person(5.1)};
+        Map<Double, Long> expectation = new HashMap<>();
+        expectation.put(5.1, 3L);
+        expectation.put(3.3, 1L);
+        expectation.put(null, 1L);
+
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Long>> aggregation = Aggregators.countByValue("age");
+        for (int i = 0; i < 3; i++) {
+            aggregation.accumulate(createExtractableEntryWithValue(people[i], ss));
+        }
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Long>> otherAggregation = Aggregators.countByValue("age");
+        for (int i = 3; i < people.length; i++) {
+            otherAggregation.accumulate(createExtractableEntryWithValue(people[i], ss));
+        }
+
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Long>> resultAggregation = Aggregators.countByValue("age");
+        resultAggregation.combine(aggregation);
+        resultAggregation.combine(otherAggregation);
+        Map<Double, Long> result = resultAggregation.aggregate();
+
+        assertThat(result, is(equalTo(expectation)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testCountByValueAggregator_serialization() {
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Long>> aggregation = Aggregators.countByValue("age");
+        aggregation.accumulate(createExtractableEntryWithValue(new Person(5.1), ss));
+        aggregation.accumulate(createExtractableEntryWithValue(new Person(null), ss));
+
+        Aggregator<Map.Entry<Person, Person>, Map<Double, Long>> deserialized = ss.toObject(ss.toData(aggregation));
+
+        assertThat(deserialized, is(equalTo(aggregation)));
+        assertThat(deserialized.aggregate(), is(equalTo(aggregation.aggregate())));
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import java.util.function.Consumer;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.fail;
 
 public abstract class AbstractCardinalityEstimatorNullTest extends HazelcastTestSupport {
@@ -32,6 +33,10 @@ public abstract class AbstractCardinalityEstimatorNullTest extends HazelcastTest
     public void testNullability() {
         assertThrowsNPE(c -> c.add(null));
         assertThrowsNPE(c -> c.addAsync(null));
+        assertThrowsNPE(c -> c.addAll(null));
+        assertThrowsNPE(c -> c.addAllAsync(null));
+        assertThrowsNPE(c -> c.addAll(singletonList(null)));
+        assertThrowsNPE(c -> c.addAllAsync(singletonList(null)));
     }
 
     private void assertThrowsNPE(ConsumerEx<CardinalityEstimator> method) {
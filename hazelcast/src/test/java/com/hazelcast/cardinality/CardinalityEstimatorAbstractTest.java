@@ -31,6 +31,7 @@ import org.junit.runners.Parameterized.Parameters;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
@@ -108,6 +109,24 @@ public abstract class CardinalityEstimatorAbstractTest extends HazelcastTestSupp
         assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
     }
 
+    @Test
+    public void addAll() {
+        estimator.addAll(asList(1L, 1L, 2L, 3L, "Test"));
+        assertEquals(4L, estimator.estimate());
+        estimator.addAll(asList(3L, 4L));
+        assertEquals(5L, estimator.estimate());
+        estimator.addAll(Collections.emptyList());
+        assertEquals(5L, estimator.estimate());
+    }
+
+    @Test
+    public void addAllAsync() throws Exception {
+        estimator.addAllAsync(asList(1L, 1L, 2L, 3L, "Test")).toCompletableFuture().get();
+        assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
+        estimator.addAllAsync(asList(3L, 4L)).toCompletableFuture().get();
+        assertEquals(5L, estimator.estimateAsync().toCompletableFuture().get().longValue());
+    }
+
     @Test(expected = com.hazelcast.nio.serialization.HazelcastSerializationException.class)
     public void addCustomObject() {
         assumeTrue(config == null);
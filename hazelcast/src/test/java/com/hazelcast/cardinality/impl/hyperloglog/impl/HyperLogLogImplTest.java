@@ -83,6 +83,43 @@ public class HyperLogLogImplTest {
         assertEquals(4L, hyperLogLog.estimate());
     }
 
+    @Test
+    public void addAll_sameRegistersAsAdd() {
+        HyperLogLog expected = new HyperLogLogImpl(precision);
+        Random random = new Random();
+        for (int batch = 0; batch < 20; batch++) {
+            long[] hashes = new long[random.nextInt(5000)];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = random.nextLong();
+                expected.add(hashes[i]);
+            }
+            hyperLogLog.addAll(hashes);
+            assertEquals(expected.estimate(), hyperLogLog.estimate());
+        }
+    }
+
+    @Test
+    public void merge_denseWithSparse() {
+        Random random = new Random();
+        HyperLogLog dense = new HyperLogLogImpl(precision);
+        HyperLogLog sparse = new HyperLogLogImpl(precision);
+        HyperLogLog expected = new HyperLogLogImpl(precision);
+        for (int i = 0; i < 100000; i++) {
+            long hash = random.nextLong();
+            dense.add(hash);
+            expected.add(hash);
+        }
+        for (int i = 0; i < 10; i++) {
+            long hash = random.nextLong();
+            sparse.add(hash);
+            expected.add(hash);
+        }
+
+        dense.merge(sparse);
+
+        assertEquals(expected.estimate(), dense.estimate());
+    }
+
     /**
      * <ul>
      * <li>Adds up to {@link #DEFAULT_RUN_LENGTH} random numbers on both a Set and a HyperLogLog encoder.</li>
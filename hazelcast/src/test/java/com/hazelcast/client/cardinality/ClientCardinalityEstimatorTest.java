@@ -36,7 +36,11 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
 
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -112,6 +116,33 @@ public class ClientCardinalityEstimatorTest extends HazelcastTestSupport {
         assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
     }
 
+    @Test
+    public void addAll_largeCollection() throws Exception {
+        estimator = client.getCardinalityEstimator("aggregateAllLarge");
+        // all hashes are sent with a single request
+        int count = 1000;
+        List<Integer> objects = IntStream.range(0, count).boxed().collect(toList());
+        estimator.addAll(objects);
+        estimator.addAllAsync(objects).toCompletableFuture().get();
+        assertEquals(count, estimator.estimate(), count * 0.02);
+    }
+
+    @Test
+    public void addAll() {
+        estimator = client.getCardinalityEstimator("aggregateAll");
+        estimator.addAll(asList(1L, 1L, 2L, 3L, "Test"));
+        assertEquals(4L, estimator.estimate());
+        estimator.addAll(asList(3L, 4L));
+        assertEquals(5L, estimator.estimate());
+    }
+
+    @Test
+    public void addAllAsync() throws Exception {
+        estimator = client.getCardinalityEstimator("aggregateAllAsync");
+        estimator.addAllAsync(asList(1L, 1L, 2L, 3L, "Test")).toCompletableFuture().get();
+        assertEquals(4L, estimator.estimateAsync().toCompletableFuture().get().longValue());
+    }
+
     @Test
     public void addString() {
         estimator = client.getCardinalityEstimator("aggregateString");
@@ -52,8 +52,12 @@ import static com.hazelcast.client.impl.protocol.ClientMessage.IS_FINAL_FLAG;
 import static com.hazelcast.client.impl.protocol.ClientMessage.UNFRAGMENTED_MESSAGE;
 import static com.hazelcast.client.impl.protocol.util.ClientMessageSplitter.getFragments;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -131,6 +135,79 @@ public class ClientMessageEncoderDecoderTest extends HazelcastTestSupport {
         assertEquals("map", parameters.name);
     }
 
+    @Test
+    public void testConsecutiveMessages_decodedWithSameDecoder() {
+        ClientMessage first =
+                MapPutCodec.encodeRequest("map", new HeapData(new byte[100]), new HeapData(new byte[100]), 5, 10);
+        ClientMessage second =
+                MapPutCodec.encodeRequest("other", new HeapData(new byte[50]), new HeapData(new byte[50]), 6, 20);
+        Iterator<ClientMessage> messages = asList(first, second).iterator();
+
+        ClientMessageEncoder encoder = new ClientMessageEncoder();
+        encoder.src(() -> messages.hasNext() ? messages.next() : null);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        buffer.flip();
+        encoder.dst(buffer);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        List<ClientMessage> resultingMessages = new LinkedList<>();
+        ClientMessageDecoder decoder = new ClientMessageDecoder(null, resultingMessages::add, null);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+
+        buffer.position(buffer.limit());
+
+        decoder.src(buffer);
+        decoder.onRead();
+
+        assertEquals(2, resultingMessages.size());
+        MapPutCodec.RequestParameters firstParameters = MapPutCodec.decodeRequest(resultingMessages.get(0));
+        assertEquals("map", firstParameters.name);
+        assertEquals(5, firstParameters.threadId);
+        MapPutCodec.RequestParameters secondParameters = MapPutCodec.decodeRequest(resultingMessages.get(1));
+        assertEquals("other", secondParameters.name);
+        assertEquals(6, secondParameters.threadId);
+        assertEquals(50, secondParameters.key.totalSize());
+    }
+
+    @Test
+    public void testEmptyFrames_shareContent() {
+        ClientMessage message = ClientMessage.createForEncode();
+        message.add(new Frame(new byte[100], UNFRAGMENTED_MESSAGE));
+        message.add(ClientMessage.BEGIN_FRAME.copy());
+        message.add(ClientMessage.NULL_FRAME.copy());
+        message.add(ClientMessage.END_FRAME.copy());
+        AtomicReference<ClientMessage> reference = new AtomicReference<>(message);
+
+        ClientMessageEncoder encoder = new ClientMessageEncoder();
+        encoder.src(() -> reference.getAndSet(null));
+
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        buffer.flip();
+        encoder.dst(buffer);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        AtomicReference<ClientMessage> resultingMessage = new AtomicReference<>();
+        ClientMessageDecoder decoder = new ClientMessageDecoder(null, resultingMessage::set, null);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+
+        buffer.position(buffer.limit());
+
+        decoder.src(buffer);
+        decoder.onRead();
+
+        ClientMessage.ForwardFrameIterator iterator = resultingMessage.get().frameIterator();
+        assertEquals(100, iterator.next().content.length);
+        assertTrue(iterator.next().isBeginFrame());
+        Frame nullFrame = iterator.next();
+        assertTrue(nullFrame.isNullFrame());
+        assertSame(ClientMessage.EMPTY_CONTENT, nullFrame.content);
+        assertTrue(iterator.next().isEndFrame());
+        assertFalse(iterator.hasNext());
+    }
+
     @Test
     public void testAuthenticationRequest() {
         Collection<String> labels = new LinkedList<>();
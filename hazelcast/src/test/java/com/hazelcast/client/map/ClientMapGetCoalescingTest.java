@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.impl.protocol.MessageTaskFactory;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.locksupport.LockStore;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.client.properties.ClientProperty.MAP_GET_COALESCING_ENABLED;
+import static com.hazelcast.client.properties.ClientProperty.MAP_GET_COALESCING_MAX_BATCH_SIZE;
+import static com.hazelcast.test.Accessors.getNode;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static com.hazelcast.test.starter.ReflectionUtils.getFieldValueReflectively;
+import static com.hazelcast.test.starter.ReflectionUtils.setFieldValueReflectively;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapGetCoalescingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+    private static final int THREAD_COUNT = 16;
+    private static final int GETS_PER_THREAD = 500;
+    private static final int LOCKED_GET_TIMEOUT_SECONDS = 30;
+
+    private final TestHazelcastFactory factory = new TestHazelcastFactory();
+    // client requests received by the member, by message type
+    private final Map<Integer, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private HazelcastInstance member;
+    private IMap<Integer, String> map;
+
+    @Before
+    public void setUp() throws Exception {
+        // a single partition makes all concurrent gets eligible for coalescing
+        Config config = getConfig().setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1");
+        member = factory.newHazelcastInstance(config);
+        countRequests(member);
+
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(MAP_GET_COALESCING_ENABLED.getName(), "true")
+                .setProperty(MAP_GET_COALESCING_MAX_BATCH_SIZE.getName(), "8");
+        HazelcastInstance client = factory.newHazelcastClient(clientConfig);
+        map = client.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testGet() {
+        assertEquals("value-1", map.get(1));
+        assertNull(map.get(ENTRY_COUNT));
+
+        // gets on an idle partition are not delayed into a batch, but are sent as getAll requests as well
+        assertEquals(0, requestCount(MapGetCodec.REQUEST_MESSAGE_TYPE));
+        assertEquals(2, requestCount(MapGetAllCodec.REQUEST_MESSAGE_TYPE));
+    }
+
+    @Test
+    public void testConcurrentGets_whenKeyLockedByTransaction_thenNotStalled() throws Exception {
+        // a lock blocking reads, as taken by a transaction being committed
+        MapService mapService = getNodeEngineImpl(member).getService(MapService.SERVICE_NAME);
+        RecordStore recordStore = mapService.getMapServiceContext().getRecordStore(0, map.getName());
+        LockStore lockStore = getFieldValueReflectively(recordStore, "lockStore");
+        Data lockedKey = getSerializationService(member).toData(1);
+        assertTrue(lockStore.txnLock(lockedKey, UuidUtil.newUnsecureUUID(), 1, 1, -1, true));
+        try {
+            // sent as the first request for the idle partition
+            spawn(() -> assertEquals("value-1", map.get(1))).get(LOCKED_GET_TIMEOUT_SECONDS, SECONDS);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                int key = t % 2;
+                futures.add(spawn(() -> assertEquals("value-" + key, map.get(key))));
+            }
+            for (Future<?> future : futures) {
+                future.get(LOCKED_GET_TIMEOUT_SECONDS, SECONDS);
+            }
+        } finally {
+            lockStore.forceUnlock(lockedKey);
+        }
+    }
+
+    @Test
+    public void testConcurrentGets() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            int offset = t;
+            futures.add(spawn(() -> {
+                for (int i = 0; i < GETS_PER_THREAD; i++) {
+                    int key = (i + offset) % (ENTRY_COUNT + 10);
+                    String value = map.get(key);
+                    if (key < ENTRY_COUNT) {
+                        assertEquals("value-" + key, value);
+                    } else {
+                        assertNull(value);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+        }
+
+        int getCount = requestCount(MapGetCodec.REQUEST_MESSAGE_TYPE);
+        int getAllCount = requestCount(MapGetAllCodec.REQUEST_MESSAGE_TYPE);
+        assertTrue("no gets were coalesced", getAllCount > 0);
+        assertTrue("gets: " + getCount + ", getAlls: " + getAllCount,
+                getCount + getAllCount < THREAD_COUNT * GETS_PER_THREAD);
+    }
+
+    @Test
+    public void testGet_seesLatestWrite() {
+        map.put(1, "updated");
+
+        assertEquals("updated", map.get(1));
+    }
+
+    private void countRequests(HazelcastInstance member) throws IllegalAccessException {
+        Object clientEngine = getNode(member).getClientEngine();
+        MessageTaskFactory delegate = getFieldValueReflectively(clientEngine, "messageTaskFactory");
+        MessageTaskFactory countingFactory = (message, connection) -> {
+            requestCounts.computeIfAbsent(message.getMessageType(), type -> new AtomicInteger()).incrementAndGet();
+            return delegate.create(message, connection);
+        };
+        setFieldValueReflectively(clientEngine, "messageTaskFactory", countingFactory);
+    }
+
+    private int requestCount(int messageType) {
+        AtomicInteger count = requestCounts.get(messageType);
+        return count == null ? 0 : count.get();
+    }
+}
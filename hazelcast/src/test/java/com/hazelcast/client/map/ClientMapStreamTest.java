@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.impl.proxy.ClientMapProxy;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapStreamTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final TestHazelcastFactory factory = new TestHazelcastFactory();
+
+    private ClientMapProxy<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        factory.newHazelcastInstance(smallInstanceConfig());
+        factory.newHazelcastInstance(smallInstanceConfig());
+        HazelcastInstance client = factory.newHazelcastClient();
+
+        IMap<Integer, Integer> clientMap = client.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            clientMap.put(i, i);
+        }
+        map = (ClientMapProxy<Integer, Integer>) clientMap;
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testStream_returnsAllEntries() {
+        Map<Integer, Integer> entries = map.stream(10, true)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        assertEquals(ENTRY_COUNT, entries.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) entries.get(i));
+        }
+    }
+
+    @Test
+    public void testStream_withoutPrefetchedValues() {
+        long sum = map.stream(10, false)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        assertEquals((long) ENTRY_COUNT * (ENTRY_COUNT - 1) / 2, sum);
+    }
+
+    @Test
+    public void testStream_withProjectionAndPredicate() {
+        Set<Integer> values = map.stream(10, Projections.singleAttribute("this"), Predicates.lessThan("this", 100))
+                .map(value -> (Integer) value)
+                .collect(Collectors.toSet());
+
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toSet()), values);
+    }
+
+    @Test
+    public void testStream_isParallel() {
+        assertTrue(map.stream(10, true).isParallel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStream_withPagingPredicate() {
+        map.stream(10, Projections.identity(), Predicates.pagingPredicate(10));
+    }
+
+    @Test
+    public void testStream_onEmptyMap() {
+        map.clear();
+
+        assertEquals(0, map.stream(10, true).count());
+    }
+}
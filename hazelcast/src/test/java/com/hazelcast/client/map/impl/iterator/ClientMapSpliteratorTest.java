@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl.iterator;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapSpliteratorTest {
+
+    @Test
+    public void testTryAdvance_iteratesAllPartitionsOfAllGroups() {
+        ClientMapSpliterator<Integer> spliterator = newSpliterator(new int[]{0, 2}, new int[]{1, 3});
+
+        assertEquals(asList(0, 20, 2, 22, 1, 21, 3, 23), drain(spliterator));
+    }
+
+    @Test
+    public void testTryAdvance_skipsEmptyPartitions() {
+        ClientMapSpliterator<Integer> spliterator = new ClientMapSpliterator<>(
+                partitionId -> partitionId == 1 ? singletonList(1).iterator() : emptyIterator(),
+                singletonList(new int[]{0, 1, 2}));
+
+        assertEquals(singletonList(1), drain(spliterator));
+    }
+
+    @Test
+    public void testTrySplit_splitsAlongGroups() {
+        ClientMapSpliterator<Integer> spliterator = newSpliterator(new int[]{0}, new int[]{1}, new int[]{2});
+
+        Spliterator<Integer> split = spliterator.trySplit();
+        assertNotNull(split);
+        assertNull(spliterator.trySplit());
+
+        assertEquals(asList(0, 20), drain(spliterator));
+        assertEquals(asList(1, 21, 2, 22), drain(split));
+    }
+
+    @Test
+    public void testTrySplit_whenSingleGroup_thenNoSplit() {
+        ClientMapSpliterator<Integer> spliterator = newSpliterator(new int[]{0, 1, 2});
+
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testTrySplit_afterStarted_keepsCurrentGroup() {
+        ClientMapSpliterator<Integer> spliterator = newSpliterator(new int[]{0, 1}, new int[]{2});
+        List<Integer> result = new ArrayList<>();
+        spliterator.tryAdvance(result::add);
+
+        Spliterator<Integer> split = spliterator.trySplit();
+        result.addAll(drain(spliterator));
+
+        assertEquals(asList(0, 20, 1, 21), result);
+        assertEquals(asList(2, 22), drain(split));
+    }
+
+    /**
+     * Creates a spliterator which returns the partition ID and the
+     * partition ID plus 20 for each partition.
+     */
+    private static ClientMapSpliterator<Integer> newSpliterator(int[]... partitionGroups) {
+        return new ClientMapSpliterator<>(ClientMapSpliteratorTest::partitionIterator, Arrays.asList(partitionGroups));
+    }
+
+    private static Iterator<Integer> partitionIterator(int partitionId) {
+        return asList(partitionId, partitionId + 20).iterator();
+    }
+
+    private static List<Integer> drain(Spliterator<Integer> spliterator) {
+        List<Integer> result = new ArrayList<>();
+        spliterator.forEachRemaining(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl.nearcache;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.impl.NearCacheTestContext;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.NearCache.PROP_PRELOADER_STORE_VALUES;
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.assertNearCacheSize;
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.assertNearCacheSizeEventually;
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.getNearCacheKey;
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.getValueFromNearCache;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the Near Cache pre-loader tests with stored values and
+ * checks that only keys of changed partitions are fetched again.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapNearCachePreloaderWithValuesTest extends ClientMapNearCachePreloaderTest {
+
+    private static final int VALUE_COUNT = 1000;
+
+    @Override
+    protected ClientConfig getClientConfig() {
+        return super.getClientConfig()
+                .setProperty(PROP_PRELOADER_STORE_VALUES, "true");
+    }
+
+    @Test
+    public void testPreloadNearCache_whenNothingChanged_thenValuesAreRestoredFromStoreFile() {
+        storeNearCacheWithValues();
+
+        NearCacheTestContext<Integer, String, Data, String> clientContext = createNearCacheContext();
+        assertPreloadDoneEventually(clientContext.nearCache);
+
+        assertNearCacheSizeEventually(clientContext, VALUE_COUNT);
+        assertEquals(0, clientContext.stats.getMisses());
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            assertEquals("value-" + i, getValue(clientContext, i));
+        }
+    }
+
+    @Test
+    public void testPreloadNearCache_whenKeyChanged_thenChangedValueIsFetched() {
+        NearCacheTestContext<Integer, String, Data, String> memberContext = storeNearCacheWithValues();
+        memberContext.dataAdapter.put(0, "newValue");
+
+        NearCacheTestContext<Integer, String, Data, String> clientContext = createNearCacheContext();
+        assertPreloadDoneEventually(clientContext.nearCache);
+
+        assertNearCacheSizeEventually(clientContext, VALUE_COUNT);
+        long misses = clientContext.stats.getMisses();
+        assertTrue("Expected the keys of the changed partition to be fetched, but got " + misses + " misses",
+                misses > 0 && misses < VALUE_COUNT);
+        assertEquals("newValue", getValue(clientContext, 0));
+        for (int i = 1; i < VALUE_COUNT; i++) {
+            assertEquals("value-" + i, getValue(clientContext, i));
+        }
+    }
+
+    /**
+     * Populates the data structure before the first client is started,
+     * so its invalidation metadata is up-to-date, then populates the
+     * Near Cache and waits until it has been stored.
+     */
+    private NearCacheTestContext<Integer, String, Data, String> storeNearCacheWithValues() {
+        nearCacheConfig.getPreloaderConfig()
+                .setStoreInitialDelaySeconds(1)
+                .setStoreIntervalSeconds(1);
+
+        NearCacheTestContext<Integer, String, Data, String> memberContext = createContext(false);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            memberContext.dataAdapter.put(i, "value-" + i);
+        }
+
+        NearCacheTestContext<Integer, String, Data, String> context = createNearCacheContext();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            context.nearCacheAdapter.get(i);
+        }
+        assertNearCacheSize(context, VALUE_COUNT);
+
+        long persistenceCount = context.stats.getPersistenceCount();
+        assertTrueEventually(() -> assertTrue(context.stats.getPersistenceCount() > persistenceCount + 1));
+        assertEquals(VALUE_COUNT, context.stats.getLastPersistenceKeyCount());
+
+        context.nearCacheInstance.shutdown();
+        return memberContext;
+    }
+
+    private static void assertPreloadDoneEventually(NearCache nearCache) {
+        assertTrueEventually(() -> assertTrue(nearCache.isPreloadDone()));
+    }
+
+    private static String getValue(NearCacheTestContext<Integer, String, Data, String> context, int key) {
+        Object value = getValueFromNearCache(context, getNearCacheKey(context, key));
+        return context.serializationService.toObject(value);
+    }
+}
@@ -200,6 +200,29 @@ public class TransactionQueueTest extends HazelcastTestSupport {
 
     }
 
+    @Test
+    public void testOrder_WhenTransactionWithMultiplePollsRollsBack() {
+        HazelcastInstance instance = createHazelcastInstance();
+        String name = randomString();
+        IQueue<VersionedObject<Integer>> queue = instance.getQueue(name);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(new VersionedObject<>(i, i));
+        }
+
+        TransactionContext context = instance.newTransactionContext();
+        context.beginTransaction();
+        TransactionalQueue<VersionedObject<Integer>> txnQueue = context.getQueue(name);
+        txnQueue.poll();
+        txnQueue.poll();
+        txnQueue.poll();
+        context.rollbackTransaction();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(new VersionedObject<>(i, i), queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void nestedTransactionTest() {
         HazelcastInstance instance = createHazelcastInstance();
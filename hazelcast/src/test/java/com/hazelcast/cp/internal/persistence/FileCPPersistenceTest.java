@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.cp.IAtomicLong;
+import com.hazelcast.cp.internal.HazelcastRaftTestSupport;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.UUID;
+
+import static com.hazelcast.spi.properties.ClusterProperty.CP_PERSISTENCE_DIRECTORY;
+import static com.hazelcast.test.Accessors.getAddress;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class FileCPPersistenceTest extends HazelcastRaftTestSupport {
+
+    private static final int CP_MEMBER_COUNT = 3;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void when_allCPMembersRestarted_then_stateRestored() {
+        HazelcastInstance[] instances = new HazelcastInstance[CP_MEMBER_COUNT];
+        for (int i = 0; i < CP_MEMBER_COUNT; i++) {
+            instances[i] = factory.newHazelcastInstance(createConfig(i));
+        }
+        waitUntilCPDiscoveryCompleted(instances);
+
+        IAtomicLong counter = instances[0].getCPSubsystem().getAtomicLong("counter@group1");
+        IAtomicLong metadataCounter = instances[1].getCPSubsystem().getAtomicLong("counter");
+        for (int i = 0; i < 10; i++) {
+            counter.incrementAndGet();
+        }
+        metadataCounter.set(42);
+
+        Address[] addresses = new Address[CP_MEMBER_COUNT];
+        UUID[] uuids = new UUID[CP_MEMBER_COUNT];
+        for (int i = 0; i < CP_MEMBER_COUNT; i++) {
+            addresses[i] = getAddress(instances[i]);
+            uuids[i] = instances[i].getCluster().getLocalMember().getUuid();
+        }
+        factory.terminateAll();
+
+        for (int i = 0; i < CP_MEMBER_COUNT; i++) {
+            instances[i] = factory.newHazelcastInstance(addresses[i], createConfig(i));
+        }
+        assertClusterSizeEventually(CP_MEMBER_COUNT, instances);
+
+        for (int i = 0; i < CP_MEMBER_COUNT; i++) {
+            assertEquals(uuids[i], instances[i].getCluster().getLocalMember().getUuid());
+            assertEquals(uuids[i], instances[i].getCPSubsystem().getLocalCPMember().getUuid());
+        }
+        counter = instances[2].getCPSubsystem().getAtomicLong("counter@group1");
+        assertEquals(10, counter.get());
+        assertEquals(11, counter.incrementAndGet());
+        assertEquals(42, instances[0].getCPSubsystem().getAtomicLong("counter").get());
+    }
+
+    private Config createConfig(int memberIndex) {
+        Config config = createConfig(CP_MEMBER_COUNT, CP_MEMBER_COUNT);
+        File dir = new File(tempFolder.getRoot(), "member" + memberIndex);
+        config.setProperty(CP_PERSISTENCE_DIRECTORY.getName(), dir.getAbsolutePath());
+        return config;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl;
+
+import com.hazelcast.config.cp.RaftAlgorithmConfig;
+import com.hazelcast.cp.internal.raft.impl.dataservice.ApplyRaftRunnable;
+import com.hazelcast.cp.internal.raft.impl.dataservice.RaftDataService;
+import com.hazelcast.cp.internal.raft.impl.dto.AppendRequest;
+import com.hazelcast.cp.internal.raft.impl.dto.AppendSuccessResponse;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup.LocalRaftGroupBuilder;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getCommitIndex;
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getLastLogOrSnapshotEntry;
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getMatchIndex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AppendRequestPipeliningTest extends HazelcastTestSupport {
+
+    private static final int APPEND_REQUEST_MAX_ENTRY_COUNT = 10;
+    private static final int MAX_IN_FLIGHT_APPEND_REQUEST_COUNT = 4;
+
+    private LocalRaftGroup group;
+
+    @After
+    public void destroy() {
+        if (group != null) {
+            group.destroy();
+        }
+    }
+
+    @Test(timeout = 300_000)
+    public void when_manyEntriesReplicatedConcurrently_then_allEntriesCommitted() throws Exception {
+        group = newGroup(3);
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+
+        int entryCount = 100;
+        List<InternalCompletableFuture> futures = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            futures.add(leader.replicate(new ApplyRaftRunnable("val" + i)));
+        }
+
+        for (int i = 0; i < entryCount; i++) {
+            assertEquals("val" + i, futures.get(i).get());
+        }
+
+        long commitIndex = getCommitIndex(leader);
+        assertTrueEventually(() -> {
+            for (RaftNodeImpl node : group.getNodes()) {
+                assertEquals(commitIndex, getCommitIndex(node));
+                RaftDataService service = group.getIntegration(node.getLocalMember()).getService();
+                assertEquals(entryCount, service.size());
+            }
+        });
+    }
+
+    @Test(timeout = 300_000)
+    public void when_followerDoesNotAck_then_leaderSendsEntriesUpToInFlightWindow() throws Exception {
+        group = newGroup(3);
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        leader.replicate(new ApplyRaftRunnable("val")).get();
+
+        RaftNodeImpl follower = group.getAnyFollowerNode();
+        long matchIndex = getMatchIndex(leader, follower.getLocalMember());
+        group.dropMessagesToMember(follower.getLocalMember(), leader.getLocalMember(), AppendSuccessResponse.class);
+
+        int entryCount = 100;
+        for (int i = 0; i < entryCount; i++) {
+            leader.replicate(new ApplyRaftRunnable("val" + i));
+        }
+
+        int windowEntryCount = MAX_IN_FLIGHT_APPEND_REQUEST_COUNT * APPEND_REQUEST_MAX_ENTRY_COUNT;
+        // more than a single append request is sent to the follower without waiting for its response
+        assertTrueEventually(() -> assertTrue(getLastLogOrSnapshotEntry(follower).index() > matchIndex
+                + APPEND_REQUEST_MAX_ENTRY_COUNT + 1));
+        assertTrueAllTheTime(() -> assertTrue(getLastLogOrSnapshotEntry(follower).index() <= matchIndex
+                + windowEntryCount + APPEND_REQUEST_MAX_ENTRY_COUNT + 1), 3);
+
+        group.resetAllRulesFrom(follower.getLocalMember());
+
+        assertTrueEventually(() -> assertEquals(getLastLogOrSnapshotEntry(leader).index(),
+                getLastLogOrSnapshotEntry(follower).index()));
+    }
+
+    @Test(timeout = 300_000)
+    public void when_inFlightAppendRequestsAreLost_then_followerCatchesUp() throws Exception {
+        group = newGroup(3);
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        leader.replicate(new ApplyRaftRunnable("val")).get();
+
+        RaftNodeImpl follower = group.getAnyFollowerNode();
+        group.dropMessagesToMember(leader.getLocalMember(), follower.getLocalMember(), AppendRequest.class);
+
+        int entryCount = 100;
+        List<InternalCompletableFuture> futures = new ArrayList<>();
+        for (int i = 0; i < entryCount; i++) {
+            futures.add(leader.replicate(new ApplyRaftRunnable("val" + i)));
+        }
+
+        for (InternalCompletableFuture future : futures) {
+            future.get();
+        }
+
+        group.resetAllRulesFrom(leader.getLocalMember());
+
+        assertTrueEventually(() -> {
+            assertEquals(getCommitIndex(leader), getCommitIndex(follower));
+            RaftDataService service = group.getIntegration(follower.getLocalMember()).getService();
+            assertEquals(entryCount + 1, service.size());
+        });
+    }
+
+    private LocalRaftGroup newGroup(int nodeCount) {
+        RaftAlgorithmConfig config = new RaftAlgorithmConfig().setAppendRequestMaxEntryCount(APPEND_REQUEST_MAX_ENTRY_COUNT);
+        return new LocalRaftGroupBuilder(nodeCount, config)
+                .setMaxInFlightAppendRequestCount(MAX_IN_FLIGHT_APPEND_REQUEST_COUNT).build();
+    }
+
+}
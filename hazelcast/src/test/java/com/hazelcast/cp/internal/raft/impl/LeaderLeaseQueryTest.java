@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl;
+
+import com.hazelcast.config.cp.RaftAlgorithmConfig;
+import com.hazelcast.cp.exception.LeaderDemotedException;
+import com.hazelcast.cp.internal.raft.impl.dataservice.ApplyRaftRunnable;
+import com.hazelcast.cp.internal.raft.impl.dataservice.QueryRaftRunnable;
+import com.hazelcast.cp.internal.raft.impl.dto.AppendRequest;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup.LocalRaftGroupBuilder;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.cp.internal.raft.QueryPolicy.LINEARIZABLE;
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getLeaderMember;
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getLeaderQueryRound;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LeaderLeaseQueryTest extends HazelcastTestSupport {
+
+    private LocalRaftGroup group;
+
+    @After
+    public void destroy() {
+        if (group != null) {
+            group.destroy();
+        }
+    }
+
+    @Test(timeout = 300_000)
+    public void when_leaderHoldsLease_then_linearizableQueryRunsWithoutHeartbeatRound() throws Exception {
+        group = newGroup();
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        leader.replicate(new ApplyRaftRunnable("value1")).get();
+        long queryRound = getLeaderQueryRound(leader);
+        dropAppendRequestsFrom(leader);
+
+        Object o = leader.query(new QueryRaftRunnable(), LINEARIZABLE).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+
+        assertEquals("value1", o);
+        assertTrue(getLeaderQueryRound(leader) <= queryRound + 1);
+    }
+
+    @Test(timeout = 300_000)
+    public void when_leaseExpires_then_linearizableQueryWaitsForHeartbeatRound() throws Exception {
+        group = newGroup();
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        leader.replicate(new ApplyRaftRunnable("value1")).get();
+        dropAppendRequestsFrom(leader);
+
+        sleepMillis((int) group.getNode(0).getLeaderElectionTimeoutInMillis() + 1000);
+
+        InternalCompletableFuture queryFuture = leader.query(new QueryRaftRunnable(), LINEARIZABLE);
+
+        assertTrueAllTheTime(() -> assertFalse(queryFuture.isDone()), 3);
+
+        group.resetAllRulesFrom(leader.getLocalMember());
+
+        assertEquals("value1", queryFuture.get());
+    }
+
+    @Test(timeout = 300_000)
+    public void when_leaderIsSplitFromMajority_then_linearizableQueryDoesNotReadStaleValue() throws Exception {
+        group = newGroup();
+        group.start();
+
+        RaftNodeImpl oldLeader = group.waitUntilLeaderElected();
+        oldLeader.replicate(new ApplyRaftRunnable("value1")).get();
+
+        int[] split = group.createMajoritySplitIndexes(false);
+        group.split(split);
+
+        assertTrueEventually(() -> {
+            for (int ix : split) {
+                RaftEndpoint newLeader = getLeaderMember(group.getNode(ix));
+                assertNotNull(newLeader);
+                assertNotEquals(oldLeader.getLocalMember(), newLeader);
+            }
+        });
+
+        RaftNodeImpl newLeader = group.getNode(getLeaderMember(group.getNode(split[0])));
+        newLeader.replicate(new ApplyRaftRunnable("value2")).get();
+
+        InternalCompletableFuture queryFuture = oldLeader.query(new QueryRaftRunnable(), LINEARIZABLE);
+
+        group.merge();
+        group.waitUntilLeaderElected();
+
+        try {
+            queryFuture.joinInternal();
+            fail();
+        } catch (LeaderDemotedException ignored) {
+        }
+    }
+
+    @Test(timeout = 300_000)
+    public void when_followerGrantedLease_then_itDoesNotStartElectionOnHeartbeatTimeout() throws Exception {
+        // the missed heartbeat threshold is much shorter than the lease
+        RaftAlgorithmConfig config = new RaftAlgorithmConfig()
+                .setLeaderElectionTimeoutInMillis(5000)
+                .setLeaderHeartbeatPeriodInMillis(100)
+                .setMaxMissedLeaderHeartbeatCount(2);
+        group = new LocalRaftGroupBuilder(5, config).setAppendNopEntryOnLeaderElection(true)
+                .setLeaderLeaseReadEnabled(true).build();
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        leader.replicate(new ApplyRaftRunnable("value1")).get();
+        dropAppendRequestsFrom(leader);
+
+        assertTrueAllTheTime(() -> {
+            for (RaftNodeImpl follower : group.getNodesExcept(leader.getLocalMember())) {
+                assertEquals(leader.getLocalMember(), getLeaderMember(follower));
+            }
+        }, 3);
+    }
+
+    private void dropAppendRequestsFrom(RaftNodeImpl leader) {
+        for (RaftNodeImpl follower : group.getNodesExcept(leader.getLocalMember())) {
+            group.dropMessagesToMember(leader.getLocalMember(), follower.getLocalMember(), AppendRequest.class);
+        }
+    }
+
+    private LocalRaftGroup newGroup() {
+        return new LocalRaftGroupBuilder(5).setAppendNopEntryOnLeaderElection(true).setLeaderLeaseReadEnabled(true).build();
+    }
+
+}
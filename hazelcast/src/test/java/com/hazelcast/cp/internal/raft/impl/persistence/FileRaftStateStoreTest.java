@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.config.cp.RaftAlgorithmConfig;
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.RaftNodeImpl;
+import com.hazelcast.cp.internal.raft.impl.dataservice.ApplyRaftRunnable;
+import com.hazelcast.cp.internal.raft.impl.dataservice.RaftDataService;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup;
+import com.hazelcast.cp.internal.raft.impl.testing.LocalRaftGroup.LocalRaftGroupBuilder;
+import com.hazelcast.cp.internal.raft.impl.testing.TestRaftEndpoint;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getCommitIndex;
+import static com.hazelcast.cp.internal.raft.impl.RaftUtil.getLastApplied;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FileRaftStateStoreTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RaftEndpoint localEndpoint = new TestRaftEndpoint(UUID.randomUUID(), 5000);
+    private final List<RaftEndpoint> members = Arrays.asList(localEndpoint,
+            new TestRaftEndpoint(UUID.randomUUID(), 5001), new TestRaftEndpoint(UUID.randomUUID(), 5002));
+
+    private File dir;
+    private FileRaftStateStore store;
+    private LocalRaftGroup group;
+
+    @Before
+    public void setup() throws IOException {
+        dir = new File(tempFolder.getRoot(), "group");
+        store = new FileRaftStateStore(dir, serializationService, null);
+        store.open();
+        store.persistInitialMembers(localEndpoint, members);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+        if (group != null) {
+            group.destroy();
+        }
+    }
+
+    @Test
+    public void when_nothingAppended_then_membersAndEmptyLogRestored() throws IOException {
+        RestoredRaftState state = load().load();
+
+        assertEquals(localEndpoint, state.localEndpoint());
+        assertEquals(members, state.initialMembers());
+        assertEquals(0, state.term());
+        assertNull(state.votedFor());
+        assertNull(state.snapshot());
+        assertEquals(0, state.entries().length);
+    }
+
+    @Test
+    public void when_termPersisted_then_latestTermRestored() throws IOException {
+        store.persistTerm(1, members.get(1));
+        store.persistTerm(2, null);
+        store.persistTerm(3, members.get(2));
+
+        RestoredRaftState state = load().load();
+
+        assertEquals(3, state.term());
+        assertEquals(members.get(2), state.votedFor());
+    }
+
+    @Test
+    public void when_entriesFlushed_then_entriesRestored() throws IOException {
+        appendEntries(1, 100);
+        store.flushLogs();
+
+        RestoredRaftState state = load().load();
+
+        assertEntries(state.entries(), 1, 100);
+        assertEquals(1, store.flushCount());
+    }
+
+    @Test
+    public void when_largeEntryAppended_then_restored() throws IOException {
+        char[] chars = new char[200_000];
+        Arrays.fill(chars, 'x');
+        String operation = new String(chars);
+        appendEntries(1, 3);
+        store.persistEntry(new LogEntry(1, 4, operation));
+        appendEntries(5, 6);
+        store.flushLogs();
+
+        LogEntry[] entries = load().load().entries();
+
+        assertEquals(6, entries.length);
+        assertEquals(operation, entries[3].operation());
+        assertEquals("op6", entries[5].operation());
+    }
+
+    @Test
+    public void when_entriesDeleted_then_deletedEntriesNotRestored() throws IOException {
+        appendEntries(1, 10);
+        store.deleteEntriesFrom(8);
+        store.persistEntry(new LogEntry(2, 8, "new8"));
+        store.flushLogs();
+
+        LogEntry[] entries = load().load().entries();
+
+        assertEquals(8, entries.length);
+        assertEntries(Arrays.copyOf(entries, 7), 1, 7);
+        assertEquals("new8", entries[7].operation());
+        assertEquals(2, entries[7].term());
+    }
+
+    @Test
+    public void when_snapshotPersisted_then_logFileCompacted() throws IOException {
+        appendEntries(1, 10);
+        File logFileBeforeSnapshot = store.logFile();
+        store.persistSnapshot(snapshot(7));
+        appendEntries(11, 12);
+        store.flushLogs();
+
+        assertFalse(logFileBeforeSnapshot.exists());
+        FileRaftStateLoader loader = load();
+        RestoredRaftState state = loader.load();
+
+        assertNotNull(state.snapshot());
+        assertEquals(7, state.snapshot().index());
+        assertEquals("snapshot7", state.snapshot().operation());
+        assertEquals(members, new ArrayList<>(state.snapshot().groupMembers()));
+        assertEntries(state.entries(), 8, 12);
+        assertEquals(store.logFile().getName(), loader.logFileStructure().filename());
+        assertEquals(8, loader.logFileStructure().indexOfFirstTailEntry());
+        assertEquals(5, loader.logFileStructure().tailEntryOffsets().length);
+    }
+
+    @Test
+    public void when_snapshotAheadOfLog_then_allEntriesDiscarded() throws IOException {
+        appendEntries(1, 5);
+        store.persistSnapshot(snapshot(50));
+        appendEntries(51, 52);
+        store.flushLogs();
+
+        RestoredRaftState state = load().load();
+
+        assertEquals(50, state.snapshot().index());
+        assertEntries(state.entries(), 51, 52);
+    }
+
+    @Test
+    public void when_lastRecordTorn_then_validPrefixRestored() throws IOException {
+        appendEntries(1, 10);
+        store.flushLogs();
+        store.close();
+        File logFile = store.logFile();
+        try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        RestoredRaftState state = load().load();
+
+        assertEntries(state.entries(), 1, 9);
+    }
+
+    @Test
+    public void when_storeReopenedAfterRestore_then_logContinues() throws IOException {
+        appendEntries(1, 10);
+        store.persistSnapshot(snapshot(5));
+        store.flushLogs();
+        store.close();
+        try (RandomAccessFile file = new RandomAccessFile(store.logFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        FileRaftStateLoader loader = load();
+        RestoredRaftState state = loader.load();
+        assertEntries(state.entries(), 6, 9);
+
+        store = new FileRaftStateStore(dir, serializationService, loader.logFileStructure());
+        store.open();
+        store.persistInitialMembers(localEndpoint, members);
+        appendEntries(10, 20);
+        store.persistSnapshot(snapshot(15));
+        store.flushLogs();
+
+        state = load().load();
+
+        assertEquals(15, state.snapshot().index());
+        assertEntries(state.entries(), 16, 20);
+    }
+
+    @Test
+    public void when_followerRestartedFromFiles_then_itRestoresItsRaftState() throws Exception {
+        int committedEntryCountToSnapshot = 20;
+        RaftAlgorithmConfig config = new RaftAlgorithmConfig().setCommitIndexAdvanceCountToSnapshot(committedEntryCountToSnapshot);
+        group = new LocalRaftGroupBuilder(3, config)
+                .setRaftStateStoreFactory((endpoint, raftConfig) -> new FileRaftStateStore(
+                        new File(tempFolder.getRoot(), endpoint.getUuid().toString()), serializationService, null))
+                .build();
+        group.start();
+
+        RaftNodeImpl leader = group.waitUntilLeaderElected();
+        RaftNodeImpl follower = group.getAnyFollowerNode();
+        int count = 30;
+        for (int i = 0; i < count; i++) {
+            leader.replicate(new ApplyRaftRunnable("val" + i)).get();
+        }
+        assertTrueEventually(() -> assertEquals(getCommitIndex(leader), getCommitIndex(follower)));
+
+        RaftEndpoint followerEndpoint = follower.getLocalMember();
+        group.terminateNode(followerEndpoint);
+        leader.replicate(new ApplyRaftRunnable("val" + count)).get();
+
+        FileRaftStateLoader loader = new FileRaftStateLoader(
+                new File(tempFolder.getRoot(), followerEndpoint.getUuid().toString()), serializationService);
+        RestoredRaftState restoredState = loader.load();
+        assertEquals(committedEntryCountToSnapshot, restoredState.snapshot().index());
+        FileRaftStateStore restoredStore = new FileRaftStateStore(
+                new File(tempFolder.getRoot(), followerEndpoint.getUuid().toString()), serializationService,
+                loader.logFileStructure());
+        RaftNodeImpl restartedNode = group.createNewRaftNode(restoredState, restoredStore);
+
+        assertTrueEventually(() -> {
+            assertEquals(getCommitIndex(leader), getCommitIndex(restartedNode));
+            assertEquals(getLastApplied(leader), getLastApplied(restartedNode));
+            Object[] values = group.<RaftDataService>getService(restartedNode).valuesArray();
+            assertEquals(count + 1, values.length);
+            for (int i = 0; i <= count; i++) {
+                assertEquals("val" + i, values[i]);
+            }
+        });
+    }
+
+    private FileRaftStateLoader load() {
+        return new FileRaftStateLoader(dir, serializationService);
+    }
+
+    private SnapshotEntry snapshot(long index) {
+        return new SnapshotEntry(1, index, "snapshot" + index, 0, members);
+    }
+
+    private void appendEntries(long fromIndex, long toIndex) throws IOException {
+        for (long index = fromIndex; index <= toIndex; index++) {
+            store.persistEntry(new LogEntry(1, index, "op" + index));
+        }
+    }
+
+    private static void assertEntries(LogEntry[] entries, long fromIndex, long toIndex) {
+        long[] expected = new long[(int) (toIndex - fromIndex + 1)];
+        Arrays.setAll(expected, i -> fromIndex + i);
+        assertArrayEquals(expected, Arrays.stream(entries).mapToLong(LogEntry::index).toArray());
+        for (LogEntry entry : entries) {
+            assertEquals("op" + entry.index(), entry.operation());
+        }
+    }
+}
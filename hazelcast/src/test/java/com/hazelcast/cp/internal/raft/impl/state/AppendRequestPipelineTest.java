@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.raft.impl.state;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AppendRequestPipelineTest {
+
+    private static final int MAX_IN_FLIGHT = 2;
+    private static final int MAX_ENTRY_COUNT = 10;
+    private static final long BACKOFF_TIMEOUT = 100;
+
+    private final AppendRequestPipeline pipeline = new AppendRequestPipeline(MAX_IN_FLIGHT, MAX_ENTRY_COUNT, BACKOFF_TIMEOUT);
+
+    @Test
+    public void when_singleInFlightAppendRequest_then_disabled() {
+        assertFalse(new AppendRequestPipeline(1, MAX_ENTRY_COUNT, BACKOFF_TIMEOUT).isEnabled());
+        assertTrue(pipeline.isEnabled());
+    }
+
+    @Test
+    public void when_entriesSent_then_windowFillsUp() {
+        FollowerState followerState = new FollowerState(5, 6);
+
+        assertFalse(pipeline.onEntriesSent(followerState, 15));
+        assertEquals(16, followerState.nextIndex());
+        assertTrue(pipeline.hasInFlightEntries(followerState));
+
+        assertTrue(pipeline.onEntriesSent(followerState, 25));
+        assertEquals(26, followerState.nextIndex());
+        assertTrue(pipeline.isWindowFull(followerState));
+    }
+
+    @Test
+    public void when_matchIndexUnknown_then_noInFlightEntries() {
+        FollowerState followerState = new FollowerState(0, 20);
+
+        assertFalse(pipeline.hasInFlightEntries(followerState));
+        assertFalse(pipeline.isFirstFailureInWindow(followerState, 10));
+    }
+
+    @Test
+    public void when_failuresOfWindowReceived_then_onlyFirstOneRewinds() {
+        FollowerState followerState = new FollowerState(5, 6);
+        pipeline.onEntriesSent(followerState, 15);
+        pipeline.onEntriesSent(followerState, 25);
+
+        // the append request sent with next index 6 succeeded, the one sent with 16 failed
+        assertTrue(pipeline.isFirstFailureInWindow(followerState, 16));
+        pipeline.rewind(followerState);
+        assertEquals(6, followerState.nextIndex());
+
+        // the failure of the append request sent with next index 26 arrives after the rewind
+        assertFalse(pipeline.isFirstFailureInWindow(followerState, 26));
+    }
+
+    @Test
+    public void when_inFlightEntriesNotAcked_then_timedOut() {
+        FollowerState followerState = new FollowerState(5, 6);
+        long ackTimestamp = followerState.appendRequestAckTimestamp();
+
+        assertFalse(pipeline.isTimedOut(followerState, ackTimestamp + BACKOFF_TIMEOUT + 1));
+
+        pipeline.onEntriesSent(followerState, 15);
+        assertFalse(pipeline.isTimedOut(followerState, ackTimestamp + BACKOFF_TIMEOUT));
+        assertTrue(pipeline.isTimedOut(followerState, ackTimestamp + BACKOFF_TIMEOUT + 1));
+    }
+}
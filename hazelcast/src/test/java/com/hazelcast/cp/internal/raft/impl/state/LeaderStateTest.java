@@ -26,14 +26,18 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static com.hazelcast.cp.internal.raft.impl.RaftUtil.newRaftMember;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -109,4 +113,59 @@ public class LeaderStateTest {
         }
     }
 
+    @Test
+    public void test_leaseValid_whenMajorityAcksQueryRound() {
+        long leaseDurationNanos = MINUTES.toNanos(1);
+        int majority = 3;
+        List<RaftEndpoint> followers = new ArrayList<RaftEndpoint>(remoteEndpoints);
+
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+
+        state.renewLease(followers.get(0), state.queryRound());
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+
+        state.renewLease(followers.get(1), state.queryRound());
+        assertTrue(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime() + leaseDurationNanos));
+    }
+
+    @Test
+    public void test_leaseNotRenewed_whenAckedQueryRoundIsNotRecent() {
+        long leaseDurationNanos = MINUTES.toNanos(1);
+        int majority = 3;
+        List<RaftEndpoint> followers = new ArrayList<RaftEndpoint>(remoteEndpoints);
+        long ackedQueryRound = state.queryRound();
+
+        assertTrue(state.queryState().tryStartQueryRound(0));
+        assertTrue(state.queryState().tryStartQueryRound(0));
+
+        state.renewLease(followers.get(0), ackedQueryRound);
+        state.renewLease(followers.get(1), ackedQueryRound);
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+    }
+
+    @Test
+    public void test_leaseRevoked() {
+        long leaseDurationNanos = MINUTES.toNanos(1);
+        int majority = 3;
+        List<RaftEndpoint> followers = new ArrayList<RaftEndpoint>(remoteEndpoints);
+
+        state.renewLease(followers.get(0), state.queryRound());
+        state.renewLease(followers.get(1), state.queryRound());
+        assertTrue(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+
+        state.revokeLease();
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+
+        // acks of the query rounds started before the revocation do not renew the lease
+        state.renewLease(followers.get(0), state.queryRound());
+        state.renewLease(followers.get(1), state.queryRound());
+        assertFalse(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+
+        assertTrue(state.queryState().tryStartQueryRound(0));
+        state.renewLease(followers.get(0), state.queryRound());
+        state.renewLease(followers.get(1), state.queryRound());
+        assertTrue(state.isMajorityLeaseValid(majority, leaseDurationNanos, System.nanoTime()));
+    }
+
 }
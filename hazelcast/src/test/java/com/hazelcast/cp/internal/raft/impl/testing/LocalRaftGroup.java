@@ -60,6 +60,8 @@ public class LocalRaftGroup {
         private int nodeCount;
         private RaftAlgorithmConfig config;
         private boolean appendNopEntryOnLeaderElection;
+        private boolean leaderLeaseReadEnabled;
+        private int maxInFlightAppendRequestCount = 1;
         private IntFunction<TestRaftEndpoint> endpointFactory;
         private BiFunctionEx<RaftEndpoint, RaftAlgorithmConfig, RaftStateStore> raftStateStoreFactory =
                 (BiFunctionEx<RaftEndpoint, RaftAlgorithmConfig, RaftStateStore>) (endpoint, config) -> NopRaftStateStore.INSTANCE;
@@ -79,6 +81,16 @@ public class LocalRaftGroup {
             return this;
         }
 
+        public LocalRaftGroupBuilder setLeaderLeaseReadEnabled(boolean leaderLeaseReadEnabled) {
+            this.leaderLeaseReadEnabled = leaderLeaseReadEnabled;
+            return this;
+        }
+
+        public LocalRaftGroupBuilder setMaxInFlightAppendRequestCount(int maxInFlightAppendRequestCount) {
+            this.maxInFlightAppendRequestCount = maxInFlightAppendRequestCount;
+            return this;
+        }
+
         public LocalRaftGroupBuilder setRaftStateStoreFactory(BiFunctionEx<RaftEndpoint, RaftAlgorithmConfig, RaftStateStore> raftStateStoreFactory) {
             this.raftStateStoreFactory = raftStateStoreFactory;
             return this;
@@ -96,7 +108,8 @@ public class LocalRaftGroup {
 
         public LocalRaftGroup build() {
             return new LocalRaftGroup(nodeCount, config, RaftDataService.SERVICE_NAME, RaftDataService.class,
-                    appendNopEntryOnLeaderElection, endpointFactory, raftStateStoreFactory, raftStateLoaderFactory);
+                    appendNopEntryOnLeaderElection, leaderLeaseReadEnabled, maxInFlightAppendRequestCount, endpointFactory,
+                    raftStateStoreFactory, raftStateLoaderFactory);
         }
 
         public static LocalRaftGroup newGroup(int nodeCount) {
@@ -116,6 +129,8 @@ public class LocalRaftGroup {
     private final String serviceName;
     private final Class<? extends SnapshotAwareService> serviceClazz;
     private final boolean appendNopEntryOnLeaderElection;
+    private final boolean leaderLeaseReadEnabled;
+    private final int maxInFlightAppendRequestCount;
     private RaftEndpoint[] initialMembers;
     private RaftEndpoint[] members;
     private LocalRaftIntegration[] integrations;
@@ -135,11 +150,13 @@ public class LocalRaftGroup {
     public LocalRaftGroup(int size, RaftAlgorithmConfig raftAlgorithmConfig,
                           String serviceName, Class<? extends SnapshotAwareService> serviceClazz,
                           boolean appendNopEntryOnLeaderElection) {
-        this(size, raftAlgorithmConfig, serviceName, serviceClazz, appendNopEntryOnLeaderElection, null, null, null);
+        this(size, raftAlgorithmConfig, serviceName, serviceClazz, appendNopEntryOnLeaderElection, false, 1, null, null,
+                null);
     }
 
     public LocalRaftGroup(int size, RaftAlgorithmConfig raftAlgorithmConfig, String serviceName,
                           Class<? extends SnapshotAwareService> serviceClazz, boolean appendNopEntryOnLeaderElection,
+                          boolean leaderLeaseReadEnabled, int maxInFlightAppendRequestCount,
                           IntFunction<TestRaftEndpoint> endpointFactory,
                           BiFunctionEx<RaftEndpoint, RaftAlgorithmConfig, RaftStateStore> raftStateStoreFactory,
                           BiFunctionEx<RaftEndpoint, RaftAlgorithmConfig, RaftStateLoader> raftStateLoaderFactory) {
@@ -151,6 +168,8 @@ public class LocalRaftGroup {
         this.serviceName = serviceName;
         this.serviceClazz = serviceClazz;
         this.appendNopEntryOnLeaderElection = appendNopEntryOnLeaderElection;
+        this.leaderLeaseReadEnabled = leaderLeaseReadEnabled;
+        this.maxInFlightAppendRequestCount = maxInFlightAppendRequestCount;
 
         if (endpointFactory != null) {
             this.endpointFactory = endpointFactory;
@@ -204,11 +223,13 @@ public class LocalRaftGroup {
 
     private LocalRaftIntegration createNewLocalRaftIntegration() {
         TestRaftEndpoint endpoint = endpointFactory.apply(FIRST_RAFT_NODE_PORT + createdNodeCount);
-        return new LocalRaftIntegration(endpoint, groupId, createServiceInstance(), appendNopEntryOnLeaderElection);
+        return new LocalRaftIntegration(endpoint, groupId, createServiceInstance(), appendNopEntryOnLeaderElection,
+                leaderLeaseReadEnabled, maxInFlightAppendRequestCount);
     }
 
     private LocalRaftIntegration createNewLocalRaftIntegration(TestRaftEndpoint endpoint) {
-        return new LocalRaftIntegration(endpoint, groupId, createServiceInstance(), appendNopEntryOnLeaderElection);
+        return new LocalRaftIntegration(endpoint, groupId, createServiceInstance(), appendNopEntryOnLeaderElection,
+                leaderLeaseReadEnabled, maxInFlightAppendRequestCount);
     }
 
     private SnapshotAwareService createServiceInstance() {
@@ -71,6 +71,8 @@ public class LocalRaftIntegration implements RaftIntegration {
     private final CPGroupId groupId;
     private final SnapshotAwareService service;
     private final boolean appendNopEntryOnLeaderElection;
+    private final boolean leaderLeaseReadEnabled;
+    private final int maxInFlightAppendRequestCount;
     private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
     private final ConcurrentMap<RaftEndpoint, RaftNodeImpl> nodes = new ConcurrentHashMap<>();
     private final LoggingServiceImpl loggingService;
@@ -80,11 +82,14 @@ public class LocalRaftIntegration implements RaftIntegration {
     private final Set<Class> dropAllRules = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     LocalRaftIntegration(TestRaftEndpoint localEndpoint, CPGroupId groupId, SnapshotAwareService service,
-                         boolean appendNopEntryOnLeaderElection) {
+                         boolean appendNopEntryOnLeaderElection, boolean leaderLeaseReadEnabled,
+                         int maxInFlightAppendRequestCount) {
         this.localEndpoint = localEndpoint;
         this.groupId = groupId;
         this.service = service;
         this.appendNopEntryOnLeaderElection = appendNopEntryOnLeaderElection;
+        this.leaderLeaseReadEnabled = leaderLeaseReadEnabled;
+        this.maxInFlightAppendRequestCount = maxInFlightAppendRequestCount;
         this.loggingService = new LoggingServiceImpl("dev", "log4j2", BuildInfoProvider.getBuildInfo(), true, null);
         loggingService.setThisMember(getThisMember(localEndpoint));
     }
@@ -147,6 +152,21 @@ public class LocalRaftIntegration implements RaftIntegration {
         return true;
     }
 
+    @Override
+    public boolean isLeaderLeaseReadEnabled() {
+        return leaderLeaseReadEnabled;
+    }
+
+    @Override
+    public int getLeaderLeaseClockDriftPercentage() {
+        return 10;
+    }
+
+    @Override
+    public int getMaxInFlightAppendRequestCount() {
+        return maxInFlightAppendRequestCount;
+    }
+
     @Override
     public ILogger getLogger(String name) {
         return loggingService.getLogger(name);
@@ -54,7 +54,9 @@ import java.util.UUID;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -223,6 +225,26 @@ public class MigrationManagerTest {
         return partitions;
     }
 
+    @Test
+    public void testMaxChunkedDataInBytes_whenTotalBudgetDisabled() {
+        assertEquals(MEGABYTES.toBytes(250), MigrationManager.maxChunkedDataInBytes(250, 0, 10, 1));
+    }
+
+    @Test
+    public void testMaxChunkedDataInBytes_whenTotalBudgetSharedByParallelMigrations() {
+        assertEquals(MEGABYTES.toBytes(100) / 10, MigrationManager.maxChunkedDataInBytes(250, 100, 10, 1));
+    }
+
+    @Test
+    public void testMaxChunkedDataInBytes_whenTotalBudgetSharedByInFlightFragments() {
+        assertEquals(MEGABYTES.toBytes(100) / 40, MigrationManager.maxChunkedDataInBytes(250, 100, 10, 4));
+    }
+
+    @Test
+    public void testMaxChunkedDataInBytes_whenTotalBudgetLargerThanPerMigrationLimit() {
+        assertEquals(MEGABYTES.toBytes(250), MigrationManager.maxChunkedDataInBytes(250, 10000, 10, 1));
+    }
+
     // assign each member to a replica index, according to their order in the list
     PartitionReplica[] arrange(List<Member> members) {
         PartitionReplica[] replicas = new PartitionReplica[InternalPartition.MAX_REPLICA_COUNT];
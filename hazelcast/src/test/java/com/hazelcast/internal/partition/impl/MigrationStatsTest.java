@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.Accessors.getNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MigrationStatsTest extends HazelcastTestSupport {
+
+    @Test
+    public void testSentMigrationFragments_recordedOnSource() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.PARTITION_CHUNKED_MAX_TOTAL_MIGRATING_DATA_IN_MB.getName(), "1");
+
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        IMap<Integer, byte[]> map = hz1.getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, new byte[1024]);
+        }
+        MigrationStats stats = getPartitionServiceImpl(hz1).getMigrationManager().getStats();
+        assertEquals(0, stats.getTotalSentMigrationFragments());
+
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(hz1, hz2);
+
+        assertTrue(stats.getTotalCompletedMigrations() > 0);
+        // hz1 is the source of all migrations and each of them sends at least one fragment
+        assertTrue(stats.toString(), stats.getTotalSentMigrationFragments() >= stats.getTotalCompletedMigrations());
+        assertEquals(1000, hz2.getMap(map.getName()).size());
+    }
+
+    private static InternalPartitionServiceImpl getPartitionServiceImpl(HazelcastInstance hz) {
+        return (InternalPartitionServiceImpl) getNode(hz).getPartitionService();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.compact.CompactTestUtil;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.ClassDefinitionBuilder;
+import com.hazelcast.nio.serialization.GenericRecord;
+import com.hazelcast.nio.serialization.GenericRecordBuilder;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+import static com.hazelcast.internal.serialization.impl.DataFieldReader.NOT_READ;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DataFieldReaderTest {
+
+    private static final String[] COMPACT_FIELDS = {
+            "boolean", "int8", "int16", "int32", "int64", "float32", "float64",
+            "nullableBoolean", "nullableInt8", "nullableInt16", "nullableInt32", "nullableInt64",
+            "nullableFloat32", "nullableFloat64", "string"
+    };
+
+    private static final String[] PORTABLE_FIELDS = {
+            "boolean", "byte", "char", "short", "int", "long", "float", "double", "string"
+    };
+
+    @Parameter
+    public ByteOrder byteOrder;
+
+    private SerializationServiceV1 serializationService;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{BIG_ENDIAN}, {LITTLE_ENDIAN}});
+    }
+
+    @Before
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().setEnabled(true);
+        serializationService = (SerializationServiceV1) new DefaultSerializationServiceBuilder()
+                .setSchemaService(CompactTestUtil.createInMemorySchemaService())
+                .setConfig(config)
+                .setByteOrder(byteOrder)
+                .build();
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        checkFields(serializationService.toData(compactRecord(42, "short string", true)), COMPACT_FIELDS);
+    }
+
+    @Test
+    public void testCompact_nulls() throws Exception {
+        checkFields(serializationService.toData(compactRecord(-1, null, false)), COMPACT_FIELDS);
+    }
+
+    @Test
+    public void testCompact_shortOffsets() throws Exception {
+        checkFields(serializationService.toData(compactRecord(1, repeat('a', 1_000), true)), COMPACT_FIELDS);
+    }
+
+    @Test
+    public void testCompact_intOffsets() throws Exception {
+        checkFields(serializationService.toData(compactRecord(1, repeat('é', 40_000), true)), COMPACT_FIELDS);
+    }
+
+    @Test
+    public void testCompact_notRead() {
+        Data data = serializationService.toData(compactRecord(1, "a", true));
+
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "decimal"));
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "arrayOfInt32"));
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "unknown"));
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "nested.int32"));
+    }
+
+    @Test
+    public void testPortable() throws Exception {
+        checkFields(serializationService.toData(portableRecord("portable é")), PORTABLE_FIELDS);
+        checkFields(serializationService.toData(portableRecord(null)), PORTABLE_FIELDS);
+    }
+
+    @Test
+    public void testPortable_notRead() {
+        Data data = serializationService.toData(portableRecord("a"));
+
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "decimal"));
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "arrayOfInt"));
+        assertSame(NOT_READ, serializationService.readFieldFromData(data, "unknown"));
+    }
+
+    @Test
+    public void testOtherData_notRead() {
+        assertSame(NOT_READ, serializationService.readFieldFromData(serializationService.toData(1), "int"));
+    }
+
+    private void checkFields(Data data, String[] fieldNames) throws Exception {
+        GenericRecordQueryReader reader = new GenericRecordQueryReader(serializationService.readAsInternalGenericRecord(data));
+        for (String fieldName : fieldNames) {
+            assertEquals(fieldName, reader.read(fieldName), serializationService.readFieldFromData(data, fieldName));
+        }
+    }
+
+    private static GenericRecord compactRecord(int number, String string, boolean setNullables) {
+        GenericRecord nested = GenericRecordBuilder.compact("nested").setInt32("int32", number).build();
+        return GenericRecordBuilder.compact("type")
+                .setBoolean("boolean", number > 0)
+                .setInt8("int8", (byte) number)
+                .setInt16("int16", (short) (number * 1_000))
+                .setInt32("int32", number * 1_000_000)
+                .setInt64("int64", number * 1_000_000_000_000L)
+                .setFloat32("float32", number / 3f)
+                .setFloat64("float64", number / 3d)
+                .setNullableBoolean("nullableBoolean", setNullables ? Boolean.TRUE : null)
+                .setNullableInt8("nullableInt8", setNullables ? (byte) -number : null)
+                .setNullableInt16("nullableInt16", setNullables ? (short) -number : null)
+                .setNullableInt32("nullableInt32", setNullables ? -number : null)
+                .setNullableInt64("nullableInt64", setNullables ? (long) -number : null)
+                .setNullableFloat32("nullableFloat32", setNullables ? -number / 7f : null)
+                .setNullableFloat64("nullableFloat64", setNullables ? -number / 7d : null)
+                .setString("string", string)
+                .setDecimal("decimal", BigDecimal.ONE)
+                .setArrayOfInt32("arrayOfInt32", new int[]{number})
+                .setGenericRecord("nested", nested)
+                .build();
+    }
+
+    private static GenericRecord portableRecord(String string) {
+        ClassDefinition classDefinition = new ClassDefinitionBuilder(1, 1)
+                .addBooleanField("boolean")
+                .addByteField("byte")
+                .addCharField("char")
+                .addShortField("short")
+                .addIntField("int")
+                .addLongField("long")
+                .addFloatField("float")
+                .addDoubleField("double")
+                .addStringField("string")
+                .addDecimalField("decimal")
+                .addIntArrayField("arrayOfInt")
+                .build();
+        return GenericRecordBuilder.portable(classDefinition)
+                .setBoolean("boolean", true)
+                .setInt8("byte", (byte) -3)
+                .setChar("char", 'x')
+                .setInt16("short", (short) 1_000)
+                .setInt32("int", -1_000_000)
+                .setInt64("long", Long.MAX_VALUE)
+                .setFloat32("float", 1.5f)
+                .setFloat64("double", -0.25d)
+                .setString("string", string)
+                .setDecimal("decimal", BigDecimal.TEN)
+                .setArrayOfInt32("arrayOfInt", new int[]{1, 2})
+                .build();
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
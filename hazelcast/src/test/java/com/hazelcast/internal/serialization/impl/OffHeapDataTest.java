@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.DataType;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapDataTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    private UnsafeMallocMemoryManager memoryManager;
+    private MemoryAllocator malloc;
+
+    @Before
+    public void setUp() {
+        assumeTrue(UnsafeMallocMemoryManager.isAvailable());
+        memoryManager = new UnsafeMallocMemoryManager();
+        malloc = memoryManager.getAllocator();
+    }
+
+    @After
+    public void tearDown() {
+        if (memoryManager != null) {
+            assertEquals(0, memoryManager.getUsedMemory());
+        }
+    }
+
+    @Test
+    public void copyOf_behavesLikeSourceHeapData() {
+        Data heapData = ss.toData("some value");
+        OffHeapData offHeapData = copyOf(heapData);
+
+        assertEquals(heapData.totalSize(), offHeapData.totalSize());
+        assertEquals(heapData.dataSize(), offHeapData.dataSize());
+        assertEquals(heapData.getType(), offHeapData.getType());
+        assertEquals(heapData.getPartitionHash(), offHeapData.getPartitionHash());
+        assertEquals(heapData.hashCode(), offHeapData.hashCode());
+        assertEquals(heapData.hash64(), offHeapData.hash64());
+        assertArrayEquals(heapData.toByteArray(), offHeapData.toByteArray());
+        assertEquals(heapData, offHeapData);
+        assertEquals(offHeapData, heapData);
+        assertEquals("some value", ss.toObject(offHeapData));
+
+        offHeapData.dispose(malloc);
+    }
+
+    @Test
+    public void copyTo() {
+        Data heapData = ss.toData(42L);
+        OffHeapData offHeapData = copyOf(heapData);
+
+        byte[] bytes = new byte[offHeapData.totalSize() + 1];
+        offHeapData.copyTo(bytes, 1);
+
+        byte[] expected = new byte[bytes.length];
+        heapData.copyTo(expected, 1);
+        assertArrayEquals(expected, bytes);
+
+        offHeapData.dispose(malloc);
+    }
+
+    @Test
+    public void dispose_freesMemory() {
+        OffHeapData offHeapData = copyOf(ss.toData("value"));
+        assertEquals(offHeapData.totalSize(), memoryManager.getUsedMemory());
+
+        offHeapData.dispose(malloc);
+        // subsequent dispose is a no-op
+        offHeapData.dispose(malloc);
+
+        assertTrue(offHeapData.isDisposed());
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void access_whenDisposed() {
+        OffHeapData offHeapData = copyOf(ss.toData("value"));
+        offHeapData.dispose(malloc);
+
+        offHeapData.toByteArray();
+    }
+
+    @Test
+    public void toHeapData_copiesContent() {
+        Data heapData = ss.toData("value");
+        OffHeapData offHeapData = copyOf(heapData);
+
+        Data copy = ss.convertData(offHeapData, DataType.HEAP);
+        offHeapData.dispose(malloc);
+
+        assertTrue(copy instanceof HeapData);
+        assertEquals(heapData, copy);
+    }
+
+    private OffHeapData copyOf(Data data) {
+        return OffHeapData.copyOf(data, malloc, memoryManager.getAccessor());
+    }
+}
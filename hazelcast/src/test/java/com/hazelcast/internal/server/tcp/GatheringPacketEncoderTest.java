@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.ByteBufferBatch;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GatheringPacketEncoderTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private PacketEncoderTest.PacketSupplier src;
+    private GatheringPacketEncoder encoder;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        src = new PacketEncoderTest.PacketSupplier();
+        encoder = new GatheringPacketEncoder(8, 16);
+        encoder.init(1000, false);
+        encoder.src(src);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTooFewBuffers() {
+        new GatheringPacketEncoder(2, 16);
+    }
+
+    @Test
+    public void whenSmallPackets_thenCopiedIntoSingleBuffer() throws Exception {
+        List<Packet> packets = addPackets(3, 12);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        assertEquals(1, encoder.dst().size());
+        assertPackets(packets, writeAll(encoder.dst(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void whenLargePayload_thenNotCopied() throws Exception {
+        Packet small = new Packet(serializationService.toBytes("foo"));
+        Packet large = new Packet(serializationService.toBytes(new byte[100]));
+        Packet empty = new Packet();
+        src.queue.add(small);
+        src.queue.add(large);
+        src.queue.add(empty);
+
+        HandlerStatus result = encoder.onWrite();
+
+        // the scratch region with the headers and the small payload, the large payload
+        // and then the header of the empty packet
+        assertEquals(CLEAN, result);
+        assertEquals(3, encoder.dst().size());
+        assertPackets(asList(small, large, empty), writeAll(encoder.dst(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void whenBatchFull_thenDirty() throws Exception {
+        List<Packet> packets = addPackets(10, 100);
+
+        List<Packet> written = new ArrayList<>();
+        // 8 buffers is room for 3 packets with a large payload
+        assertEquals(DIRTY, encoder.onWrite());
+        assertEquals(6, encoder.dst().size());
+        written.addAll(readPackets(writeAll(encoder.dst(), Integer.MAX_VALUE)));
+        assertEquals(DIRTY, encoder.onWrite());
+        written.addAll(readPackets(writeAll(encoder.dst(), Integer.MAX_VALUE)));
+        assertEquals(DIRTY, encoder.onWrite());
+        written.addAll(readPackets(writeAll(encoder.dst(), Integer.MAX_VALUE)));
+        assertEquals(CLEAN, encoder.onWrite());
+        written.addAll(readPackets(writeAll(encoder.dst(), Integer.MAX_VALUE)));
+
+        assertEquals(packets, written);
+    }
+
+    @Test
+    public void whenPartiallyWritten_thenNoNewBatch() throws Exception {
+        List<Packet> packets = addPackets(2, 100);
+
+        assertEquals(CLEAN, encoder.onWrite());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeTo(encoder.dst(), bytes, 50);
+        assertTrue(encoder.dst().hasRemaining());
+
+        Packet next = new Packet(serializationService.toBytes("bar"));
+        src.queue.add(next);
+        assertEquals(DIRTY, encoder.onWrite());
+        assertEquals(1, src.queue.size());
+
+        writeTo(encoder.dst(), bytes, Integer.MAX_VALUE);
+        assertFalse(encoder.dst().hasRemaining());
+        assertEquals(CLEAN, encoder.onWrite());
+        writeTo(encoder.dst(), bytes, Integer.MAX_VALUE);
+
+        List<Packet> expected = new ArrayList<>(packets);
+        expected.add(next);
+        assertPackets(expected, bytes.toByteArray());
+    }
+
+    @Test
+    public void whenNothingToWrite() {
+        assertEquals(CLEAN, encoder.onWrite());
+        assertEquals(0, encoder.dst().size());
+        assertNull(src.get());
+    }
+
+    private List<Packet> addPackets(int count, int payloadSize) {
+        List<Packet> packets = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            byte[] payload = new byte[payloadSize];
+            payload[0] = (byte) k;
+            Packet packet = new Packet(payload, k);
+            packets.add(packet);
+            src.queue.add(packet);
+        }
+        return packets;
+    }
+
+    private static byte[] writeAll(ByteBufferBatch batch, int maxBytesPerWrite) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (batch.hasRemaining()) {
+            writeTo(batch, bytes, maxBytesPerWrite);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeTo(ByteBufferBatch batch, ByteArrayOutputStream bytes, int maxBytesPerWrite) throws Exception {
+        batch.writeTo(new ByteArrayGatheringChannel(bytes, maxBytesPerWrite));
+    }
+
+    private static List<Packet> readPackets(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        PacketIOHelper reader = new PacketIOHelper();
+        List<Packet> packets = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            packets.add(reader.readFrom(buffer));
+        }
+        return packets;
+    }
+
+    private static void assertPackets(List<Packet> expected, byte[] bytes) {
+        List<Packet> packets = readPackets(bytes);
+        assertEquals(expected, packets);
+        for (int k = 0; k < expected.size(); k++) {
+            assertEquals(expected.get(k).getPartitionId(), packets.get(k).getPartitionId());
+        }
+    }
+
+    /**
+     * A {@link GatheringByteChannel} that writes at most a given number of bytes per call,
+     * like a socket with a full send buffer.
+     */
+    private static class ByteArrayGatheringChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream bytes;
+        private final int maxBytesPerWrite;
+
+        ByteArrayGatheringChannel(ByteArrayOutputStream bytes, int maxBytesPerWrite) {
+            this.bytes = bytes;
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            long written = 0;
+            for (int k = offset; k < offset + length && written < maxBytesPerWrite; k++) {
+                ByteBuffer src = srcs[k];
+                while (src.hasRemaining() && written < maxBytesPerWrite) {
+                    bytes.write(src.get());
+                    written++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.accumulator;
+
+import com.hazelcast.cardinality.CardinalityEstimator;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CardinalityAccumulatorTest extends HazelcastTestSupport {
+
+    private HazelcastInstance instance;
+
+    @Before
+    public void setup() {
+        instance = createHazelcastInstance();
+    }
+
+    @Test
+    public void when_mergedIntoEstimatorWithSameIds_then_estimateUnchanged() {
+        CardinalityEstimator estimator = instance.getCardinalityEstimator(randomName());
+        List<Long> ids = LongStream.range(0, 10_000).boxed().collect(toList());
+        estimator.addAll(ids);
+        long estimate = estimator.estimate();
+
+        CardinalityAccumulator acc = new CardinalityAccumulator();
+        ids.forEach(acc::accumulate);
+        acc.mergeInto(estimator);
+
+        // the accumulator hashes the IDs like the estimator, so the sketches are equal
+        assertEquals(estimate, acc.export());
+        assertEquals(estimate, estimator.estimate());
+    }
+
+    @Test
+    public void when_mergedIntoEstimator_then_estimatesUnion() {
+        CardinalityEstimator estimator = instance.getCardinalityEstimator(randomName());
+        estimator.addAll(LongStream.range(0, 5_000).boxed().collect(toList()));
+
+        CardinalityAccumulator acc = new CardinalityAccumulator();
+        LongStream.range(2_500, 10_000).forEach(acc::accumulate);
+        long accEstimate = acc.export();
+        acc.mergeInto(estimator);
+
+        assertEquals(10_000, estimator.estimate(), 10_000 * 0.02);
+        // the accumulator doesn't change, neither on merging nor when the estimator changes later
+        estimator.addAll(LongStream.range(10_000, 20_000).boxed().collect(toList()));
+        assertEquals(accEstimate, acc.export());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void when_mergedIntoNonMemberEstimator_then_throws() {
+        new CardinalityAccumulator().mergeInto(mock(CardinalityEstimator.class));
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.function.BiConsumerEx;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.accumulator.CardinalityAccumulator;
 import com.hazelcast.jet.accumulator.DoubleAccumulator;
 import com.hazelcast.jet.accumulator.LinTrendAccumulator;
 import com.hazelcast.jet.accumulator.LongAccumulator;
@@ -50,6 +51,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static com.hazelcast.function.ComparatorEx.naturalOrder;
 import static com.hazelcast.function.Functions.entryKey;
@@ -62,6 +64,7 @@ import static com.hazelcast.jet.aggregate.AggregateOperations.averagingLong;
 import static com.hazelcast.jet.aggregate.AggregateOperations.bottomN;
 import static com.hazelcast.jet.aggregate.AggregateOperations.concatenating;
 import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.aggregate.AggregateOperations.estimatingCardinality;
 import static com.hazelcast.jet.aggregate.AggregateOperations.filtering;
 import static com.hazelcast.jet.aggregate.AggregateOperations.flatMapping;
 import static com.hazelcast.jet.aggregate.AggregateOperations.groupingBy;
@@ -639,6 +642,30 @@ public class AggregateOperationsTest {
         );
     }
 
+    @Test
+    public void when_estimatingCardinality() {
+        // Given
+        AggregateOperation1<Long, CardinalityAccumulator, Long> op = estimatingCardinality(Long::longValue);
+        assertNull("deductFn", op.deductFn());
+
+        // When
+        CardinalityAccumulator a1 = op.createFn().get();
+        LongStream.range(0, 1000).forEach(i -> op.accumulateFn().accept(a1, i % 100));
+        CardinalityAccumulator a2 = op.createFn().get();
+        LongStream.range(50, 10_000).forEach(i -> op.accumulateFn().accept(a2, i));
+
+        // Then
+        assertEquals(100L, (long) op.exportFn().apply(a1));
+
+        // When
+        CardinalityAccumulator a2Copy = SERIALIZATION_SERVICE.toObject(SERIALIZATION_SERVICE.toData(a2));
+        op.combineFn().accept(a1, a2Copy);
+
+        // Then
+        assertEquals(a2.export(), a2Copy.export());
+        assertEquals(10_000, op.finishFn().apply(a1), 10_000 * 0.02);
+    }
+
     @Test
     public void when_pickAny() {
         validateOp(pickAny(), PickAnyAccumulator::get, 1, 2, 1, 1, 1);
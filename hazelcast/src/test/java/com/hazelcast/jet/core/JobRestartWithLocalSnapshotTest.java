@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.JobRestartWithSnapshotTest.SequencesInPartitionsGeneratorP;
+import com.hazelcast.jet.impl.JobExecutionRecord;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.SnapshotValidationRecord;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.SlowTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.TestUtil.throttle;
+import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the tests of {@link JobRestartWithSnapshotTest} with the snapshot
+ * data stored on the local disks of the members.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({SlowTest.class, ParallelJVMTest.class})
+public class JobRestartWithLocalSnapshotTest extends JobRestartWithSnapshotTest {
+
+    private File snapshotDirectory;
+
+    @Override
+    protected Config createConfig() throws Exception {
+        snapshotDirectory = Files.createTempDirectory("jet-local-snapshot").toFile();
+        Config config = super.createConfig();
+        config.setProperty(ClusterProperty.JET_SNAPSHOT_LOCAL_DIRECTORY.getName(), snapshotDirectory.getAbsolutePath());
+        return config;
+    }
+
+    @After
+    public void deleteSnapshotDirectory() {
+        IOUtil.delete(snapshotDirectory);
+    }
+
+    @Test
+    public void when_snapshotWritten_then_mapContainsOnlyValidationRecord() {
+        Job job = startJobWithSnapshots();
+        JobRepository jobRepository = new JobRepository(instance1);
+        waitForFirstSnapshot(jobRepository, job.getId(), 30, false);
+
+        JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+        IMap<Object, Object> snapshotMap = instance1.getMap(
+                JobRepository.snapshotDataMapName(job.getId(), record.dataMapIndex()));
+        assertEquals(singleton(SnapshotValidationRecord.KEY), snapshotMap.keySet());
+        File[] mapDirectories = snapshotDirectory.listFiles();
+        assertTrue("no local snapshot data written", mapDirectories != null && mapDirectories.length > 0);
+        job.cancel();
+    }
+
+    @Test
+    public void when_memberShutsDown_then_onlyItsOwnFilesDeleted() {
+        Job job = startJobWithSnapshots();
+        waitForFirstSnapshot(new JobRepository(instance1), job.getId(), 30, false);
+        String memberDirName = instance2.getCluster().getLocalMember().getUuid().toString();
+
+        instance2.shutdown();
+
+        File[] mapDirectories = snapshotDirectory.listFiles(File::isDirectory);
+        assertTrue("no local snapshot data written", mapDirectories != null && mapDirectories.length > 0);
+        for (File mapDirectory : mapDirectories) {
+            File memberDirectory = new File(mapDirectory, memberDirName);
+            File[] ownFiles = memberDirectory.listFiles(File::isFile);
+            assertTrue("own files not deleted", ownFiles == null || ownFiles.length == 0);
+            File[] replicaDirectories = new File(memberDirectory, "replicas").listFiles(File::isDirectory);
+            assertTrue("replicas deleted", replicaDirectories != null && replicaDirectories.length > 0);
+        }
+        job.cancel();
+    }
+
+    private Job startJobWithSnapshots() {
+        DAG dag = new DAG();
+        SupplierEx<Processor> sup = () -> new SequencesInPartitionsGeneratorP(3, 1000, false);
+        Vertex generator = dag.newVertex("generator", throttle(sup, 30)).localParallelism(1);
+        Vertex sink = dag.newVertex("sink", writeListP("sink"));
+        dag.edge(between(generator, sink));
+
+        JobConfig config = new JobConfig();
+        config.setProcessingGuarantee(EXACTLY_ONCE);
+        config.setSnapshotIntervalMillis(500);
+        return instance1.getJet().newJob(dag, config);
+    }
+}
@@ -86,18 +86,23 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
-    private HazelcastInstance instance1;
-    private HazelcastInstance instance2;
+    protected HazelcastInstance instance1;
+    protected HazelcastInstance instance2;
 
     @Before
-    public void setup() {
-        Config config = smallInstanceConfig();
-        config.getJetConfig().setCooperativeThreadCount(LOCAL_PARALLELISM);
+    public void setup() throws Exception {
+        Config config = createConfig();
 
         instance1 = createHazelcastInstance(config);
         instance2 = createHazelcastInstance(config);
     }
 
+    protected Config createConfig() throws Exception {
+        Config config = smallInstanceConfig();
+        config.getJetConfig().setCooperativeThreadCount(LOCAL_PARALLELISM);
+        return config;
+    }
+
     @Test
     public void when_nodeDown_then_jobRestartsFromSnapshot_singleStage() throws Exception {
         when_nodeDown_then_jobRestartsFromSnapshot(false);
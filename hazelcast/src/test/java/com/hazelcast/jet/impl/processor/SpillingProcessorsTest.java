@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.Util;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.aggregate.AggregateOperations;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hazelcast.function.Functions.wholeItem;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillingProcessorsTest extends SimpleTestInClusterSupport {
+
+    private static final int LIMIT = 100;
+
+    private static final Set<Thread> WRITING_THREADS = newSetFromMap(new ConcurrentHashMap<>());
+
+    private static File spillDirectory;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        spillDirectory = Files.createTempDirectory("jet-spill-test").toFile();
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.JET_SPILL_DIRECTORY.getName(), spillDirectory.getAbsolutePath());
+        initialize(1, config);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        IOUtil.delete(spillDirectory);
+    }
+
+    @Test
+    public void when_sortExceedsLimit_then_spillsAndMerges() throws Exception {
+        List<Integer> input = range(0, LIMIT * 10 + 7).map(i -> (i * 7919) % 1013).boxed().collect(toList());
+
+        List<Object> output = run(new SortP<Integer>(null), input);
+
+        assertEquals(input.stream().sorted().collect(toList()), output);
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_sortWithComparatorExceedsLimit_then_outputInComparatorOrder() throws Exception {
+        List<Integer> input = range(0, LIMIT * 3).boxed().collect(toList());
+
+        List<Object> output = run(new SortP<>(Comparator.<Integer>reverseOrder()), input);
+
+        assertEquals(input.stream().sorted(reverseOrder()).collect(toList()), output);
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test
+    public void when_sortSpills_then_fileIoNotOnProcessorThread() throws Exception {
+        WRITING_THREADS.clear();
+        List<ThreadRecordingItem> input = range(0, LIMIT * 3).mapToObj(ThreadRecordingItem::new).collect(toList());
+
+        List<Object> output = run(new SortP<ThreadRecordingItem>(null), input);
+
+        assertEquals(input, output);
+        assertFalse(WRITING_THREADS.isEmpty());
+        assertFalse(WRITING_THREADS.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void when_groupExceedsLimit_then_spillsAndCombines() throws Exception {
+        // every key is seen several times, in between spills
+        List<Integer> input = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            range(0, LIMIT * 5).forEach(input::add);
+        }
+
+        List<Object> output = run(new GroupP<>(wholeItem(), AggregateOperations.counting(), Util::entry), input);
+
+        Map<Object, Object> actual = new HashMap<>();
+        for (Object o : output) {
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            assertEquals("duplicate key " + e.getKey(), null, actual.put(e.getKey(), e.getValue()));
+        }
+        assertEquals(LIMIT * 5, actual.size());
+        for (Object count : actual.values()) {
+            assertEquals(3L, count);
+        }
+        assertSpillDirectoryEmpty();
+    }
+
+    @Test(expected = AccumulationLimitExceededException.class)
+    public void when_groupWithoutCombineFnExceedsLimit_then_fails() throws Exception {
+        AggregateOperation1<Object, LongAccumulator, Long> countingWithoutCombine = AggregateOperation
+                .withCreate(LongAccumulator::new)
+                .andAccumulate((LongAccumulator acc, Object item) -> acc.add(1))
+                .andExportFinish(LongAccumulator::get);
+        List<Integer> input = range(0, LIMIT + 1).boxed().collect(toList());
+
+        run(new GroupP<>(wholeItem(), countingWithoutCombine, Util::entry), input);
+    }
+
+    private static List<Object> run(Processor processor, List<?> input) throws Exception {
+        TestProcessorContext context = new TestProcessorContext().setHazelcastInstance(instance());
+        context.setMaxProcessorAccumulatedRecords(LIMIT);
+        TestOutbox outbox = new TestOutbox(128);
+        List<Object> output = new ArrayList<>();
+        try {
+            processor.init(outbox, context);
+            TestInbox inbox = new TestInbox(input);
+            // the processor doesn't take items while a spill runs
+            while (!inbox.isEmpty()) {
+                processor.process(0, inbox);
+            }
+            boolean done;
+            do {
+                done = processor.complete();
+                outbox.drainQueueAndReset(0, output, false);
+            } while (!done);
+        } finally {
+            processor.close();
+        }
+        return output;
+    }
+
+    private static void assertSpillDirectoryEmpty() {
+        String[] files = spillDirectory.list();
+        assertEquals(0, files == null ? 0 : files.length);
+    }
+
+    private static final class ThreadRecordingItem implements Comparable<ThreadRecordingItem>, Serializable {
+        private final int value;
+
+        ThreadRecordingItem(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(ThreadRecordingItem o) {
+            return Integer.compare(value, o.value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ThreadRecordingItem && ((ThreadRecordingItem) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            WRITING_THREADS.add(Thread.currentThread());
+            out.defaultWriteObject();
+        }
+    }
+}
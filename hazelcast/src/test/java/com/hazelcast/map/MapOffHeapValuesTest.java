@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.partition.Partition;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_VALUES_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_OFF_HEAP_VALUES_MAX_SIZE_MB;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapOffHeapValuesTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance instance1;
+    private HazelcastInstance instance2;
+    private IMap<Integer, String> map;
+
+    @Before
+    public void setUp() {
+        assumeTrue(UnsafeMallocMemoryManager.isAvailable());
+
+        Config config = getConfig()
+                .setProperty(MAP_OFF_HEAP_VALUES_ENABLED.getName(), "true");
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.BINARY);
+        config.getMapConfig("readBackup*").setInMemoryFormat(InMemoryFormat.BINARY)
+                .setReadBackupData(true);
+
+        factory = createHazelcastInstanceFactory(3);
+        instance1 = factory.newHazelcastInstance(config);
+        instance2 = factory.newHazelcastInstance(config);
+        map = instance1.getMap(randomMapName());
+    }
+
+    @Test
+    public void storageIsOffHeap() {
+        map.put(1, "value");
+
+        assertNotNull(getOffHeapMemoryManager(instance1));
+        assertNotNull(getOffHeapMemoryManager(instance2));
+    }
+
+    @Test
+    public void putGetRemove() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertNull(map.put(i, "value-" + i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("value-" + i, map.put(i, "updated-" + i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("updated-" + i, map.get(i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("updated-" + i, map.remove(i));
+        }
+
+        assertEquals(0, map.size());
+        assertOffHeapMemoryReleased();
+    }
+
+    @Test
+    public void queryAndEntryProcessor() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "value-" + i);
+        }
+
+        map.executeOnEntries(entry -> {
+            entry.setValue(entry.getValue() + "-processed");
+            return null;
+        });
+
+        Collection<String> values = map.values(Predicates.like("this", "value-1%"));
+        assertEquals(111, values.size());
+        for (String value : values) {
+            assertEquals("-processed", value.substring(value.lastIndexOf('-')));
+        }
+    }
+
+    @Test
+    public void indexedQueries() {
+        map.addIndex(IndexType.HASH, "this");
+        IMap<Integer, Integer> sortedMap = instance1.getMap(randomMapName());
+        sortedMap.addIndex(IndexType.SORTED, "this");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "value-" + i);
+            sortedMap.set(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "updated-" + i);
+            sortedMap.set(i, i + ENTRY_COUNT);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+            sortedMap.remove(i);
+        }
+
+        assertTrue(map.keySet(Predicates.equal("this", "value-1")).isEmpty());
+        assertTrue(map.keySet(Predicates.equal("this", "updated-2")).isEmpty());
+        assertEquals(singleton(1), map.keySet(Predicates.equal("this", "updated-1")));
+        Collection<Integer> values = sortedMap.values(Predicates.lessThan("this", ENTRY_COUNT + 10));
+        assertEquals(new HashSet<>(asList(ENTRY_COUNT + 1, ENTRY_COUNT + 3, ENTRY_COUNT + 5,
+                ENTRY_COUNT + 7, ENTRY_COUNT + 9)), new HashSet<>(values));
+    }
+
+    @Test
+    public void indexAddedAfterPut() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "value-" + i);
+        }
+        map.addIndex(IndexType.HASH, "this");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "updated-" + i);
+        }
+
+        assertTrue(map.keySet(Predicates.equal("this", "value-7")).isEmpty());
+        assertEquals(singleton(7), map.keySet(Predicates.equal("this", "updated-7")));
+    }
+
+    @Test
+    public void localIteratorResults_readableAfterEntriesOverwritten() {
+        // iterate a partition owned by instance1, so that the results are not serialized
+        PartitionService partitionService = instance1.getPartitionService();
+        int partitionId = -1;
+        for (int i = 0; partitionId < 0; i++) {
+            Partition partition = partitionService.getPartition(i);
+            if (partition.getOwner().localMember()) {
+                partitionId = partition.getPartitionId();
+            }
+        }
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < 100; i++) {
+            if (partitionService.getPartition(i).getPartitionId() == partitionId) {
+                keys.add(i);
+                map.set(i, "value-" + i);
+            }
+        }
+
+        MapProxyImpl<Integer, String> proxy = (MapProxyImpl<Integer, String>) map;
+        Iterator<Map.Entry<Integer, String>> iterator = proxy.iterator(keys.size(), partitionId, true);
+        Iterator<Map.Entry<Integer, String>> queryIterator =
+                proxy.iterator(keys.size(), partitionId, Projections.identity(), Predicates.alwaysTrue());
+        // fetch the first batch of both iterators before the entries are overwritten
+        assertTrue(iterator.hasNext());
+        assertTrue(queryIterator.hasNext());
+        for (Integer key : keys) {
+            map.set(key, "updated-" + key);
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            assertEquals("value-" + entry.getKey(), entry.getValue());
+            Map.Entry<Integer, String> queryEntry = queryIterator.next();
+            assertEquals("value-" + queryEntry.getKey(), queryEntry.getValue());
+        }
+    }
+
+    @Test
+    public void readBackupData() {
+        IMap<Integer, String> backupMap = instance1.getMap("readBackup" + randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            backupMap.set(i, "value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            backupMap.set(i, "updated-" + i);
+        }
+
+        IMap<Integer, String> backupMap2 = instance2.getMap(backupMap.getName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("updated-" + i, backupMap.get(i));
+            assertEquals("updated-" + i, backupMap2.get(i));
+        }
+    }
+
+    @Test
+    public void valuesStayOnHeap_whenMemoryLimitReached() {
+        Config config = getConfig()
+                .setProperty(MAP_OFF_HEAP_VALUES_ENABLED.getName(), "true")
+                .setProperty(MAP_OFF_HEAP_VALUES_MAX_SIZE_MB.getName(), "1");
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.BINARY);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IMap<Integer, byte[]> bigMap = instance.getMap(randomMapName());
+
+        byte[] value = new byte[16 * 1024];
+        for (int i = 0; i < 256; i++) {
+            value[0] = (byte) i;
+            bigMap.set(i, value);
+        }
+
+        UnsafeMallocMemoryManager memoryManager = getOffHeapMemoryManager(instance, bigMap.getName());
+        assertTrue(memoryManager.getUsedMemory() <= memoryManager.getMaxMemory());
+        assertTrue(memoryManager.getRejectedAllocationCount() > 0);
+        for (int i = 0; i < 256; i++) {
+            assertEquals((byte) i, bigMap.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void listenersReceiveValues() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        map.addEntryListener((EntryAddedListener<Integer, String>) event -> {
+            if ("value".equals(event.getValue())) {
+                latch.countDown();
+            }
+        }, true);
+
+        map.put(1, "value");
+        map.remove(1);
+
+        assertOpenEventually(latch);
+    }
+
+    @Test
+    public void entriesExpire() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i, 1, TimeUnit.SECONDS);
+        }
+
+        assertTrueEventually(() -> {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                assertNull(map.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void clearAndDestroyReleaseMemory() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "value-" + i);
+        }
+
+        map.clear();
+        assertEquals(0, map.size());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, "value-" + i);
+        }
+        UnsafeMallocMemoryManager memoryManager1 = getOffHeapMemoryManager(instance1);
+        UnsafeMallocMemoryManager memoryManager2 = getOffHeapMemoryManager(instance2);
+
+        map.destroy();
+
+        assertTrueEventually(() -> {
+            assertEquals(0, memoryManager1.getUsedMemory());
+            assertEquals(0, memoryManager2.getUsedMemory());
+        });
+    }
+
+    private void assertOffHeapMemoryReleased() {
+        // removed values are disposed by the next operation on the partition
+        map.clear();
+
+        assertTrueEventually(() -> {
+            assertEquals(0, getOffHeapMemoryManager(instance1).getUsedMemory());
+            assertEquals(0, getOffHeapMemoryManager(instance2).getUsedMemory());
+        });
+    }
+
+    private UnsafeMallocMemoryManager getOffHeapMemoryManager(HazelcastInstance instance) {
+        return getOffHeapMemoryManager(instance, map.getName());
+    }
+
+    private static UnsafeMallocMemoryManager getOffHeapMemoryManager(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
+        return (UnsafeMallocMemoryManager) mapContainer.getOffHeapMemoryManager();
+    }
+}
@@ -76,4 +76,32 @@ public class MapChunkTest extends HazelcastTestSupport {
             assertEquals(1_000, test.size());
         }
     }
+
+    @Test
+    public void smoke_pipelined() {
+        Config config = getConfig();
+        config.setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1");
+        config.setProperty(ClusterProperty.PARTITION_MAX_PARALLEL_MIGRATIONS.getName(), "1");
+        config.setProperty(ClusterProperty.PARTITION_CHUNKED_MAX_TOTAL_MIGRATING_DATA_IN_MB.getName(), "1");
+        config.setProperty(ClusterProperty.PARTITION_MIGRATION_MAX_IN_FLIGHT_FRAGMENTS.getName(), "4");
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory();
+
+        HazelcastInstance node1 = factory.newHazelcastInstance(config);
+        IMap<Integer, byte[]> test = node1.getMap("test");
+        for (int i = 0; i < 2_000; i++) {
+            byte[] value = new byte[1024];
+            value[0] = (byte) i;
+            test.set(i, value);
+        }
+        HazelcastInstance node2 = factory.newHazelcastInstance(config);
+
+        node1.shutdown();
+
+        IMap<Integer, byte[]> migrated = node2.getMap("test");
+        assertEquals(2_000, migrated.size());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals((byte) i, migrated.get(i)[0]);
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.notEqual;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BitmapIndexCountAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int AGE_COUNT = 10;
+    private static final int CITY_COUNT = 4;
+
+    private IMap<Integer, Person> map;
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("persons")
+                .setCacheDeserializedValues(CacheDeserializedValues.NEVER)
+                .addIndexConfig(new IndexConfig(IndexType.BITMAP, "age"))
+                .addIndexConfig(new IndexConfig(IndexType.BITMAP, "city"));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        waitAllForSafeState(instances);
+        map = instances[0].getMap("persons");
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, new Person(i % AGE_COUNT, "name-" + i, "city-" + i % CITY_COUNT));
+        }
+    }
+
+    @Test
+    public void testCount_answeredFromIndex() {
+        Person.DESERIALIZATIONS.set(0);
+
+        assertCount(ENTRY_COUNT / AGE_COUNT, equal("age", 1));
+        assertCount(2 * ENTRY_COUNT / AGE_COUNT, in("age", 1, 2));
+        assertCount(ENTRY_COUNT - ENTRY_COUNT / AGE_COUNT, notEqual("age", 1));
+        assertCount(0, equal("age", AGE_COUNT));
+
+        assertEquals(0, Person.DESERIALIZATIONS.get());
+    }
+
+    @Test
+    public void testCount_whenPredicateNotEvaluableByIndex() {
+        Person.DESERIALIZATIONS.set(0);
+
+        assertCount(1, and(equal("age", 1), like("name", "name-1")));
+
+        assertTrue(Person.DESERIALIZATIONS.get() > 0);
+    }
+
+    @Test
+    public void testCount_whenEntriesMayExpire() {
+        map.put(ENTRY_COUNT, new Person(1, "expiring", null), 1, TimeUnit.HOURS);
+        Person.DESERIALIZATIONS.set(0);
+
+        assertCount(ENTRY_COUNT / AGE_COUNT + 1, equal("age", 1));
+
+        assertTrue(Person.DESERIALIZATIONS.get() > 0);
+    }
+
+    @Test
+    public void testCountDistinct_answeredFromIndex() {
+        map.put(ENTRY_COUNT, new Person(0, "homeless", null));
+        Person.DESERIALIZATIONS.set(0);
+
+        assertEquals(setOf("city-0", "city-1", "city-2", "city-3", null), map.aggregate(Aggregators.distinct("city")));
+        assertEquals(setOf("city-1", "city-2"),
+                map.aggregate(Aggregators.distinct("city"), in("city", "city-1", "city-2", "city-5")));
+        assertEquals(setOf(), map.aggregate(Aggregators.distinct("city"), equal("city", "city-5")));
+
+        assertEquals(0, Person.DESERIALIZATIONS.get());
+    }
+
+    @Test
+    public void testCountByValue_answeredFromIndex() {
+        map.put(ENTRY_COUNT, new Person(0, "homeless", null));
+        Person.DESERIALIZATIONS.set(0);
+
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < CITY_COUNT; ++i) {
+            expected.put("city-" + i, (long) ENTRY_COUNT / CITY_COUNT);
+        }
+        expected.put(null, 1L);
+        assertEquals(expected, map.aggregate(Aggregators.countByValue("city")));
+
+        expected.keySet().retainAll(setOf("city-1", "city-2"));
+        assertEquals(expected, map.aggregate(Aggregators.countByValue("city"), in("city", "city-1", "city-2")));
+
+        assertEquals(0, Person.DESERIALIZATIONS.get());
+    }
+
+    @Test
+    public void testCountByValue_whenPredicateOnOtherIndex() {
+        Person.DESERIALIZATIONS.set(0);
+
+        Map<String, Long> expected = new HashMap<>();
+        // age 1 entries are i = 1, 11, 21, ..., which are in cities 1 and 3
+        expected.put("city-1", (long) ENTRY_COUNT / AGE_COUNT / 2);
+        expected.put("city-3", (long) ENTRY_COUNT / AGE_COUNT / 2);
+        assertEquals(expected, map.aggregate(Aggregators.countByValue("city"), equal("age", 1)));
+
+        assertTrue(Person.DESERIALIZATIONS.get() > 0);
+    }
+
+    @Test
+    public void testCountByValue_whenNumericAttribute() {
+        Person.DESERIALIZATIONS.set(0);
+
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int i = 0; i < AGE_COUNT; ++i) {
+            expected.put(i, (long) ENTRY_COUNT / AGE_COUNT);
+        }
+        Map<Integer, Long> actual = map.aggregate(Aggregators.countByValue("age"));
+        assertEquals(expected, actual);
+
+        // the index keeps numbers in a canonical form, the entries are scanned for their original type
+        assertTrue(Person.DESERIALIZATIONS.get() > 0);
+    }
+
+    private void assertCount(long expected, Predicate<Integer, Person> predicate) {
+        assertEquals((Long) expected, map.aggregate(Aggregators.count(), predicate));
+    }
+
+    private static Set<String> setOf(String... values) {
+        return new HashSet<>(asList(values));
+    }
+
+    private static class Person implements Serializable {
+
+        private static final AtomicInteger DESERIALIZATIONS = new AtomicInteger();
+
+        private final int age;
+        private final String name;
+        private final String city;
+
+        Person(int age, String name, String city) {
+            this.age = age;
+            this.name = name;
+            this.city = city;
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            DESERIALIZATIONS.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MerkleTreeMutationObserverTest {
+
+    private static final int DEPTH = 4;
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testReplicationPut_whenRecordExists_thenOldValueReplaced() {
+        Data key = ss.toData(1);
+        MerkleTreeMutationObserver<Record> observer = new MerkleTreeMutationObserver<>(ss, DEPTH);
+        observer.onPutRecord(key, record("old"), null, false);
+        observer.onReplicationPutRecord(key, record("new"), ss.toData("old"), false);
+
+        MerkleTreeMutationObserver<Record> expected = new MerkleTreeMutationObserver<>(ss, DEPTH);
+        expected.onPutRecord(key, record("new"), null, false);
+
+        assertEquals(expected.getMerkleTree().getNodeHash(0), observer.getMerkleTree().getNodeHash(0));
+    }
+
+    @Test
+    public void testReplicationPut_whenRecordIsNew_thenAdded() {
+        Data key = ss.toData(1);
+        MerkleTreeMutationObserver<Record> observer = new MerkleTreeMutationObserver<>(ss, DEPTH);
+        observer.onReplicationPutRecord(key, record("new"), null, false);
+
+        MerkleTreeMutationObserver<Record> expected = new MerkleTreeMutationObserver<>(ss, DEPTH);
+        expected.onPutRecord(key, record("new"), null, false);
+
+        assertEquals(expected.getMerkleTree().getNodeHash(0), observer.getMerkleTree().getNodeHash(0));
+    }
+
+    private Record record(String value) {
+        Record record = mock(Record.class);
+        when(record.getValue()).thenReturn(ss.toData(value));
+        return record;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.merge;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.merge.MergingValue;
+import com.hazelcast.spi.merge.SplitBrainMergePolicy;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.HazelcastSerialParametersRunnerFactory;
+import com.hazelcast.test.SplitBrainTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+/**
+ * Tests that only the entries which differ in the Merkle trees of
+ * the merging and the merged clusters are merged after a split-brain.
+ */
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastSerialParametersRunnerFactory.class)
+@Category(QuickTest.class)
+public class MapMerkleTreeSplitBrainTest extends SplitBrainTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int CHANGED_ENTRY_COUNT = 10;
+    private static final String MAP_NAME = "test";
+    private static final AtomicInteger MERGED_ENTRY_COUNT = new AtomicInteger();
+
+    @Parameterized.Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    @Parameterized.Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {InMemoryFormat.BINARY},
+                {InMemoryFormat.OBJECT},
+        });
+    }
+
+    private MergeLifecycleListener mergeLifecycleListener;
+
+    @Override
+    protected Config config() {
+        Config config = super.config()
+                .setProperty(ClusterProperty.MAP_MERGE_MERKLE_TREE_DIFF_ONLY.getName(), "true");
+        config.getMapConfig(MAP_NAME)
+                .setInMemoryFormat(inMemoryFormat)
+                .setMergePolicyConfig(new MergePolicyConfig().setPolicy(CountingPassThroughMergePolicy.class.getName()))
+                .getMerkleTreeConfig().setEnabled(true);
+        return config;
+    }
+
+    @Override
+    protected void onBeforeSplitBrainCreated(HazelcastInstance[] instances) {
+        IMap<Integer, String> map = instances[0].getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value" + i);
+        }
+        waitAllForSafeState(instances);
+    }
+
+    @Override
+    protected void onAfterSplitBrainCreated(HazelcastInstance[] firstBrain, HazelcastInstance[] secondBrain) {
+        mergeLifecycleListener = new MergeLifecycleListener(secondBrain.length);
+        for (HazelcastInstance instance : secondBrain) {
+            instance.getLifecycleService().addLifecycleListener(mergeLifecycleListener);
+        }
+
+        IMap<Integer, String> map = secondBrain[0].getMap(MAP_NAME);
+        for (int i = 0; i < CHANGED_ENTRY_COUNT; i++) {
+            map.put(i, "changed" + i);
+        }
+        MERGED_ENTRY_COUNT.set(0);
+    }
+
+    @Override
+    protected void onAfterSplitBrainHealed(HazelcastInstance[] instances) {
+        mergeLifecycleListener.await();
+
+        for (HazelcastInstance instance : instances) {
+            IMap<Integer, String> map = instance.getMap(MAP_NAME);
+            assertEquals(ENTRY_COUNT, map.size());
+            for (int i = 0; i < CHANGED_ENTRY_COUNT; i++) {
+                assertEquals("changed" + i, map.get(i));
+            }
+        }
+
+        int mergedEntryCount = MERGED_ENTRY_COUNT.get();
+        assertTrue("Merged entry count: " + mergedEntryCount, mergedEntryCount >= CHANGED_ENTRY_COUNT);
+        assertTrue("Merged entry count: " + mergedEntryCount, mergedEntryCount < ENTRY_COUNT / 10);
+    }
+
+    public static class CountingPassThroughMergePolicy implements SplitBrainMergePolicy<Object, MergingValue<Object>, Object> {
+
+        @Override
+        public Object merge(MergingValue<Object> mergingValue, MergingValue<Object> existingValue) {
+            MERGED_ENTRY_COUNT.incrementAndGet();
+            return mergingValue.getRawValue();
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+}
@@ -114,6 +114,35 @@ public class JsonIndexIntegrationTest extends HazelcastTestSupport {
         assertEquals(1000, records.size());
     }
 
+    @Test
+    public void testIndexedEntriesReuseJsonMetadata() {
+        HazelcastInstance instance = createHazelcastInstance();
+        IMap<Integer, HazelcastJsonValue> map = instance.getMap(MAP_NAME);
+        map.addIndex(IndexType.HASH, "age");
+
+        for (int i = 0; i < 100; i++) {
+            String jsonString = "{\"age\" : " + i + "  , \"name\" : \"sancar\" , \"active\" :  " + (i % 2 == 0) + " } ";
+            map.put(i, new HazelcastJsonValue(jsonString));
+        }
+        // populates the index from the already existing entries
+        map.addIndex(IndexType.SORTED, "name");
+
+        boolean metadataExpected = metadataPolicy == MetadataPolicy.CREATE_ON_UPDATE;
+        Set<QueryableEntry> records = getRecords(instance, MAP_NAME, "age", 40);
+        assertEquals(1, records.size());
+        assertMetadata(metadataExpected, records);
+
+        records = getRecords(instance, MAP_NAME, "name", "sancar");
+        assertEquals(100, records.size());
+        assertMetadata(metadataExpected, records);
+    }
+
+    private static void assertMetadata(boolean metadataExpected, Set<QueryableEntry> records) {
+        for (QueryableEntry record : records) {
+            assertEquals(metadataExpected, record.getMetadata() != null);
+        }
+    }
+
     @Test
     public void testIndex_viaQueries() {
         HazelcastInstance instance = createHazelcastInstance();
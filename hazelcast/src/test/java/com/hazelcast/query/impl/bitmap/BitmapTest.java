@@ -28,8 +28,10 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -40,6 +42,7 @@ import static com.hazelcast.query.Predicates.not;
 import static com.hazelcast.query.Predicates.notEqual;
 import static com.hazelcast.query.Predicates.or;
 import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
+import static java.util.Collections.emptyMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
@@ -145,6 +148,35 @@ public class BitmapTest {
         clear();
     }
 
+    @Test
+    public void testCountByValue() {
+        for (long i = 0; i < COUNT; ++i) {
+            insert(i, i);
+        }
+        // make some bit sets empty
+        for (long i = 0; i < COUNT; ++i) {
+            update(i, i, i & 0xF);
+        }
+
+        Map<Object, Long> expectedAll = new HashMap<>();
+        Map<Object, Long> expectedFiltered = new HashMap<>();
+        for (long i = 0; i < COUNT; ++i) {
+            long value = i & 0xF;
+            for (int bit = 0; bit < Long.SIZE; ++bit) {
+                if (bit(bit, value)) {
+                    expectedAll.merge(bit, 1L, Long::sum);
+                    if (bit(1, value)) {
+                        expectedFiltered.merge(bit, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        assertEquals(expectedAll, bitmap.countByValue(null, INTEGER_CONVERTER));
+        assertEquals(expectedFiltered, bitmap.countByValue(equal("a", 1), INTEGER_CONVERTER));
+        assertEquals(emptyMap(), bitmap.countByValue(equal("a", 42), INTEGER_CONVERTER));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUnexpectedPredicate() {
         bitmap.evaluate(Predicates.like("a", "b"), INTEGER_CONVERTER);
@@ -185,6 +217,7 @@ public class BitmapTest {
 
             Iterator<String> actualResult = bitmap.evaluate(actualQuery, INTEGER_CONVERTER);
             expectedQuery.verify(actualResult);
+            assertEquals(expectedQuery.result.size(), bitmap.count(actualQuery, INTEGER_CONVERTER));
         }
     }
 
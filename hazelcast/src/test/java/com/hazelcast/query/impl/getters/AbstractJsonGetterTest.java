@@ -35,6 +35,8 @@ import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.test.HazelcastTestSupport.sleepAtLeastSeconds;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
@@ -83,6 +85,40 @@ public class AbstractJsonGetterTest {
         assertEquals(2, getter.getContextCacheSize());
     }
 
+    @Test
+    public void testAnyPathIsAnsweredFromSchema() throws Exception {
+        String jsonText = Json.object()
+                .add("numbers", Json.array().add(1).add(2.5).add("three").add(Json.NULL).add(Json.object().add("x", 4)))
+                .add("arr", Json.array()
+                        .add(Json.object().add("a", Json.object().add("b", 1)))
+                        .add(Json.object().add("c", 2))
+                        .add(Json.object().add("a", 3))
+                        .add(Json.object().add("a", Json.object().add("b", 4))))
+                .toString();
+        HazelcastJsonValue jsonValue = new HazelcastJsonValue(jsonText);
+        JsonSchemaNode node = JsonSchemaHelper.createSchema(factory.createParser(jsonText));
+
+        MultiResult numbers = (MultiResult) getter.getValue(jsonValue, "numbers[any]", node);
+        assertEquals(asList(1L, 2.5, "three", null), numbers.getResults());
+        assertEquals(((MultiResult) getter.getValue(jsonValue, "numbers[any]")).getResults(), numbers.getResults());
+
+        MultiResult nested = (MultiResult) getter.getValue(jsonValue, "arr[any].a.b", node);
+        assertEquals(asList(1L, 4L), nested.getResults());
+
+        MultiResult scalarsOnly = (MultiResult) getter.getValue(jsonValue, "arr[any].a", node);
+        assertEquals(singletonList(3L), scalarsOnly.getResults());
+    }
+
+    @Test
+    public void testAnyPathOnEmptyArray() throws Exception {
+        String jsonText = Json.object().add("arr", Json.array()).toString();
+        HazelcastJsonValue jsonValue = new HazelcastJsonValue(jsonText);
+        JsonSchemaNode node = JsonSchemaHelper.createSchema(factory.createParser(jsonText));
+
+        MultiResult result = (MultiResult) getter.getValue(jsonValue, "arr[any]", node);
+        assertTrue(result.isEmpty());
+    }
+
     @Test
     public void testQueryObjectsWithDifferentPatterns() throws Exception {
         testRandomOrderObjectRepetitiveQuerying(100);
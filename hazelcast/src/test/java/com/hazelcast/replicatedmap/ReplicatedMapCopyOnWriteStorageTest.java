@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.replicatedmap;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.replicatedmap.impl.record.AbstractReplicatedRecordStore;
+import com.hazelcast.replicatedmap.impl.record.CopyOnWriteReplicatedMapStorage;
+import com.hazelcast.replicatedmap.impl.record.ReplicatedRecord;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.ClusterProperty.REPLICATED_MAP_COPY_ON_WRITE_STORAGE_ENABLED;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the {@link ReplicatedMapTest} with the copy-on-write storage.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ReplicatedMapCopyOnWriteStorageTest extends ReplicatedMapTest {
+
+    @Override
+    protected Config buildConfig(InMemoryFormat inMemoryFormat) {
+        return withCopyOnWriteStorage(super.buildConfig(inMemoryFormat));
+    }
+
+    @Override
+    protected Config buildConfig(Config config, InMemoryFormat inMemoryFormat) {
+        return withCopyOnWriteStorage(super.buildConfig(config, inMemoryFormat));
+    }
+
+    @Test
+    public void testStorageType_andReadsDoNotUpdateHits() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(buildConfig(InMemoryFormat.BINARY));
+        ReplicatedMap<String, String> map = instance.getReplicatedMap(randomName());
+        map.put("key", "value");
+
+        AbstractReplicatedRecordStore store = (AbstractReplicatedRecordStore) getStore(map, "key");
+        assertInstanceOf(CopyOnWriteReplicatedMapStorage.class, store.getStorage());
+
+        ReplicatedRecord<String, String> record = getReplicatedRecord(map, "key");
+        long hits = record.getHits();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value", map.get("key"));
+        }
+        assertEquals(hits, record.getHits());
+    }
+
+    private static Config withCopyOnWriteStorage(Config config) {
+        return config.setProperty(REPLICATED_MAP_COPY_ON_WRITE_STORAGE_ENABLED.getName(), "true");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.replicatedmap.impl.record;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CopyOnWriteReplicatedMapStorageTest extends HazelcastTestSupport {
+
+    private final CopyOnWriteReplicatedMapStorage<String, Integer> storage = new CopyOnWriteReplicatedMapStorage<>();
+
+    @Test
+    public void testPutAndGet() {
+        ReplicatedRecord<String, Integer> record = newRecord("key", 1);
+
+        assertNull(storage.put("key", record));
+        assertSame(record, storage.get("key"));
+        assertTrue(storage.containsKey("key"));
+        assertEquals(1, storage.size());
+        assertFalse(storage.isEmpty());
+    }
+
+    @Test
+    public void testPut_returnsOldRecord() {
+        ReplicatedRecord<String, Integer> oldRecord = newRecord("key", 1);
+        ReplicatedRecord<String, Integer> newRecord = newRecord("key", 2);
+        storage.put("key", oldRecord);
+
+        assertSame(oldRecord, storage.put("key", newRecord));
+        assertSame(newRecord, storage.get("key"));
+    }
+
+    @Test
+    public void testPutAll() {
+        Map<String, ReplicatedRecord<String, Integer>> records = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            records.put("key-" + i, newRecord("key-" + i, i));
+        }
+
+        storage.putAll(records);
+
+        assertEquals(100, storage.size());
+        assertEquals(records.keySet(), storage.keySet());
+    }
+
+    @Test
+    public void testRemove() {
+        ReplicatedRecord<String, Integer> record = newRecord("key", 1);
+        storage.put("key", record);
+
+        assertFalse(storage.remove("key", newRecord("key", 2)));
+        assertTrue(storage.remove("key", record));
+        assertFalse(storage.remove("key", record));
+        assertNull(storage.get("key"));
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        storage.put("key", newRecord("key", 1));
+
+        storage.clear();
+
+        assertTrue(storage.isEmpty());
+        assertNull(storage.get("key"));
+    }
+
+    @Test
+    public void testViews_areSnapshots() {
+        storage.put("key-1", newRecord("key-1", 1));
+        Set<String> keySet = storage.keySet();
+
+        storage.put("key-2", newRecord("key-2", 2));
+
+        assertEquals(1, keySet.size());
+        assertEquals(2, storage.keySet().size());
+        assertEquals(2, storage.values().size());
+        assertEquals(2, storage.entrySet().size());
+    }
+
+    @Test
+    public void testWrites_areBufferedUntilBatchIsFull() {
+        storage.put("removed", newRecord("removed", 0));
+        storage.keySet();
+        ReplicatedRecord<String, Integer> removedRecord = storage.get("removed");
+
+        assertTrue(storage.remove("removed", removedRecord));
+        for (int i = 1; i < CopyOnWriteReplicatedMapStorage.PUBLISH_BATCH_SIZE - 1; i++) {
+            storage.put("key-" + i, newRecord("key-" + i, i));
+        }
+
+        assertEquals(CopyOnWriteReplicatedMapStorage.PUBLISH_BATCH_SIZE - 1, storage.pendingWriteCount());
+        assertNull(storage.get("removed"));
+        assertFalse(storage.containsKey("removed"));
+        assertEquals(1, (int) storage.get("key-1").getValue());
+
+        storage.put("last", newRecord("last", -1));
+
+        assertEquals(0, storage.pendingWriteCount());
+        assertNull(storage.get("removed"));
+        assertEquals(1, (int) storage.get("key-1").getValue());
+        assertEquals(CopyOnWriteReplicatedMapStorage.PUBLISH_BATCH_SIZE - 1, storage.size());
+    }
+
+    @Test
+    public void testViews_containPendingWrites() {
+        storage.put("key", newRecord("key", 1));
+        assertEquals(1, storage.pendingWriteCount());
+
+        assertEquals(singleton("key"), storage.keySet());
+        assertEquals(0, storage.pendingWriteCount());
+    }
+
+    @Test
+    public void testClear_dropsPendingWrites() {
+        storage.put("key-1", newRecord("key-1", 1));
+        storage.keySet();
+        storage.put("key-2", newRecord("key-2", 2));
+
+        storage.clear();
+
+        assertEquals(0, storage.pendingWriteCount());
+        assertNull(storage.get("key-1"));
+        assertNull(storage.get("key-2"));
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViews_areNotModifiable() {
+        storage.put("key", newRecord("key", 1));
+
+        storage.keySet().remove("key");
+    }
+
+    private static ReplicatedRecord<String, Integer> newRecord(String key, int value) {
+        return new ReplicatedRecord<>(key, value, -1);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.ringbuffer.impl.OffHeapRingbuffer.INITIAL_REGION_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapRingbufferTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final List<OffHeapRingbuffer> ringbuffers = new ArrayList<>();
+    private UnsafeMallocMemoryManager memoryManager = new UnsafeMallocMemoryManager();
+
+    @After
+    public void tearDown() {
+        for (OffHeapRingbuffer ringbuffer : ringbuffers) {
+            ringbuffer.dispose();
+        }
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    @Test(expected = StaleSequenceException.class)
+    public void testReadStaleSequenceThrowsException() {
+        OffHeapRingbuffer rb = fullRingbuffer();
+        rb.read(rb.headSequence() - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadFutureSequenceThrowsException() {
+        OffHeapRingbuffer rb = fullRingbuffer();
+        rb.read(rb.tailSequence() + 1);
+    }
+
+    @Test
+    public void testAddAndRead() {
+        OffHeapRingbuffer rb = newRingbuffer(5);
+        assertTrue(rb.isEmpty());
+
+        long sequence = rb.add(toData("item"));
+
+        assertFalse(rb.isEmpty());
+        assertEquals(0, sequence);
+        assertEquals("item", ss.toObject(rb.read(sequence)));
+    }
+
+    @Test
+    public void testAdd_overwritesOldestItems() {
+        OffHeapRingbuffer rb = newRingbuffer(5);
+        for (int i = 0; i < 12; i++) {
+            rb.add(toData(i));
+        }
+
+        assertEquals(7, rb.headSequence());
+        assertEquals(11, rb.tailSequence());
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertEquals((int) seq, (int) ss.toObject(rb.read(seq)));
+        }
+    }
+
+    @Test
+    public void testCompaction_keepsLiveItems() {
+        OffHeapRingbuffer rb = newRingbuffer(10);
+        String value = new String(new char[500]).replace('\0', 'x');
+        for (int i = 0; i < 1000; i++) {
+            rb.add(toData(value + i));
+        }
+
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertEquals(value + seq, ss.toObject(rb.read(seq)));
+        }
+        // ten items of ~500 bytes never need more than twice their size
+        assertTrue(rb.regionSize() <= 4 * 10 * 600);
+    }
+
+    @Test
+    public void testSet_overwritesItem() {
+        OffHeapRingbuffer rb = fullRingbuffer();
+
+        rb.set(rb.headSequence(), toData("replaced"));
+        rb.set(rb.tailSequence(), null);
+
+        assertEquals("replaced", ss.toObject(rb.read(rb.headSequence())));
+        assertNull(rb.read(rb.tailSequence()));
+    }
+
+    @Test
+    public void testGetItems() {
+        OffHeapRingbuffer rb = newRingbuffer(3);
+        rb.add(toData("a"));
+        rb.add(toData("b"));
+        rb.add(toData("c"));
+        rb.add(toData("d"));
+
+        Data[] items = rb.getItems();
+
+        assertEquals(3, items.length);
+        assertEquals("d", ss.toObject(items[0]));
+        assertEquals("b", ss.toObject(items[1]));
+        assertEquals("c", ss.toObject(items[2]));
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapRingbuffer rb = newRingbuffer(10);
+        byte[] bytes = new byte[INITIAL_REGION_SIZE];
+        for (int i = 0; i < 10; i++) {
+            rb.add(toData(bytes));
+        }
+
+        rb.clear();
+
+        assertTrue(rb.isEmpty());
+        assertEquals(INITIAL_REGION_SIZE, rb.regionSize());
+        assertEquals(0, rb.add(toData("item")));
+        assertEquals("item", ss.toObject(rb.read(0)));
+    }
+
+    @Test
+    public void testCopyOf() {
+        ArrayRingbuffer<Data> source = new ArrayRingbuffer<>(4);
+        for (int i = 0; i < 6; i++) {
+            source.add(toData(i));
+        }
+
+        OffHeapRingbuffer copy = track(OffHeapRingbuffer.copyOf(source, memoryManager));
+
+        assertEquals(source.getCapacity(), copy.getCapacity());
+        assertEquals(source.headSequence(), copy.headSequence());
+        assertEquals(source.tailSequence(), copy.tailSequence());
+        for (long seq = source.headSequence(); seq <= source.tailSequence(); seq++) {
+            assertEquals(source.read(seq), copy.read(seq));
+        }
+    }
+
+    @Test
+    public void testCompaction_movesOverlappingItemsInPlace() {
+        OffHeapRingbuffer rb = newRingbuffer(4);
+        byte[] small = new byte[10];
+        byte[] big = new byte[3 * INITIAL_REGION_SIZE];
+        for (int i = 0; i < big.length; i++) {
+            big[i] = (byte) i;
+        }
+        rb.add(toData(small));
+        rb.add(toData(big));
+        rb.add(toData(small));
+        rb.add(toData(small));
+        // overwrites the first small item, so the big one is moved back by less than its length
+        rb.add(toData(big));
+
+        assertArrayEquals(big, ss.toObject(rb.read(1)));
+        assertArrayEquals(small, ss.toObject(rb.read(2)));
+        assertArrayEquals(big, ss.toObject(rb.read(4)));
+    }
+
+    @Test
+    public void testCompaction_shrinksRegion() {
+        OffHeapRingbuffer rb = newRingbuffer(2);
+        rb.add(toData(new byte[20 * INITIAL_REGION_SIZE]));
+        int bigRegionSize = rb.regionSize();
+
+        String value = new String(new char[1000]).replace('\0', 'x');
+        for (int i = 0; i < 100; i++) {
+            rb.add(toData(value + i));
+        }
+
+        assertTrue(rb.regionSize() < bigRegionSize);
+        assertEquals(value + 99, ss.toObject(rb.read(rb.tailSequence())));
+        assertEquals(rb.regionSize(), memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testAdd_keepsItemsOnHeap_whenMemoryBudgetIsUsedUp() {
+        memoryManager = new UnsafeMallocMemoryManager(2 * INITIAL_REGION_SIZE);
+        OffHeapRingbuffer rb = newRingbuffer(4);
+        byte[] big = new byte[3 * INITIAL_REGION_SIZE];
+
+        rb.add(toData("small"));
+        rb.add(toData(big));
+        rb.add(toData("other"));
+
+        assertEquals("small", ss.toObject(rb.read(0)));
+        assertArrayEquals(big, ss.toObject(rb.read(1)));
+        assertEquals("other", ss.toObject(rb.read(2)));
+        assertTrue(memoryManager.getRejectedAllocationCount() > 0);
+        assertTrue(memoryManager.getUsedMemory() <= 2 * INITIAL_REGION_SIZE);
+
+        rb.set(1, toData("replaced"));
+        assertEquals("replaced", ss.toObject(rb.read(1)));
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testCreate_failsWhenMemoryBudgetIsUsedUp() {
+        memoryManager = new UnsafeMallocMemoryManager(INITIAL_REGION_SIZE - 1);
+        newRingbuffer(4);
+    }
+
+    @Test
+    public void testDispose_freesMemory() {
+        OffHeapRingbuffer rb = newRingbuffer(10);
+        for (int i = 0; i < 10; i++) {
+            rb.add(toData(new byte[INITIAL_REGION_SIZE]));
+        }
+
+        rb.dispose();
+
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAdd_failsAfterDispose() {
+        OffHeapRingbuffer rb = newRingbuffer(10);
+        rb.dispose();
+
+        rb.add(toData("item"));
+    }
+
+    private OffHeapRingbuffer newRingbuffer(int capacity) {
+        return track(new OffHeapRingbuffer(capacity, memoryManager));
+    }
+
+    private OffHeapRingbuffer track(OffHeapRingbuffer ringbuffer) {
+        ringbuffers.add(ringbuffer);
+        return ringbuffer;
+    }
+
+    private OffHeapRingbuffer fullRingbuffer() {
+        OffHeapRingbuffer rb = newRingbuffer(5);
+        for (int i = 0; i < rb.getCapacity(); i++) {
+            rb.add(toData(i));
+        }
+        return rb;
+    }
+
+    private Data toData(Object value) {
+        return ss.toData(value);
+    }
+}
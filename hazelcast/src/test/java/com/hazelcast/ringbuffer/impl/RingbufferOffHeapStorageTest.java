@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.spi.properties.ClusterProperty.RINGBUFFER_OFF_HEAP_STORAGE_ENABLED;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RingbufferOffHeapStorageTest extends RingbufferAbstractTest {
+
+    private static TestHazelcastInstanceFactory factory
+            = new TestHazelcastInstanceFactory(2);
+    private static HazelcastInstance[] members;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        prepare(config -> members = factory.newInstances(
+                config.setProperty(RINGBUFFER_OFF_HEAP_STORAGE_ENABLED.getName(), "true")));
+    }
+
+    @Test
+    public void binaryRingbuffer_isStoredOffHeap() {
+        HazelcastInstance owner = members[0];
+        String name = randomNameOwnedBy(owner, "offHeap");
+        owner.getRingbuffer(name).add("item");
+
+        RingbufferService service = getNodeEngineImpl(owner).getService(RingbufferService.SERVICE_NAME);
+        int partitionId = owner.getPartitionService().getPartition(name).getPartitionId();
+        RingbufferContainer<Object, Object> container
+                = service.getContainerOrNull(partitionId, RingbufferService.getRingbufferNamespace(name));
+
+        assertInstanceOf(OffHeapRingbuffer.class, container.getRingbuffer());
+    }
+
+    @Test
+    public void destroy_freesOffHeapMemory() {
+        TestHazelcastInstanceFactory instanceFactory = new TestHazelcastInstanceFactory(1);
+        try {
+            HazelcastInstance hz = instanceFactory.newHazelcastInstance(
+                    smallInstanceConfig().setProperty(RINGBUFFER_OFF_HEAP_STORAGE_ENABLED.getName(), "true"));
+            RingbufferService service = getNodeEngineImpl(hz).getService(RingbufferService.SERVICE_NAME);
+            UnsafeMallocMemoryManager memoryManager = service.getOffHeapStorageMemoryManager();
+            Ringbuffer<String> ringbuffer = hz.getRingbuffer("offHeap");
+            ringbuffer.add("item");
+            assertTrue(memoryManager.getUsedMemory() > 0);
+
+            ringbuffer.destroy();
+
+            assertEquals(0, memoryManager.getUsedMemory());
+        } finally {
+            instanceFactory.terminateAll();
+        }
+    }
+
+    @Test
+    public void destroy_freesOffHeapMemoryOnPartitionThread() throws Exception {
+        TestHazelcastInstanceFactory instanceFactory = new TestHazelcastInstanceFactory(1);
+        try {
+            HazelcastInstance hz = instanceFactory.newHazelcastInstance(
+                    smallInstanceConfig().setProperty(RINGBUFFER_OFF_HEAP_STORAGE_ENABLED.getName(), "true"));
+            NodeEngineImpl nodeEngine = getNodeEngineImpl(hz);
+            RingbufferService service = nodeEngine.getService(RingbufferService.SERVICE_NAME);
+            UnsafeMallocMemoryManager memoryManager = service.getOffHeapStorageMemoryManager();
+            Ringbuffer<String> ringbuffer = hz.getRingbuffer("offHeap");
+            ringbuffer.add("item");
+            int partitionId = hz.getPartitionService().getPartition(ringbuffer.getName()).getPartitionId();
+
+            // keep the partition thread busy, as if it was running an operation on the ringbuffer
+            CountDownLatch partitionThreadBusy = new CountDownLatch(1);
+            CountDownLatch releasePartitionThread = new CountDownLatch(1);
+            nodeEngine.getOperationService().execute(new PartitionSpecificRunnable() {
+                @Override
+                public void run() {
+                    partitionThreadBusy.countDown();
+                    assertOpenEventually(releasePartitionThread);
+                }
+
+                @Override
+                public int getPartitionId() {
+                    return partitionId;
+                }
+            });
+            assertOpenEventually(partitionThreadBusy);
+            Future<?> destroyFuture = spawn(ringbuffer::destroy);
+
+            assertTrueAllTheTime(() -> assertTrue(memoryManager.getUsedMemory() > 0), 2);
+            releasePartitionThread.countDown();
+            destroyFuture.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+            assertEquals(0, memoryManager.getUsedMemory());
+        } finally {
+            instanceFactory.terminateAll();
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        factory.terminateAll();
+    }
+}
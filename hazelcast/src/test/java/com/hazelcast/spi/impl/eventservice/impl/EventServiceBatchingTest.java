@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.executor.StripedRunnable;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.spi.impl.eventservice.EventRegistration;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.OverridePropertyRule;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hazelcast.internal.util.UuidUtil.newUnsecureUUID;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.OverridePropertyRule.set;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EventServiceBatchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 500;
+    private static final int UPDATE_COUNT = 3;
+
+    // send every few events synchronously, so they follow batched events of the same key
+    @Rule
+    public final OverridePropertyRule syncFrequencyRule = set(EventServiceImpl.EVENT_SYNC_FREQUENCY_PROP, "7");
+
+    @Test
+    public void testRemoteEvents_deliveredInOrder_whenBatched() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.EVENT_BATCH_MAX_DELAY_MILLIS.getName(), "20")
+                .setProperty(ClusterProperty.EVENT_BATCH_MAX_SIZE.getName(), "16");
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        RecordingListener listener = new RecordingListener();
+        hz2.getMap(mapName).addEntryListener(listener, true);
+
+        IMap<Integer, Integer> map = hz1.getMap(mapName);
+        for (int value = 0; value < UPDATE_COUNT; value++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                map.put(key, value);
+            }
+        }
+
+        assertTrueEventually(() -> assertEquals(KEY_COUNT * UPDATE_COUNT, listener.eventCount.get()));
+        List<Integer> expected = Arrays.asList(0, 1, 2);
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals("key: " + key, expected, listener.values.get(key));
+        }
+    }
+
+    @Test
+    public void testSyncEvents_doNotOvertakeBatchedEvents() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.EVENT_BATCH_MAX_DELAY_MILLIS.getName(), "20")
+                .setProperty(ClusterProperty.EVENT_BATCH_MAX_SIZE.getName(), "16");
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        RecordingListener listener = new RecordingListener();
+        hz2.getMap(mapName).addEntryListener(listener, true);
+
+        int keyCount = 4;
+        int updateCount = 200;
+        IMap<Integer, Integer> map = hz1.getMap(mapName);
+        for (int value = 0; value < updateCount; value++) {
+            for (int key = 0; key < keyCount; key++) {
+                map.put(key, value);
+            }
+        }
+
+        assertTrueEventually(() -> assertEquals(keyCount * updateCount, listener.eventCount.get()));
+        List<Integer> expected = IntStream.range(0, updateCount).boxed().collect(Collectors.toList());
+        for (int key = 0; key < keyCount; key++) {
+            assertEquals("key: " + key, expected, listener.values.get(key));
+        }
+    }
+
+    @Test
+    public void testExecuteBatch_doesNotBlock_andCountsRejectedEventsPerListener() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(ClusterProperty.EVENT_THREAD_COUNT.getName(), "2")
+                .setProperty(ClusterProperty.EVENT_QUEUE_CAPACITY.getName(), "1");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(hz).getEventService();
+
+        String mapName = randomMapName();
+        hz.getMap(mapName).addEntryListener(new RecordingListener(), true);
+        Registration registration = (Registration) eventService.getRegistrations(MapService.SERVICE_NAME, mapName)
+                .toArray(new EventRegistration[0])[0];
+
+        // occupy the event thread of the odd order keys and fill its queue
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        eventService.executeEventCallback(onStripe(1, () -> {
+            started.countDown();
+            assertOpenEventually(release);
+        }));
+        assertOpenEventually(started);
+        eventService.executeEventCallback(onStripe(1, () -> { }));
+
+        EventEnvelope[] envelopes = new EventEnvelope[3];
+        Arrays.fill(envelopes, new EventEnvelope(registration.getId(), MapService.SERVICE_NAME, "event"));
+        EventEnvelopeBatch batch = new EventEnvelopeBatch(envelopes, new int[]{1, 3, 5});
+        try {
+            // unpacked on the thread of the even order keys, the events are handed over
+            Future<?> future = spawn(() -> eventService.executeBatch(batch, 0));
+            assertNull(future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+            assertEquals(3, registration.getRejectedCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testEnvelopeBatch_serialization() {
+        EventEnvelope[] envelopes = {
+                new EventEnvelope(newUnsecureUUID(), "service-1", "event-1"),
+                new EventEnvelope(newUnsecureUUID(), "service-2", "event-2"),
+        };
+        EventEnvelopeBatch batch = new EventEnvelopeBatch(envelopes, new int[]{7, -3});
+
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        EventEnvelopeBatch copy = serializationService.toObject(serializationService.toData(batch));
+
+        assertEquals(2, copy.size());
+        for (int i = 0; i < envelopes.length; i++) {
+            assertEquals(envelopes[i].getEventId(), copy.getEnvelope(i).getEventId());
+            assertEquals(envelopes[i].getServiceName(), copy.getEnvelope(i).getServiceName());
+            assertEquals(envelopes[i].getEvent(), copy.getEnvelope(i).getEvent());
+        }
+        assertEquals(7, copy.getOrderKey(0));
+        assertEquals(-3, copy.getOrderKey(1));
+    }
+
+    private static StripedRunnable onStripe(int key, Runnable task) {
+        return new StripedRunnable() {
+            @Override
+            public int getKey() {
+                return key;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        };
+    }
+
+    private static class RecordingListener
+            implements EntryAddedListener<Integer, Integer>, EntryUpdatedListener<Integer, Integer> {
+
+        private final Map<Integer, List<Integer>> values = new ConcurrentHashMap<>();
+        private final AtomicInteger eventCount = new AtomicInteger();
+
+        @Override
+        public void entryAdded(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        private void record(EntryEvent<Integer, Integer> event) {
+            values.computeIfAbsent(event.getKey(), key -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(event.getValue());
+            eventCount.incrementAndGet();
+        }
+    }
+}
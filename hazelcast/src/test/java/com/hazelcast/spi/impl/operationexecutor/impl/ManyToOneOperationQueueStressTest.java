@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestThread;
+import com.hazelcast.test.annotation.NightlyTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(NightlyTest.class)
+public class ManyToOneOperationQueueStressTest extends HazelcastTestSupport {
+
+    private static final int PRODUCER_COUNT = 4;
+
+    // small capacities so the overflow queues are exercised as well
+    private final ManyToOneOperationQueue queue = new ManyToOneOperationQueue(64, 16, null);
+    private final AtomicBoolean stop = new AtomicBoolean();
+
+    @Test
+    public void testMultipleProducers() {
+        int testDurationSeconds = 10;
+
+        ConsumerThread consumer = new ConsumerThread();
+        queue.setConsumerThread(consumer);
+        ProducerThread[] producers = new ProducerThread[PRODUCER_COUNT];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new ProducerThread(i);
+        }
+
+        consumer.start();
+        for (ProducerThread producer : producers) {
+            producer.start();
+        }
+
+        sleepAndStop(stop, testDurationSeconds);
+
+        long produced = 0;
+        for (ProducerThread producer : producers) {
+            producer.assertSucceedsEventually();
+            produced += producer.produced;
+        }
+        consumer.assertSucceedsEventually();
+
+        assertEquals(produced, consumer.consumed);
+    }
+
+    private static final class Task {
+        final int producerId;
+        final boolean priority;
+        final long sequence;
+
+        Task(int producerId, boolean priority, long sequence) {
+            this.producerId = producerId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    private class ProducerThread extends TestThread {
+        private final int id;
+        private volatile long produced;
+
+        ProducerThread(int id) {
+            super("ProducerThread-" + id);
+            this.id = id;
+        }
+
+        @Override
+        public void doRun() throws Throwable {
+            Random random = new Random();
+            long normalSequence = 0;
+            long prioritySequence = 0;
+            while (!stop.get()) {
+                if (random.nextInt(5) == 0) {
+                    queue.add(new Task(id, true, prioritySequence++), true);
+                } else {
+                    queue.add(new Task(id, false, normalSequence++), false);
+                }
+                produced++;
+                if (random.nextInt(1000) == 0) {
+                    // give the consumer a chance to block
+                    sleepMillis(1);
+                }
+            }
+
+            queue.add(new Task(id, false, -1), false);
+        }
+    }
+
+    private class ConsumerThread extends TestThread {
+        private final long[] lastNormalSequence = new long[PRODUCER_COUNT];
+        private final long[] lastPrioritySequence = new long[PRODUCER_COUNT];
+        private volatile long consumed;
+
+        ConsumerThread() {
+            super("ConsumerThread");
+        }
+
+        @Override
+        public void doRun() throws Throwable {
+            int poisonPills = 0;
+            for (int i = 0; i < PRODUCER_COUNT; i++) {
+                lastNormalSequence[i] = -1;
+                lastPrioritySequence[i] = -1;
+            }
+            while (poisonPills < PRODUCER_COUNT) {
+                Task task = (Task) queue.take(false);
+                if (task.sequence == -1) {
+                    poisonPills++;
+                    continue;
+                }
+
+                // tasks of a single producer are taken in FIFO order
+                long[] lastSequence = task.priority ? lastPrioritySequence : lastNormalSequence;
+                assertEquals(lastSequence[task.producerId] + 1, task.sequence);
+                lastSequence[task.producerId] = task.sequence;
+                consumed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ManyToOneOperationQueueTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 4;
+
+    private ManyToOneOperationQueue operationQueue;
+
+    @Before
+    public void setup() {
+        operationQueue = new ManyToOneOperationQueue(CAPACITY, CAPACITY, null);
+    }
+
+    // ================== add =====================
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenFull_thenOverflow() {
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            operationQueue.add("task" + i, false);
+        }
+
+        assertEquals(3 * CAPACITY, operationQueue.normalSize());
+    }
+
+    // ================== take =====================
+
+    @Test
+    public void take_whenRegularItemAvailable() throws InterruptedException {
+        operationQueue.add("task1", false);
+        operationQueue.add("task2", false);
+        operationQueue.add("task3", false);
+
+        assertSame("task1", operationQueue.take(false));
+        assertSame("task2", operationQueue.take(false));
+        assertSame("task3", operationQueue.take(false));
+
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        operationQueue.add("normal1", false);
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal2", false);
+        operationQueue.add("priority2", true);
+
+        assertSame("priority1", operationQueue.take(false));
+        assertSame("priority2", operationQueue.take(false));
+        assertSame("normal1", operationQueue.take(false));
+        assertSame("normal2", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+    }
+
+    @Test
+    public void take_whenOverflow_thenOrderRetained() throws InterruptedException {
+        int count = 5 * CAPACITY;
+        int next = 0;
+        int expected = 0;
+        while (next < count) {
+            operationQueue.add(next++, false);
+        }
+        // free some array slots while the overflow queue is still in use
+        while (expected < CAPACITY) {
+            assertEquals(expected++, operationQueue.take(false));
+        }
+        while (next < 2 * count) {
+            operationQueue.add(next++, false);
+        }
+
+        while (expected < 2 * count) {
+            assertEquals(expected++, operationQueue.take(false));
+        }
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillItemAvailable() throws Exception {
+        operationQueue.setConsumerThread(Thread.currentThread());
+        Future<?> future = spawn(() -> {
+            sleepMillis(500);
+            operationQueue.add("task", false);
+        });
+
+        assertSame("task", operationQueue.take(false));
+        future.get();
+    }
+
+    @Test
+    public void take_whenIdleStrategy_thenTakeWhenItemAvailable() throws Exception {
+        operationQueue = new ManyToOneOperationQueue(CAPACITY, CAPACITY,
+                new BackoffIdleStrategy(0, 0, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(10)));
+        operationQueue.setConsumerThread(Thread.currentThread());
+
+        Future<?> future = spawn(() -> {
+            sleepMillis(500);
+            operationQueue.add("task", true);
+        });
+
+        assertSame("task", operationQueue.take(false));
+        future.get();
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws InterruptedException {
+        Thread.currentThread().interrupt();
+
+        operationQueue.take(false);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.expression.columnar;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.row.ColumnarBatch;
+import com.hazelcast.sql.impl.row.ColumnarBatchBuilder;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarExpressionTest {
+
+    private static final QueryDataType[] TYPES = {QueryDataType.INT, QueryDataType.DOUBLE, QueryDataType.VARCHAR};
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final ExpressionEvalContext context = new ExpressionEvalContext(emptyList(), ss);
+
+    @Test
+    public void test_filter_matchesRowEvaluation() {
+        ColumnarBatch batch = build(rows());
+
+        for (ComparisonMode mode : ComparisonMode.values()) {
+            for (int value = -1; value <= 5; value++) {
+                checkFilter(batch, ComparisonPredicate.create(column(0), constant(value), mode));
+                checkFilter(batch, ComparisonPredicate.create(constant(value), column(0), mode));
+                checkFilter(batch, ComparisonPredicate.create(column(1), constant(value + 0.5d), mode));
+                checkFilter(batch, AndPredicate.create(
+                        ComparisonPredicate.create(column(0), constant(value), mode),
+                        OrPredicate.create(IsNullPredicate.create(column(2)),
+                                ComparisonPredicate.create(column(2), ConstantExpression.create("c", QueryDataType.VARCHAR),
+                                        ComparisonMode.NOT_EQUALS))));
+            }
+        }
+    }
+
+    @Test
+    public void test_filter_appliedToSelection() {
+        ColumnarBatch batch = build(rows());
+        Expression<Boolean> first = ComparisonPredicate.create(column(0), constant(1), ComparisonMode.GREATER_THAN);
+        Expression<Boolean> second = ComparisonPredicate.create(column(0), constant(4), ComparisonMode.LESS_THAN);
+
+        ColumnarBatch filtered = new ColumnarFilter(second, context).apply(new ColumnarFilter(first, context).apply(batch));
+
+        checkFilter(filtered, AndPredicate.create(first, second));
+    }
+
+    @Test
+    public void test_filter_allRowsPass() {
+        ColumnarBatch batch = build(rows());
+        Expression<Boolean> predicate = ComparisonPredicate.create(column(0), constant(100), ComparisonMode.NOT_EQUALS);
+        ColumnarBatch passing = new ColumnarFilter(predicate, context).apply(batch);
+
+        // the row with the NULL value doesn't pass
+        assertEquals(batch.getRowCount() - 1, passing.getRowCount());
+        assertSame(passing, new ColumnarFilter(predicate, context).apply(passing));
+    }
+
+    @Test
+    public void test_filter_noRowsPass() {
+        Expression<Boolean> predicate = ComparisonPredicate.create(column(0), constant(100), ComparisonMode.EQUALS);
+
+        assertNull(new ColumnarFilter(predicate, context).apply(build(rows())));
+    }
+
+    @Test
+    public void test_projection() {
+        List<JetSqlRow> rows = rows();
+        ColumnarBatch batch = build(rows).withSelection(new int[]{1, 3, 4}, 3);
+        List<Expression<?>> projection = asList(
+                column(2),
+                PlusFunction.create(column(0), constant(1), QueryDataType.INT),
+                column(1));
+
+        ColumnarBatch projected = new ColumnarProjection(projection, context).apply(batch);
+
+        assertSame(batch.getColumn(2), projected.getColumn(0));
+        assertSame(batch.getColumn(1), projected.getColumn(2));
+        List<JetSqlRow> expected = new ArrayList<>();
+        for (int i : new int[]{1, 3, 4}) {
+            Object[] values = new Object[projection.size()];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = projection.get(j).eval(rows.get(i).getRow(), context);
+            }
+            expected.add(new JetSqlRow(ss, values));
+        }
+        assertEquals(expected, projected.toJetSqlRows());
+    }
+
+    private void checkFilter(ColumnarBatch batch, Expression<Boolean> predicate) {
+        List<JetSqlRow> expected = new ArrayList<>();
+        for (JetSqlRow row : batch.toJetSqlRows()) {
+            if (Boolean.TRUE.equals(predicate.eval(row.getRow(), context))) {
+                expected.add(row);
+            }
+        }
+
+        ColumnarBatch filtered = new ColumnarFilter(predicate, context).apply(batch);
+
+        assertEquals(predicate.toString(), expected, filtered == null ? emptyList() : filtered.toJetSqlRows());
+    }
+
+    private ColumnarBatch build(List<JetSqlRow> rows) {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(ss, TYPES, rows.size());
+        rows.forEach(builder::add);
+        return builder.build();
+    }
+
+    private List<JetSqlRow> rows() {
+        List<JetSqlRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(new JetSqlRow(ss, new Object[]{i, i + 0.5d, String.valueOf((char) ('a' + i))}));
+        }
+        rows.add(new JetSqlRow(ss, new Object[]{null, null, null}));
+        return rows;
+    }
+
+    private static Expression<?> column(int index) {
+        return ColumnExpression.create(index, TYPES[index]);
+    }
+
+    private static Expression<?> constant(Object value) {
+        return ConstantExpression.create(value, value instanceof Integer ? QueryDataType.INT : QueryDataType.DOUBLE);
+    }
+}
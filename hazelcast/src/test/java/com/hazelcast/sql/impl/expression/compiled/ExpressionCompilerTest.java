@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiled;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.MinusFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.row.HeapRow;
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.TestJavaSerializationUtils;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpressionCompilerTest {
+
+    private static final ExpressionEvalContext CONTEXT = mock(ExpressionEvalContext.class);
+
+    private static final QueryDataType[] NUMERIC_TYPES = {
+            QueryDataType.TINYINT,
+            QueryDataType.SMALLINT,
+            QueryDataType.INT,
+            QueryDataType.BIGINT,
+            QueryDataType.REAL,
+            QueryDataType.DOUBLE
+    };
+    private static final int BOOLEAN_COLUMN = NUMERIC_TYPES.length;
+
+    private static final List<Row> ROWS = new ArrayList<>();
+
+    static {
+        Object[][] values = {
+                {(byte) 0, (byte) 1, (byte) -1, Byte.MIN_VALUE, Byte.MAX_VALUE, null},
+                {(short) 0, (short) 2, (short) -1, Short.MIN_VALUE, Short.MAX_VALUE, null},
+                {0, 3, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, null},
+                {0L, 4L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, null},
+                {0.0f, 5.5f, -0.0f, Float.NaN, Float.MAX_VALUE, null},
+                {0.0d, 6.5d, -0.0d, Double.NaN, Double.MAX_VALUE, null},
+                {false, true, false, true, null, null}
+        };
+        // all combinations of the values of a column with the values of the next column
+        int count = values[0].length;
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < count; j++) {
+                Object[] row = new Object[values.length];
+                for (int column = 0; column < values.length; column++) {
+                    row[column] = values[column][(column % 2 == 0 ? i : j)];
+                }
+                ROWS.add(new HeapRow(row));
+            }
+        }
+    }
+
+    @Test
+    public void when_arithmetic_then_sameAsInterpreted() {
+        for (int i = 0; i < NUMERIC_TYPES.length; i++) {
+            for (int j = 0; j < NUMERIC_TYPES.length; j++) {
+                QueryDataType resultType = widest(NUMERIC_TYPES[i], NUMERIC_TYPES[j]);
+                Expression<?> left = column(i);
+                Expression<?> right = column(j);
+
+                assertSameAsInterpreted(PlusFunction.create(left, right, resultType));
+                assertSameAsInterpreted(MinusFunction.create(left, right, resultType));
+                assertSameAsInterpreted(MultiplyFunction.create(left, right, resultType));
+                assertSameAsInterpreted(DivideFunction.create(left, right, resultType));
+            }
+            assertSameAsInterpreted(UnaryMinusFunction.create(column(i), NUMERIC_TYPES[i]));
+        }
+    }
+
+    @Test
+    public void when_nestedArithmetic_then_sameAsInterpreted() {
+        Expression<?> sum = PlusFunction.create(column(0), column(2), QueryDataType.INT);
+        Expression<?> product = MultiplyFunction.create(sum, column(3), QueryDataType.BIGINT);
+        Expression<?> quotient = DivideFunction.create(product, column(5), QueryDataType.DOUBLE);
+
+        assertTrue(ExpressionCompiler.compile(quotient) instanceof CompiledExpression);
+        assertSameAsInterpreted(product);
+        assertSameAsInterpreted(quotient);
+        assertSameAsInterpreted(UnaryMinusFunction.create(quotient, QueryDataType.DOUBLE));
+        assertSameAsInterpreted(MinusFunction.create(column(4), column(4), QueryDataType.REAL));
+    }
+
+    @Test
+    public void when_comparison_then_sameAsInterpreted() {
+        for (ComparisonMode mode : ComparisonMode.values()) {
+            for (int i = 0; i <= BOOLEAN_COLUMN; i++) {
+                assertSameAsInterpreted(ComparisonPredicate.create(column(i), column(i), mode));
+                assertSameAsInterpreted(ComparisonPredicate.create(column(i), constant(i), mode));
+            }
+            Expression<?> sum = PlusFunction.create(column(2), column(2), QueryDataType.INT);
+            assertSameAsInterpreted(ComparisonPredicate.create(sum, column(2), mode));
+        }
+    }
+
+    @Test
+    public void when_logic_then_sameAsInterpreted() {
+        Expression<?> bool = column(BOOLEAN_COLUMN);
+        Expression<?> comparison = ComparisonPredicate.create(column(3), constant(3), ComparisonMode.GREATER_THAN);
+
+        assertSameAsInterpreted(AndPredicate.create(bool, comparison));
+        assertSameAsInterpreted(OrPredicate.create(bool, comparison));
+        assertSameAsInterpreted(AndPredicate.create(OrPredicate.create(bool, comparison), NotPredicate.create(bool)));
+        assertSameAsInterpreted(NotPredicate.create(comparison));
+        for (int i = 0; i <= BOOLEAN_COLUMN; i++) {
+            assertSameAsInterpreted(IsNullPredicate.create(column(i)));
+            assertSameAsInterpreted(IsNotNullPredicate.create(column(i)));
+        }
+    }
+
+    @Test
+    public void when_unsupportedOperand_then_interpretedOperand() {
+        Expression<?> decimal = ConstantExpression.create(BigDecimal.ONE, QueryDataType.DECIMAL);
+        Expression<?> decimalSum = PlusFunction.create(decimal, decimal, QueryDataType.DECIMAL);
+        Expression<?> comparison = ComparisonPredicate.create(decimalSum, decimal, ComparisonMode.EQUALS);
+
+        Expression<?> and = AndPredicate.create(comparison, column(BOOLEAN_COLUMN));
+        assertTrue(ExpressionCompiler.compile(and) instanceof CompiledExpression);
+        assertSameAsInterpreted(and);
+    }
+
+    @Test
+    public void when_nothingToCompile_then_sameExpression() {
+        Expression<?> column = column(2);
+        Expression<?> decimal = ConstantExpression.create(BigDecimal.ONE, QueryDataType.DECIMAL);
+        Expression<?> decimalSum = PlusFunction.create(decimal, decimal, QueryDataType.DECIMAL);
+
+        assertSame(column, ExpressionCompiler.compile(column));
+        assertSame(decimalSum, ExpressionCompiler.compile(decimalSum));
+    }
+
+    @Test
+    public void when_serialized_then_compiledAgain() throws Exception {
+        Expression<?> sum = PlusFunction.create(column(0), column(2), QueryDataType.INT);
+        Expression<?> comparison = ComparisonPredicate.create(sum, column(3), ComparisonMode.LESS_THAN);
+        Expression<?> compiled = ExpressionCompiler.compile(AndPredicate.create(comparison, column(BOOLEAN_COLUMN)));
+        assertTrue(compiled instanceof CompiledExpression);
+
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        Expression<?> deserialized = ss.toObject(ss.toData(compiled));
+        assertTrue(deserialized instanceof CompiledExpression);
+        assertSameAsInterpreted(((CompiledExpression<?>) compiled).getSource(), deserialized);
+
+        deserialized = TestJavaSerializationUtils.serializeAndDeserialize(compiled);
+        assertTrue(deserialized instanceof CompiledExpression);
+        assertSameAsInterpreted(((CompiledExpression<?>) compiled).getSource(), deserialized);
+    }
+
+    private static void assertSameAsInterpreted(Expression<?> expression) {
+        assertSameAsInterpreted(expression, ExpressionCompiler.compile(expression));
+    }
+
+    private static void assertSameAsInterpreted(Expression<?> expression, Expression<?> compiled) {
+        assertEquals(expression.getType(), compiled.getType());
+
+        for (Row row : ROWS) {
+            Object expected;
+            try {
+                expected = expression.eval(row, CONTEXT);
+            } catch (Exception e) {
+                expected = e;
+            }
+
+            Object actual;
+            try {
+                actual = compiled.eval(row, CONTEXT);
+            } catch (Exception e) {
+                actual = e;
+            }
+
+            if (expected instanceof Exception) {
+                assertNotNull(expression + " " + row, actual);
+                assertEquals(expression + " " + row, expected.getClass(), actual.getClass());
+                assertEquals(expression + " " + row, ((Exception) expected).getMessage(), ((Exception) actual).getMessage());
+            } else {
+                assertFalse(expression + " " + row + " " + actual, actual instanceof Exception);
+                assertEquals(expression + " " + row, expected, actual);
+            }
+        }
+    }
+
+    private static Expression<?> column(int index) {
+        return ColumnExpression.create(index, index == BOOLEAN_COLUMN ? QueryDataType.BOOLEAN : NUMERIC_TYPES[index]);
+    }
+
+    private static Expression<?> constant(int index) {
+        return ConstantExpression.create(ROWS.get(1).get(index), column(index).getType());
+    }
+
+    private static QueryDataType widest(QueryDataType type1, QueryDataType type2) {
+        return type1.getTypeFamily().getPrecedence() >= type2.getTypeFamily().getPrecedence() ? type1 : type2;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2022, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.sql.impl.row;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarBatchTest {
+
+    private static final QueryDataType[] TYPES = {
+            QueryDataType.TINYINT,
+            QueryDataType.INT,
+            QueryDataType.BIGINT,
+            QueryDataType.REAL,
+            QueryDataType.DOUBLE,
+            QueryDataType.VARCHAR,
+            QueryDataType.OBJECT
+    };
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void test_builderRoundTrip() {
+        List<JetSqlRow> rows = rows();
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(ss, TYPES, 10);
+        assertTrue(builder.isEmpty());
+        rows.forEach(builder::add);
+        assertFalse(builder.isFull());
+
+        ColumnarBatch batch = builder.build();
+
+        assertTrue(builder.isEmpty());
+        assertEquals(rows, batch.toJetSqlRows());
+        assertEquals(asList(1L, "b"), asList(batch.getRow(1).get(2), batch.getRow(1).get(5)));
+    }
+
+    @Test
+    public void test_builderFull() {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(ss, new QueryDataType[]{QueryDataType.INT}, 2);
+        builder.add(new JetSqlRow(ss, new Object[]{1}));
+        builder.add(new JetSqlRow(ss, new Object[]{2}));
+        assertTrue(builder.isFull());
+        assertEquals(2, builder.build().getRowCount());
+
+        builder.add(new JetSqlRow(ss, new Object[]{3}));
+        assertEquals(singletonList(new JetSqlRow(ss, new Object[]{3})), builder.build().toJetSqlRows());
+    }
+
+    @Test
+    public void test_selection() {
+        List<JetSqlRow> rows = rows();
+        ColumnarBatch batch = build(rows).withSelection(new int[]{0, 2, 99}, 2);
+
+        assertEquals(2, batch.getRowCount());
+        assertEquals(2, batch.physicalIndex(1));
+        assertEquals(asList(rows.get(0), rows.get(2)), batch.toJetSqlRows());
+    }
+
+    @Test
+    public void test_serialization() {
+        List<JetSqlRow> rows = rows();
+        ColumnarBatch batch = build(rows).withSelection(new int[]{1, 2}, 2);
+
+        ColumnarBatch deserialized = ss.toObject(ss.toData(batch));
+
+        assertEquals(2, deserialized.getPhysicalRowCount());
+        assertEquals(asList(rows.get(1), rows.get(2)), deserialized.toJetSqlRows());
+    }
+
+    @Test
+    public void test_accumulateFn() {
+        List<JetSqlRow> accumulated = new ArrayList<>();
+        ColumnarBatch batch = build(rows()).withSelection(new int[]{2}, 1);
+
+        ColumnarBatch.<List<JetSqlRow>>accumulateFn(List::add).accept(accumulated, batch);
+
+        assertEquals(batch.toJetSqlRows(), accumulated);
+    }
+
+    private ColumnarBatch build(List<JetSqlRow> rows) {
+        ColumnarBatchBuilder builder = new ColumnarBatchBuilder(ss, TYPES, rows.size());
+        rows.forEach(builder::add);
+        return builder.build();
+    }
+
+    private List<JetSqlRow> rows() {
+        return Arrays.asList(
+                new JetSqlRow(ss, new Object[]{(byte) 1, 1, 0L, 1.5f, 0.5d, "a", ss.toData(new ArrayList<>())}),
+                new JetSqlRow(ss, new Object[]{Byte.MIN_VALUE, Integer.MAX_VALUE, 1L, Float.NaN, -0.0d, "b", "x"}),
+                new JetSqlRow(ss, new Object[]{null, null, null, null, null, null, null})
+        );
+    }
+}
@@ -455,4 +455,27 @@ public class MerkleTreeUtilTest {
         Collection<Integer> deltaOrders = MerkleTreeUtil.compareTrees(merkleTree, remoteMerkleTreeView);
         assertTrue(deltaOrders.isEmpty());
     }
+
+    @Test
+    public void testGetLeavesAndCreateRemoteMerkleTreeView() {
+        MerkleTree merkleTree = new ArrayMerkleTree(4);
+        merkleTree.updateAdd(0x80000000, 1); // leaf 7
+        merkleTree.updateAdd(0x00000000, 5); // leaf 11
+        merkleTree.updateAdd(0x60000000, 8); // leaf 14
+
+        int[] leaves = MerkleTreeUtil.getLeaves(merkleTree);
+        assertEquals(8, leaves.length);
+        assertEquals(merkleTree.getNodeHash(7), leaves[0]);
+        assertEquals(merkleTree.getNodeHash(11), leaves[4]);
+        assertEquals(merkleTree.getNodeHash(14), leaves[7]);
+
+        RemoteMerkleTreeView remoteMerkleTreeView = MerkleTreeUtil.createRemoteMerkleTreeView(leaves);
+        assertEquals(4, remoteMerkleTreeView.depth());
+        assertEquals(merkleTree.getNodeHash(0), remoteMerkleTreeView.getNodeHash(0));
+
+        merkleTree.updateAdd(0x00000000, 6); // leaf 11
+        Collection<Integer> deltaOrders = MerkleTreeUtil.compareTrees(merkleTree, remoteMerkleTreeView);
+        assertEquals(1, deltaOrders.size());
+        assertTrue(deltaOrders.contains(11));
+    }
 }